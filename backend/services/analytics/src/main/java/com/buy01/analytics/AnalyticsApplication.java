@@ -0,0 +1,13 @@
+package com.buy01.analytics;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+@SpringBootApplication
+public class AnalyticsApplication {
+
+	public static void main(String[] args) {
+		SpringApplication.run(AnalyticsApplication.class, args);
+	}
+
+}
@@ -0,0 +1,26 @@
+package com.buy01.analytics.config;
+
+import com.buy01.analytics.dto.OrderEvent;
+import com.buy01.analytics.service.SalesTopology;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.kstream.KStream;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.annotation.EnableKafkaStreams;
+import org.springframework.kafka.config.StreamsBuilderFactoryBean;
+import org.springframework.kafka.streams.KafkaStreamsInteractiveQueryService;
+
+@Configuration
+@EnableKafkaStreams
+public class KafkaStreamsConfig {
+
+    @Bean
+    public KStream<String, OrderEvent> salesStream(StreamsBuilder streamsBuilder, SalesTopology salesTopology) {
+        return salesTopology.build(streamsBuilder);
+    }
+
+    @Bean
+    public KafkaStreamsInteractiveQueryService interactiveQueryService(StreamsBuilderFactoryBean factoryBean) {
+        return new KafkaStreamsInteractiveQueryService(factoryBean);
+    }
+}
@@ -0,0 +1,121 @@
+package com.buy01.analytics.controller;
+
+import com.buy01.analytics.dto.SalesReport;
+import com.buy01.analytics.model.Dimension;
+import com.buy01.analytics.model.Granularity;
+import com.buy01.analytics.service.SalesQueryService;
+
+import lombok.RequiredArgsConstructor;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestClientResponseException;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/v1/analytics")
+@RequiredArgsConstructor
+public class AnalyticsController {
+
+    private final SalesQueryService salesQueryService;
+
+    /**
+     * GET /api/v1/analytics/sellers/me?granularity=DAY&from=&to=
+     * Windowed sales of the authenticated seller.
+     */
+    @GetMapping("/sellers/me")
+    @PreAuthorize("hasAnyRole('ADMIN','SELLER')")
+    public ResponseEntity<?> getMySales(
+            @RequestParam(defaultValue = "DAY") String granularity,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestHeader(HttpHeaders.AUTHORIZATION) String authorization,
+            Authentication authentication) {
+        String sellerId = (String) authentication.getCredentials();
+        return report(Dimension.SELLER, sellerId, granularity, from, to, authorization, false, authentication);
+    }
+
+    /**
+     * GET /api/v1/analytics/sellers/{sellerId}?granularity=DAY&from=&to=
+     * Windowed sales of a seller (ADMIN, or the seller itself).
+     */
+    @GetMapping("/sellers/{sellerId}")
+    @PreAuthorize("hasAnyRole('ADMIN','SELLER')")
+    public ResponseEntity<?> getSellerSales(
+            @PathVariable String sellerId,
+            @RequestParam(defaultValue = "DAY") String granularity,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestHeader(HttpHeaders.AUTHORIZATION) String authorization,
+            @RequestHeader(value = SalesQueryService.FORWARDED_HEADER, required = false) boolean forwarded,
+            Authentication authentication) {
+        if (!isAdmin(authentication) && !sellerId.equals(authentication.getCredentials())) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", "Not your sales"));
+        }
+        return report(Dimension.SELLER, sellerId, granularity, from, to, authorization, forwarded, authentication);
+    }
+
+    /**
+     * GET /api/v1/analytics/products/{productId}?granularity=DAY&from=&to=
+     * Windowed sales of a product (ADMIN, or the seller of the product).
+     */
+    @GetMapping("/products/{productId}")
+    @PreAuthorize("hasAnyRole('ADMIN','SELLER')")
+    public ResponseEntity<?> getProductSales(
+            @PathVariable String productId,
+            @RequestParam(defaultValue = "DAY") String granularity,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestHeader(HttpHeaders.AUTHORIZATION) String authorization,
+            @RequestHeader(value = SalesQueryService.FORWARDED_HEADER, required = false) boolean forwarded,
+            Authentication authentication) {
+        return report(Dimension.PRODUCT, productId, granularity, from, to, authorization, forwarded, authentication);
+    }
+
+    private ResponseEntity<?> report(Dimension dimension, String key, String granularityStr,
+            LocalDateTime from, LocalDateTime to, String authorization, boolean forwarded,
+            Authentication authentication) {
+        Granularity granularity;
+        try {
+            granularity = Granularity.valueOf(granularityStr.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid granularity: " + granularityStr));
+        }
+        LocalDateTime end = to != null ? to : LocalDateTime.now(ZoneOffset.UTC);
+        LocalDateTime start = from != null ? from : end.minus(granularity.getDefaultSpan());
+        if (start.isAfter(end)) {
+            return ResponseEntity.badRequest().body(Map.of("error", "from must be before to"));
+        }
+
+        try {
+            SalesReport report = salesQueryService.getReport(dimension, key, granularity, start, end,
+                    authorization, forwarded);
+            // Product rollups carry their seller: only they (and admins) may read them
+            if (report.getSellerId() != null && !isAdmin(authentication)
+                    && !report.getSellerId().equals(authentication.getCredentials())) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", "Not your product"));
+            }
+            return ResponseEntity.ok(report);
+        } catch (RestClientResponseException e) {
+            return ResponseEntity.status(e.getStatusCode()).body(Map.of("error", e.getStatusText()));
+        } catch (IllegalStateException | IllegalArgumentException | RestClientException e) {
+            // streams not started yet, store migrating during a rebalance, owner unreachable
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(Map.of("error", "Sales analytics are not available, retry shortly"));
+        }
+    }
+
+    private static boolean isAdmin(Authentication authentication) {
+        return authentication.getAuthorities().stream()
+                .anyMatch(authority -> "ROLE_ADMIN".equals(authority.getAuthority()));
+    }
+}
@@ -0,0 +1,23 @@
+package com.buy01.analytics.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Consumed from the order-events topic (published by order-service, keyed by orderId).
+ * eventType: ORDER_DELIVERED | ORDER_CANCELLED
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderEvent {
+    private String orderId;
+    private String eventType;
+    private String previousStatus;
+    private List<OrderEventItem> items;
+    private LocalDateTime occurredAt;
+}
@@ -0,0 +1,19 @@
+package com.buy01.analytics.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/** One window of a SalesReport, bounds in UTC. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SalesBucket {
+    private LocalDateTime start;
+    private LocalDateTime end;
+    private long orders;
+    private long units;
+    private double revenue;
+}
@@ -0,0 +1,27 @@
+package com.buy01.analytics.dto;
+
+import com.buy01.analytics.model.Dimension;
+import com.buy01.analytics.model.Granularity;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Windowed sales of one seller or product, oldest window first; windows
+ * without sales are omitted. Totals cover the returned buckets.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SalesReport {
+    private Dimension dimension;
+    private String key;
+    private String sellerId;
+    private Granularity granularity;
+    private List<SalesBucket> buckets;
+    private long orders;
+    private long units;
+    private double revenue;
+}
@@ -0,0 +1,20 @@
+package com.buy01.analytics.model;
+
+import java.util.Locale;
+
+/** What a rollup is keyed by; each dimension has one window store per granularity. */
+public enum Dimension {
+    SELLER("seller-sales"),
+    PRODUCT("product-sales");
+
+    private final String storePrefix;
+
+    Dimension(String storePrefix) {
+        this.storePrefix = storePrefix;
+    }
+
+    /** e.g. seller-sales-day */
+    public String storeName(Granularity granularity) {
+        return storePrefix + "-" + granularity.name().toLowerCase(Locale.ROOT);
+    }
+}
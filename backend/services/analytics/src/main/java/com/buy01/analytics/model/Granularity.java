@@ -0,0 +1,30 @@
+package com.buy01.analytics.model;
+
+import java.time.Duration;
+
+/**
+ * Window sizes of the sales rollups. Windows are aligned on the epoch in UTC:
+ * days start at midnight UTC, weeks on Thursday (1970-01-01 was a Thursday).
+ */
+public enum Granularity {
+    HOUR(Duration.ofHours(1), 24),
+    DAY(Duration.ofDays(1), 30),
+    WEEK(Duration.ofDays(7), 12);
+
+    private final Duration size;
+    private final int defaultWindows;
+
+    Granularity(Duration size, int defaultWindows) {
+        this.size = size;
+        this.defaultWindows = defaultWindows;
+    }
+
+    public Duration getSize() {
+        return size;
+    }
+
+    /** Range covered when the request gives no "from": the last 24 hours, 30 days or 12 weeks. */
+    public Duration getDefaultSpan() {
+        return size.multipliedBy(defaultWindows);
+    }
+}
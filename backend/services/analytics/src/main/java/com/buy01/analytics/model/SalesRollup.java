@@ -0,0 +1,30 @@
+package com.buy01.analytics.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Sales of one seller or one product: the contribution of a single order, or
+ * the running total of a window.
+ * sellerId is kept on product rollups for the ownership check.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SalesRollup {
+    private String sellerId;
+    private long orders;
+    private long units;
+    private double revenue;
+
+    public SalesRollup add(SalesRollup other) {
+        if (sellerId == null) {
+            sellerId = other.sellerId;
+        }
+        orders += other.orders;
+        units += other.units;
+        revenue += other.revenue;
+        return this;
+    }
+}
@@ -0,0 +1,24 @@
+package com.buy01.analytics.service;
+
+import com.buy01.analytics.dto.OrderEvent;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.streams.processor.TimestampExtractor;
+
+import java.time.ZoneOffset;
+
+/**
+ * Windows by the order's occurredAt rather than the record timestamp: the
+ * outbox may relay an event minutes after the status change (Kafka down,
+ * relay lease expired), and the sale belongs to the hour it happened in.
+ * order-service writes occurredAt in UTC.
+ */
+public class OrderEventTimestampExtractor implements TimestampExtractor {
+
+    @Override
+    public long extract(ConsumerRecord<Object, Object> record, long partitionTime) {
+        if (record.value() instanceof OrderEvent event && event.getOccurredAt() != null) {
+            return event.getOccurredAt().toInstant(ZoneOffset.UTC).toEpochMilli();
+        }
+        return record.timestamp();
+    }
+}
@@ -0,0 +1,109 @@
+package com.buy01.analytics.service;
+
+import com.buy01.analytics.dto.SalesBucket;
+import com.buy01.analytics.dto.SalesReport;
+import com.buy01.analytics.model.Dimension;
+import com.buy01.analytics.model.Granularity;
+import com.buy01.analytics.model.SalesRollup;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.errors.InvalidStateStoreException;
+import org.apache.kafka.streams.state.HostInfo;
+import org.apache.kafka.streams.state.QueryableStoreTypes;
+import org.apache.kafka.streams.state.ReadOnlyWindowStore;
+import org.apache.kafka.streams.state.WindowStoreIterator;
+import org.springframework.http.HttpHeaders;
+import org.springframework.kafka.streams.KafkaStreamsInteractiveQueryService;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClient;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Serves the sales rollups through Kafka Streams interactive queries.
+ * Each seller / product lives on the node owning its partition of the
+ * repartition topic: this node answers from its own window store when it
+ * owns the key, and otherwise forwards the request once to the owner
+ * (advertised through application.server), with the caller's token.
+ */
+@Service
+@Slf4j
+public class SalesQueryService {
+
+    public static final String FORWARDED_HEADER = "X-Analytics-Forwarded";
+
+    private final KafkaStreamsInteractiveQueryService interactiveQueryService;
+    private final RestClient restClient;
+
+    public SalesQueryService(KafkaStreamsInteractiveQueryService interactiveQueryService,
+            RestClient.Builder restClientBuilder) {
+        this.interactiveQueryService = interactiveQueryService;
+        this.restClient = restClientBuilder.build();
+    }
+
+    /**
+     * Windows starting between from and to (UTC). Throws IllegalStateException
+     * while the key's store is not queryable (startup, rebalance).
+     *
+     * @param forwarded true when another node already routed the request here:
+     *                  answered locally whatever the metadata says, so a
+     *                  rebalance in flight cannot bounce it between nodes
+     */
+    public SalesReport getReport(Dimension dimension, String key, Granularity granularity,
+            LocalDateTime from, LocalDateTime to, String authorization, boolean forwarded) {
+        String storeName = dimension.storeName(granularity);
+        if (!forwarded) {
+            HostInfo owner = interactiveQueryService.getKafkaStreamsApplicationHostInfo(
+                    storeName, key, Serdes.String().serializer());
+            if (owner == null || owner.port() < 0) {
+                throw new IllegalStateException("Sales store " + storeName + " is not available yet");
+            }
+            if (!owner.equals(interactiveQueryService.getCurrentKafkaStreamsApplicationHostInfo())) {
+                return forward(owner, dimension, key, granularity, from, to, authorization);
+            }
+        }
+        return localReport(dimension, key, granularity, from, to);
+    }
+
+    SalesReport localReport(Dimension dimension, String key, Granularity granularity,
+            LocalDateTime from, LocalDateTime to) {
+        ReadOnlyWindowStore<String, SalesRollup> store = interactiveQueryService.retrieveQueryableStore(
+                dimension.storeName(granularity), QueryableStoreTypes.windowStore());
+        List<SalesBucket> buckets = new ArrayList<>();
+        SalesRollup total = new SalesRollup(dimension == Dimension.SELLER ? key : null, 0, 0, 0);
+        try (WindowStoreIterator<SalesRollup> windows = store.fetch(key,
+                from.toInstant(ZoneOffset.UTC), to.toInstant(ZoneOffset.UTC))) {
+            while (windows.hasNext()) {
+                KeyValue<Long, SalesRollup> window = windows.next();
+                SalesRollup rollup = window.value;
+                LocalDateTime start = LocalDateTime.ofInstant(Instant.ofEpochMilli(window.key), ZoneOffset.UTC);
+                buckets.add(new SalesBucket(start, start.plus(granularity.getSize()),
+                        rollup.getOrders(), rollup.getUnits(), rollup.getRevenue()));
+                total.add(rollup);
+            }
+        } catch (InvalidStateStoreException e) {
+            // the store handle outlives a rebalance that started after it was retrieved
+            throw new IllegalStateException("Sales store " + dimension.storeName(granularity) + " is migrating", e);
+        }
+        return new SalesReport(dimension, key, total.getSellerId(), granularity, buckets,
+                total.getOrders(), total.getUnits(), total.getRevenue());
+    }
+
+    private SalesReport forward(HostInfo owner, Dimension dimension, String key, Granularity granularity,
+            LocalDateTime from, LocalDateTime to, String authorization) {
+        log.debug("Forwarding {} {} to {}:{}", dimension, key, owner.host(), owner.port());
+        String path = dimension == Dimension.SELLER ? "sellers" : "products";
+        return restClient.get()
+                .uri("http://{host}:{port}/api/v1/analytics/{path}/{key}?granularity={granularity}&from={from}&to={to}",
+                        owner.host(), owner.port(), path, key, granularity, from, to)
+                .header(HttpHeaders.AUTHORIZATION, authorization)
+                .header(FORWARDED_HEADER, "true")
+                .retrieve()
+                .body(SalesReport.class);
+    }
+}
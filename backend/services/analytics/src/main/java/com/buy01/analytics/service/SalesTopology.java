@@ -0,0 +1,163 @@
+package com.buy01.analytics.service;
+
+import com.buy01.analytics.dto.OrderEvent;
+import com.buy01.analytics.dto.OrderEventItem;
+import com.buy01.analytics.model.Dimension;
+import com.buy01.analytics.model.Granularity;
+import com.buy01.analytics.model.SalesRollup;
+import org.apache.kafka.common.serialization.Serde;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.common.utils.Bytes;
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.kstream.Consumed;
+import org.apache.kafka.streams.kstream.Grouped;
+import org.apache.kafka.streams.kstream.KGroupedStream;
+import org.apache.kafka.streams.kstream.KStream;
+import org.apache.kafka.streams.kstream.Materialized;
+import org.apache.kafka.streams.kstream.TimeWindows;
+import org.apache.kafka.streams.processor.api.FixedKeyProcessor;
+import org.apache.kafka.streams.processor.api.FixedKeyProcessorContext;
+import org.apache.kafka.streams.processor.api.FixedKeyRecord;
+import org.apache.kafka.streams.state.Stores;
+import org.apache.kafka.streams.state.WindowStore;
+import org.apache.kafka.streams.state.WindowStoreIterator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.support.serializer.JsonSerde;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Windowed sales rollups built from order-events.
+ * ORDER_DELIVERED counts as a sale. ORDER_CANCELLED counts for nothing:
+ * DELIVERED is final, so a cancelled order never was a sale (the same rule
+ * product-service applies to the stock). Each
+ * order is split into one contribution per seller and one per product,
+ * re-keyed (through a repartition topic, so every seller / product is owned
+ * by a single partition, hence a single node) and aggregated into one window
+ * store per dimension and granularity, e.g. seller-sales-day.
+ * Events arriving after the grace period of their window are dropped.
+ * The outbox delivers at least once: a sale already seen
+ * for the order (same orderId and eventType, within the grace period plus a
+ * day) is dropped before the split, in a store local to the order-events
+ * partition.
+ */
+@Component
+public class SalesTopology {
+
+    public static final String TOPIC = "order-events";
+
+    static final String ORDER_DELIVERED = "ORDER_DELIVERED";
+    static final String SEEN_STORE = "order-events-seen";
+
+    static final Serde<SalesRollup> ROLLUP_SERDE = new JsonSerde<>(SalesRollup.class).noTypeInfo().ignoreTypeHeaders();
+
+    private final Duration grace;
+    private final Duration dedupWindow;
+    private final Map<Granularity, Duration> retention = new EnumMap<>(Granularity.class);
+
+    public SalesTopology(
+            @Value("${application.analytics.grace-hours:24}") long graceHours,
+            @Value("${application.analytics.retention-days.hour:14}") long hourRetentionDays,
+            @Value("${application.analytics.retention-days.day:400}") long dayRetentionDays,
+            @Value("${application.analytics.retention-days.week:730}") long weekRetentionDays) {
+        this.grace = Duration.ofHours(graceHours);
+        // a duplicate later than that would fall past the grace period anyway
+        this.dedupWindow = grace.plusDays(1);
+        retention.put(Granularity.HOUR, Duration.ofDays(hourRetentionDays));
+        retention.put(Granularity.DAY, Duration.ofDays(dayRetentionDays));
+        retention.put(Granularity.WEEK, Duration.ofDays(weekRetentionDays));
+    }
+
+    public KStream<String, OrderEvent> build(StreamsBuilder builder) {
+        Serde<OrderEvent> eventSerde = new JsonSerde<>(OrderEvent.class).ignoreTypeHeaders();
+        KStream<String, OrderEvent> events = builder.stream(TOPIC,
+                Consumed.with(Serdes.String(), eventSerde).withTimestampExtractor(new OrderEventTimestampExtractor()));
+
+        builder.addStateStore(Stores.windowStoreBuilder(
+                Stores.persistentWindowStore(SEEN_STORE, dedupWindow, dedupWindow, false),
+                Serdes.String(), Serdes.Long()));
+        KStream<String, OrderEvent> sales = events.filter((orderId, event) -> isSale(event))
+                .processValues(FirstSeen::new, SEEN_STORE);
+        aggregate(Dimension.SELLER,
+                sales.flatMap((orderId, event) -> contributions(event, OrderEventItem::getSellerId))
+                        .groupByKey(Grouped.with("seller-sales", Serdes.String(), ROLLUP_SERDE)));
+        aggregate(Dimension.PRODUCT,
+                sales.flatMap((orderId, event) -> contributions(event, OrderEventItem::getProductId))
+                        .groupByKey(Grouped.with("product-sales", Serdes.String(), ROLLUP_SERDE)));
+        return events;
+    }
+
+    private void aggregate(Dimension dimension, KGroupedStream<String, SalesRollup> grouped) {
+        for (Granularity granularity : Granularity.values()) {
+            Duration retain = retention.get(granularity);
+            // a window store must at least outlive its window and grace period
+            Duration minimum = granularity.getSize().plus(grace);
+            grouped.windowedBy(TimeWindows.ofSizeAndGrace(granularity.getSize(), grace))
+                    .aggregate(SalesRollup::new, (key, contribution, total) -> total.add(contribution),
+                            Materialized.<String, SalesRollup, WindowStore<Bytes, byte[]>>as(
+                                            dimension.storeName(granularity))
+                                    .withKeySerde(Serdes.String())
+                                    .withValueSerde(ROLLUP_SERDE)
+                                    .withRetention(retain.compareTo(minimum) < 0 ? minimum : retain));
+        }
+    }
+
+    /** Forwards the first ORDER_DELIVERED of each order, drops its redeliveries. */
+    private class FirstSeen implements FixedKeyProcessor<String, OrderEvent, OrderEvent> {
+
+        private FixedKeyProcessorContext<String, OrderEvent> context;
+        private WindowStore<String, Long> seen;
+
+        @Override
+        public void init(FixedKeyProcessorContext<String, OrderEvent> context) {
+            this.context = context;
+            this.seen = context.getStateStore(SEEN_STORE);
+        }
+
+        @Override
+        public void process(FixedKeyRecord<String, OrderEvent> record) {
+            OrderEvent event = record.value();
+            String key = event.getOrderId() + "|" + event.getEventType();
+            // a redelivery carries the same occurredAt, hence the same timestamp
+            long at = record.timestamp();
+            long window = dedupWindow.toMillis();
+            try (WindowStoreIterator<Long> previous = seen.fetch(key, at - window, at + window)) {
+                if (previous.hasNext()) {
+                    return;
+                }
+            }
+            seen.put(key, at, at);
+            context.forward(record);
+        }
+    }
+
+    static boolean isSale(OrderEvent event) {
+        return event != null && event.getItems() != null && ORDER_DELIVERED.equals(event.getEventType());
+    }
+
+    /** One rollup per distinct key of the order's items, counting the order once per key. */
+    static List<KeyValue<String, SalesRollup>> contributions(OrderEvent event,
+            Function<OrderEventItem, String> keyOf) {
+        Map<String, SalesRollup> byKey = new LinkedHashMap<>();
+        for (OrderEventItem item : event.getItems()) {
+            String key = keyOf.apply(item);
+            if (key == null) {
+                continue;
+            }
+            SalesRollup rollup = byKey.computeIfAbsent(key, k -> new SalesRollup(item.getSellerId(), 1, 0, 0));
+            rollup.setUnits(rollup.getUnits() + item.getQuantity());
+            rollup.setRevenue(rollup.getRevenue() + item.getPrice() * item.getQuantity());
+        }
+        List<KeyValue<String, SalesRollup>> records = new ArrayList<>(byKey.size());
+        byKey.forEach((key, rollup) -> records.add(KeyValue.pair(key, rollup)));
+        return records;
+    }
+}
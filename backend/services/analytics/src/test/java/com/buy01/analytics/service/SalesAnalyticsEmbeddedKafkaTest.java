@@ -0,0 +1,95 @@
+package com.buy01.analytics.service;
+
+import com.buy01.analytics.dto.OrderEvent;
+import com.buy01.analytics.dto.OrderEventItem;
+import com.buy01.analytics.dto.SalesReport;
+import com.buy01.analytics.model.Dimension;
+import com.buy01.analytics.model.Granularity;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * End to end on an embedded broker: events published the way order-service
+ * publishes them (JSON, __TypeId__ header) reach the window stores through
+ * the repartition topics and are served by interactive queries.
+ */
+@SpringBootTest(properties = {
+        "spring.cloud.config.enabled=false",
+        "eureka.client.enabled=false",
+        "jwt.secret=0smkgpTVAhXxHq1lZEtvEySlVBr6U0OMN0NmLjWmJNxnTAsQaGPJ0AqsMVoQhrw9",
+        "jwt.expiration=86400000",
+        "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "spring.kafka.streams.application-id=analytics-test",
+        "spring.kafka.streams.state-dir=target/kafka-streams/${random.uuid}",
+        "spring.kafka.streams.replication-factor=1",
+        "spring.kafka.streams.properties.application.server=localhost:3005",
+        "spring.kafka.streams.properties.commit.interval.ms=100",
+        "spring.kafka.streams.properties.statestore.cache.max.bytes=0"
+})
+@EmbeddedKafka(partitions = 2, topics = SalesTopology.TOPIC)
+class SalesAnalyticsEmbeddedKafkaTest {
+
+    @Autowired
+    private EmbeddedKafkaBroker broker;
+
+    @Autowired
+    private SalesQueryService salesQueryService;
+
+    @Test
+    void testDeliveredOrders_areQueryableBySellerAndProduct() throws Exception {
+        Map<String, Object> props = KafkaTestUtils.producerProps(broker);
+        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+        props.put(JsonSerializer.TYPE_MAPPINGS, "orderEvent:com.buy01.analytics.dto.OrderEvent");
+        KafkaTemplate<String, Object> template = new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(props));
+
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+        for (int i = 0; i < 10; i++) {
+            template.send(SalesTopology.TOPIC, "order-" + i, new OrderEvent("order-" + i, "ORDER_DELIVERED",
+                    "CONFIRMED", List.of(new OrderEventItem("product-" + (i % 2), "seller-1", 1, 20.0)), now)).get();
+        }
+
+        LocalDateTime from = now.minusDays(1);
+        LocalDateTime to = now.plusDays(1);
+        SalesReport seller = awaitOrders(Dimension.SELLER, "seller-1", 10, from, to);
+        assertEquals(200.0, seller.getRevenue(), 1e-9);
+        SalesReport product = awaitOrders(Dimension.PRODUCT, "product-0", 5, from, to);
+        assertEquals("seller-1", product.getSellerId());
+    }
+
+    private SalesReport awaitOrders(Dimension dimension, String key, long orders,
+            LocalDateTime from, LocalDateTime to) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 60_000;
+        SalesReport report = null;
+        while (System.currentTimeMillis() < deadline) {
+            try {
+                report = salesQueryService.getReport(dimension, key, Granularity.HOUR, from, to, null, false);
+                if (report.getOrders() == orders) {
+                    return report;
+                }
+            } catch (IllegalStateException e) {
+                // streams still starting or rebalancing
+            }
+            Thread.sleep(200);
+        }
+        fail("Expected " + orders + " orders for " + key + ", got " + report);
+        return report;
+    }
+}
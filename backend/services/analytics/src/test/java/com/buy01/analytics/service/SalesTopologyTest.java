@@ -0,0 +1,141 @@
+package com.buy01.analytics.service;
+
+import com.buy01.analytics.dto.OrderEvent;
+import com.buy01.analytics.dto.OrderEventItem;
+import com.buy01.analytics.model.Dimension;
+import com.buy01.analytics.model.Granularity;
+import com.buy01.analytics.model.SalesRollup;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.StreamsConfig;
+import org.apache.kafka.streams.TestInputTopic;
+import org.apache.kafka.streams.TopologyTestDriver;
+import org.apache.kafka.streams.state.WindowStore;
+import org.apache.kafka.streams.state.WindowStoreIterator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SalesTopologyTest {
+
+    private static final LocalDateTime MONDAY_10AM = LocalDateTime.of(2026, 10, 19, 10, 0);
+
+    private TopologyTestDriver driver;
+    private TestInputTopic<String, OrderEvent> orderEvents;
+
+    @BeforeEach
+    void setUp() {
+        StreamsBuilder builder = new StreamsBuilder();
+        new SalesTopology(24, 14, 400, 730).build(builder);
+        Properties props = new Properties();
+        props.put(StreamsConfig.APPLICATION_ID_CONFIG, "analytics-test");
+        props.put(StreamsConfig.BOOTSTRAP_SERVERS_CONFIG, "dummy:9092");
+        driver = new TopologyTestDriver(builder.build(), props);
+        orderEvents = driver.createInputTopic(SalesTopology.TOPIC, new StringSerializer(), new JsonSerializer<>());
+    }
+
+    @AfterEach
+    void tearDown() {
+        driver.close();
+    }
+
+    private void pipe(String orderId, String eventType, String previousStatus, LocalDateTime at,
+            OrderEventItem... items) {
+        // record timestamps are "now": windows must come from occurredAt
+        orderEvents.pipeInput(orderId, new OrderEvent(orderId, eventType, previousStatus, List.of(items), at),
+                Instant.now());
+    }
+
+    private List<KeyValue<Long, SalesRollup>> windows(Dimension dimension, Granularity granularity, String key) {
+        WindowStore<String, SalesRollup> store = driver.getWindowStore(dimension.storeName(granularity));
+        List<KeyValue<Long, SalesRollup>> windows = new ArrayList<>();
+        try (WindowStoreIterator<SalesRollup> iterator = store.fetch(key,
+                MONDAY_10AM.minusDays(30).toInstant(ZoneOffset.UTC), MONDAY_10AM.plusDays(30).toInstant(ZoneOffset.UTC))) {
+            iterator.forEachRemaining(windows::add);
+        }
+        return windows;
+    }
+
+    @Test
+    void testDeliveredOrders_rollUpPerSellerAndWindow() {
+        pipe("o1", "ORDER_DELIVERED", "CONFIRMED", MONDAY_10AM.plusMinutes(5),
+                new OrderEventItem("p1", "s1", 2, 10.0),
+                new OrderEventItem("p2", "s1", 1, 5.0),
+                new OrderEventItem("p3", "s2", 1, 7.0));
+        pipe("o2", "ORDER_DELIVERED", "CONFIRMED", MONDAY_10AM.plusMinutes(50),
+                new OrderEventItem("p1", "s1", 1, 10.0));
+        pipe("o3", "ORDER_DELIVERED", "CONFIRMED", MONDAY_10AM.plusHours(2),
+                new OrderEventItem("p1", "s1", 1, 10.0));
+
+        List<KeyValue<Long, SalesRollup>> hours = windows(Dimension.SELLER, Granularity.HOUR, "s1");
+        assertEquals(2, hours.size());
+        assertEquals(MONDAY_10AM.toInstant(ZoneOffset.UTC).toEpochMilli(), hours.get(0).key);
+        // o1 counts once for s1 even with two of its products
+        assertEquals(2, hours.get(0).value.getOrders());
+        assertEquals(4, hours.get(0).value.getUnits());
+        assertEquals(35.0, hours.get(0).value.getRevenue(), 1e-9);
+
+        List<KeyValue<Long, SalesRollup>> days = windows(Dimension.SELLER, Granularity.DAY, "s1");
+        assertEquals(1, days.size());
+        assertEquals(3, days.get(0).value.getOrders());
+        assertEquals(45.0, days.get(0).value.getRevenue(), 1e-9);
+
+        List<KeyValue<Long, SalesRollup>> product = windows(Dimension.PRODUCT, Granularity.WEEK, "p1");
+        assertEquals(1, product.size());
+        assertEquals(4, product.get(0).value.getUnits());
+        assertEquals("s1", product.get(0).value.getSellerId());
+    }
+
+    @Test
+    void testCancellations_countForNothing() {
+        OrderEventItem item = new OrderEventItem("p1", "s1", 3, 10.0);
+        pipe("o1", "ORDER_DELIVERED", "CONFIRMED", MONDAY_10AM, item);
+        pipe("o2", "ORDER_CANCELLED", "CONFIRMED", MONDAY_10AM.plusMinutes(10), item);
+        pipe("o3", "ORDER_CANCELLED", "PENDING", MONDAY_10AM.plusMinutes(20), item);
+
+        SalesRollup day = windows(Dimension.SELLER, Granularity.DAY, "s1").get(0).value;
+        assertEquals(1, day.getOrders());
+        assertEquals(3, day.getUnits());
+        assertEquals(30.0, day.getRevenue(), 1e-9);
+    }
+
+    @Test
+    void testRedeliveredEvents_countOnce() {
+        OrderEventItem item = new OrderEventItem("p1", "s1", 2, 10.0);
+        // the outbox resends ORDER_DELIVERED as is (same occurredAt) when its deletion was lost
+        pipe("o1", "ORDER_DELIVERED", "CONFIRMED", MONDAY_10AM, item);
+        pipe("o1", "ORDER_DELIVERED", "CONFIRMED", MONDAY_10AM, item);
+        pipe("o2", "ORDER_DELIVERED", "CONFIRMED", MONDAY_10AM.plusMinutes(20), item);
+        pipe("o2", "ORDER_DELIVERED", "CONFIRMED", MONDAY_10AM.plusMinutes(20), item);
+
+        SalesRollup day = windows(Dimension.SELLER, Granularity.DAY, "s1").get(0).value;
+        assertEquals(2, day.getOrders());
+        assertEquals(4, day.getUnits());
+        assertEquals(40.0, day.getRevenue(), 1e-9);
+        assertEquals(4, windows(Dimension.PRODUCT, Granularity.DAY, "p1").get(0).value.getUnits());
+    }
+
+    @Test
+    void testLateEvent_pastGraceIsDropped() {
+        pipe("o1", "ORDER_DELIVERED", "CONFIRMED", MONDAY_10AM.plusDays(2), new OrderEventItem("p1", "s1", 1, 10.0));
+        // 2 days late: its hourly and daily windows are closed, the weekly one (Thursday to Thursday) is not
+        pipe("o2", "ORDER_DELIVERED", "CONFIRMED", MONDAY_10AM, new OrderEventItem("p1", "s1", 1, 10.0));
+
+        assertEquals(1, windows(Dimension.SELLER, Granularity.HOUR, "s1").size());
+        assertEquals(1, windows(Dimension.SELLER, Granularity.DAY, "s1").size());
+        assertTrue(windows(Dimension.SELLER, Granularity.WEEK, "s1").stream()
+                .anyMatch(window -> window.value.getOrders() == 2));
+    }
+}
@@ -1,5 +1,6 @@
 package com.buy01.media.cloudinary;
 
+import java.util.List;
 import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Value;
@@ -10,6 +11,8 @@ import com.cloudinary.utils.ObjectUtils;
 
 @Service
 public class CloudinaryService {
+    private static final int DELETE_BATCH_SIZE = 100;
+
     private final Cloudinary cloudinary;
 
 // comment
@@ -34,4 +37,20 @@ public class CloudinaryService {
         return ObjectUtils.emptyMap();
     }
 
+    /**
+     * Deletes the given public ids, 100 per Admin API call (its limit) instead
+     * of one destroy each. Ids already gone count as deleted. Throws when a
+     * call fails, so the caller can retry the whole set.
+     */
+    public void deleteMedias(List<String> publicIds) {
+        for (int from = 0; from < publicIds.size(); from += DELETE_BATCH_SIZE) {
+            List<String> chunk = publicIds.subList(from, Math.min(publicIds.size(), from + DELETE_BATCH_SIZE));
+            try {
+                cloudinary.api().deleteResources(chunk, ObjectUtils.emptyMap());
+            } catch (Exception e) {
+                throw new IllegalStateException("Cloudinary deletion failed: " + e.getMessage(), e);
+            }
+        }
+    }
+
 }
@@ -1,41 +1,40 @@
-// package com.buy01.media.config;
+package com.buy01.media.config;
 
-// import org.apache.kafka.clients.consumer.ConsumerConfig;
-// import org.apache.kafka.common.serialization.StringDeserializer;
-// import org.springframework.context.annotation.Bean;
-// import org.springframework.context.annotation.Configuration;
-// import org.springframework.kafka.annotation.EnableKafka;
-// import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
-// import org.springframework.kafka.core.ConsumerFactory;
-// import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
-// import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.ConcurrentKafkaListenerContainerFactoryConfigurer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.util.backoff.FixedBackOff;
 
-// import com.buy01.media.dto.ProductDeleteEvent;
+@Configuration
+public class KafkaConsumerConfig {
 
-// import java.util.HashMap;
-// import java.util.Map;
-
-// @EnableKafka
-// @Configuration
-// public class KafkaConsumerConfig {
-
-//     @Bean
-//     public ConsumerFactory<String, ProductDeleteEvent> consumerFactory() {
-//         JsonDeserializer<ProductDeleteEvent> deserializer = new JsonDeserializer<ProductDeleteEvent>();
-//         deserializer.addTrustedPackages("*");
-//         Map<String, Object> config = new HashMap<>();
-//         config.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, "localhost:9092");
-//         config.put(ConsumerConfig.GROUP_ID_CONFIG, "media-service-group");
-//         config.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, deserializer);
-//         config.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, deserializer);
-
-//         return new DefaultKafkaConsumerFactory<>(config, new StringDeserializer(), deserializer);
-//     }
-
-//     @Bean
-//     public ConcurrentKafkaListenerContainerFactory<String, ProductDeleteEvent> kafkaListenerContainerFactory() {
-//         ConcurrentKafkaListenerContainerFactory<String, ProductDeleteEvent> factory = new ConcurrentKafkaListenerContainerFactory<>();
-//         factory.setConsumerFactory(consumerFactory());
-//         return factory;
-//     }
-// }
\ No newline at end of file
+    /**
+     * Boot's listener factory (spring.kafka.* still applies) with one consumer
+     * thread per partition up to concurrency. product-events is keyed by
+     * productId, so the events of a product all go to one thread, in order;
+     * threads beyond the partition count stay idle.
+     * Batch listeners: each poll (up to max-poll-records) is handed over as a
+     * list and its offsets committed after the listener returns. A failed
+     * batch is retried retry-attempts times, then logged and skipped.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> kafkaListenerContainerFactory(
+            ConcurrentKafkaListenerContainerFactoryConfigurer configurer,
+            ConsumerFactory<Object, Object> consumerFactory,
+            @Value("${application.product-events.concurrency:3}") int concurrency,
+            @Value("${application.product-events.retry-interval-ms:5000}") long retryIntervalMs,
+            @Value("${application.product-events.retry-attempts:12}") long retryAttempts) {
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        configurer.configure(factory, consumerFactory);
+        factory.setConcurrency(concurrency);
+        factory.setBatchListener(true);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.BATCH);
+        factory.setCommonErrorHandler(new DefaultErrorHandler(new FixedBackOff(retryIntervalMs, retryAttempts)));
+        return factory;
+    }
+}
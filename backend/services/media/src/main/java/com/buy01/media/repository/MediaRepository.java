@@ -3,6 +3,7 @@ package com.buy01.media.repository;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import com.buy01.media.model.Media;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,4 +14,9 @@ public interface MediaRepository extends MongoRepository<Media, String> {
     List<Media> findAllByProductId(String productId);
 
     List<Media> findAllByOrderByUploadDateAsc();
+
+    List<Media> findAllByProductIdIn(Collection<String> productIds);
+
+    // Derived delete returning a count: a single deleteMany
+    long deleteByIdIn(Collection<String> ids);
 }
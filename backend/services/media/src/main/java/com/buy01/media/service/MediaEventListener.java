@@ -6,6 +6,10 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Service;
 
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
 @Slf4j
 @Service
 @RequiredArgsConstructor
@@ -13,20 +17,24 @@ public class MediaEventListener {
 
     private final MediaService mediaService;
 
+    /**
+     * One poll's worth of product-events at a time: the media of every
+     * deleted product in the batch are removed together. An exception hands
+     * the whole batch back to the container's error handler, which retries
+     * it; offsets are only committed once the batch went through.
+     */
     @KafkaListener(topics = "product-events")
-    public void handleProductDeleted(ProductDeleteEvent event) {
-        if (!"PRODUCT_DELETED".equals(event.getEventType())) {
-            return;
-
+    public void handleProductsDeleted(List<ProductDeleteEvent> events) {
+        Set<String> productIds = new LinkedHashSet<>();
+        for (ProductDeleteEvent event : events) {
+            if (event != null && "PRODUCT_DELETED".equals(event.getEventType())) {
+                productIds.add(event.getProductId());
+            }
         }
-        log.info("Received product deletion event for product: {}", event.getProductId());
-
-        try {
-            mediaService.deleteAllMediasByProductId(event.getProductId());
-            log.info("Successfully deleted media for product: {}", event.getProductId());
-        } catch (Exception e) {
-            // TODO: handle exception
-            log.error("Failed to delete media product {}: {}",event.getEventType(),e.getMessage());
+        if (productIds.isEmpty()) {
+            return;
         }
+        int deleted = mediaService.deleteAllMediasByProductIds(productIds);
+        log.info("Deleted {} media for {} deleted products", deleted, productIds.size());
     }
-}
\ No newline at end of file
+}
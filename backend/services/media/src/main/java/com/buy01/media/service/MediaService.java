@@ -7,7 +7,9 @@ import com.buy01.media.repository.MediaRepository;
 import com.buy01.media.cloudinary.CloudinaryService;
 import com.buy01.media.model.Media;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
 @Service
@@ -40,11 +42,20 @@ public class MediaService {
         mediaRepository.deleteById(id);
     }
 
-    public void deleteAllMediasByProductId(String productId) {
-        List<Media> medias = mediaRepository.findAllByProductId(productId);
-        medias.forEach(m -> {
-            cloudinaryService.deleteMedia(m.getCloudId());
-        });
+    /**
+     * Deletes every media of the given products: one $in query, batched
+     * Cloudinary deletions, then one deleteMany. Storage goes first, so a
+     * failure leaves the documents in place for a retry.
+     * Returns the number of media deleted.
+     */
+    public int deleteAllMediasByProductIds(Collection<String> productIds) {
+        List<Media> medias = mediaRepository.findAllByProductIdIn(productIds);
+        if (medias.isEmpty()) {
+            return 0;
+        }
+        cloudinaryService.deleteMedias(medias.stream().map(Media::getCloudId).filter(Objects::nonNull).toList());
+        mediaRepository.deleteByIdIn(medias.stream().map(Media::getId).toList());
+        return medias.size();
     }
 
     public Boolean existsByMediaId(String mediaId) {
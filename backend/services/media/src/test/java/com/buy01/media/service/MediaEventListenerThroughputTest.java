@@ -0,0 +1,133 @@
+package com.buy01.media.service;
+
+import com.buy01.media.config.KafkaConsumerConfig;
+import com.buy01.media.dto.ProductDeleteEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.kafka.KafkaAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.ContainerTestUtils;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * product-events on an embedded broker, keyed by productId the way
+ * product-service's outbox relay sends them: the listener's consumer threads
+ * clean up in parallel, a batch at a time, and every product stays on a
+ * single thread.
+ */
+@SpringBootTest(classes = {KafkaConsumerConfig.class, MediaEventListener.class}, properties = {
+        "spring.cloud.config.enabled=false",
+        "eureka.client.enabled=false",
+        "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "spring.kafka.consumer.group-id=media-throughput-test",
+        "spring.kafka.consumer.auto-offset-reset=earliest",
+        "spring.kafka.consumer.value-deserializer=org.springframework.kafka.support.serializer.JsonDeserializer",
+        "spring.kafka.consumer.properties.spring.json.type.mapping=productEvent:com.buy01.media.dto.ProductDeleteEvent",
+        "spring.kafka.consumer.properties.spring.json.trusted.packages=*",
+        "application.product-events.concurrency=3"
+})
+@ImportAutoConfiguration(KafkaAutoConfiguration.class)
+@EmbeddedKafka(partitions = MediaEventListenerThroughputTest.PARTITIONS, topics = "product-events")
+@Slf4j
+class MediaEventListenerThroughputTest {
+
+    static final int PARTITIONS = 6;
+    private static final int PRODUCTS = 40;
+    private static final int EVENTS_PER_PRODUCT = 6;
+    // one storage + Mongo round trip per batch
+    private static final long CLEANUP_MS = 20;
+
+    @Autowired
+    private EmbeddedKafkaBroker broker;
+
+    @Autowired
+    private KafkaListenerEndpointRegistry registry;
+
+    @MockitoBean
+    private MediaService mediaService;
+
+    @MockitoSpyBean
+    private MediaEventListener listener;
+
+    @Test
+    void testKeyedEvents_cleanedUpInParallelBatchesWithOneThreadPerProduct() throws Exception {
+        int total = PRODUCTS * EVENTS_PER_PRODUCT;
+        CountDownLatch done = new CountDownLatch(total);
+        Map<String, Set<String>> threadsByProduct = new ConcurrentHashMap<>();
+        AtomicInteger batches = new AtomicInteger();
+        AtomicLong first = new AtomicLong();
+        doAnswer(invocation -> {
+            first.compareAndSet(0, System.nanoTime());
+            batches.incrementAndGet();
+            Thread.sleep(CLEANUP_MS);
+            for (String productId : invocation.<Collection<String>>getArgument(0)) {
+                threadsByProduct.computeIfAbsent(productId, k -> ConcurrentHashMap.newKeySet())
+                        .add(Thread.currentThread().getName());
+            }
+            return 0;
+        }).when(mediaService).deleteAllMediasByProductIds(anyCollection());
+        // counts the events of each batch once it went through, duplicates of a product included
+        doAnswer(invocation -> {
+            invocation.callRealMethod();
+            invocation.<List<?>>getArgument(0).forEach(event -> done.countDown());
+            return null;
+        }).when(listener).handleProductsDeleted(anyList());
+
+        for (MessageListenerContainer container : registry.getListenerContainers()) {
+            ContainerTestUtils.waitForAssignment(container, PARTITIONS);
+        }
+
+        Map<String, Object> props = KafkaTestUtils.producerProps(broker);
+        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+        props.put(JsonSerializer.TYPE_MAPPINGS, "productEvent:com.buy01.media.dto.ProductDeleteEvent");
+        KafkaTemplate<String, Object> template = new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(props));
+        for (int round = 0; round < EVENTS_PER_PRODUCT; round++) {
+            for (int p = 0; p < PRODUCTS; p++) {
+                String productId = "product-" + p;
+                template.send("product-events", productId, new ProductDeleteEvent(productId, "PRODUCT_DELETED"));
+            }
+        }
+        template.flush();
+
+        assertTrue(done.await(60, TimeUnit.SECONDS), done.getCount() + " events not processed");
+        long elapsedMs = (System.nanoTime() - first.get()) / 1_000_000;
+        log.info("{} events in {} batches, {} ms ({} ms one event at a time on one thread)",
+                total, batches.get(), elapsedMs, total * CLEANUP_MS);
+
+        assertEquals(PRODUCTS, threadsByProduct.size());
+        threadsByProduct.forEach((product, threads) -> assertEquals(1, threads.size(), product + " on " + threads));
+        long threads = threadsByProduct.values().stream().flatMap(Set::stream).distinct().count();
+        assertEquals(3, threads);
+        assertTrue(batches.get() < total / 2, batches.get() + " batches for " + total + " events");
+    }
+}
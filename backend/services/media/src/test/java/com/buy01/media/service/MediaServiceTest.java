@@ -0,0 +1,66 @@
+package com.buy01.media.service;
+
+import com.buy01.media.cloudinary.CloudinaryService;
+import com.buy01.media.model.Media;
+import com.buy01.media.repository.MediaRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class MediaServiceTest {
+
+    private final MediaRepository mediaRepository = mock(MediaRepository.class);
+    private final CloudinaryService cloudinaryService = mock(CloudinaryService.class);
+    private final MediaService mediaService = new MediaService(mediaRepository, cloudinaryService);
+
+    private static Media media(String id, String cloudId, String productId) {
+        Media media = new Media();
+        media.setId(id);
+        media.setCloudId(cloudId);
+        media.setProductId(productId);
+        return media;
+    }
+
+    @Test
+    void testDeleteByProductIds_oneQueryOneStorageCallOneDelete() {
+        Set<String> productIds = Set.of("p1", "p2");
+        when(mediaRepository.findAllByProductIdIn(productIds)).thenReturn(List.of(
+                media("m1", "cloud-1", "p1"), media("m2", "cloud-2", "p1"), media("m3", null, "p2")));
+
+        assertEquals(3, mediaService.deleteAllMediasByProductIds(productIds));
+
+        verify(cloudinaryService).deleteMedias(List.of("cloud-1", "cloud-2"));
+        verify(mediaRepository).deleteByIdIn(List.of("m1", "m2", "m3"));
+    }
+
+    @Test
+    void testDeleteByProductIds_storageFailureKeepsDocuments() {
+        when(mediaRepository.findAllByProductIdIn(any())).thenReturn(List.of(media("m1", "cloud-1", "p1")));
+        doThrow(new IllegalStateException("Cloudinary deletion failed")).when(cloudinaryService).deleteMedias(anyList());
+
+        assertThrows(IllegalStateException.class, () -> mediaService.deleteAllMediasByProductIds(Set.of("p1")));
+
+        verify(mediaRepository, never()).deleteByIdIn(any());
+    }
+
+    @Test
+    void testDeleteByProductIds_noMedia_noStorageCall() {
+        when(mediaRepository.findAllByProductIdIn(any())).thenReturn(List.of());
+
+        assertEquals(0, mediaService.deleteAllMediasByProductIds(Set.of("p1")));
+
+        verifyNoInteractions(cloudinaryService);
+    }
+}
@@ -1,47 +0,0 @@
-package com.buy01.order.config;
-
-import feign.Client;
-import org.springframework.context.annotation.Bean;
-import org.springframework.context.annotation.Configuration;
-
-import javax.net.ssl.SSLContext;
-import javax.net.ssl.SSLSocketFactory;
-import javax.net.ssl.TrustManager;
-import javax.net.ssl.X509TrustManager;
-import java.security.cert.X509Certificate;
-
-@Configuration
-public class FeignConfiguration {
-
-    @Bean
-    public Client feignClient() {
-        try {
-            TrustManager[] trustAllCerts = new TrustManager[] {
-                    new X509TrustManager() {
-                        @Override
-                        public void checkClientTrusted(X509Certificate[] chain, String authType) {
-                        }
-
-                        @Override
-                        public void checkServerTrusted(X509Certificate[] chain, String authType) {
-                        }
-
-                        @Override
-                        public X509Certificate[] getAcceptedIssuers() {
-                            return new X509Certificate[0];
-                        }
-                    }
-            };
-
-            SSLContext sslContext = SSLContext.getInstance("TLS");
-            sslContext.init(null, trustAllCerts, new java.security.SecureRandom());
-            SSLSocketFactory socketFactory = sslContext.getSocketFactory();
-            javax.net.ssl.HostnameVerifier hostnameVerifier = (hostname, session) -> true;
-
-            return new Client.Default(socketFactory, hostnameVerifier);
-
-        } catch (Exception e) {
-            throw new RuntimeException("Error configuring Feign SSL client", e);
-        }
-    }
-}
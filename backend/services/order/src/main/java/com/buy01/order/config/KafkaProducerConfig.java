@@ -0,0 +1,20 @@
+package com.buy01.order.config;
+
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+
+@Configuration
+public class KafkaProducerConfig {
+
+    @Bean
+    public NewTopic orderEventsTopic() {
+        return TopicBuilder.name("order-events").build();
+    }
+
+    @Bean
+    public NewTopic orderUpdatesTopic() {
+        return TopicBuilder.name("order-updates").build();
+    }
+}
@@ -0,0 +1,59 @@
+package com.buy01.order.config;
+
+import com.buy01.order.repository.OrderRepository;
+import com.buy01.order.service.SellerOrderService;
+import com.buy01.order.service.SellerStatsService;
+import com.buy01.order.service.UserOrderSummaryService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+/**
+ * One-shot maintenance commands, e.g.
+ * {@code java -jar order.jar --backfill-user-summaries}.
+ * When at least one command is given the application exits once they are done.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class MaintenanceCommands implements ApplicationRunner {
+
+    private final ConfigurableApplicationContext context;
+    private final UserOrderSummaryService userOrderSummaryService;
+    private final SellerStatsService sellerStatsService;
+    private final SellerOrderService sellerOrderService;
+    private final OrderRepository orderRepository;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        boolean ran = false;
+
+        if (args.containsOption("backfill-user-summaries")) {
+            userOrderSummaryService.backfill();
+            ran = true;
+        }
+        // Before rebuild-seller-stats, which reads seller_orders
+        if (args.containsOption("backfill-seller-orders")) {
+            sellerOrderService.backfill();
+            ran = true;
+        }
+        if (args.containsOption("rebuild-seller-stats")) {
+            sellerStatsService.rebuildAll();
+            ran = true;
+        }
+
+        if (args.containsOption("backfill-search-tokens")) {
+            log.info("Search tokens computed for {} orders", orderRepository.backfillSearchTokens());
+            ran = true;
+        }
+
+        if (ran) {
+            log.info("Maintenance commands finished, shutting down");
+            System.exit(SpringApplication.exit(context, () -> 0));
+        }
+    }
+}
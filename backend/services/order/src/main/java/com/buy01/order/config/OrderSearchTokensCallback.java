@@ -0,0 +1,22 @@
+package com.buy01.order.config;
+
+import com.buy01.order.model.Order;
+import com.buy01.order.util.OrderSearchTokens;
+import org.springframework.data.mongodb.core.mapping.event.BeforeConvertCallback;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps Order.searchTokens in sync with the items on every save/insert,
+ * whatever code path writes the order.
+ */
+@Component
+public class OrderSearchTokensCallback implements BeforeConvertCallback<Order> {
+
+    @Override
+    @NonNull
+    public Order onBeforeConvert(@NonNull Order order, @NonNull String collection) {
+        order.setSearchTokens(OrderSearchTokens.of(order.getItems()));
+        return order;
+    }
+}
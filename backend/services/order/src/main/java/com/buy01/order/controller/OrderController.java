@@ -1,43 +1,112 @@
 package com.buy01.order.controller;
 
+import com.buy01.order.dto.BulkStatusRequest;
+import com.buy01.order.dto.OrderIntakeResponse;
+import com.buy01.order.dto.OrderPageRequest;
 import com.buy01.order.dto.OrderRequest;
 import com.buy01.order.dto.OrderResponse;
+import com.buy01.order.dto.SellerOrderView;
 import com.buy01.order.model.OrderStatus;
+import com.buy01.order.service.BasketValidationException;
+import com.buy01.order.service.CoOccurrenceService;
+import com.buy01.order.service.IdempotencyKeyException;
+import com.buy01.order.service.IdempotencyService;
+import com.buy01.order.service.OrderExporter;
+import com.buy01.order.service.OrderIntakeService;
 import com.buy01.order.service.OrderService;
+import com.buy01.order.service.OrderStatusConflictException;
+import com.buy01.order.service.OrderStreamService;
+import com.buy01.order.service.ProductCacheUnavailableException;
+import com.buy01.order.service.TrendingService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.net.URI;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 @RestController
 @RequestMapping("/api/v1/orders")
 @RequiredArgsConstructor
 public class OrderController {
 
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
     private final OrderService orderService;
+    private final ObjectMapper objectMapper;
+    private final IdempotencyService idempotencyService;
+    private final OrderIntakeService orderIntakeService;
+    private final OrderStreamService orderStreamService;
+    private final TrendingService trendingService;
+    private final CoOccurrenceService coOccurrenceService;
+    private final OrderExporter orderExporter;
 
     // ═══════════════════════════════════════════════
     // CLIENT endpoints
     // ═══════════════════════════════════════════════
 
-    /** POST /api/v1/orders — Create a new order */
+    /**
+     * POST /api/v1/orders — Create a new order.
+     * With an Idempotency-Key header, a retried request returns the first
+     * response instead of creating a duplicate.
+     * In async intake mode (application.intake.mode) the order is only queued:
+     * 202 with a tracking ID, to poll on GET /intake/{trackingId}, once the
+     * basket was checked (409 otherwise).
+     */
     @PostMapping
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<?> createOrder(
             @Valid @RequestBody OrderRequest request,
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey,
+            @RequestHeader(value = "Prefer", required = false) String prefer,
             Authentication authentication) {
 
         String userId = (String) authentication.getCredentials();
-        OrderResponse created = orderService.createOrder(userId, request);
-        return ResponseEntity.status(HttpStatus.CREATED).body(created);
+        if (orderIntakeService.isAsync(prefer)) {
+            if (idempotencyKey != null
+                    && (idempotencyKey.isBlank() || idempotencyKey.length() > IdempotencyService.MAX_KEY_LENGTH)) {
+                return ResponseEntity.badRequest().body(Map.of("error", "Invalid " + IDEMPOTENCY_KEY + " header"));
+            }
+            try {
+                OrderIntakeResponse accepted = orderIntakeService.enqueue(userId, request, idempotencyKey);
+                return ResponseEntity.status(HttpStatus.ACCEPTED)
+                        .location(URI.create("/api/v1/orders/intake/" + accepted.getTrackingId()))
+                        .body(accepted);
+            } catch (BasketValidationException e) {
+                return invalidBasket(e);
+            } catch (IdempotencyKeyException e) {
+                return idempotencyKeyRejected(e);
+            }
+        }
+        try {
+            if (idempotencyKey == null) {
+                OrderResponse created = orderService.createOrder(userId, request);
+                return ResponseEntity.status(HttpStatus.CREATED).body(created);
+            }
+            return idempotent(userId, idempotencyKey, "POST /orders", request,
+                    newOrderId -> orderService.materializeOrder(newOrderId, userId, request));
+        } catch (BasketValidationException e) {
+            return invalidBasket(e);
+        } catch (ProductCacheUnavailableException e) {
+            return catalogLoading(e);
+        }
     }
 
     /**
@@ -54,6 +123,56 @@ public class OrderController {
         return ResponseEntity.ok(orderService.getOrdersByUser(userId, status, search));
     }
 
+    /**
+     * GET /api/v1/orders/my/page — Keyset-paginated orders of the current user.
+     * Supports ?status=&search=&from=&to=&minAmount=&maxAmount=&cursor=&size=
+     */
+    @GetMapping("/my/page")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<?> getMyOrdersPage(
+            @ModelAttribute OrderPageRequest pageRequest,
+            Authentication authentication) {
+
+        String userId = (String) authentication.getCredentials();
+        try {
+            return ResponseEntity.ok(orderService.getOrdersPageByUser(userId, pageRequest));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * GET /api/v1/orders/my/stream — Server-Sent Events for the current user's
+     * orders: an "order" event on every creation or status change (refetch the
+     * order for details), "resync" when updates were dropped (refetch the list).
+     */
+    @GetMapping(value = "/my/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<?> streamMyOrders(Authentication authentication) {
+        String userId = (String) authentication.getCredentials();
+        return stream(OrderStreamService.userKey(userId));
+    }
+
+    /**
+     * GET /api/v1/orders/intake/{trackingId} — State of an async order intake
+     * (owner only). Once DONE, the order is GET /{orderId} with orderId = trackingId.
+     */
+    @GetMapping("/intake/{trackingId}")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<?> getIntake(
+            @PathVariable String trackingId,
+            Authentication authentication) {
+
+        String userId = (String) authentication.getCredentials();
+        try {
+            return orderIntakeService.getIntake(trackingId, userId)
+                    .map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (SecurityException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", e.getMessage()));
+        }
+    }
+
     /** GET /api/v1/orders/{orderId} — Get a specific order (owner only) */
     @GetMapping("/{orderId}")
     @PreAuthorize("isAuthenticated()")
@@ -86,8 +205,8 @@ public class OrderController {
                     .orElse(ResponseEntity.notFound().build());
         } catch (SecurityException e) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", e.getMessage()));
-        } catch (IllegalStateException e) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", e.getMessage()));
+        } catch (OrderStatusConflictException e) {
+            return conflict(e);
         }
     }
 
@@ -99,16 +218,25 @@ public class OrderController {
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<?> reOrder(
             @PathVariable String orderId,
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey,
             Authentication authentication) {
 
         String userId = (String) authentication.getCredentials();
         try {
+            if (idempotencyKey != null) {
+                return idempotent(userId, idempotencyKey, "POST /orders/redo", orderId,
+                        newOrderId -> orderService.reOrder(orderId, userId, newOrderId));
+            }
             OrderResponse created = orderService.reOrder(orderId, userId);
             return ResponseEntity.status(HttpStatus.CREATED).body(created);
         } catch (SecurityException e) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", e.getMessage()));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", e.getMessage()));
+        } catch (BasketValidationException e) {
+            return invalidBasket(e);
+        } catch (ProductCacheUnavailableException e) {
+            return catalogLoading(e);
         }
     }
 
@@ -159,6 +287,91 @@ public class OrderController {
         return ResponseEntity.ok(orderService.getOrdersBySeller(sellerId, status, search));
     }
 
+    /**
+     * GET /api/v1/orders/seller/my/items
+     * Same filters as /seller/my, but each order only carries the seller's items
+     * and a sellerSubtotal. The JSON array is streamed from the Mongo cursor.
+     */
+    @GetMapping("/seller/my/items")
+    @PreAuthorize("hasAnyRole('ADMIN','SELLER')")
+    public ResponseEntity<StreamingResponseBody> getSellerOrderItems(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String search,
+            Authentication authentication) {
+
+        String sellerId = (String) authentication.getCredentials();
+        StreamingResponseBody body = out -> {
+            try (Stream<SellerOrderView> views = orderService.streamSellerOrderViews(sellerId, status, search);
+                    JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+                json.writeStartArray();
+                for (SellerOrderView view : (Iterable<SellerOrderView>) views::iterator) {
+                    json.writeObject(view);
+                }
+                json.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    /**
+     * GET /api/v1/orders/seller/my/export?format=ndjson|csv&gzip=false
+     * The seller's orders (own items only) for accounting, streamed from the
+     * Mongo cursor as a download. Supports ?status=, ?from= and ?to= (ISO
+     * date-times on createdAt).
+     */
+    @GetMapping("/seller/my/export")
+    @PreAuthorize("hasAnyRole('ADMIN','SELLER')")
+    public ResponseEntity<?> exportSellerOrders(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            Authentication authentication) {
+
+        String sellerId = (String) authentication.getCredentials();
+        OrderExporter.Format exportFormat;
+        try {
+            exportFormat = OrderExporter.Format.parse(format);
+            // opens the cursor here, so an unknown status is still a 400
+            Stream<SellerOrderView> orders = orderService.exportSellerOrders(sellerId, status, from, to);
+            StreamingResponseBody body = out -> orderExporter.writeSellerOrders(orders, exportFormat, gzip, out);
+            return download("seller-orders", exportFormat, gzip, body);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * GET /api/v1/orders/seller/my/page
+     * Keyset-paginated version of /seller/my with date and amount ranges.
+     */
+    @GetMapping("/seller/my/page")
+    @PreAuthorize("hasAnyRole('ADMIN','SELLER')")
+    public ResponseEntity<?> getSellerOrdersPage(
+            @ModelAttribute OrderPageRequest pageRequest,
+            Authentication authentication) {
+
+        String sellerId = (String) authentication.getCredentials();
+        try {
+            return ResponseEntity.ok(orderService.getOrdersPageBySeller(sellerId, pageRequest));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * GET /api/v1/orders/seller/my/stream
+     * Same as /my/stream for the orders containing the seller's products,
+     * including the new ones.
+     */
+    @GetMapping(value = "/seller/my/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN','SELLER')")
+    public ResponseEntity<?> streamSellerOrders(Authentication authentication) {
+        String sellerId = (String) authentication.getCredentials();
+        return stream(OrderStreamService.sellerKey(sellerId));
+    }
+
     /**
      * GET /api/v1/orders/seller/stats
      * Seller stats: total earned, top products, order counts by status.
@@ -170,6 +383,89 @@ public class OrderController {
         return ResponseEntity.ok(orderService.getSellerStats(sellerId));
     }
 
+    /**
+     * GET /api/v1/orders/trending?limit=10
+     * Platform-wide trending products: units ordered, decayed over time.
+     */
+    @GetMapping("/trending")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<Map<String, Object>> getTrending(@RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(trendingService.getTrending(Math.max(limit, 1)));
+    }
+
+    /**
+     * GET /api/v1/orders/products/{productId}/bought-together?limit=10
+     * Products most often ordered together with this one (product page).
+     */
+    @GetMapping("/products/{productId}/bought-together")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<?> getBoughtTogether(
+            @PathVariable String productId,
+            @RequestParam(defaultValue = "10") int limit) {
+        return coOccurrenceService.getBoughtTogether(productId, Math.max(limit, 1))
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElse(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .body(Map.of("error", "Recommendations are loading, retry shortly")));
+    }
+
+    /**
+     * GET /api/v1/orders/seller/trending?limit=10
+     * The authenticated seller's trending products.
+     */
+    @GetMapping("/seller/trending")
+    @PreAuthorize("hasAnyRole('ADMIN','SELLER')")
+    public ResponseEntity<Map<String, Object>> getSellerTrending(
+            @RequestParam(defaultValue = "10") int limit,
+            Authentication authentication) {
+        String sellerId = (String) authentication.getCredentials();
+        return ResponseEntity.ok(trendingService.getSellerTrending(sellerId, Math.max(limit, 1)));
+    }
+
+    /**
+     * GET /api/v1/orders/admin/stats
+     * Marketplace-wide stats: order counts by status, total earned, top products.
+     */
+    @GetMapping("/admin/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> getGlobalStats() {
+        return orderService.getGlobalStats()
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElse(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .body(Map.of("error", "Order stats are loading, retry shortly")));
+    }
+
+    /**
+     * GET /api/v1/orders/admin/export?format=ndjson|csv&gzip=false&status=
+     * Every order of the marketplace (archive included), streamed from the
+     * Mongo cursors as a download.
+     */
+    @GetMapping("/admin/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> exportOrders(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            @RequestParam(required = false) String status) {
+        OrderExporter.Format exportFormat;
+        try {
+            exportFormat = OrderExporter.Format.parse(format);
+            // opens the cursor here, so an unknown status is still a 400
+            Stream<OrderResponse> orders = orderService.exportOrders(status);
+            StreamingResponseBody body = out -> orderExporter.writeOrders(orders, exportFormat, gzip, out);
+            return download("orders", exportFormat, gzip, body);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    private static ResponseEntity<StreamingResponseBody> download(String name, OrderExporter.Format format,
+            boolean gzip, StreamingResponseBody body) {
+        String filename = name + "-" + LocalDate.now() + "." + format.getExtension() + (gzip ? ".gz" : "");
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .contentType(MediaType.parseMediaType(gzip ? "application/gzip" : format.getContentType()))
+                .body(body);
+    }
+
     // ═══════════════════════════════════════════════
     // ADMIN / SELLER — status management
     // ═══════════════════════════════════════════════
@@ -182,7 +478,8 @@ public class OrderController {
     @PreAuthorize("hasAnyRole('ADMIN','SELLER')")
     public ResponseEntity<?> updateStatus(
             @PathVariable String orderId,
-            @RequestBody Map<String, String> body) {
+            @RequestBody Map<String, String> body,
+            Authentication authentication) {
 
         String statusStr = body.get("status");
         if (statusStr == null) {
@@ -191,12 +488,114 @@ public class OrderController {
 
         try {
             OrderStatus newStatus = OrderStatus.valueOf(statusStr.toUpperCase());
-            
-            return orderService.updateOrderStatus(orderId, newStatus)
+            // Sellers may only update orders containing their products
+            String sellerId = isAdmin(authentication) ? null : (String) authentication.getCredentials();
+
+            return orderService.updateOrderStatus(orderId, newStatus, sellerId)
                     .map(ResponseEntity::ok)
                     .orElse(ResponseEntity.notFound().build());
+        } catch (SecurityException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", e.getMessage()));
+        } catch (OrderStatusConflictException e) {
+            return conflict(e);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(Map.of("error", "Invalid status: " + statusStr));
         }
     }
+
+    /**
+     * PUT /api/v1/orders/status
+     * Bulk status update (SELLER or ADMIN only).
+     * Body: { "orderIds": ["...", "..."], "status": "CONFIRMED" }
+     * Always 200 with one outcome per order (UPDATED, NOT_FOUND, FORBIDDEN, CONFLICT).
+     */
+    @PutMapping("/status")
+    @PreAuthorize("hasAnyRole('ADMIN','SELLER')")
+    public ResponseEntity<?> updateStatuses(@RequestBody BulkStatusRequest body, Authentication authentication) {
+        if (body.getStatus() == null) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Status is required"));
+        }
+        if (body.getOrderIds() == null || body.getOrderIds().isEmpty()) {
+            return ResponseEntity.badRequest().body(Map.of("error", "orderIds is required"));
+        }
+
+        OrderStatus newStatus;
+        try {
+            newStatus = OrderStatus.valueOf(body.getStatus().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid status: " + body.getStatus()));
+        }
+        String sellerId = isAdmin(authentication) ? null : (String) authentication.getCredentials();
+
+        try {
+            return ResponseEntity.ok(orderService.bulkUpdateOrderStatus(body.getOrderIds(), newStatus, sellerId));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Runs a creating action once per Idempotency-Key: 201 with the first
+     * response (Idempotent-Replayed: true on replays), 409 while the first
+     * request is still running, 422 if the key was used for another request.
+     */
+    private ResponseEntity<?> idempotent(String userId, String key, String operation, Object payload,
+            Function<String, OrderResponse> action) {
+        if (key.isBlank() || key.length() > IdempotencyService.MAX_KEY_LENGTH) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid " + IDEMPOTENCY_KEY + " header"));
+        }
+        try {
+            IdempotencyService.Result result = idempotencyService.execute(userId, key, operation, payload,
+                    HttpStatus.CREATED.value(), action);
+            return ResponseEntity.status(HttpStatus.CREATED)
+                    .header("Idempotent-Replayed", String.valueOf(result.replayed()))
+                    .body(result.response());
+        } catch (IdempotencyKeyException e) {
+            return idempotencyKeyRejected(e);
+        }
+    }
+
+    private ResponseEntity<?> stream(String key) {
+        try {
+            return ResponseEntity.ok().header("X-Accel-Buffering", "no").body(orderStreamService.subscribe(key));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // 409: invalid transition, or the status was changed concurrently
+    private static ResponseEntity<?> conflict(OrderStatusConflictException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of(
+                "error", e.getMessage(),
+                "currentStatus", e.getCurrentStatus()));
+    }
+
+    // 409 while the first request is still running, 422 if the key was used for another request
+    private static ResponseEntity<?> idempotencyKeyRejected(IdempotencyKeyException e) {
+        HttpStatus status = e.getReason() == IdempotencyKeyException.Reason.IN_PROGRESS
+                ? HttpStatus.CONFLICT
+                : HttpStatus.UNPROCESSABLE_ENTITY;
+        return ResponseEntity.status(status).body(Map.of("error", e.getMessage()));
+    }
+
+    // 409: unknown product or not enough stock, per product
+    private static ResponseEntity<?> invalidBasket(BasketValidationException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of(
+                "error", e.getMessage(),
+                "problems", e.getProblems()));
+    }
+
+    // 503: prices and stock cannot be checked yet on this replica
+    private static ResponseEntity<?> catalogLoading(ProductCacheUnavailableException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "5")
+                .body(Map.of("error", e.getMessage()));
+    }
+
+    private static boolean isAdmin(Authentication authentication) {
+        return authentication.getAuthorities().stream()
+                .anyMatch(authority -> "ROLE_ADMIN".equals(authority.getAuthority()));
+    }
 }
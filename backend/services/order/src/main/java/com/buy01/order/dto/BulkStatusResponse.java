@@ -0,0 +1,39 @@
+package com.buy01.order.dto;
+
+import com.buy01.order.model.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk status update, one result per requested order, in request
+ * order. The request itself succeeds even when some orders are rejected.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkStatusResponse {
+    private OrderStatus status;
+    private int updated;
+    private List<Result> results;
+
+    public enum Outcome {
+        UPDATED,
+        NOT_FOUND,
+        FORBIDDEN,
+        CONFLICT
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Result {
+        private String orderId;
+        private Outcome outcome;
+
+        // Status after the call: the new one when UPDATED, the blocking one when CONFLICT
+        private OrderStatus currentStatus;
+    }
+}
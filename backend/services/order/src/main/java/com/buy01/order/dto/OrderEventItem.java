@@ -0,0 +1,15 @@
+package com.buy01.order.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderEventItem {
+    private String productId;
+    private String sellerId;
+    private int quantity;
+    private double price;
+}
@@ -0,0 +1,24 @@
+package com.buy01.order.dto;
+
+import com.buy01.order.model.OrderIntake;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * State of an async order intake. orderId equals trackingId and can be
+ * fetched once status is DONE.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderIntakeResponse {
+    private String trackingId;
+    private OrderIntake.Status status;
+    private String orderId;
+    private String error;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
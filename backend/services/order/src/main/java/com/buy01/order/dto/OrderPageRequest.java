@@ -0,0 +1,37 @@
+package com.buy01.order.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+/**
+ * Query parameters of the paginated listings
+ * (?status=&search=&from=&to=&minAmount=&maxAmount=&cursor=&size=).
+ */
+@Data
+@NoArgsConstructor
+public class OrderPageRequest {
+
+    private String status;
+
+    private String search;
+
+    // createdAt >= from
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime from;
+
+    // createdAt < to
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime to;
+
+    private Double minAmount;
+
+    private Double maxAmount;
+
+    // nextCursor of the previous page, empty for the first page
+    private String cursor;
+
+    private int size = 20;
+}
@@ -0,0 +1,17 @@
+package com.buy01.order.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderPageResponse {
+    private List<OrderResponse> items;
+
+    // null when there is no further page
+    private String nextCursor;
+}
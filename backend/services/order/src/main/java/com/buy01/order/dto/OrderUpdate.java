@@ -0,0 +1,29 @@
+package com.buy01.order.dto;
+
+import com.buy01.order.event.OrderLifecycleEvent;
+import com.buy01.order.model.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Change notification fanned out to every order-service replica on
+ * order-updates and pushed to the SSE subscribers of the buyer and sellers.
+ * Carries no items: clients refetch the order when they need more.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderUpdate {
+    private OrderLifecycleEvent.Type type;
+    private String orderId;
+    private String userId;
+    private List<String> sellerIds;
+    private OrderStatus status;
+    private OrderStatus previousStatus;
+    private double totalAmount;
+    private LocalDateTime occurredAt;
+}
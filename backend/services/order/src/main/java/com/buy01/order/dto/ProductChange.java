@@ -0,0 +1,21 @@
+package com.buy01.order.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A product-state record as read by order-service: the full state of the
+ * product after its last write. A deleted product is a tombstone (no value).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductChange {
+    private String productId;
+    private String eventType;
+    private String sellerId;
+    private String name;
+    private Double price;
+    private int quantity;
+}
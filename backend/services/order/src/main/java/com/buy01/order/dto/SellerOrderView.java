@@ -0,0 +1,28 @@
+package com.buy01.order.dto;
+
+import com.buy01.order.model.OrderItem;
+import com.buy01.order.model.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * An order as seen by one seller: only that seller's line items and their
+ * subtotal, without the rest of the buyer's basket.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SellerOrderView {
+    private String id;
+    private String userId;
+    private List<OrderItem> items;
+    private Double sellerSubtotal;
+    private OrderStatus status;
+    private String paymentMethod;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,42 @@
+package com.buy01.order.event;
+
+import com.buy01.order.model.Order;
+import com.buy01.order.model.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * In-process Spring event published by OrderService after every write on an
+ * order. Read models (seller stats, ...) listen to it instead of being called
+ * directly from the service.
+ */
+@Getter
+@AllArgsConstructor
+public class OrderLifecycleEvent {
+
+    public enum Type {
+        CREATED,
+        STATUS_CHANGED,
+        DELETED
+    }
+
+    private final Type type;
+
+    /** State of the order after the change (the removed order for DELETED). */
+    private final Order order;
+
+    /** Status before the change, only set for STATUS_CHANGED. */
+    private final OrderStatus previousStatus;
+
+    public static OrderLifecycleEvent created(Order order) {
+        return new OrderLifecycleEvent(Type.CREATED, order, null);
+    }
+
+    public static OrderLifecycleEvent statusChanged(Order order, OrderStatus previousStatus) {
+        return new OrderLifecycleEvent(Type.STATUS_CHANGED, order, previousStatus);
+    }
+
+    public static OrderLifecycleEvent deleted(Order order) {
+        return new OrderLifecycleEvent(Type.DELETED, order, null);
+    }
+}
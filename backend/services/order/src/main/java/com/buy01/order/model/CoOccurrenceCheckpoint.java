@@ -0,0 +1,40 @@
+package com.buy01.order.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Single document: the product_neighbours of generation (and earlier ones
+ * not rewritten since) hold every order created up to watermark, plus the
+ * later ones listed in recentOrders. A starting replica loads them and
+ * replays only the other later orders.
+ */
+@Document("co_occurrence_checkpoint")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CoOccurrenceCheckpoint {
+    public static final String ID = "product_neighbours";
+
+    @Id
+    private String id;
+
+    private long generation;
+
+    // low watermark: snapshot time minus the lag allowed to order-updates
+    private LocalDateTime watermark;
+
+    // orderId -> createdAt of the orders counted with createdAt after watermark
+    private Map<String, LocalDateTime> recentOrders = new HashMap<>();
+
+    private long orders;
+
+    private LocalDateTime savedAt;
+}
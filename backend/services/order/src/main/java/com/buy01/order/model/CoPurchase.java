@@ -0,0 +1,15 @@
+package com.buy01.order.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CoPurchase {
+    private String productId;
+    private String name;
+    // orders containing both products
+    private int count;
+}
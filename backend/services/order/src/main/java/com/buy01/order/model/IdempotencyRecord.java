@@ -0,0 +1,50 @@
+package com.buy01.order.model;
+
+import com.buy01.order.dto.OrderResponse;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * First outcome of a request sent with an Idempotency-Key
+ * (_id = userId:key). The _id unique index settles concurrent duplicates;
+ * records expire 24h after creation.
+ */
+@Document("idempotency_keys")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotencyRecord {
+
+    public enum State {
+        IN_PROGRESS,
+        COMPLETED
+    }
+
+    @Id
+    private String id;
+
+    // SHA-256 of the operation and its payload: a key reused for another request is rejected
+    private String fingerprint;
+
+    private State state;
+
+    private int responseStatus;
+
+    private OrderResponse response;
+
+    // Id the order gets if the request creates one, chosen before running it
+    private String orderId;
+
+    @Indexed(name = "created_ttl_idx", expireAfter = "24h")
+    private LocalDateTime createdAt;
+
+    public static String idOf(String userId, String key) {
+        return userId + ":" + key;
+    }
+}
@@ -0,0 +1,23 @@
+package com.buy01.order.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/** One document per job (_id = job name) naming the replica allowed to run it until lockedUntil. */
+@Document("job_leases")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobLease {
+    @Id
+    private String id;
+
+    private String owner;
+
+    private Instant lockedUntil;
+}
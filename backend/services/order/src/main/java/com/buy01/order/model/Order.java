@@ -4,12 +4,21 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @Document("orders")
+// Keyset listings: equality on user + status, range/sort on createdAt, _id as tie-breaker
+@CompoundIndex(name = "user_status_created_idx", def = "{ 'userId': 1, 'status': 1, 'createdAt': -1, '_id': -1 }")
+// Archiver: aged orders in a terminal status
+@CompoundIndex(name = "status_created_idx", def = "{ 'status': 1, 'createdAt': 1 }")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -31,4 +40,24 @@ public class Order {
     private LocalDateTime createdAt;
 
     private LocalDateTime updatedAt;
+
+    // Token of the bulk status change that last moved the order (see transitionStatuses)
+    private String lastTransitionId;
+
+    // Trigrams of item names for ?search= (see OrderSearchTokens), set on save
+    @Indexed
+    private List<String> searchTokens;
+
+    /** Items grouped by seller (items without sellerId are ignored). */
+    public Map<String, List<OrderItem>> itemsBySeller() {
+        Map<String, List<OrderItem>> bySeller = new LinkedHashMap<>();
+        if (items != null) {
+            for (OrderItem item : items) {
+                if (item.getSellerId() != null) {
+                    bySeller.computeIfAbsent(item.getSellerId(), k -> new ArrayList<>()).add(item);
+                }
+            }
+        }
+        return bySeller;
+    }
 }
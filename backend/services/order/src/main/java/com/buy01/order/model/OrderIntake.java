@@ -0,0 +1,61 @@
+package com.buy01.order.model;
+
+import com.buy01.order.dto.OrderRequest;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * An order accepted in async intake mode (_id = tracking ID, reused as the
+ * order id). Workers claim QUEUED entries and materialize them into orders.
+ */
+@Document("order_intake")
+@CompoundIndex(name = "status_created_idx", def = "{ 'status': 1, 'createdAt': 1 }")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderIntake {
+
+    public enum Status {
+        QUEUED,
+        PROCESSING,
+        DONE,
+        FAILED
+    }
+
+    @Id
+    private String id;
+
+    private String userId;
+
+    private OrderRequest request;
+
+    private Status status;
+
+    // userId:Idempotency-Key when the client sent one; unique so a retried POST maps to the same intake
+    @Indexed(unique = true, sparse = true)
+    private String idempotencyKey;
+
+    // Fingerprint of the request (IdempotencyService), so a key reused for another request is rejected
+    private String requestFingerprint;
+
+    private int attempts;
+
+    private String error;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime claimedAt;
+
+    private LocalDateTime updatedAt;
+
+    // Set once DONE/FAILED; the entry is removed by the TTL index at that time
+    @Indexed(name = "expire_at_idx", expireAfter = "0s")
+    private LocalDateTime expireAt;
+}
@@ -13,4 +13,8 @@ public class OrderItem {
     private String sellerId; // ID du vendeur propriétaire du produit
     private Double price;
     private int quantity;
+
+    public double subtotal() {
+        return price * quantity;
+    }
 }
@@ -1,8 +1,57 @@
 package com.buy01.order.model;
 
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
 public enum OrderStatus {
     PENDING,
     CONFIRMED,
     CANCELLED,
-    DELIVERED
+    DELIVERED;
+
+    // Allowed transitions (same table as the frontend): DELIVERED and CANCELLED are final
+    private static final Map<OrderStatus, Set<OrderStatus>> TRANSITIONS = new EnumMap<>(OrderStatus.class);
+
+    static {
+        TRANSITIONS.put(PENDING, EnumSet.of(CONFIRMED, CANCELLED));
+        TRANSITIONS.put(CONFIRMED, EnumSet.of(DELIVERED, CANCELLED));
+        TRANSITIONS.put(DELIVERED, EnumSet.noneOf(OrderStatus.class));
+        TRANSITIONS.put(CANCELLED, EnumSet.noneOf(OrderStatus.class));
+    }
+
+    public boolean canTransitionTo(OrderStatus target) {
+        return TRANSITIONS.get(this).contains(target);
+    }
+
+    /** Statuses an order may be in to move to target. */
+    public static Set<OrderStatus> sourcesOf(OrderStatus target) {
+        Set<OrderStatus> sources = EnumSet.noneOf(OrderStatus.class);
+        TRANSITIONS.forEach((source, targets) -> {
+            if (targets.contains(target)) {
+                sources.add(source);
+            }
+        });
+        return sources;
+    }
+
+    /**
+     * Statuses from which target can be reached in one or more transitions:
+     * a copy in one of them is behind target, any other is at or past it.
+     */
+    public static Set<OrderStatus> predecessorsOf(OrderStatus target) {
+        Set<OrderStatus> predecessors = EnumSet.noneOf(OrderStatus.class);
+        Set<OrderStatus> frontier = sourcesOf(target);
+        while (!frontier.isEmpty()) {
+            Set<OrderStatus> next = EnumSet.noneOf(OrderStatus.class);
+            for (OrderStatus status : frontier) {
+                if (predecessors.add(status)) {
+                    next.addAll(sourcesOf(status));
+                }
+            }
+            frontier = next;
+        }
+        return predecessors;
+    }
 }
@@ -0,0 +1,41 @@
+package com.buy01.order.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * An event waiting to be sent to Kafka. Written by the service right after the
+ * domain change it describes, then drained and deleted by OutboxRelay.
+ * _id is an ObjectId: ascending _id is only write order within one replica
+ * (its timestamp has second precision, then a per-process counter), so an
+ * aggregate written from several replicas is ordered by version instead.
+ */
+@Document("outbox")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEvent {
+    @Id
+    private String id;
+
+    private String topic;
+
+    // Kafka key; events of one aggregate are relayed in order
+    private String aggregateId;
+
+    // Version of the aggregate after the change, increasing with each write;
+    // null for events that need no ordering (sent as written)
+    private Long version;
+
+    private String eventType;
+
+    // Stored with its _class so the relay sends the original event type
+    private Object payload;
+
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,53 @@
+package com.buy01.order.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Snapshot of one product's entry in the co-occurrence index, only read back
+ * when a replica starts. Bounded: the neighbours kept in memory.
+ * One document per product and snapshot generation (_id =
+ * productId:generation): a starting replica takes, for each product, the
+ * latest generation covered by the checkpoint.
+ */
+@Document("product_neighbours")
+@CompoundIndex(name = "product_generation", def = "{'productId': 1, 'generation': -1}")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductNeighbours {
+    @Id
+    private String id;
+
+    private String productId;
+
+    private long generation;
+
+    private String name;
+
+    // orders containing the product
+    private int orders;
+
+    private List<CoPurchase> neighbours = new ArrayList<>();
+
+    private LocalDateTime updatedAt;
+
+    public ProductNeighbours(String productId, String name, int orders, List<CoPurchase> neighbours,
+            LocalDateTime updatedAt) {
+        this(null, productId, 0, name, orders, neighbours, updatedAt);
+    }
+
+    /** Tags the snapshot with the generation it is written under. */
+    public void stamp(long generation) {
+        this.generation = generation;
+        this.id = productId + ":" + generation;
+    }
+}
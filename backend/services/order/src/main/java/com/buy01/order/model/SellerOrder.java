@@ -0,0 +1,56 @@
+package com.buy01.order.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * One seller's share of an order (_id = orderId:sellerId), written when the
+ * order is created and kept in step with its status. Seller queries hit this
+ * collection on a plain sellerId key instead of a multikey scan of
+ * orders.items.sellerId.
+ */
+@Document("seller_orders")
+@CompoundIndex(name = "seller_status_created_idx", def = "{ 'sellerId': 1, 'status': 1, 'createdAt': -1, '_id': -1 }")
+@CompoundIndex(name = "seller_tokens_idx", def = "{ 'sellerId': 1, 'searchTokens': 1 }")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SellerOrder {
+    @Id
+    private String id;
+
+    @Indexed
+    private String orderId;
+
+    private String sellerId;
+
+    private String userId;
+
+    // Only this seller's items
+    private List<OrderItem> items;
+
+    private Double subtotal;
+
+    private OrderStatus status;
+
+    private String paymentMethod;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+
+    // Trigrams of this seller's item names (see OrderSearchTokens)
+    private List<String> searchTokens;
+
+    public static String idOf(String orderId, String sellerId) {
+        return orderId + ":" + sellerId;
+    }
+}
@@ -0,0 +1,41 @@
+package com.buy01.order.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * Per seller/product sales counters (_id = sellerId:productId), incremented on
+ * order creation/deletion. Source of the seller's top products.
+ */
+@Document("seller_product_stats")
+@CompoundIndex(name = "seller_quantity_idx", def = "{ 'sellerId': 1, 'quantity': -1 }")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SellerProductStats {
+    @Id
+    private String id;
+
+    private String sellerId;
+
+    private String productId;
+
+    private String name;
+
+    private long quantity;
+
+    private double revenue;
+
+    // Last write, live or rebuild: a rebuild never overwrites a counter written after it started
+    private LocalDateTime updatedAt;
+
+    public static String idOf(String sellerId, String productId) {
+        return sellerId + ":" + productId;
+    }
+}
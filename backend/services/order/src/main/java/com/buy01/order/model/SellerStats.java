@@ -0,0 +1,38 @@
+package com.buy01.order.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * Pre-aggregated dashboard counters for one seller (_id = sellerId).
+ * Maintained with $inc on every order transition, rebuilt by the reconciliation job.
+ * Top products are read from seller_product_stats.
+ */
+@Document("seller_stats")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SellerStats {
+    @Id
+    private String sellerId;
+
+    private long totalOrders;
+
+    private long pendingOrders;
+
+    private long confirmedOrders;
+
+    private long deliveredOrders;
+
+    private long cancelledOrders;
+
+    // Revenue of CONFIRMED + DELIVERED orders (seller's items only)
+    private double totalEarned;
+
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,37 @@
+package com.buy01.order.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * Per-user order totals (_id = userId), maintained incrementally from order
+ * lifecycle events so /stats/spent is a single primary-key read.
+ */
+@Document("user_order_summaries")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserOrderSummary {
+    @Id
+    private String userId;
+
+    // Sum of totalAmount for non-cancelled orders
+    private double totalSpent;
+
+    private long totalOrders;
+
+    private long pendingOrders;
+
+    private long confirmedOrders;
+
+    private long deliveredOrders;
+
+    private long cancelledOrders;
+
+    private LocalDateTime lastOrderAt;
+}
@@ -0,0 +1,127 @@
+package com.buy01.order.repository;
+
+import com.buy01.order.model.Order;
+import com.buy01.order.model.OrderStatus;
+import com.buy01.order.model.SellerOrder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+/**
+ * Cold tier: orders_archive and seller_orders_archive hold aged DELIVERED /
+ * CANCELLED orders moved out by OrderArchiver, in the same shape (and with
+ * the same indexes) as orders and seller_orders, so listings run the same
+ * criteria on both tiers.
+ */
+@Repository
+@RequiredArgsConstructor
+public class OrderArchiveRepository {
+
+    public static final String ORDERS = "orders_archive";
+    public static final String SELLER_ORDERS = "seller_orders_archive";
+
+    private final MongoTemplate mongoTemplate;
+
+    /** auto-index-creation only covers the entities' own collections. */
+    public void ensureIndexes() {
+        MongoPersistentEntityIndexResolver resolver =
+                new MongoPersistentEntityIndexResolver(mongoTemplate.getConverter().getMappingContext());
+        IndexOperations orderIndexes = mongoTemplate.indexOps(ORDERS);
+        resolver.resolveIndexFor(Order.class).forEach(orderIndexes::ensureIndex);
+        IndexOperations sellerOrderIndexes = mongoTemplate.indexOps(SELLER_ORDERS);
+        resolver.resolveIndexFor(SellerOrder.class).forEach(sellerOrderIndexes::ensureIndex);
+    }
+
+    /**
+     * Copies the orders and their seller_orders into the archive. Replace-upserts
+     * by id, so a batch interrupted before its removal from the hot tier can be
+     * archived again.
+     */
+    public void archive(List<Order> orders, List<SellerOrder> sellerOrders) {
+        upsertAll(orders, Order.class, Order::getId, ORDERS);
+        upsertAll(sellerOrders, SellerOrder.class, SellerOrder::getId, SELLER_ORDERS);
+    }
+
+    private <T> void upsertAll(List<T> documents, Class<T> type, Function<T, String> id, String collection) {
+        if (documents.isEmpty()) {
+            return;
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, type, collection);
+        for (T document : documents) {
+            bulk.replaceOne(query(where("id").is(id.apply(document))), document,
+                    FindAndReplaceOptions.options().upsert());
+        }
+        bulk.execute();
+    }
+
+    public Optional<Order> findById(String orderId) {
+        return Optional.ofNullable(mongoTemplate.findById(orderId, Order.class, ORDERS));
+    }
+
+    public List<Order> findAllById(Collection<String> orderIds) {
+        return mongoTemplate.find(query(where("id").in(orderIds)), Order.class, ORDERS);
+    }
+
+    /** Same contract as OrderRepository.findOrders, on the archive. */
+    public List<Order> findOrders(OrderFilter filter, OrderCursor after, int limit) {
+        return mongoTemplate.find(newestFirst(filter, after, "totalAmount", limit), Order.class, ORDERS);
+    }
+
+    /** Same contract as SellerOrderRepository.findSellerOrders, on the archive. */
+    public List<SellerOrder> findSellerOrders(OrderFilter filter, OrderCursor after, int limit) {
+        return mongoTemplate.find(newestFirst(filter, after, "subtotal", limit), SellerOrder.class, SELLER_ORDERS);
+    }
+
+    /** Same contract as SellerOrderRepository.streamSellerOrders, on the archive. */
+    public Stream<SellerOrder> streamSellerOrders(OrderFilter filter, int batchSize) {
+        Query query = newestFirst(filter, null, "subtotal", 0);
+        if (batchSize > 0) {
+            query.cursorBatchSize(batchSize);
+        }
+        return mongoTemplate.stream(query, SellerOrder.class, SELLER_ORDERS);
+    }
+
+    /** Same contract as OrderRepository.findAllByStatus, on the archive. */
+    public Stream<Order> streamAllByStatus(OrderStatus status, int batchSize) {
+        return mongoTemplate.stream(OrderRepositoryImpl.byStatus(status, batchSize), Order.class, ORDERS);
+    }
+
+    /** Every archived order, as read by the given query (e.g. a projection). */
+    public Stream<Order> streamAllOrders(Query query) {
+        return mongoTemplate.stream(query, Order.class, ORDERS);
+    }
+
+    /** Every archived seller order, for the read-model rebuilds. */
+    public Stream<SellerOrder> streamAllSellerOrders() {
+        return mongoTemplate.stream(new Query(), SellerOrder.class, SELLER_ORDERS);
+    }
+
+    public void deleteById(String orderId) {
+        mongoTemplate.remove(query(where("orderId").is(orderId)), SellerOrder.class, SELLER_ORDERS);
+        mongoTemplate.remove(query(where("id").is(orderId)), Order.class, ORDERS);
+    }
+
+    private static Query newestFirst(OrderFilter filter, OrderCursor after, String amountField, int limit) {
+        Query query = new Query(OrderCriteria.of(filter, after, amountField))
+                .with(Sort.by(Sort.Direction.DESC, "createdAt").and(Sort.by(Sort.Direction.DESC, "id")));
+        if (limit > 0) {
+            query.limit(limit);
+        }
+        return query;
+    }
+}
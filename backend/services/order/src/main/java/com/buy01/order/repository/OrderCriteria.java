@@ -0,0 +1,78 @@
+package com.buy01.order.repository;
+
+import com.buy01.order.model.OrderStatus;
+import com.buy01.order.util.OrderSearchTokens;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Builds the listing criteria shared by orders (filter.userId) and
+ * seller_orders (filter.sellerId). Both collections carry status, createdAt,
+ * searchTokens and items; only the amount field differs.
+ */
+final class OrderCriteria {
+
+    private OrderCriteria() {
+    }
+
+    static Criteria of(OrderFilter filter, OrderCursor after, String amountField) {
+        List<Criteria> and = new ArrayList<>();
+
+        if (filter.getUserId() != null) {
+            and.add(where("userId").is(filter.getUserId()));
+        }
+        if (filter.getSellerId() != null) {
+            and.add(where("sellerId").is(filter.getSellerId()));
+        }
+
+        // Without a status filter we still constrain status with $in over all values:
+        // the {owner, status, createdAt} indexes can then serve the createdAt sort
+        // with a SORT_MERGE of one index range per status instead of a blocking sort.
+        if (filter.getStatus() != null) {
+            and.add(where("status").is(filter.getStatus()));
+        } else {
+            and.add(where("status").in(Arrays.asList(OrderStatus.values())));
+        }
+
+        if (filter.getFrom() != null) {
+            and.add(where("createdAt").gte(filter.getFrom()));
+        }
+        if (filter.getTo() != null) {
+            and.add(where("createdAt").lt(filter.getTo()));
+        }
+        if (filter.getMinAmount() != null) {
+            and.add(where(amountField).gte(filter.getMinAmount()));
+        }
+        if (filter.getMaxAmount() != null) {
+            and.add(where(amountField).lte(filter.getMaxAmount()));
+        }
+
+        if (filter.getSearch() != null && !filter.getSearch().isBlank()) {
+            String search = filter.getSearch().trim();
+            List<String> grams = OrderSearchTokens.ofQuery(search);
+            if (!grams.isEmpty()) {
+                // Index-served pre-filter on trigrams
+                and.add(where("searchTokens").all(grams));
+            }
+            // Exact substring check on the item names
+            and.add(where("items").elemMatch(where("productName")
+                    .regex(Pattern.compile(Pattern.quote(search), Pattern.CASE_INSENSITIVE))));
+        }
+
+        if (after != null) {
+            and.add(new Criteria().orOperator(
+                    where("createdAt").lt(after.createdAt()),
+                    new Criteria().andOperator(
+                            where("createdAt").is(after.createdAt()),
+                            where("id").lt(after.id()))));
+        }
+
+        return new Criteria().andOperator(and.toArray(new Criteria[0]));
+    }
+}
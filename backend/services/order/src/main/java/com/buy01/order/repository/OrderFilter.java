@@ -0,0 +1,39 @@
+package com.buy01.order.repository;
+
+import com.buy01.order.model.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Filters for order listings. Exactly one of userId (orders) / sellerId
+ * (seller_orders) is expected; every other field is optional.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderFilter {
+    private String userId;
+    private String sellerId;
+    private OrderStatus status;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private Double minAmount;
+    private Double maxAmount;
+    // Case-insensitive substring of a product name
+    private String search;
+
+    public static OrderFilter forUser(String userId) {
+        OrderFilter filter = new OrderFilter();
+        filter.setUserId(userId);
+        return filter;
+    }
+
+    public static OrderFilter forSeller(String sellerId) {
+        OrderFilter filter = new OrderFilter();
+        filter.setSellerId(sellerId);
+        return filter;
+    }
+}
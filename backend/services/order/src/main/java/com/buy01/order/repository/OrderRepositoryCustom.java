@@ -0,0 +1,45 @@
+package com.buy01.order.repository;
+
+import com.buy01.order.model.Order;
+import com.buy01.order.model.OrderStatus;
+
+import java.time.LocalDateTime;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+public interface OrderRepositoryCustom {
+
+    /**
+     * Orders of filter.userId matching the filter, newest first (createdAt DESC, _id DESC),
+     * strictly after the given cursor. limit <= 0 means no limit.
+     */
+    List<Order> findOrders(OrderFilter filter, OrderCursor after, int limit);
+
+    /**
+     * Atomically moves the order to status {@code to} if it is currently in one
+     * of {@code from} (and belongs to userId when given). Returns the order as it
+     * was before the update, or null when nothing matched.
+     */
+    Order transitionStatus(String orderId, String userId, Set<OrderStatus> from, OrderStatus to, LocalDateTime at);
+
+    /**
+     * Bulk counterpart of transitionStatus: one unordered bulkWrite moving each
+     * order to {@code to} if it still has the status it is mapped to. Returns
+     * the ids that were actually updated.
+     */
+    Set<String> transitionStatuses(Map<String, OrderStatus> expected, OrderStatus to, LocalDateTime at);
+
+    /**
+     * Every order in the given status (every order when null) for the admin
+     * export: oldest first on the status index when a status is given,
+     * natural order otherwise. batchSize documents per round trip (driver
+     * default when <= 0); the stream holds a cursor and must be closed.
+     */
+    Stream<Order> findAllByStatus(OrderStatus status, int batchSize);
+
+    /** Computes searchTokens for orders written before they existed; returns the number updated. */
+    long backfillSearchTokens();
+}
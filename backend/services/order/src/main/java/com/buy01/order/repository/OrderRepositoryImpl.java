@@ -0,0 +1,119 @@
+package com.buy01.order.repository;
+
+import com.buy01.order.model.Order;
+import com.buy01.order.model.OrderStatus;
+import com.buy01.order.util.OrderSearchTokens;
+import lombok.RequiredArgsConstructor;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+@RequiredArgsConstructor
+public class OrderRepositoryImpl implements OrderRepositoryCustom {
+
+    private static final int BACKFILL_BATCH = 500;
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public Stream<Order> findAllByStatus(OrderStatus status, int batchSize) {
+        return mongoTemplate.stream(byStatus(status, batchSize), Order.class);
+    }
+
+    /** Shared with the archive, which has the same indexes. */
+    static Query byStatus(OrderStatus status, int batchSize) {
+        Query query = new Query();
+        if (status != null) {
+            query.addCriteria(where("status").is(status)).with(Sort.by(Sort.Direction.ASC, "createdAt"));
+        }
+        if (batchSize > 0) {
+            query.cursorBatchSize(batchSize);
+        }
+        return query;
+    }
+
+    @Override
+    public List<Order> findOrders(OrderFilter filter, OrderCursor after, int limit) {
+        Query query = new Query(OrderCriteria.of(filter, after, "totalAmount"))
+                .with(Sort.by(Sort.Direction.DESC, "createdAt").and(Sort.by(Sort.Direction.DESC, "id")));
+        if (limit > 0) {
+            query.limit(limit);
+        }
+        return mongoTemplate.find(query, Order.class);
+    }
+
+    @Override
+    public Order transitionStatus(String orderId, String userId, Set<OrderStatus> from, OrderStatus to,
+            LocalDateTime at) {
+        Criteria criteria = where("id").is(orderId).and("status").in(from);
+        if (userId != null) {
+            criteria = criteria.and("userId").is(userId);
+        }
+        return mongoTemplate.findAndModify(new Query(criteria),
+                new Update().set("status", to).set("updatedAt", at),
+                FindAndModifyOptions.options().returnNew(false),
+                Order.class);
+    }
+
+    @Override
+    public Set<String> transitionStatuses(Map<String, OrderStatus> expected, OrderStatus to, LocalDateTime at) {
+        if (expected.isEmpty()) {
+            return Set.of();
+        }
+        String transitionId = new ObjectId().toHexString();
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Order.class);
+        expected.forEach((orderId, status) -> bulk.updateOne(
+                new Query(where("id").is(orderId).and("status").is(status)),
+                new Update().set("status", to).set("updatedAt", at).set("lastTransitionId", transitionId)));
+        int modified = bulk.execute().getModifiedCount();
+        if (modified == expected.size()) {
+            return expected.keySet();
+        }
+        // The bulk result has no per-operation count: the orders stamped with
+        // this call's token are the ones it moved (updatedAt may be shared by
+        // a concurrent call in the same millisecond)
+        Query moved = new Query(where("id").in(expected.keySet()).and("lastTransitionId").is(transitionId));
+        moved.fields().include("id");
+        return mongoTemplate.find(moved, Order.class).stream()
+                .map(Order::getId)
+                .collect(Collectors.toSet());
+    }
+
+    @Override
+    public long backfillSearchTokens() {
+        long updated = 0;
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Order.class);
+        int pending = 0;
+        try (Stream<Order> orders = mongoTemplate.stream(new Query(where("searchTokens").exists(false)), Order.class)) {
+            for (Order order : (Iterable<Order>) orders::iterator) {
+                bulk.updateOne(new Query(where("id").is(order.getId())),
+                        new Update().set("searchTokens", OrderSearchTokens.of(order.getItems())));
+                if (++pending == BACKFILL_BATCH) {
+                    bulk.execute();
+                    updated += pending;
+                    pending = 0;
+                    bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Order.class);
+                }
+            }
+        }
+        if (pending > 0) {
+            bulk.execute();
+            updated += pending;
+        }
+        return updated;
+    }
+}
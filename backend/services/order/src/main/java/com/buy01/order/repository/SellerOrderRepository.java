@@ -0,0 +1,7 @@
+package com.buy01.order.repository;
+
+import com.buy01.order.model.SellerOrder;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+public interface SellerOrderRepository extends MongoRepository<SellerOrder, String>, SellerOrderRepositoryCustom {
+}
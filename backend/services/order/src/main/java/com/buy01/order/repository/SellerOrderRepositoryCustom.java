@@ -0,0 +1,22 @@
+package com.buy01.order.repository;
+
+import com.buy01.order.model.SellerOrder;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface SellerOrderRepositoryCustom {
+
+    /**
+     * Seller orders of filter.sellerId, newest first (createdAt DESC, _id DESC),
+     * strictly after the given cursor. limit <= 0 means no limit.
+     */
+    List<SellerOrder> findSellerOrders(OrderFilter filter, OrderCursor after, int limit);
+
+    /**
+     * Same as findSellerOrders without a cursor, fetched batchSize documents
+     * per round trip (driver default when <= 0); the stream holds a cursor and
+     * must be closed.
+     */
+    Stream<SellerOrder> streamSellerOrders(OrderFilter filter, int batchSize);
+}
@@ -0,0 +1,39 @@
+package com.buy01.order.repository;
+
+import com.buy01.order.model.SellerOrder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+@RequiredArgsConstructor
+public class SellerOrderRepositoryImpl implements SellerOrderRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public List<SellerOrder> findSellerOrders(OrderFilter filter, OrderCursor after, int limit) {
+        Query query = newestFirst(filter, after);
+        if (limit > 0) {
+            query.limit(limit);
+        }
+        return mongoTemplate.find(query, SellerOrder.class);
+    }
+
+    @Override
+    public Stream<SellerOrder> streamSellerOrders(OrderFilter filter, int batchSize) {
+        Query query = newestFirst(filter, null);
+        if (batchSize > 0) {
+            query.cursorBatchSize(batchSize);
+        }
+        return mongoTemplate.stream(query, SellerOrder.class);
+    }
+
+    private static Query newestFirst(OrderFilter filter, OrderCursor after) {
+        return new Query(OrderCriteria.of(filter, after, "subtotal"))
+                .with(Sort.by(Sort.Direction.DESC, "createdAt").and(Sort.by(Sort.Direction.DESC, "id")));
+    }
+}
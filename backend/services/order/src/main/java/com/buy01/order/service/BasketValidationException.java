@@ -0,0 +1,21 @@
+package com.buy01.order.service;
+
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The basket does not match the products as currently known: unknown or
+ * deleted product, or more units than in stock. One problem per product.
+ */
+@Getter
+public class BasketValidationException extends RuntimeException {
+
+    private final List<Map<String, Object>> problems;
+
+    public BasketValidationException(List<Map<String, Object>> problems) {
+        super("Some items cannot be ordered");
+        this.problems = problems;
+    }
+}
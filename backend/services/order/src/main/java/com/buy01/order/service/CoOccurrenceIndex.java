@@ -0,0 +1,209 @@
+package com.buy01.order.service;
+
+import com.buy01.order.model.CoPurchase;
+import com.buy01.order.model.OrderItem;
+import com.buy01.order.model.ProductNeighbours;
+import com.buy01.order.util.IntIntMap;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * "Frequently bought together": for each product, the number of orders it
+ * shares with every other product, in an IntIntMap keyed by
+ * dictionary-encoded product. A product keeps at most capacity neighbours:
+ * its map is pruned back to the capacity best once it reaches twice that,
+ * so memory is bounded by products × 2 × capacity entries. A pruned
+ * neighbour that comes back restarts from 0, hence counts are lower bounds
+ * once a product has been pruned.
+ * Ranked lists are cached until the product changes: a lookup is a list
+ * read. Not thread-safe: CoOccurrenceService synchronizes every call.
+ */
+class CoOccurrenceIndex {
+
+    private final int capacity;
+    private final int maxItemsPerOrder;
+
+    private final Map<String, Integer> codes = new HashMap<>();
+    private final List<String> productIds = new ArrayList<>();
+    private final List<String> names = new ArrayList<>();
+    private final List<IntIntMap> neighbours = new ArrayList<>();
+    private final List<List<CoPurchase>> ranked = new ArrayList<>(); // null when stale
+    private int[] orders = new int[1024];
+    private final BitSet dirty = new BitSet(); // changed since the last snapshot
+    private long orderCount;
+
+    CoOccurrenceIndex(int capacity, int maxItemsPerOrder) {
+        this.capacity = capacity;
+        this.maxItemsPerOrder = maxItemsPerOrder;
+    }
+
+    // ─────────────────────────────────────────────────────
+    // Writes
+    // ─────────────────────────────────────────────────────
+
+    /**
+     * Counts one order: every pair of distinct products in it. Only the first
+     * maxItemsPerOrder distinct products are paired, bounding the quadratic
+     * cost of very large orders.
+     */
+    void add(List<OrderItem> items) {
+        if (items == null || items.isEmpty()) {
+            return;
+        }
+        int[] products = new int[Math.min(items.size(), maxItemsPerOrder)];
+        int count = 0;
+        for (OrderItem item : items) {
+            if (count == products.length) {
+                break;
+            }
+            int product = encode(item.getProductId(), item.getProductName());
+            if (!contains(products, count, product)) {
+                products[count++] = product;
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            orders[products[i]]++;
+            changed(products[i]);
+            for (int j = 0; j < count; j++) {
+                if (i != j) {
+                    link(products[i], products[j], 1);
+                }
+            }
+        }
+        orderCount++;
+    }
+
+    /** Adds a snapshot to the current counts (orders counted live before the restore are kept). */
+    void restore(ProductNeighbours snapshot) {
+        int product = encode(snapshot.getProductId(), snapshot.getName());
+        orders[product] += snapshot.getOrders();
+        for (CoPurchase neighbour : snapshot.getNeighbours()) {
+            link(product, encode(neighbour.getProductId(), neighbour.getName()), neighbour.getCount());
+        }
+        ranked.set(product, null);
+    }
+
+    void addOrderCount(long restored) {
+        orderCount += restored;
+    }
+
+    /** Flags products again after a failed snapshot write. */
+    void markDirty(List<ProductNeighbours> unsaved) {
+        for (ProductNeighbours snapshot : unsaved) {
+            Integer product = codes.get(snapshot.getProductId());
+            if (product != null) {
+                dirty.set(product);
+            }
+        }
+    }
+
+    private void link(int from, int to, int count) {
+        IntIntMap map = neighbours.get(from);
+        map.addTo(to, count);
+        if (map.size() >= 2 * capacity) {
+            map.retainTop(capacity);
+        }
+    }
+
+    private void changed(int product) {
+        ranked.set(product, null);
+        dirty.set(product);
+    }
+
+    private int encode(String productId, String name) {
+        Integer code = codes.get(productId);
+        if (code != null) {
+            if (name != null) {
+                names.set(code, name);
+            }
+            return code;
+        }
+        int product = productIds.size();
+        codes.put(productId, product);
+        productIds.add(productId);
+        names.add(name);
+        neighbours.add(new IntIntMap(16));
+        ranked.add(null);
+        if (product == orders.length) {
+            orders = Arrays.copyOf(orders, product * 2);
+        }
+        return product;
+    }
+
+    private static boolean contains(int[] values, int count, int value) {
+        for (int i = 0; i < count; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // ─────────────────────────────────────────────────────
+    // Reads
+    // ─────────────────────────────────────────────────────
+
+    /** Products most often ordered with productId, best first; empty for an unknown product. */
+    List<CoPurchase> neighbours(String productId, int limit) {
+        Integer product = codes.get(productId);
+        if (product == null) {
+            return List.of();
+        }
+        List<CoPurchase> all = ranked(product);
+        return all.subList(0, Math.min(limit, all.size()));
+    }
+
+    /** Orders containing productId. */
+    int orders(String productId) {
+        Integer product = codes.get(productId);
+        return product != null ? orders[product] : 0;
+    }
+
+    long orderCount() {
+        return orderCount;
+    }
+
+    int productCount() {
+        return productIds.size();
+    }
+
+    /** Snapshots of the products changed since the last call. */
+    List<ProductNeighbours> drainDirty(LocalDateTime at) {
+        List<ProductNeighbours> snapshots = new ArrayList<>(dirty.cardinality());
+        for (int product = dirty.nextSetBit(0); product >= 0; product = dirty.nextSetBit(product + 1)) {
+            snapshots.add(new ProductNeighbours(productIds.get(product), names.get(product), orders[product],
+                    new ArrayList<>(ranked(product)), at));
+        }
+        dirty.clear();
+        return snapshots;
+    }
+
+    private List<CoPurchase> ranked(int product) {
+        List<CoPurchase> list = ranked.get(product);
+        if (list != null) {
+            return list;
+        }
+        IntIntMap map = neighbours.get(product);
+        long[] entries = new long[map.size()];
+        int[] size = {0};
+        // count in the high bits, so a plain sort orders by count
+        map.forEach((neighbour, count) -> entries[size[0]++] = (long) count << 32 | neighbour);
+        Arrays.sort(entries);
+        int kept = Math.min(capacity, entries.length);
+        List<CoPurchase> result = new ArrayList<>(kept);
+        for (int i = entries.length - 1; i >= entries.length - kept; i--) {
+            int neighbour = (int) entries[i];
+            result.add(new CoPurchase(productIds.get(neighbour), names.get(neighbour), (int) (entries[i] >>> 32)));
+        }
+        list = Collections.unmodifiableList(result);
+        ranked.set(product, list);
+        return list;
+    }
+}
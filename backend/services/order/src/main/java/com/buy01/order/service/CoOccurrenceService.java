@@ -0,0 +1,279 @@
+package com.buy01.order.service;
+
+import com.buy01.order.model.CoOccurrenceCheckpoint;
+import com.buy01.order.model.CoPurchase;
+import com.buy01.order.model.Order;
+import com.buy01.order.model.ProductNeighbours;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+/**
+ * "Frequently bought together" recommendations from a CoOccurrenceIndex kept
+ * on each replica. Fed from order-updates (created orders, see
+ * OrderUpdateListener); orders created before this replica started come from
+ * the product_neighbours snapshot plus the orders created after its
+ * watermark, so a restart never rescans the whole orders collection. Only
+ * the very first start, with no snapshot yet, reads every order (archived
+ * ones excluded), and writes a snapshot right after.
+ * One replica at a time (JobLeases) writes the products it changed on
+ * snapshot-cron, under a new generation that only becomes visible once the
+ * checkpoint naming it is saved: a snapshot interrupted half-way is ignored.
+ * The watermark lags the snapshot by watermark-lag, so an order reaching
+ * order-updates late is still replayed; the orders already counted past it
+ * are listed in the checkpoint and skipped by the replay.
+ */
+@Service
+@Slf4j
+public class CoOccurrenceService {
+
+    private static final int SNAPSHOT_BATCH_SIZE = 1000;
+    private static final String WRITER_LEASE = "co-occurrence-snapshot";
+    private static final int MIN_RECENT_PRUNE = 1024;
+
+    private final MongoTemplate mongoTemplate;
+    private final JobLeases jobLeases;
+    private final boolean enabled;
+    private final Duration watermarkLag;
+    private final Duration writerLease;
+    private final LocalDateTime startedAt;
+    private final CoOccurrenceIndex index;
+
+    private volatile boolean loaded;
+    // orderId -> createdAt of the orders counted that are created after now - watermarkLag, guarded by this
+    private final Map<String, LocalDateTime> recent = new HashMap<>();
+    private int nextPrune = MIN_RECENT_PRUNE;
+
+    @Autowired
+    public CoOccurrenceService(MongoTemplate mongoTemplate, JobLeases jobLeases,
+            @Value("${application.co-occurrence.enabled:false}") boolean enabled,
+            @Value("${application.co-occurrence.neighbours:50}") int neighbours,
+            @Value("${application.co-occurrence.max-items-per-order:50}") int maxItemsPerOrder,
+            @Value("${application.co-occurrence.watermark-lag-minutes:10}") long watermarkLagMinutes,
+            @Value("${application.co-occurrence.writer-lease-minutes:40}") long writerLeaseMinutes) {
+        this(mongoTemplate, jobLeases, enabled, neighbours, maxItemsPerOrder, Duration.ofMinutes(watermarkLagMinutes),
+                Duration.ofMinutes(writerLeaseMinutes), LocalDateTime.now());
+    }
+
+    CoOccurrenceService(MongoTemplate mongoTemplate, JobLeases jobLeases, boolean enabled, int neighbours,
+            int maxItemsPerOrder, Duration watermarkLag, Duration writerLease, LocalDateTime startedAt) {
+        this.mongoTemplate = mongoTemplate;
+        this.jobLeases = jobLeases;
+        this.enabled = enabled;
+        this.watermarkLag = watermarkLag;
+        this.writerLease = writerLease;
+        this.startedAt = startedAt;
+        this.index = new CoOccurrenceIndex(neighbours, maxItemsPerOrder);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // ─────────────────────────────────────────────────────
+    // Read
+    // ─────────────────────────────────────────────────────
+
+    /**
+     * Products most often ordered together with productId, with the share of
+     * its orders they appear in; empty while the index is loading.
+     */
+    public Optional<Map<String, Object>> getBoughtTogether(String productId, int limit) {
+        if (!loaded) {
+            return Optional.empty();
+        }
+        List<CoPurchase> neighbours;
+        int orders;
+        synchronized (this) {
+            neighbours = index.neighbours(productId, limit);
+            orders = index.orders(productId);
+        }
+        List<Map<String, Object>> products = neighbours.stream()
+                .map(n -> Map.<String, Object>of(
+                        "productId", n.getProductId(),
+                        "name", n.getName() != null ? n.getName() : "",
+                        "orders", n.getCount(),
+                        "confidence", orders > 0 ? (double) n.getCount() / orders : 0.0))
+                .toList();
+        return Optional.of(Map.of("productId", productId, "orders", orders, "products", products));
+    }
+
+    // ─────────────────────────────────────────────────────
+    // Maintenance
+    // ─────────────────────────────────────────────────────
+
+    /** Counts a created order read back from an order-updates message. */
+    public void onOrderCreated(Order order) {
+        if (enabled && order != null && order.getCreatedAt() != null && !order.getCreatedAt().isBefore(startedAt)) {
+            record(order);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        if (enabled) {
+            Thread loader = new Thread(this::load, "co-occurrence-loader");
+            loader.setDaemon(true);
+            loader.start();
+        }
+    }
+
+    void load() {
+        long start = System.currentTimeMillis();
+        try {
+            CoOccurrenceCheckpoint checkpoint = mongoTemplate.findById(CoOccurrenceCheckpoint.ID,
+                    CoOccurrenceCheckpoint.class);
+            if (checkpoint != null && checkpoint.getGeneration() == 0) {
+                // written before snapshot generations: rebuilt by a full scan
+                checkpoint = null;
+            }
+            Criteria created = where("createdAt").lt(startedAt);
+            if (checkpoint != null) {
+                // latest generation of each product covered by the checkpoint
+                Query generations = query(where("generation").lte(checkpoint.getGeneration()))
+                        .with(Sort.by(Sort.Order.asc("productId"), Sort.Order.desc("generation")));
+                String[] previous = {null};
+                try (Stream<ProductNeighbours> snapshots = mongoTemplate.stream(generations, ProductNeighbours.class)) {
+                    snapshots.filter(snapshot -> !snapshot.getProductId().equals(previous[0]))
+                            .forEach(snapshot -> {
+                                previous[0] = snapshot.getProductId();
+                                restore(snapshot);
+                            });
+                }
+                synchronized (this) {
+                    index.addOrderCount(checkpoint.getOrders());
+                    recent.putAll(checkpoint.getRecentOrders());
+                }
+                created.gt(checkpoint.getWatermark());
+            }
+            Query missing = query(created);
+            missing.fields().include("items").include("createdAt");
+            try (Stream<Order> orders = mongoTemplate.stream(missing, Order.class)) {
+                orders.forEach(this::record);
+            }
+            loaded = true;
+            log.info("Co-occurrence index loaded: {} products, {} orders in {} ms ({})", index.productCount(),
+                    index.orderCount(), System.currentTimeMillis() - start,
+                    checkpoint != null ? "from snapshot" : "full scan");
+            if (checkpoint == null) {
+                snapshot();
+            }
+        } catch (RuntimeException e) {
+            log.error("Co-occurrence index load failed", e);
+        }
+    }
+
+    /**
+     * Writes the products changed since the last snapshot under a new
+     * generation, then the checkpoint naming it, then drops the generations
+     * it supersedes. Only on the replica holding the writer lease.
+     */
+    @Scheduled(cron = "${application.co-occurrence.snapshot-cron:-}")
+    public void snapshot() {
+        if (!enabled || !loaded) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime watermark = now.minus(watermarkLag);
+        synchronized (this) {
+            pruneRecent(watermark);
+        }
+        if (!jobLeases.tryAcquire(WRITER_LEASE, writerLease)) {
+            return;
+        }
+        CoOccurrenceCheckpoint committed = mongoTemplate.findById(CoOccurrenceCheckpoint.ID,
+                CoOccurrenceCheckpoint.class);
+        long committedGeneration = committed != null ? committed.getGeneration() : 0;
+        long generation = Math.max(System.currentTimeMillis(), committedGeneration + 1);
+
+        List<ProductNeighbours> changed;
+        CoOccurrenceCheckpoint checkpoint;
+        synchronized (this) {
+            changed = index.drainDirty(now);
+            checkpoint = new CoOccurrenceCheckpoint(CoOccurrenceCheckpoint.ID, generation, watermark,
+                    new HashMap<>(recent), index.orderCount(), now);
+        }
+        try {
+            // Leftovers of a snapshot interrupted before its checkpoint (or of the single-generation format)
+            mongoTemplate.remove(query(new Criteria().orOperator(
+                    where("generation").gt(committedGeneration),
+                    where("generation").exists(false))), ProductNeighbours.class);
+            for (int from = 0; from < changed.size(); from += SNAPSHOT_BATCH_SIZE) {
+                BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED,
+                        ProductNeighbours.class);
+                for (ProductNeighbours snapshot : changed.subList(from,
+                        Math.min(changed.size(), from + SNAPSHOT_BATCH_SIZE))) {
+                    snapshot.stamp(generation);
+                    ops.insert(snapshot);
+                }
+                ops.execute();
+            }
+            mongoTemplate.save(checkpoint);
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                index.markDirty(changed);
+            }
+            log.error("Co-occurrence snapshot failed", e);
+            return;
+        }
+        try {
+            for (int from = 0; from < changed.size(); from += SNAPSHOT_BATCH_SIZE) {
+                List<String> productIds = changed.subList(from, Math.min(changed.size(), from + SNAPSHOT_BATCH_SIZE))
+                        .stream().map(ProductNeighbours::getProductId).toList();
+                mongoTemplate.remove(query(where("productId").in(productIds).and("generation").lt(generation)),
+                        ProductNeighbours.class);
+            }
+        } catch (RuntimeException e) {
+            // Harmless: a starting replica only reads the latest generation of each product
+            log.warn("⚠️ Co-occurrence snapshot: superseded generations not removed - Error: {}", e.getMessage());
+        }
+        log.info("Co-occurrence snapshot: {} products written (generation {})", changed.size(), generation);
+    }
+
+    private synchronized void restore(ProductNeighbours snapshot) {
+        index.restore(snapshot);
+    }
+
+    private synchronized void record(Order order) {
+        if (order.getId() != null) {
+            if (recent.containsKey(order.getId())) {
+                // counted already: replayed after a restore, or redelivered
+                return;
+            }
+            LocalDateTime horizon = LocalDateTime.now().minus(watermarkLag);
+            if (order.getCreatedAt() != null && order.getCreatedAt().isAfter(horizon)) {
+                recent.put(order.getId(), order.getCreatedAt());
+                if (recent.size() > nextPrune) {
+                    pruneRecent(horizon);
+                    nextPrune = Math.max(MIN_RECENT_PRUNE, 2 * recent.size());
+                }
+            }
+        }
+        index.add(order.getItems());
+    }
+
+    // Orders created up to the watermark are covered by it, no need to list them
+    private void pruneRecent(LocalDateTime watermark) {
+        recent.values().removeIf(createdAt -> !createdAt.isAfter(watermark));
+    }
+}
@@ -0,0 +1,22 @@
+package com.buy01.order.service;
+
+import lombok.Getter;
+
+/** An Idempotency-Key that cannot be honoured (see {@link Reason}). */
+@Getter
+public class IdempotencyKeyException extends RuntimeException {
+
+    public enum Reason {
+        // The first request with this key is still running
+        IN_PROGRESS,
+        // The key was already used for a different request
+        PAYLOAD_MISMATCH
+    }
+
+    private final Reason reason;
+
+    public IdempotencyKeyException(Reason reason, String message) {
+        super(message);
+        this.reason = reason;
+    }
+}
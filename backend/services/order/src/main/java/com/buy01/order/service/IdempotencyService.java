@@ -0,0 +1,140 @@
+package com.buy01.order.service;
+
+import com.buy01.order.dto.OrderResponse;
+import com.buy01.order.model.IdempotencyRecord;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.function.Function;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+/**
+ * Runs an order write at most once per (user, Idempotency-Key). The first
+ * request inserts an IN_PROGRESS record; a duplicate hits the unique _id and
+ * either replays the stored response or gets IN_PROGRESS. No locks are held.
+ * The order id is chosen up front and kept in the record: a request that
+ * fails or crashes after its order was inserted is settled on that order,
+ * and only a request that created nothing releases its key.
+ */
+@Service
+@RequiredArgsConstructor
+public class IdempotencyService {
+
+    public static final int MAX_KEY_LENGTH = 255;
+
+    private final MongoTemplate mongoTemplate;
+    private final ObjectMapper objectMapper;
+    private final OrderService orderService;
+
+    // An IN_PROGRESS record older than this is considered abandoned (crash) and taken over
+    @Value("${application.idempotency.in-progress-timeout-seconds:30}")
+    private long inProgressTimeoutSeconds;
+
+    public record Result(OrderResponse response, boolean replayed) {
+    }
+
+    /** action creates the order under the id it is given. */
+    public Result execute(String userId, String key, String operation, Object payload, int status,
+            Function<String, OrderResponse> action) {
+        String id = IdempotencyRecord.idOf(userId, key);
+        String fingerprint = fingerprint(operation, payload);
+        LocalDateTime now = LocalDateTime.now();
+        String orderId = new ObjectId().toHexString();
+
+        try {
+            mongoTemplate.insert(new IdempotencyRecord(id, fingerprint, IdempotencyRecord.State.IN_PROGRESS, 0,
+                    null, orderId, now));
+        } catch (DuplicateKeyException e) {
+            IdempotencyRecord existing = mongoTemplate.findById(id, IdempotencyRecord.class);
+            if (existing == null) {
+                // Expired in between: the caller may simply retry
+                throw new IdempotencyKeyException(IdempotencyKeyException.Reason.IN_PROGRESS,
+                        "Request with this Idempotency-Key is being processed");
+            }
+            if (!existing.getFingerprint().equals(fingerprint)) {
+                throw new IdempotencyKeyException(IdempotencyKeyException.Reason.PAYLOAD_MISMATCH,
+                        "Idempotency-Key already used for a different request");
+            }
+            if (existing.getState() == IdempotencyRecord.State.COMPLETED) {
+                return new Result(existing.getResponse(), true);
+            }
+            if (!takeOverAbandoned(id, now)) {
+                throw new IdempotencyKeyException(IdempotencyKeyException.Reason.IN_PROGRESS,
+                        "Request with this Idempotency-Key is being processed");
+            }
+            // The crashed request may have inserted its order before dying
+            orderId = existing.getOrderId();
+            Optional<OrderResponse> created = orderService.getOrderById(orderId);
+            if (created.isPresent()) {
+                complete(id, status, created.get());
+                return new Result(created.get(), true);
+            }
+        }
+
+        OrderResponse response;
+        try {
+            response = action.apply(orderId);
+        } catch (RuntimeException e) {
+            Optional<OrderResponse> created = orderService.getOrderById(orderId);
+            if (created.isPresent() && e instanceof DuplicateKeyException) {
+                // Taken over from a request that was not dead and inserted the order first
+                complete(id, status, created.get());
+                return new Result(created.get(), true);
+            }
+            if (created.isPresent()) {
+                // Failed after the insert: a retry replays the order instead of creating another
+                complete(id, status, created.get());
+            } else {
+                // Nothing was stored: release the key so the client can retry
+                mongoTemplate.remove(query(where("id").is(id)), IdempotencyRecord.class);
+            }
+            throw e;
+        }
+        complete(id, status, response);
+        return new Result(response, false);
+    }
+
+    private void complete(String id, int status, OrderResponse response) {
+        mongoTemplate.updateFirst(query(where("id").is(id)), new Update()
+                .set("state", IdempotencyRecord.State.COMPLETED)
+                .set("responseStatus", status)
+                .set("response", response), IdempotencyRecord.class);
+    }
+
+    /** Claims an IN_PROGRESS record left behind by a crashed request (conditional update, one winner). */
+    private boolean takeOverAbandoned(String id, LocalDateTime now) {
+        return mongoTemplate.updateFirst(
+                query(where("id").is(id)
+                        .and("state").is(IdempotencyRecord.State.IN_PROGRESS)
+                        .and("createdAt").lt(now.minusSeconds(inProgressTimeoutSeconds))),
+                new Update().set("createdAt", now),
+                IdempotencyRecord.class).getModifiedCount() == 1;
+    }
+
+    /** SHA-256 of the operation and its JSON payload. */
+    String fingerprint(String operation, Object payload) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(operation.getBytes(StandardCharsets.UTF_8));
+            digest.update(objectMapper.writeValueAsBytes(payload));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException("Cannot fingerprint request", e);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.buy01.order.service;
+
+import com.buy01.order.model.JobLease;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+/**
+ * Leases for the scheduled jobs that every replica triggers but only one
+ * should run (same scheme as the outbox relay lease): the holder renews it
+ * on each run, another replica takes over once it has expired.
+ */
+@Service
+public class JobLeases {
+
+    private final MongoTemplate mongoTemplate;
+    private final String instanceId = UUID.randomUUID().toString();
+
+    public JobLeases(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /** Takes or renews the lease of job for duration; false while another replica holds it. */
+    public boolean tryAcquire(String job, Duration duration) {
+        Instant now = Instant.now();
+        try {
+            mongoTemplate.upsert(
+                    query(where("id").is(job).orOperator(
+                            where("lockedUntil").lt(now),
+                            where("owner").is(instanceId))),
+                    new Update().set("owner", instanceId).set("lockedUntil", now.plus(duration)),
+                    JobLease.class);
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.buy01.order.service;
+
+import com.buy01.order.dto.OrderUpdate;
+import com.buy01.order.event.OrderLifecycleEvent;
+import com.buy01.order.model.Order;
+import com.buy01.order.repository.OrderArchiveRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Keeps an in-memory columnar copy of the order items (OrderColumns) on each
+ * replica for the seller and admin dashboards. Loaded from orders and
+ * orders_archive once the application is ready, then kept current from
+ * order-updates, which every replica reads in full (see OrderUpdateListener):
+ * a created order is appended, status changes and deletions only touch the
+ * status column.
+ * Updates received while a load runs are replayed on the new copy before it
+ * replaces the old one; all of them are idempotent. Until the first load
+ * completes (or when disabled) the getters return empty and callers fall
+ * back to the seller_stats read model.
+ */
+@Service
+@Slf4j
+public class OrderAnalyticsService {
+
+    private record PendingUpdate(OrderUpdate update, Order order) {
+    }
+
+    private final MongoTemplate mongoTemplate;
+    private final OrderArchiveRepository archiveRepository;
+    private final boolean enabled;
+    private final int topProductsSize;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Object rebuildMonitor = new Object();
+    private OrderColumns columns;
+    private List<PendingUpdate> duringRebuild;
+
+    public OrderAnalyticsService(MongoTemplate mongoTemplate, OrderArchiveRepository archiveRepository,
+            @Value("${application.order-columns.enabled:false}") boolean enabled,
+            @Value("${application.stats.top-products:5}") int topProductsSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.archiveRepository = archiveRepository;
+        this.enabled = enabled;
+        this.topProductsSize = topProductsSize;
+    }
+
+    // ─────────────────────────────────────────────────────
+    // Read
+    // ─────────────────────────────────────────────────────
+
+    /** Same shape as SellerStatsService.getStats; empty while not loaded. */
+    public Optional<Map<String, Object>> getSellerStats(String sellerId) {
+        return read(loaded -> loaded.sellerStats(sellerId, topProductsSize));
+    }
+
+    /** Counts, earnings and top products over every seller; empty while not loaded. */
+    public Optional<Map<String, Object>> getGlobalStats() {
+        return read(loaded -> loaded.globalStats(topProductsSize));
+    }
+
+    private Optional<Map<String, Object>> read(Function<OrderColumns, Map<String, Object>> scan) {
+        lock.readLock().lock();
+        try {
+            return columns != null ? Optional.of(scan.apply(columns)) : Optional.empty();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ─────────────────────────────────────────────────────
+    // Load
+    // ─────────────────────────────────────────────────────
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        if (enabled) {
+            Thread loader = new Thread(this::rebuild, "order-columns-loader");
+            loader.setDaemon(true);
+            loader.start();
+        }
+    }
+
+    /** Periodic full reload, correcting anything missed while the updates consumer was down. */
+    @Scheduled(cron = "${application.order-columns.rebuild-cron:-}")
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        synchronized (rebuildMonitor) {
+            long start = System.currentTimeMillis();
+            lock.writeLock().lock();
+            try {
+                duringRebuild = new ArrayList<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            OrderColumns fresh = new OrderColumns();
+            try {
+                Query items = new Query();
+                items.fields().include("status").include("items");
+                try (Stream<Order> orders = Stream.concat(mongoTemplate.stream(items, Order.class),
+                        archiveRepository.streamAllOrders(items))) {
+                    orders.forEach(fresh::append);
+                }
+            } catch (RuntimeException e) {
+                lock.writeLock().lock();
+                try {
+                    duringRebuild = null;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                log.error("Order columns load failed", e);
+                return;
+            }
+
+            lock.writeLock().lock();
+            try {
+                duringRebuild.forEach(pending -> applyTo(fresh, pending));
+                duringRebuild = null;
+                columns = fresh;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.info("Order columns loaded: {} items in {} ms", fresh.lineCount(), System.currentTimeMillis() - start);
+        }
+    }
+
+    // ─────────────────────────────────────────────────────
+    // Incremental maintenance
+    // ─────────────────────────────────────────────────────
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Applies one order-updates message (all replicas). The message carries
+     * no items: created is the order read back by the listener (CREATED
+     * only); a status change for an order not loaded yet reads it here,
+     * outside of the lock.
+     */
+    public void apply(OrderUpdate update, Order created) {
+        if (!enabled) {
+            return;
+        }
+        Order order = created;
+        if (update.getType() == OrderLifecycleEvent.Type.STATUS_CHANGED && !isLoaded(update.getOrderId())) {
+            order = mongoTemplate.findById(update.getOrderId(), Order.class);
+        }
+        PendingUpdate pending = new PendingUpdate(update, order);
+        lock.writeLock().lock();
+        try {
+            if (duringRebuild != null) {
+                duringRebuild.add(pending);
+            }
+            if (columns != null) {
+                applyTo(columns, pending);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private boolean isLoaded(String orderId) {
+        lock.readLock().lock();
+        try {
+            return columns != null && duringRebuild == null && columns.contains(orderId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static void applyTo(OrderColumns target, PendingUpdate pending) {
+        OrderUpdate update = pending.update();
+        switch (update.getType()) {
+            case CREATED, STATUS_CHANGED -> {
+                if (!target.setStatus(update.getOrderId(), update.getStatus()) && pending.order() != null) {
+                    Order order = pending.order();
+                    order.setStatus(update.getStatus());
+                    target.append(order);
+                }
+            }
+            case DELETED -> target.delete(update.getOrderId());
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.buy01.order.service;
+
+import com.buy01.order.model.Order;
+import com.buy01.order.model.OrderStatus;
+import com.buy01.order.model.SellerOrder;
+import com.buy01.order.repository.OrderArchiveRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+/**
+ * Moves DELIVERED / CANCELLED orders created more than after-days ago (and
+ * their seller_orders) to the archive collections, keeping the hot
+ * collections, and their indexes, sized to recent activity. Those statuses are
+ * terminal, so an archived order never changes again. Read models are not
+ * touched: archiving is not a deletion.
+ * Copy first, then delete: a run stopped in between only leaves documents in
+ * both tiers, and the next run finishes the move.
+ * Runs on the replica holding the archive lease only, renewed before each
+ * batch: a run that loses it stops and leaves the rest to the new holder.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OrderArchiver {
+
+    static final Set<OrderStatus> ARCHIVABLE = Set.of(OrderStatus.DELIVERED, OrderStatus.CANCELLED);
+    static final String ARCHIVE_JOB = "order-archive";
+
+    private final MongoTemplate mongoTemplate;
+    private final OrderArchiveRepository archiveRepository;
+    private final JobLeases jobLeases;
+
+    @Value("${application.archive.enabled:false}")
+    private boolean enabled;
+
+    @Value("${application.archive.after-days:365}")
+    private int afterDays;
+
+    @Value("${application.archive.batch-size:500}")
+    private int batchSize;
+
+    // Longer than one batch, so the replicas triggered by the same cron do not run it too
+    @Value("${application.archive.lease-minutes:10}")
+    private long leaseMinutes;
+
+    @Scheduled(cron = "${application.archive.cron:0 0 4 * * *}")
+    public void archiveAgedOrders() {
+        if (!enabled) {
+            return;
+        }
+        Duration lease = Duration.ofMinutes(leaseMinutes);
+        if (!jobLeases.tryAcquire(ARCHIVE_JOB, lease)) {
+            log.info("Order archiving running on another replica, skipped");
+            return;
+        }
+        archiveRepository.ensureIndexes();
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(afterDays);
+        long archived = 0;
+        int moved;
+        do {
+            moved = archiveBatch(cutoff);
+            archived += moved;
+        } while (moved == batchSize && jobLeases.tryAcquire(ARCHIVE_JOB, lease));
+        log.info("Archived {} orders created before {}", archived, cutoff);
+    }
+
+    /** Moves one batch; returns the number of orders moved. */
+    int archiveBatch(LocalDateTime cutoff) {
+        Query aged = query(where("status").in(ARCHIVABLE).and("createdAt").lt(cutoff))
+                .with(Sort.by(Sort.Direction.ASC, "createdAt"))
+                .limit(batchSize);
+        List<Order> orders = mongoTemplate.find(aged, Order.class);
+        if (orders.isEmpty()) {
+            return 0;
+        }
+        List<String> ids = orders.stream().map(Order::getId).toList();
+        List<SellerOrder> sellerOrders = mongoTemplate.find(query(where("orderId").in(ids)), SellerOrder.class);
+
+        archiveRepository.archive(orders, sellerOrders);
+        mongoTemplate.remove(query(where("orderId").in(ids)), SellerOrder.class);
+        mongoTemplate.remove(query(where("id").in(ids).and("status").in(ARCHIVABLE)), Order.class);
+        return orders.size();
+    }
+}
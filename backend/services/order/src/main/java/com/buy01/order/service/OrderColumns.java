@@ -0,0 +1,340 @@
+package com.buy01.order.service;
+
+import com.buy01.order.model.Order;
+import com.buy01.order.model.OrderItem;
+import com.buy01.order.model.OrderStatus;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.IntStream;
+
+/**
+ * Columnar copy of the order line items: one row per item, as primitive
+ * arrays (dictionary-encoded order / seller / product, quantity, price in
+ * cents) plus a status byte per order, so a status change is a single
+ * write. Aggregations are scans over those arrays with pooled accumulators:
+ * the per-seller scan allocates nothing but its result.
+ * Items of an order are appended together, hence contiguous.
+ * Not thread-safe: OrderAnalyticsService guards it with a read/write lock.
+ */
+class OrderColumns {
+
+    static final byte DELETED = -1;
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int PARALLEL_THRESHOLD = 1 << 16;
+    private static final int CHUNK_SIZE = 1 << 15;
+    private static final OrderStatus[] STATUSES = OrderStatus.values();
+
+    private final Dictionary orders = new Dictionary();
+    private final Dictionary sellers = new Dictionary();
+    private final Dictionary products = new Dictionary();
+    private final List<String> productNames = new ArrayList<>();
+    private byte[] orderStatus = new byte[INITIAL_CAPACITY];
+
+    private int lines;
+    private int[] lineOrder = new int[INITIAL_CAPACITY];
+    private int[] lineSeller = new int[INITIAL_CAPACITY];
+    private int[] lineProduct = new int[INITIAL_CAPACITY];
+    private int[] lineQuantity = new int[INITIAL_CAPACITY];
+    private long[] linePriceCents = new long[INITIAL_CAPACITY];
+
+    // one per concurrent scan, rather than per request thread: each holds arrays sized to the product dictionary
+    private final Queue<Accumulator> accumulators = new ConcurrentLinkedQueue<>();
+
+    // ─────────────────────────────────────────────────────
+    // Writes
+    // ─────────────────────────────────────────────────────
+
+    /** Appends the order's items (those with a seller); an order already present only gets its status updated. */
+    void append(Order order) {
+        if (setStatus(order.getId(), order.getStatus())) {
+            return;
+        }
+        int ordinal = orders.encode(order.getId());
+        if (ordinal == orderStatus.length) {
+            orderStatus = Arrays.copyOf(orderStatus, ordinal * 2);
+        }
+        orderStatus[ordinal] = (byte) order.getStatus().ordinal();
+        if (order.getItems() == null) {
+            return;
+        }
+        for (OrderItem item : order.getItems()) {
+            if (item.getSellerId() == null) {
+                continue;
+            }
+            ensureLineCapacity();
+            int product = products.encode(item.getProductId());
+            if (product == productNames.size()) {
+                productNames.add(item.getProductName());
+            } else {
+                productNames.set(product, item.getProductName());
+            }
+            lineOrder[lines] = ordinal;
+            lineSeller[lines] = sellers.encode(item.getSellerId());
+            lineProduct[lines] = product;
+            lineQuantity[lines] = item.getQuantity();
+            linePriceCents[lines] = Math.round(item.getPrice() * 100);
+            lines++;
+        }
+    }
+
+    /** Returns false when the order is not in the columns. */
+    boolean setStatus(String orderId, OrderStatus status) {
+        int ordinal = orders.find(orderId);
+        if (ordinal < 0) {
+            return false;
+        }
+        orderStatus[ordinal] = (byte) status.ordinal();
+        return true;
+    }
+
+    /** Rows stay in place: a deleted order is skipped by every scan. */
+    void delete(String orderId) {
+        int ordinal = orders.find(orderId);
+        if (ordinal >= 0) {
+            orderStatus[ordinal] = DELETED;
+        }
+    }
+
+    boolean contains(String orderId) {
+        return orders.find(orderId) >= 0;
+    }
+
+    int lineCount() {
+        return lines;
+    }
+
+    private void ensureLineCapacity() {
+        if (lines < lineOrder.length) {
+            return;
+        }
+        int capacity = lines * 2;
+        lineOrder = Arrays.copyOf(lineOrder, capacity);
+        lineSeller = Arrays.copyOf(lineSeller, capacity);
+        lineProduct = Arrays.copyOf(lineProduct, capacity);
+        lineQuantity = Arrays.copyOf(lineQuantity, capacity);
+        linePriceCents = Arrays.copyOf(linePriceCents, capacity);
+    }
+
+    // ─────────────────────────────────────────────────────
+    // Scans
+    // ─────────────────────────────────────────────────────
+
+    /** Same figures and shape as SellerStatsService.getStats. */
+    Map<String, Object> sellerStats(String sellerId, int topN) {
+        int seller = sellers.find(sellerId);
+        Accumulator acc = borrow();
+        if (seller >= 0) {
+            int lastOrder = -1;
+            for (int i = 0; i < lines; i++) {
+                if (lineSeller[i] != seller) {
+                    continue;
+                }
+                int order = lineOrder[i];
+                byte status = orderStatus[order];
+                if (status == DELETED) {
+                    continue;
+                }
+                if (order != lastOrder) {
+                    acc.ordersByStatus[status]++;
+                    lastOrder = order;
+                }
+                acc.add(status, lineProduct[i], lineQuantity[i], lineQuantity[i] * linePriceCents[i]);
+            }
+        }
+        try {
+            return acc.toStats(topN);
+        } finally {
+            accumulators.offer(acc);
+        }
+    }
+
+    /**
+     * Every order and item: order counts come from the status column, line
+     * totals from a scan split in chunks over the fork-join pool once the
+     * columns are large enough.
+     */
+    Map<String, Object> globalStats(int topN) {
+        Accumulator total = borrow();
+        int orderCount = orders.size();
+        for (int o = 0; o < orderCount; o++) {
+            if (orderStatus[o] != DELETED) {
+                total.ordersByStatus[orderStatus[o]]++;
+            }
+        }
+        if (lines < PARALLEL_THRESHOLD) {
+            scanLines(0, lines, total);
+        } else {
+            IntStream.range(0, (lines + CHUNK_SIZE - 1) / CHUNK_SIZE).parallel()
+                    .mapToObj(chunk -> {
+                        Accumulator partial = borrow();
+                        scanLines(chunk * CHUNK_SIZE, Math.min(lines, (chunk + 1) * CHUNK_SIZE), partial);
+                        return partial;
+                    })
+                    .forEachOrdered(partial -> {
+                        total.merge(partial);
+                        accumulators.offer(partial);
+                    });
+        }
+        try {
+            Map<String, Object> stats = total.toStats(topN);
+            stats.put("sellers", sellers.size());
+            return stats;
+        } finally {
+            accumulators.offer(total);
+        }
+    }
+
+    private Accumulator borrow() {
+        Accumulator acc = accumulators.poll();
+        if (acc == null) {
+            acc = new Accumulator();
+        }
+        acc.reset(products.size());
+        return acc;
+    }
+
+    private void scanLines(int from, int to, Accumulator acc) {
+        for (int i = from; i < to; i++) {
+            byte status = orderStatus[lineOrder[i]];
+            if (status != DELETED) {
+                acc.add(status, lineProduct[i], lineQuantity[i], lineQuantity[i] * linePriceCents[i]);
+            }
+        }
+    }
+
+    private static boolean isEarning(int status) {
+        return status == OrderStatus.CONFIRMED.ordinal() || status == OrderStatus.DELIVERED.ordinal();
+    }
+
+    /** Scan state: per-status order counts, earned cents, per-product sums (only touched entries are reset). */
+    private final class Accumulator {
+        final long[] ordersByStatus = new long[STATUSES.length];
+        long earnedCents;
+        long[] quantity = new long[0];
+        long[] revenueCents = new long[0];
+        boolean[] seen = new boolean[0];
+        int[] touched = new int[0];
+        int touchedCount;
+
+        void reset(int productCount) {
+            for (int t = 0; t < touchedCount; t++) {
+                int product = touched[t];
+                quantity[product] = 0;
+                revenueCents[product] = 0;
+                seen[product] = false;
+            }
+            touchedCount = 0;
+            Arrays.fill(ordersByStatus, 0);
+            earnedCents = 0;
+            if (quantity.length < productCount) {
+                int capacity = Math.max(productCount, quantity.length * 2);
+                quantity = new long[capacity];
+                revenueCents = new long[capacity];
+                seen = new boolean[capacity];
+                touched = new int[capacity];
+            }
+        }
+
+        void add(int status, int product, int qty, long amountCents) {
+            if (isEarning(status)) {
+                earnedCents += amountCents;
+            }
+            touch(product);
+            quantity[product] += qty;
+            revenueCents[product] += amountCents;
+        }
+
+        void merge(Accumulator other) {
+            earnedCents += other.earnedCents;
+            for (int t = 0; t < other.touchedCount; t++) {
+                int product = other.touched[t];
+                touch(product);
+                quantity[product] += other.quantity[product];
+                revenueCents[product] += other.revenueCents[product];
+            }
+        }
+
+        private void touch(int product) {
+            if (!seen[product]) {
+                seen[product] = true;
+                touched[touchedCount++] = product;
+            }
+        }
+
+        Map<String, Object> toStats(int topN) {
+            // top N by quantity: insertion into a small array sorted by descending quantity
+            int[] top = new int[Math.max(topN, 0)];
+            int size = 0;
+            for (int t = 0; t < touchedCount && top.length > 0; t++) {
+                int product = touched[t];
+                long qty = quantity[product];
+                if (qty <= 0) {
+                    continue;
+                }
+                if (size < top.length) {
+                    size++;
+                } else if (quantity[top[size - 1]] >= qty) {
+                    continue;
+                }
+                int pos = size - 1;
+                while (pos > 0 && quantity[top[pos - 1]] < qty) {
+                    top[pos] = top[pos - 1];
+                    pos--;
+                }
+                top[pos] = product;
+            }
+            List<Map<String, Object>> topProducts = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                String name = productNames.get(top[i]);
+                topProducts.add(Map.of(
+                        "name", name != null ? name : "",
+                        "quantity", quantity[top[i]],
+                        "revenue", revenueCents[top[i]] / 100));
+            }
+
+            long totalOrders = Arrays.stream(ordersByStatus).sum();
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("totalEarned", earnedCents / 100.0);
+            stats.put("totalOrders", totalOrders);
+            stats.put("pendingOrders", ordersByStatus[OrderStatus.PENDING.ordinal()]);
+            stats.put("confirmedOrders", ordersByStatus[OrderStatus.CONFIRMED.ordinal()]);
+            stats.put("deliveredOrders", ordersByStatus[OrderStatus.DELIVERED.ordinal()]);
+            stats.put("cancelledOrders", ordersByStatus[OrderStatus.CANCELLED.ordinal()]);
+            stats.put("topProducts", topProducts);
+            return stats;
+        }
+    }
+
+    /** String ↔ dense int code. */
+    private static final class Dictionary {
+        private final Map<String, Integer> codes = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+
+        int encode(String value) {
+            Integer code = codes.get(value);
+            if (code != null) {
+                return code;
+            }
+            codes.put(value, values.size());
+            values.add(value);
+            return values.size() - 1;
+        }
+
+        int find(String value) {
+            Integer code = codes.get(value);
+            return code != null ? code : -1;
+        }
+
+        int size() {
+            return values.size();
+        }
+    }
+}
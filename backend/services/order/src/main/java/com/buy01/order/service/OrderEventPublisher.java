@@ -0,0 +1,61 @@
+package com.buy01.order.service;
+
+import com.buy01.order.dto.OrderEvent;
+import com.buy01.order.dto.OrderEventItem;
+import com.buy01.order.event.OrderLifecycleEvent;
+import com.buy01.order.model.Order;
+import com.buy01.order.model.OrderStatus;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.stream.Collectors;
+
+/**
+ * Publishes ORDER_DELIVERED / ORDER_CANCELLED on order-events through the
+ * outbox, keyed by orderId so every event of an order lands on the same
+ * partition, in order.
+ * product-service applies the stock changes from there, analytics-service
+ * builds its sales rollups.
+ * Called by OrderService right after the write, before the in-process
+ * listeners run.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OrderEventPublisher {
+
+    public static final String TOPIC = "order-events";
+
+    private final OutboxService outboxService;
+
+    public void publish(OrderLifecycleEvent event) {
+        if (event.getType() != OrderLifecycleEvent.Type.STATUS_CHANGED) {
+            return;
+        }
+        Order order = event.getOrder();
+        if (order.getStatus() == OrderStatus.DELIVERED) {
+            queue(toEvent(order, "ORDER_DELIVERED", event.getPreviousStatus()));
+        } else if (order.getStatus() == OrderStatus.CANCELLED) {
+            queue(toEvent(order, "ORDER_CANCELLED", event.getPreviousStatus()));
+        }
+    }
+
+    private void queue(OrderEvent event) {
+        log.info("Queuing {} for order: {}", event.getEventType(), event.getOrderId());
+        outboxService.append(TOPIC, event.getOrderId(), event.getEventType(), event);
+    }
+
+    private static OrderEvent toEvent(Order order, String eventType, OrderStatus previousStatus) {
+        return new OrderEvent(
+                order.getId(),
+                eventType,
+                previousStatus != null ? previousStatus.name() : null,
+                order.getItems().stream()
+                        .map(item -> new OrderEventItem(item.getProductId(), item.getSellerId(),
+                                item.getQuantity(), item.getPrice()))
+                        .collect(Collectors.toList()),
+                LocalDateTime.now());
+    }
+}
@@ -0,0 +1,169 @@
+package com.buy01.order.service;
+
+import com.buy01.order.dto.OrderResponse;
+import com.buy01.order.dto.SellerOrderView;
+import com.buy01.order.model.OrderItem;
+import com.buy01.order.model.OrderStatus;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes order exports as they are read from the cursor: nothing but the
+ * current order is held in memory, whatever the export size.
+ * NDJSON: one order per line, same JSON as the listings. CSV: one row per
+ * line item (header first), the order columns repeated on each row.
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderExporter {
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public static Format parse(String format) {
+            try {
+                return valueOf(format.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown export format: " + format + " (ndjson or csv)");
+            }
+        }
+    }
+
+    private static final String CSV_HEADER = "orderId,createdAt,status,paymentMethod,userId,"
+            + "productId,productName,sellerId,price,quantity,subtotal";
+
+    private final ObjectMapper objectMapper;
+
+    public void writeOrders(Stream<OrderResponse> orders, Format format, boolean gzip, OutputStream out)
+            throws IOException {
+        write(orders, format, gzip, out, (order, csv) -> writeRows(csv, order.getId(), order.getCreatedAt(),
+                order.getStatus(), order.getPaymentMethod(), order.getUserId(), order.getItems()));
+    }
+
+    public void writeSellerOrders(Stream<SellerOrderView> orders, Format format, boolean gzip, OutputStream out)
+            throws IOException {
+        write(orders, format, gzip, out, (order, csv) -> writeRows(csv, order.getId(), order.getCreatedAt(),
+                order.getStatus(), order.getPaymentMethod(), order.getUserId(), order.getItems()));
+    }
+
+    @FunctionalInterface
+    private interface CsvRows<T> {
+        void write(T order, Writer csv) throws IOException;
+    }
+
+    private <T> void write(Stream<T> orders, Format format, boolean gzip, OutputStream out, CsvRows<T> rows)
+            throws IOException {
+        GZIPOutputStream compressed = gzip ? new GZIPOutputStream(out, 8192) : null;
+        OutputStream target = compressed != null ? compressed : out;
+        try (orders) {
+            if (format == Format.NDJSON) {
+                writeNdjson(orders, target);
+            } else {
+                writeCsv(orders, target, rows);
+            }
+        }
+        if (compressed != null) {
+            compressed.finish();
+        }
+        out.flush();
+    }
+
+    private <T> void writeNdjson(Stream<T> orders, OutputStream out) throws IOException {
+        JsonGenerator json = objectMapper.getFactory().createGenerator(out)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        json.setRootValueSeparator(null);
+        for (T order : (Iterable<T>) orders::iterator) {
+            json.writeObject(order);
+            json.writeRaw('\n');
+        }
+        json.close();
+    }
+
+    private <T> void writeCsv(Stream<T> orders, OutputStream out, CsvRows<T> rows) throws IOException {
+        Writer csv = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        csv.write(CSV_HEADER);
+        csv.write('\n');
+        for (T order : (Iterable<T>) orders::iterator) {
+            rows.write(order, csv);
+        }
+        csv.flush();
+    }
+
+    private static void writeRows(Writer csv, String orderId, LocalDateTime createdAt, OrderStatus status,
+            String paymentMethod, String userId, List<OrderItem> items) throws IOException {
+        if (items == null) {
+            return;
+        }
+        for (OrderItem item : items) {
+            field(csv, neutralized(orderId), ',');
+            field(csv, createdAt != null ? createdAt.toString() : null, ',');
+            field(csv, status != null ? status.name() : null, ',');
+            field(csv, neutralized(paymentMethod), ',');
+            field(csv, neutralized(userId), ',');
+            field(csv, neutralized(item.getProductId()), ',');
+            field(csv, neutralized(item.getProductName()), ',');
+            field(csv, neutralized(item.getSellerId()), ',');
+            field(csv, item.getPrice() != null ? item.getPrice().toString() : null, ',');
+            field(csv, Integer.toString(item.getQuantity()), ',');
+            field(csv, item.getPrice() != null ? Double.toString(item.subtotal()) : null, '\n');
+        }
+    }
+
+    /**
+     * Client- or seller-supplied text (every column but dates, statuses and
+     * numbers) opened in a spreadsheet: a leading =, +, - or @, or a tab or
+     * carriage return before one, must not start a formula.
+     */
+    private static String neutralized(String text) {
+        if (text != null && !text.isEmpty() && "=+-@\t\r".indexOf(text.charAt(0)) >= 0) {
+            return "'" + text;
+        }
+        return text;
+    }
+
+    /** RFC 4180: quoted (quotes doubled) when the value holds a comma, quote or line break. */
+    private static void field(Writer csv, String value, char end) throws IOException {
+        if (value != null) {
+            if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0
+                    || value.indexOf('\r') >= 0) {
+                csv.write('"');
+                csv.write(value.replace("\"", "\"\""));
+                csv.write('"');
+            } else {
+                csv.write(value);
+            }
+        }
+        csv.write(end);
+    }
+}
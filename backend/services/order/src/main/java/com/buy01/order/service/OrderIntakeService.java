@@ -0,0 +1,217 @@
+package com.buy01.order.service;
+
+import com.buy01.order.dto.OrderIntakeResponse;
+import com.buy01.order.dto.OrderRequest;
+import com.buy01.order.model.OrderIntake;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+/**
+ * Async order intake: POST /orders only writes the request to order_intake
+ * and answers 202 with a tracking ID; a scheduled worker materializes queued
+ * intakes into orders, at most batch-size per poll interval and replica.
+ * The basket is checked against the product replica before the 202, so an
+ * unknown product or missing stock is reported right away; the worker
+ * checks it again, and a basket invalid by then fails without retries.
+ * Entries are claimed with findAndModify, so replicas never process the same
+ * intake twice, and a claim older than claim-timeout is retried.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OrderIntakeService {
+
+    // Request fingerprints are computed as on the synchronous path (IdempotencyService)
+    private static final String OPERATION = "POST /orders";
+
+    private final MongoTemplate mongoTemplate;
+    private final OrderService orderService;
+    private final IdempotencyService idempotencyService;
+
+    // sync (default): always create inline; optional: async on "Prefer: respond-async"; async: always
+    @Value("${application.intake.mode:sync}")
+    private String mode;
+
+    @Value("${application.intake.batch-size:50}")
+    private int batchSize;
+
+    @Value("${application.intake.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${application.intake.claim-timeout-seconds:60}")
+    private long claimTimeoutSeconds;
+
+    @Value("${application.intake.retention-hours:24}")
+    private long retentionHours;
+
+    /** Whether this request should go through the async intake. */
+    public boolean isAsync(String preferHeader) {
+        return switch (mode) {
+            case "async" -> true;
+            case "optional" -> preferHeader != null && preferHeader.toLowerCase().contains("respond-async");
+            default -> false;
+        };
+    }
+
+    /**
+     * Validates the basket (BasketValidationException), then queues the order.
+     * While the product replica is loading, validation is left to the worker.
+     * With an Idempotency-Key, a retried request gets the tracking ID of the
+     * first one, before any validation; IdempotencyKeyException if the key
+     * was used for a different request.
+     */
+    public OrderIntakeResponse enqueue(String userId, OrderRequest request, String idempotencyKey) {
+        String key = idempotencyKey != null ? userId + ":" + idempotencyKey : null;
+        String fingerprint = key != null ? idempotencyService.fingerprint(OPERATION, request) : null;
+        if (key != null) {
+            OrderIntake existing = mongoTemplate.findOne(query(where("idempotencyKey").is(key)), OrderIntake.class);
+            if (existing != null) {
+                return replay(existing, fingerprint);
+            }
+        }
+        try {
+            orderService.validateBasket(request);
+        } catch (ProductCacheUnavailableException e) {
+            // Checked by the worker, which waits for the replica
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        OrderIntake intake = new OrderIntake(new ObjectId().toHexString(), userId, request,
+                OrderIntake.Status.QUEUED, key, fingerprint, 0, null, now, null, now, null);
+        try {
+            return toResponse(mongoTemplate.insert(intake));
+        } catch (DuplicateKeyException e) {
+            OrderIntake existing = mongoTemplate.findOne(query(where("idempotencyKey").is(key)), OrderIntake.class);
+            if (existing == null) {
+                throw e;
+            }
+            return replay(existing, fingerprint);
+        }
+    }
+
+    private static OrderIntakeResponse replay(OrderIntake existing, String fingerprint) {
+        if (!fingerprint.equals(existing.getRequestFingerprint())) {
+            throw new IdempotencyKeyException(IdempotencyKeyException.Reason.PAYLOAD_MISMATCH,
+                    "Idempotency-Key already used for a different request");
+        }
+        return toResponse(existing);
+    }
+
+    /** Intake state for its owner; SecurityException for anybody else. */
+    public Optional<OrderIntakeResponse> getIntake(String trackingId, String userId) {
+        OrderIntake intake = mongoTemplate.findById(trackingId, OrderIntake.class);
+        if (intake == null) {
+            return Optional.empty();
+        }
+        if (!intake.getUserId().equals(userId)) {
+            throw new SecurityException("Not authorized to view this order");
+        }
+        return Optional.of(toResponse(intake));
+    }
+
+    // ─────────────────────────────────────────────────────
+    // Worker
+    // ─────────────────────────────────────────────────────
+
+    @Scheduled(fixedDelayString = "${application.intake.poll-interval-ms:200}")
+    public void drain() {
+        for (int i = 0; i < batchSize; i++) {
+            OrderIntake intake = claimNext();
+            if (intake == null) {
+                return;
+            }
+            if (!process(intake)) {
+                return;
+            }
+        }
+    }
+
+    private OrderIntake claimNext() {
+        LocalDateTime now = LocalDateTime.now();
+        Query claimable = query(new Criteria().orOperator(
+                where("status").is(OrderIntake.Status.QUEUED),
+                where("status").is(OrderIntake.Status.PROCESSING)
+                        .and("claimedAt").lt(now.minusSeconds(claimTimeoutSeconds))))
+                .with(Sort.by(Sort.Direction.ASC, "createdAt"));
+        return mongoTemplate.findAndModify(claimable,
+                new Update().set("status", OrderIntake.Status.PROCESSING)
+                        .set("claimedAt", now)
+                        .set("updatedAt", now)
+                        .inc("attempts", 1),
+                FindAndModifyOptions.options().returnNew(true),
+                OrderIntake.class);
+    }
+
+    /** Returns false when draining should pause until the next tick. */
+    private boolean process(OrderIntake intake) {
+        try {
+            orderService.materializeOrder(intake.getId(), intake.getUserId(), intake.getRequest());
+            finish(intake, OrderIntake.Status.DONE, null);
+        } catch (DuplicateKeyException e) {
+            // Materialized by an earlier attempt that did not get to mark the intake
+            finish(intake, OrderIntake.Status.DONE, null);
+        } catch (ProductCacheUnavailableException e) {
+            // Product replica still loading: back in the queue, without spending an attempt
+            mongoTemplate.updateFirst(query(where("id").is(intake.getId())),
+                    new Update().set("status", OrderIntake.Status.QUEUED)
+                            .set("updatedAt", LocalDateTime.now())
+                            .inc("attempts", -1),
+                    OrderIntake.class);
+            return false;
+        } catch (BasketValidationException e) {
+            // Products deleted or sold out since the 202: retrying cannot help
+            log.warn("⚠️ Order intake {} rejected: {} {}", intake.getId(), e.getMessage(), e.getProblems());
+            finish(intake, OrderIntake.Status.FAILED, e.getMessage());
+        } catch (RuntimeException e) {
+            log.warn("⚠️ Order intake {} failed (attempt {}): {}", intake.getId(), intake.getAttempts(), e.getMessage());
+            if (intake.getAttempts() >= maxAttempts) {
+                finish(intake, OrderIntake.Status.FAILED, e.getMessage());
+            } else {
+                mongoTemplate.updateFirst(query(where("id").is(intake.getId())),
+                        new Update().set("status", OrderIntake.Status.QUEUED)
+                                .set("error", e.getMessage())
+                                .set("updatedAt", LocalDateTime.now()),
+                        OrderIntake.class);
+            }
+        }
+        return true;
+    }
+
+    private void finish(OrderIntake intake, OrderIntake.Status status, String error) {
+        LocalDateTime now = LocalDateTime.now();
+        mongoTemplate.updateFirst(query(where("id").is(intake.getId())),
+                new Update().set("status", status)
+                        .set("error", error)
+                        .set("updatedAt", now)
+                        .set("expireAt", now.plusHours(retentionHours))
+                        .unset("request"),
+                OrderIntake.class);
+    }
+
+    private static OrderIntakeResponse toResponse(OrderIntake intake) {
+        return new OrderIntakeResponse(
+                intake.getId(),
+                intake.getStatus(),
+                intake.getStatus() == OrderIntake.Status.DONE ? intake.getId() : null,
+                intake.getError(),
+                intake.getCreatedAt(),
+                intake.getUpdatedAt());
+    }
+}
@@ -1,46 +1,112 @@
 package com.buy01.order.service;
 
+import com.buy01.order.dto.BulkStatusResponse;
 import com.buy01.order.dto.OrderItemDto;
+import com.buy01.order.dto.OrderPageRequest;
+import com.buy01.order.dto.OrderPageResponse;
 import com.buy01.order.dto.OrderRequest;
 import com.buy01.order.dto.OrderResponse;
+import com.buy01.order.dto.SellerOrderView;
+import com.buy01.order.event.OrderLifecycleEvent;
 import com.buy01.order.model.Order;
 import com.buy01.order.model.OrderItem;
 import com.buy01.order.model.OrderStatus;
-import com.buy01.order.product.ProductClient;
+import com.buy01.order.model.SellerOrder;
+import com.buy01.order.repository.OrderArchiveRepository;
+import com.buy01.order.repository.OrderCursor;
+import com.buy01.order.repository.OrderFilter;
 import com.buy01.order.repository.OrderRepository;
-import feign.FeignException;
+import com.buy01.order.repository.SellerOrderRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class OrderService {
 
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_BULK_STATUS_ORDERS = 500;
+
     private final OrderRepository orderRepository;
-    private final ProductClient productClient;
+    private final SellerOrderRepository sellerOrderRepository;
+    private final OrderArchiveRepository archiveRepository;
+    private final SellerStatsService sellerStatsService;
+    private final OrderAnalyticsService orderAnalyticsService;
+    private final UserOrderSummaryService userOrderSummaryService;
+    private final OrderWriteBatcher orderWriteBatcher;
+    private final ProductNearCache productNearCache;
+    private final OutboxService outboxService;
+    private final OrderEventPublisher orderEventPublisher;
+    private final OrderUpdatePublisher orderUpdatePublisher;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Orders created before now - after-days may be in the archive tier
+    @Value("${application.archive.after-days:365}")
+    private int archiveAfterDays;
+
+    // Documents per cursor round trip for the streamed listings and exports
+    @Value("${application.export.cursor-batch-size:500}")
+    private int cursorBatchSize;
 
     // ─────────────────────────────────────────────────────
     // USER endpoints
     // ─────────────────────────────────────────────────────
 
-    /** Create a new order for a user. */
+    /**
+     * Create a new order for a user. Prices and sellers come from the product
+     * replica when it is loaded, not from the client (see ProductNearCache).
+     */
     public OrderResponse createOrder(String userId, OrderRequest request) {
-        List<OrderItem> items = request.getItems().stream()
-                .map(dto -> new OrderItem(
-                        dto.getProductId(),
-                        dto.getProductName(),
-                        dto.getSellerId(),
-                        dto.getPrice(),
-                        dto.getQuantity()))
-                .collect(Collectors.toList());
+        Order saved = orderWriteBatcher.insert(buildOrder(userId, request));
+        recordChanges(List.of(OrderLifecycleEvent.created(saved)));
+        return toResponse(saved);
+    }
+
+    /**
+     * Create an order under a pre-assigned id (the tracking ID of an async
+     * intake, or the one reserved for an Idempotency-Key). insert, not save: a
+     * retry fails with DuplicateKeyException instead of overwriting the order.
+     */
+    public OrderResponse materializeOrder(String orderId, String userId, OrderRequest request) {
+        Order order = buildOrder(userId, request);
+        order.setId(orderId);
+        Order saved = orderWriteBatcher.insert(order);
+        recordChanges(List.of(OrderLifecycleEvent.created(saved)));
+        return toResponse(saved);
+    }
+
+    /**
+     * Checks the basket against the product replica without creating
+     * anything: BasketValidationException, or ProductCacheUnavailableException
+     * while the replica is loading.
+     */
+    public void validateBasket(OrderRequest request) {
+        productNearCache.reprice(toItems(request));
+    }
+
+    private Order buildOrder(String userId, OrderRequest request) {
+        List<OrderItem> items = toItems(request);
+        productNearCache.reprice(items);
 
         double total = items.stream()
                 .mapToDouble(item -> item.getPrice() * item.getQuantity())
@@ -54,59 +120,74 @@ public class OrderService {
         order.setPaymentMethod(request.getPaymentMethod() != null ? request.getPaymentMethod() : "pay_on_delivery");
         order.setCreatedAt(LocalDateTime.now());
         order.setUpdatedAt(LocalDateTime.now());
+        return order;
+    }
 
-        return toResponse(orderRepository.save(order));
+    private static List<OrderItem> toItems(OrderRequest request) {
+        return request.getItems().stream()
+                .map(dto -> new OrderItem(
+                        dto.getProductId(),
+                        dto.getProductName(),
+                        dto.getSellerId(),
+                        dto.getPrice(),
+                        dto.getQuantity()))
+                .collect(Collectors.toList());
     }
 
     /** Re-order: create a new PENDING order from a cancelled/delivered one. */
     public OrderResponse reOrder(String orderId, String userId) {
-        Order original = orderRepository.findById(orderId)
+        return reOrder(orderId, userId, null);
+    }
+
+    /** Re-order under a pre-assigned id for the new order (null: generated). */
+    public OrderResponse reOrder(String orderId, String userId, String newOrderId) {
+        Order original = findOrder(orderId)
                 .orElseThrow(() -> new IllegalArgumentException("Order not found: " + orderId));
 
         if (!original.getUserId().equals(userId)) {
             throw new SecurityException("Not authorized to redo this order");
         }
 
+        // at today's prices and stock when the product replica is loaded
+        List<OrderItem> items = original.getItems().stream()
+                .map(item -> new OrderItem(item.getProductId(), item.getProductName(), item.getSellerId(),
+                        item.getPrice(), item.getQuantity()))
+                .collect(Collectors.toList());
+        productNearCache.reprice(items);
+
         Order newOrder = new Order();
+        newOrder.setId(newOrderId);
         newOrder.setUserId(userId);
-        newOrder.setItems(original.getItems());
+        newOrder.setItems(items);
         newOrder.setStatus(OrderStatus.PENDING);
-        newOrder.setTotalAmount(original.getTotalAmount());
+        newOrder.setTotalAmount(items.stream().mapToDouble(OrderItem::subtotal).sum());
         newOrder.setPaymentMethod(original.getPaymentMethod());
         newOrder.setCreatedAt(LocalDateTime.now());
         newOrder.setUpdatedAt(LocalDateTime.now());
 
-        return toResponse(orderRepository.save(newOrder));
+        Order saved = orderWriteBatcher.insert(newOrder);
+        recordChanges(List.of(OrderLifecycleEvent.created(saved)));
+        return toResponse(saved);
     }
 
     /**
      * Get all orders for a specific user, with optional status filter and search.
      */
     public List<OrderResponse> getOrdersByUser(String userId, String status, String search) {
-        List<Order> orders;
-
-        if (status != null && !status.isBlank()) {
-            try {
-                OrderStatus orderStatus = OrderStatus.valueOf(status.toUpperCase());
-                orders = orderRepository.findAllByUserIdAndStatus(userId, orderStatus);
-            } catch (IllegalArgumentException e) {
-                orders = orderRepository.findAllByUserId(userId);
-            }
-        } else {
-            orders = orderRepository.findAllByUserId(userId);
-        }
-
-        if (search != null && !search.isBlank()) {
-            String q = search.toLowerCase();
-            orders = orders.stream()
-                    .filter(o -> o.getItems().stream()
-                            .anyMatch(item -> item.getProductName().toLowerCase().contains(q)))
-                    .collect(Collectors.toList());
-        }
+        OrderFilter filter = OrderFilter.forUser(userId);
+        filter.setStatus(parseStatus(status));
+        filter.setSearch(search);
+        List<Order> orders = withArchive(filter, orderRepository.findOrders(filter, null, 0), 0,
+                Order::getCreatedAt, Order::getId, () -> archiveRepository.findOrders(filter, null, 0));
 
         return orders.stream().map(this::toResponse).collect(Collectors.toList());
     }
 
+    /** Keyset-paginated orders of a user, newest first, with optional date/amount ranges. */
+    public OrderPageResponse getOrdersPageByUser(String userId, OrderPageRequest request) {
+        return findPage(OrderFilter.forUser(userId), request);
+    }
+
     /** Simplified get without filters (backward compat). */
     public List<OrderResponse> getOrdersByUser(String userId) {
         return getOrdersByUser(userId, null, null);
@@ -114,43 +195,42 @@ public class OrderService {
 
     /** Get a single order by ID. */
     public Optional<OrderResponse> getOrderById(String orderId) {
-        return orderRepository.findById(orderId).map(this::toResponse);
+        return findOrder(orderId).map(this::toResponse);
     }
 
-    /** Cancel an order (set status to CANCELLED). */
+    /**
+     * Cancel an order (set status to CANCELLED), only from PENDING or CONFIRMED.
+     * Throws OrderStatusConflictException otherwise.
+     */
     public Optional<OrderResponse> cancelOrder(String orderId, String userId) {
-        return orderRepository.findById(orderId).map(order -> {
-            if (!order.getUserId().equals(userId)) {
-                throw new SecurityException("Not authorized to cancel this order");
-            }
-            if (order.getStatus() == OrderStatus.DELIVERED) {
-                throw new IllegalStateException("Cannot cancel a delivered order");
-            }
-            order.setStatus(OrderStatus.CANCELLED);
-            order.setUpdatedAt(LocalDateTime.now());
-            return toResponse(orderRepository.save(order));
-        });
+        return transition(orderId, userId, OrderStatus.CANCELLED);
     }
 
     /** Delete an order permanently. */
     public boolean deleteOrder(String orderId, String userId) {
         Optional<Order> orderOpt = orderRepository.findById(orderId);
+        boolean archived = orderOpt.isEmpty();
+        if (archived) {
+            orderOpt = archiveRepository.findById(orderId);
+        }
         if (orderOpt.isEmpty())
             return false;
         Order order = orderOpt.get();
         if (!order.getUserId().equals(userId)) {
             throw new SecurityException("Not authorized to delete this order");
         }
-        orderRepository.deleteById(orderId);
+        if (archived) {
+            archiveRepository.deleteById(orderId);
+        } else {
+            orderRepository.deleteById(orderId);
+        }
+        recordChanges(List.of(OrderLifecycleEvent.deleted(order)));
         return true;
     }
 
-    /** Get total amount spent by a user (excluding cancelled). */
+    /** Get total amount spent by a user (excluding cancelled), from user_order_summaries. */
     public double getTotalSpentByUser(String userId) {
-        return orderRepository.findAllByUserId(userId).stream()
-                .filter(o -> o.getStatus() != OrderStatus.CANCELLED)
-                .mapToDouble(Order::getTotalAmount)
-                .sum();
+        return userOrderSummaryService.getTotalSpent(userId);
     }
 
     // ─────────────────────────────────────────────────────
@@ -160,81 +240,107 @@ public class OrderService {
     /**
      * Get all orders that contain at least one product belonging to the seller.
      * Supports optional status filter and keyword search on product names.
+     * Matched on seller_orders, then the full orders are loaded by id.
      */
     public List<OrderResponse> getOrdersBySeller(String sellerId, String status, String search) {
-        List<Order> orders;
-
-        if (status != null && !status.isBlank()) {
-            try {
-                OrderStatus orderStatus = OrderStatus.valueOf(status.toUpperCase());
-                orders = orderRepository.findAllBySellerIdAndStatus(sellerId, orderStatus);
-            } catch (IllegalArgumentException e) {
-                orders = orderRepository.findAllBySellerId(sellerId);
-            }
-        } else {
-            orders = orderRepository.findAllBySellerId(sellerId);
-        }
+        OrderFilter filter = OrderFilter.forSeller(sellerId);
+        filter.setStatus(parseStatus(status));
+        filter.setSearch(search);
+        return loadOrders(withArchive(filter, sellerOrderRepository.findSellerOrders(filter, null, 0), 0,
+                SellerOrder::getCreatedAt, SellerOrder::getOrderId,
+                () -> archiveRepository.findSellerOrders(filter, null, 0)));
+    }
 
-        if (search != null && !search.isBlank()) {
-            String q = search.toLowerCase();
-            orders = orders.stream()
-                    .filter(o -> o.getItems().stream()
-                            .filter(item -> sellerId.equals(item.getSellerId()))
-                            .anyMatch(item -> item.getProductName().toLowerCase().contains(q)))
-                    .collect(Collectors.toList());
+    /**
+     * Seller-scoped view: each order reduced to the seller's own items plus a
+     * seller subtotal, read straight from seller_orders (then from the archive
+     * when the filter reaches past the hot window). The caller must close the
+     * stream.
+     */
+    public Stream<SellerOrderView> streamSellerOrderViews(String sellerId, String status, String search) {
+        OrderFilter filter = OrderFilter.forSeller(sellerId);
+        filter.setStatus(parseStatus(status));
+        filter.setSearch(search);
+        return streamSellerOrderViews(filter);
+    }
+
+    /**
+     * Seller export: the same views over a createdAt range (both bounds
+     * optional), newest first. An unknown status is rejected rather than
+     * exporting everything. The caller must close the stream.
+     */
+    public Stream<SellerOrderView> exportSellerOrders(String sellerId, String status, LocalDateTime from,
+            LocalDateTime to) {
+        OrderFilter filter = OrderFilter.forSeller(sellerId);
+        filter.setStatus(parseExportStatus(status));
+        filter.setFrom(from);
+        filter.setTo(to);
+        return streamSellerOrderViews(filter);
+    }
+
+    private Stream<SellerOrderView> streamSellerOrderViews(OrderFilter filter) {
+        if (!reachesArchive(filter)) {
+            return sellerOrderRepository.streamSellerOrders(filter, cursorBatchSize).map(this::toView);
         }
+        return inSequence(() -> sellerOrderRepository.streamSellerOrders(filter, cursorBatchSize),
+                () -> archiveRepository.streamSellerOrders(filter, cursorBatchSize))
+                .map(this::toView);
+    }
 
-        return orders.stream().map(this::toResponse).collect(Collectors.toList());
+    /**
+     * Admin export: every order in the given status (all when blank), hot
+     * tier then archive, as read from the cursors. The caller must close the
+     * stream.
+     */
+    public Stream<OrderResponse> exportOrders(String status) {
+        OrderStatus parsed = parseExportStatus(status);
+        Stream<Order> orders = parsed == OrderStatus.PENDING || parsed == OrderStatus.CONFIRMED
+                // only DELIVERED / CANCELLED orders are archived
+                ? orderRepository.findAllByStatus(parsed, cursorBatchSize)
+                : inSequence(() -> orderRepository.findAllByStatus(parsed, cursorBatchSize),
+                        () -> archiveRepository.streamAllByStatus(parsed, cursorBatchSize));
+        return orders.map(this::toResponse);
+    }
+
+    /** Concatenation opening the second cursor only once the first is exhausted (and closed). */
+    private static <T> Stream<T> inSequence(Supplier<Stream<T>> first, Supplier<Stream<T>> second) {
+        return Stream.of(first, second).flatMap(Supplier::get);
+    }
+
+    /**
+     * Keyset-paginated orders containing the seller's products, newest first.
+     * Amount ranges apply to the seller's subtotal.
+     */
+    public OrderPageResponse getOrdersPageBySeller(String sellerId, OrderPageRequest request) {
+        OrderFilter filter = OrderFilter.forSeller(sellerId);
+        applyPageRequest(filter, request);
+        int size = pageSize(request);
+
+        OrderCursor after = decodeCursor(request);
+        List<SellerOrder> sellerOrders = withArchive(filter,
+                sellerOrderRepository.findSellerOrders(filter, after, size + 1), size + 1,
+                SellerOrder::getCreatedAt, SellerOrder::getOrderId,
+                () -> archiveRepository.findSellerOrders(filter, after, size + 1));
+        boolean hasMore = sellerOrders.size() > size;
+        List<SellerOrder> page = hasMore ? sellerOrders.subList(0, size) : sellerOrders;
+        String nextCursor = hasMore ? OrderCursor.of(page.get(page.size() - 1)).encode() : null;
+
+        return new OrderPageResponse(loadOrders(page), nextCursor);
     }
 
     /**
      * Seller stats: total earned, orders count, top selling products.
+     * Served from the in-memory order columns, or from the pre-aggregated
+     * seller_stats document while they are loading (or disabled).
      */
     public Map<String, Object> getSellerStats(String sellerId) {
-        List<Order> orders = orderRepository.findAllBySellerId(sellerId);
-
-        // Total revenue (only confirmed/delivered orders)
-        double totalEarned = orders.stream()
-                .filter(o -> o.getStatus() == OrderStatus.CONFIRMED || o.getStatus() == OrderStatus.DELIVERED)
-                .flatMap(o -> o.getItems().stream())
-                .filter(item -> sellerId.equals(item.getSellerId()))
-                .mapToDouble(item -> item.getPrice() * item.getQuantity())
-                .sum();
-
-        // Count by status
-        long pendingCount = orders.stream().filter(o -> o.getStatus() == OrderStatus.PENDING).count();
-        long confirmedCount = orders.stream().filter(o -> o.getStatus() == OrderStatus.CONFIRMED).count();
-        long deliveredCount = orders.stream().filter(o -> o.getStatus() == OrderStatus.DELIVERED).count();
-        long cancelledCount = orders.stream().filter(o -> o.getStatus() == OrderStatus.CANCELLED).count();
-
-        // Top selling products (by this seller)
-        Map<String, long[]> productMap = new java.util.HashMap<>();
-        orders.stream()
-                .flatMap(o -> o.getItems().stream())
-                .filter(item -> sellerId.equals(item.getSellerId()))
-                .forEach(item -> {
-                    productMap.computeIfAbsent(item.getProductName(), k -> new long[] { 0, 0 });
-                    productMap.get(item.getProductName())[0] += item.getQuantity();
-                    productMap.get(item.getProductName())[1] += (long) (item.getPrice() * item.getQuantity());
-                });
-
-        List<Map<String, Object>> topProducts = productMap.entrySet().stream()
-                .sorted((a, b) -> Long.compare(b.getValue()[0], a.getValue()[0]))
-                .limit(5)
-                .map(e -> Map.<String, Object>of(
-                        "name", e.getKey(),
-                        "quantity", e.getValue()[0],
-                        "revenue", e.getValue()[1]))
-                .collect(Collectors.toList());
+        return orderAnalyticsService.getSellerStats(sellerId)
+                .orElseGet(() -> sellerStatsService.getStats(sellerId));
+    }
 
-        return Map.of(
-                "totalEarned", totalEarned,
-                "totalOrders", (long) orders.size(),
-                "pendingOrders", pendingCount,
-                "confirmedOrders", confirmedCount,
-                "deliveredOrders", deliveredCount,
-                "cancelledOrders", cancelledCount,
-                "topProducts", topProducts);
+    /** Admin dashboard: stats over every seller, empty while the order columns are loading. */
+    public Optional<Map<String, Object>> getGlobalStats() {
+        return orderAnalyticsService.getGlobalStats();
     }
 
     // ─────────────────────────────────────────────────────
@@ -242,40 +348,262 @@ public class OrderService {
     // ─────────────────────────────────────────────────────
 
     /**
-     * Update order status (seller/admin action). When status = DELIVERED, decrement
-     * product stocks.
+     * Update order status (seller/admin action), following the OrderStatus
+     * transition table. Stock is decremented by product-service from the
+     * ORDER_DELIVERED event (see OrderEventPublisher), outside of this request.
+     * A non-null sellerId restricts the update to orders holding that seller's
+     * items; admins pass null.
+     */
+    public Optional<OrderResponse> updateOrderStatus(String orderId, OrderStatus newStatus, String sellerId) {
+        if (sellerId != null && !sellerOrderRepository.existsById(SellerOrder.idOf(orderId, sellerId))) {
+            // Not a hot seller order: unknown, someone else's, or archived
+            Order order = findOrder(orderId).orElse(null);
+            if (order == null) {
+                return Optional.empty();
+            }
+            if (order.getItems().stream().noneMatch(item -> sellerId.equals(item.getSellerId()))) {
+                throw new SecurityException("Not authorized to update this order");
+            }
+        }
+        return transition(orderId, null, newStatus);
+    }
+
+    /**
+     * Bulk status update: one $in read checks existence, ownership (sellerId
+     * present in the items, unless admin) and the transition of every order,
+     * one bulkWrite applies the valid ones. The ORDER_DELIVERED /
+     * ORDER_CANCELLED events behind the stock changes go to the outbox in a
+     * single insertMany. Duplicate ids are ignored.
      */
-    public Optional<OrderResponse> updateOrderStatus(String orderId, OrderStatus newStatus) {
-        return orderRepository.findById(orderId).map(order -> {
-            OrderStatus previousStatus = order.getStatus();
-            order.setStatus(newStatus);
-            order.setUpdatedAt(LocalDateTime.now());
-            Order saved = orderRepository.save(order);
-
-            /// 📦 Decrement stock only on first transition to DELIVERED
-            if (newStatus == OrderStatus.DELIVERED && previousStatus != OrderStatus.DELIVERED) {
-                System.out.println("newStatus: " + newStatus);
-                System.out.println("previousStatus: " + previousStatus);
-                for (OrderItem item : order.getItems()) {
-                    try {
-                        productClient.adjustQuantity(item.getProductId(), -item.getQuantity());
-                        log.info("✅ Stock decremented for product {} by {}", item.getProductId(), item.getQuantity());
-                    } catch (FeignException e) {
-                        log.warn("⚠️ Could not decrement stock for product {}: {}", item.getProductId(),
-                                e.getMessage());
-                        // Non-blocking: order status is still updated
-                    }
-                }
+    public BulkStatusResponse bulkUpdateOrderStatus(List<String> orderIds, OrderStatus target, String sellerId) {
+        if (orderIds.size() > MAX_BULK_STATUS_ORDERS) {
+            throw new IllegalArgumentException("At most " + MAX_BULK_STATUS_ORDERS + " orders per request");
+        }
+        List<String> ids = orderIds.stream().filter(Objects::nonNull).distinct().toList();
+        Map<String, Order> orders = orderRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Order::getId, o -> o));
+        if (orders.size() < ids.size()) {
+            // Archived orders are terminal: reported as CONFLICT, never updated
+            archiveRepository.findAllById(ids.stream().filter(id -> !orders.containsKey(id)).toList())
+                    .forEach(order -> orders.put(order.getId(), order));
+        }
+        Set<OrderStatus> sources = OrderStatus.sourcesOf(target);
+
+        Map<String, BulkStatusResponse.Result> results = new LinkedHashMap<>();
+        Map<String, OrderStatus> candidates = new LinkedHashMap<>();
+        for (String id : ids) {
+            Order order = orders.get(id);
+            if (order == null) {
+                results.put(id, new BulkStatusResponse.Result(id, BulkStatusResponse.Outcome.NOT_FOUND, null));
+            } else if (sellerId != null && order.getItems().stream().noneMatch(i -> sellerId.equals(i.getSellerId()))) {
+                results.put(id, new BulkStatusResponse.Result(id, BulkStatusResponse.Outcome.FORBIDDEN, null));
+            } else if (!sources.contains(order.getStatus())) {
+                results.put(id, new BulkStatusResponse.Result(id, BulkStatusResponse.Outcome.CONFLICT,
+                        order.getStatus()));
+            } else {
+                results.put(id, null);
+                candidates.put(id, order.getStatus());
             }
+        }
 
-            return toResponse(saved);
+        // Mongo stores milliseconds: truncate so the stamp reads back equal
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        Set<String> moved = orderRepository.transitionStatuses(candidates, target, now);
+
+        List<OrderLifecycleEvent> changes = new ArrayList<>();
+        candidates.forEach((id, previousStatus) -> {
+            Order order = orders.get(id);
+            if (moved.contains(id)) {
+                order.setStatus(target);
+                order.setUpdatedAt(now);
+                changes.add(OrderLifecycleEvent.statusChanged(order, previousStatus));
+                results.put(id, new BulkStatusResponse.Result(id, BulkStatusResponse.Outcome.UPDATED, target));
+            } else {
+                // Changed by someone else between the read and the bulkWrite
+                OrderStatus current = orderRepository.findById(id).map(Order::getStatus).orElse(null);
+                results.put(id, new BulkStatusResponse.Result(id, current != null
+                        ? BulkStatusResponse.Outcome.CONFLICT
+                        : BulkStatusResponse.Outcome.NOT_FOUND, current));
+            }
         });
+        recordChanges(changes);
+
+        return new BulkStatusResponse(target, moved.size(), new ArrayList<>(results.values()));
     }
 
     // ─────────────────────────────────────────────────────
     // Helpers
     // ─────────────────────────────────────────────────────
 
+    /**
+     * Single findAndModify guarded by the statuses allowed to reach target: of
+     * two concurrent updates only one matches, the other gets a conflict, so
+     * the STATUS_CHANGED event (and the stock decrement behind DELIVERED) fires
+     * once. userId, when given, must own the order.
+     */
+    private Optional<OrderResponse> transition(String orderId, String userId, OrderStatus target) {
+        LocalDateTime now = LocalDateTime.now();
+        Order previous = orderRepository.transitionStatus(orderId, userId, OrderStatus.sourcesOf(target), target, now);
+        if (previous == null) {
+            Order current = findOrder(orderId).orElse(null);
+            if (current == null) {
+                return Optional.empty();
+            }
+            if (userId != null && !userId.equals(current.getUserId())) {
+                throw new SecurityException("Not authorized to update this order");
+            }
+            throw new OrderStatusConflictException(current.getStatus(), target);
+        }
+
+        OrderStatus previousStatus = previous.getStatus();
+        previous.setStatus(target);
+        previous.setUpdatedAt(now);
+        recordChanges(List.of(OrderLifecycleEvent.statusChanged(previous, previousStatus)));
+        return Optional.of(toResponse(previous));
+    }
+
+    /**
+     * Side effects of committed order writes. The outbox records (order-events,
+     * order-updates) are queued first, in one insertMany, so nothing past this
+     * point can lose them; the in-process read models (seller_orders,
+     * seller_stats, user_order_summaries) then follow as listeners, each
+     * logging its own failures for the backfill / reconcile jobs to repair.
+     */
+    private void recordChanges(List<OrderLifecycleEvent> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        outboxService.batch(() -> changes.forEach(change -> {
+            orderEventPublisher.publish(change);
+            orderUpdatePublisher.publish(change);
+        }));
+        changes.forEach(eventPublisher::publishEvent);
+    }
+
+    private OrderPageResponse findPage(OrderFilter filter, OrderPageRequest request) {
+        applyPageRequest(filter, request);
+        int size = pageSize(request);
+
+        // One extra row tells whether another page exists
+        OrderCursor after = decodeCursor(request);
+        List<Order> orders = withArchive(filter, orderRepository.findOrders(filter, after, size + 1), size + 1,
+                Order::getCreatedAt, Order::getId, () -> archiveRepository.findOrders(filter, after, size + 1));
+        boolean hasMore = orders.size() > size;
+        List<Order> page = hasMore ? orders.subList(0, size) : orders;
+        String nextCursor = hasMore ? OrderCursor.of(page.get(page.size() - 1)).encode() : null;
+
+        return new OrderPageResponse(page.stream().map(this::toResponse).collect(Collectors.toList()), nextCursor);
+    }
+
+    private Optional<Order> findOrder(String orderId) {
+        Optional<Order> order = orderRepository.findById(orderId);
+        return order.isPresent() ? order : archiveRepository.findById(orderId);
+    }
+
+    /**
+     * Only orders created before the hot window can be archived: a listing
+     * starting inside it never reads the archive.
+     */
+    private boolean reachesArchive(OrderFilter filter) {
+        return filter.getFrom() == null || filter.getFrom().isBefore(hotWindowStart());
+    }
+
+    private LocalDateTime hotWindowStart() {
+        return LocalDateTime.now().minusDays(archiveAfterDays);
+    }
+
+    /**
+     * Completes a newest-first hot result with the archive, unless the range
+     * starts inside the hot window or the hot rows already fill the page up to
+     * a row from inside the window (every archived row sorts after it). Rows
+     * are merged on (createdAt DESC, id DESC), the keyset order, so cursors
+     * work across both tiers. limit <= 0 means no limit.
+     */
+    private <T> List<T> withArchive(OrderFilter filter, List<T> hot, int limit,
+            Function<T, LocalDateTime> createdAt, Function<T, String> id, Supplier<List<T>> archive) {
+        if (!reachesArchive(filter)) {
+            return hot;
+        }
+        if (limit > 0 && hot.size() >= limit && !createdAt.apply(hot.get(limit - 1)).isBefore(hotWindowStart())) {
+            return hot;
+        }
+        List<T> archived = archive.get();
+        if (archived.isEmpty()) {
+            return hot;
+        }
+        Stream<T> merged = Stream.concat(hot.stream(), archived.stream())
+                .sorted(Comparator.comparing(createdAt).thenComparing(id).reversed());
+        return (limit > 0 ? merged.limit(limit) : merged).collect(Collectors.toList());
+    }
+
+    private static void applyPageRequest(OrderFilter filter, OrderPageRequest request) {
+        filter.setStatus(parseStatus(request.getStatus()));
+        filter.setFrom(request.getFrom());
+        filter.setTo(request.getTo());
+        filter.setMinAmount(request.getMinAmount());
+        filter.setMaxAmount(request.getMaxAmount());
+        filter.setSearch(request.getSearch());
+    }
+
+    private static int pageSize(OrderPageRequest request) {
+        return Math.max(1, Math.min(request.getSize(), MAX_PAGE_SIZE));
+    }
+
+    private static OrderCursor decodeCursor(OrderPageRequest request) {
+        return request.getCursor() != null && !request.getCursor().isBlank()
+                ? OrderCursor.decode(request.getCursor())
+                : null;
+    }
+
+    /** Full orders behind the given seller orders, in the same order. */
+    private List<OrderResponse> loadOrders(List<SellerOrder> sellerOrders) {
+        List<String> ids = sellerOrders.stream().map(SellerOrder::getOrderId).collect(Collectors.toList());
+        Map<String, Order> byId = new HashMap<>();
+        orderRepository.findAllById(ids).forEach(order -> byId.put(order.getId(), order));
+        if (byId.size() < ids.size()) {
+            archiveRepository.findAllById(ids.stream().filter(id -> !byId.containsKey(id)).toList())
+                    .forEach(order -> byId.put(order.getId(), order));
+        }
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .map(this::toResponse)
+                .collect(Collectors.toList());
+    }
+
+    private SellerOrderView toView(SellerOrder sellerOrder) {
+        return new SellerOrderView(
+                sellerOrder.getOrderId(),
+                sellerOrder.getUserId(),
+                sellerOrder.getItems(),
+                sellerOrder.getSubtotal(),
+                sellerOrder.getStatus(),
+                sellerOrder.getPaymentMethod(),
+                sellerOrder.getCreatedAt(),
+                sellerOrder.getUpdatedAt());
+    }
+
+    /** Blank status → every status; unknown → IllegalArgumentException. */
+    private static OrderStatus parseExportStatus(String status) {
+        OrderStatus parsed = parseStatus(status);
+        if (status != null && !status.isBlank() && parsed == null) {
+            throw new IllegalArgumentException("Unknown status: " + status);
+        }
+        return parsed;
+    }
+
+    /** Unknown or blank status → no status filter (same behaviour as before). */
+    private static OrderStatus parseStatus(String status) {
+        if (status == null || status.isBlank()) {
+            return null;
+        }
+        try {
+            return OrderStatus.valueOf(status.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
     private OrderResponse toResponse(Order order) {
         return new OrderResponse(
                 order.getId(),
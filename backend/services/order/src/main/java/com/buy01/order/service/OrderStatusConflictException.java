@@ -0,0 +1,22 @@
+package com.buy01.order.service;
+
+import com.buy01.order.model.OrderStatus;
+import lombok.Getter;
+
+/**
+ * The order is not in a status from which the requested transition is
+ * allowed: either the transition is invalid, or a concurrent update changed
+ * the status first.
+ */
+@Getter
+public class OrderStatusConflictException extends RuntimeException {
+
+    private final OrderStatus currentStatus;
+    private final OrderStatus requestedStatus;
+
+    public OrderStatusConflictException(OrderStatus currentStatus, OrderStatus requestedStatus) {
+        super("Cannot change order status from " + currentStatus + " to " + requestedStatus);
+        this.currentStatus = currentStatus;
+        this.requestedStatus = requestedStatus;
+    }
+}
@@ -0,0 +1,22 @@
+package com.buy01.order.service;
+
+import com.buy01.order.model.OrderStatus;
+
+/**
+ * Name of the per-status counter field shared by the read models
+ * (seller_stats, user_order_summaries).
+ */
+final class OrderStatusCounters {
+
+    private OrderStatusCounters() {
+    }
+
+    static String field(OrderStatus status) {
+        return switch (status) {
+            case PENDING -> "pendingOrders";
+            case CONFIRMED -> "confirmedOrders";
+            case DELIVERED -> "deliveredOrders";
+            case CANCELLED -> "cancelledOrders";
+        };
+    }
+}
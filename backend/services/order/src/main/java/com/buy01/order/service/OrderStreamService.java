@@ -0,0 +1,243 @@
+package com.buy01.order.service;
+
+import com.buy01.order.dto.OrderUpdate;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Server-Sent Events connections of this replica, keyed by buyer
+ * ("user:{id}") or seller ("seller:{id}"). Updates come from
+ * OrderUpdateListener, so a change made on any replica reaches every
+ * connection.
+ * Each connection has its own bounded buffer drained by a small sender pool:
+ * a slow client never blocks the Kafka consumer. When its buffer overflows,
+ * the pending updates are replaced by a single "resync" event telling the
+ * client to refetch its orders. Heartbeat comments keep proxies from closing
+ * idle connections and detect dead ones; a connection whose write has been
+ * blocked for longer than send-timeout-ms is closed at heartbeat time, so a
+ * few stalled clients cannot hold every sender thread. The pool queue holds
+ * at most one drain task per connection.
+ */
+@Service
+@Slf4j
+public class OrderStreamService {
+
+    static final String UPDATE_EVENT = "order";
+    static final String RESYNC_EVENT = "resync";
+
+    private final Map<String, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final Executor sender;
+    private final int bufferSize;
+    private final int maxConnectionsPerKey;
+    private final long timeoutMs;
+    private final long sendTimeoutMs;
+
+    public OrderStreamService(
+            @Value("${application.order-stream.buffer-size:64}") int bufferSize,
+            @Value("${application.order-stream.max-connections-per-key:5}") int maxConnectionsPerKey,
+            @Value("${application.order-stream.timeout-ms:1800000}") long timeoutMs,
+            @Value("${application.order-stream.send-timeout-ms:10000}") long sendTimeoutMs,
+            @Value("${application.order-stream.sender-threads:4}") int senderThreads) {
+        this(bufferSize, maxConnectionsPerKey, timeoutMs, sendTimeoutMs, senderPool(senderThreads));
+    }
+
+    OrderStreamService(int bufferSize, int maxConnectionsPerKey, long timeoutMs, long sendTimeoutMs,
+            Executor sender) {
+        this.bufferSize = bufferSize;
+        this.maxConnectionsPerKey = maxConnectionsPerKey;
+        this.timeoutMs = timeoutMs;
+        this.sendTimeoutMs = sendTimeoutMs;
+        this.sender = sender;
+    }
+
+    private static ExecutorService senderPool(int threads) {
+        AtomicInteger count = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, task -> {
+            Thread thread = new Thread(task, "order-stream-sender-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static String userKey(String userId) {
+        return "user:" + userId;
+    }
+
+    public static String sellerKey(String sellerId) {
+        return "seller:" + sellerId;
+    }
+
+    /**
+     * Opens a stream for the key. Throws IllegalStateException when the key
+     * already has max-connections-per-key open streams.
+     */
+    public SseEmitter subscribe(String key) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        register(key, emitter);
+        return emitter;
+    }
+
+    Subscriber register(String key, SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(key, emitter);
+        subscribers.compute(key, (k, forKey) -> {
+            Set<Subscriber> connections = forKey != null ? forKey : new CopyOnWriteArraySet<>();
+            if (connections.size() >= maxConnectionsPerKey) {
+                throw new IllegalStateException("Too many open streams");
+            }
+            connections.add(subscriber);
+            return connections;
+        });
+        emitter.onCompletion(() -> unregister(subscriber));
+        emitter.onTimeout(() -> unregister(subscriber));
+        emitter.onError(e -> unregister(subscriber));
+        enqueue(subscriber, () -> SseEmitter.event().reconnectTime(3000).comment("connected"));
+        return subscriber;
+    }
+
+    /** Pushes the update to its buyer and to every seller of the order. */
+    public void dispatch(OrderUpdate update) {
+        // A builder is consumed by send(): each connection gets its own
+        Supplier<SseEmitter.SseEventBuilder> event = () -> SseEmitter.event()
+                .id(update.getOrderId())
+                .name(UPDATE_EVENT)
+                .data(update);
+        publish(userKey(update.getUserId()), event);
+        if (update.getSellerIds() != null) {
+            update.getSellerIds().forEach(sellerId -> publish(sellerKey(sellerId), event));
+        }
+    }
+
+    private void publish(String key, Supplier<SseEmitter.SseEventBuilder> event) {
+        Set<Subscriber> forKey = subscribers.get(key);
+        if (forKey != null) {
+            forKey.forEach(subscriber -> enqueue(subscriber, event));
+        }
+    }
+
+    @Scheduled(fixedRateString = "${application.order-stream.heartbeat-ms:15000}")
+    public void heartbeat() {
+        long now = System.currentTimeMillis();
+        subscribers.values().forEach(forKey -> forKey.forEach(subscriber -> {
+            long sendingSince = subscriber.sendingSince;
+            if (sendingSince != 0 && now - sendingSince >= sendTimeoutMs) {
+                // Completing the response fails the blocked write and frees its sender thread
+                log.warn("⚠️ SSE connection {} stuck in a write for {} ms, closing it", subscriber.key,
+                        now - sendingSince);
+                unregister(subscriber);
+                subscriber.emitter.complete();
+                return;
+            }
+            // No point queuing a heartbeat behind real traffic
+            if (subscriber.isIdle()) {
+                enqueue(subscriber, () -> SseEmitter.event().comment("heartbeat"));
+            }
+        }));
+    }
+
+    public int connectionCount() {
+        return subscribers.values().stream().mapToInt(Set::size).sum();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.values().forEach(forKey -> forKey.forEach(subscriber -> subscriber.emitter.complete()));
+        subscribers.clear();
+        if (sender instanceof ExecutorService executor) {
+            executor.shutdownNow();
+        }
+    }
+
+    // ─────────────────────────────────────────────────────
+    // Per-connection buffer
+    // ─────────────────────────────────────────────────────
+
+    private void enqueue(Subscriber subscriber, Supplier<SseEmitter.SseEventBuilder> event) {
+        if (subscriber.offer(event, bufferSize) && subscriber.scheduled.compareAndSet(false, true)) {
+            sender.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        do {
+            Supplier<SseEmitter.SseEventBuilder> event;
+            while (!subscriber.closed && (event = subscriber.poll()) != null) {
+                subscriber.sendingSince = System.currentTimeMillis();
+                try {
+                    subscriber.emitter.send(event.get());
+                } catch (IOException | IllegalStateException e) {
+                    log.debug("SSE connection {} closed: {}", subscriber.key, e.getMessage());
+                    unregister(subscriber);
+                    subscriber.emitter.completeWithError(e);
+                    return;
+                } finally {
+                    subscriber.sendingSince = 0;
+                }
+            }
+            subscriber.scheduled.set(false);
+            // An event may have been queued after the last poll but before the flag was cleared
+        } while (!subscriber.isIdle() && subscriber.scheduled.compareAndSet(false, true));
+    }
+
+    private void unregister(Subscriber subscriber) {
+        subscriber.closed = true;
+        subscribers.computeIfPresent(subscriber.key, (key, forKey) -> {
+            forKey.remove(subscriber);
+            return forKey.isEmpty() ? null : forKey;
+        });
+    }
+
+    static final class Subscriber {
+        private final String key;
+        private final SseEmitter emitter;
+        private final Queue<Supplier<SseEmitter.SseEventBuilder>> buffer = new ArrayDeque<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile boolean closed;
+        // Start of the write in progress, 0 when none
+        private volatile long sendingSince;
+
+        Subscriber(String key, SseEmitter emitter) {
+            this.key = key;
+            this.emitter = emitter;
+        }
+
+        /** Returns false once the connection is closed. */
+        synchronized boolean offer(Supplier<SseEmitter.SseEventBuilder> event, int capacity) {
+            if (closed) {
+                return false;
+            }
+            if (buffer.size() >= capacity) {
+                buffer.clear();
+                buffer.add(() -> SseEmitter.event().name(RESYNC_EVENT).data("{}"));
+                return true;
+            }
+            buffer.add(event);
+            return true;
+        }
+
+        synchronized Supplier<SseEmitter.SseEventBuilder> poll() {
+            return buffer.poll();
+        }
+
+        synchronized boolean isIdle() {
+            return buffer.isEmpty();
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.buy01.order.service;
+
+import com.buy01.order.dto.OrderUpdate;
+import com.buy01.order.event.OrderLifecycleEvent;
+import com.buy01.order.model.Order;
+import com.buy01.order.repository.OrderRepository;
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.stereotype.Service;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+@RequiredArgsConstructor
+public class OrderUpdateListener implements ConsumerSeekAware {
+
+    // Producer clocks may run behind ours; replaying a little more is harmless
+    private static final long CLOCK_SKEW_MS = 30_000;
+
+    private final OrderStreamService orderStreamService;
+    private final OrderAnalyticsService orderAnalyticsService;
+    private final TrendingService trendingService;
+    private final CoOccurrenceService coOccurrenceService;
+    private final OrderRepository orderRepository;
+
+    private final Set<TopicPartition> positioned = ConcurrentHashMap.newKeySet();
+
+    /**
+     * One consumer group per replica (named after the host), so every replica
+     * sees every update, pushes it to the connections it holds and applies it
+     * to its order columns, trending products and co-occurrence index; a
+     * created order is read back once for all three, the message carrying no
+     * items. The in-memory views are loaded from Mongo after the JVM started:
+     * each partition is first read from that time on (see onPartitionsAssigned),
+     * so no update falls between the load and the first poll.
+     */
+    @KafkaListener(topics = OrderUpdatePublisher.TOPIC,
+            groupId = "order-updates-${HOSTNAME:${random.uuid}}",
+            properties = "auto.offset.reset=latest")
+    public void onOrderUpdate(OrderUpdate update) {
+        orderStreamService.dispatch(update);
+        Order created = null;
+        if (update.getType() == OrderLifecycleEvent.Type.CREATED
+                && (orderAnalyticsService.isEnabled() || trendingService.isEnabled()
+                        || coOccurrenceService.isEnabled())) {
+            created = orderRepository.findById(update.getOrderId()).orElse(null);
+        }
+        orderAnalyticsService.apply(update, created);
+        trendingService.onOrderCreated(created);
+        coOccurrenceService.onOrderCreated(created);
+    }
+
+    /**
+     * Seeks each partition, the first time it is assigned, to the JVM start:
+     * earlier than any view began loading. Updates already in the load are
+     * applied again, which the views tolerate (statuses are set, trending and
+     * co-occurrence skip orders created before they started). Later
+     * assignments resume from the committed offsets.
+     */
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        List<TopicPartition> first = assignments.keySet().stream().filter(positioned::add).toList();
+        if (!first.isEmpty()) {
+            callback.seekToTimestamp(first, ManagementFactory.getRuntimeMXBean().getStartTime() - CLOCK_SKEW_MS);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.buy01.order.service;
+
+import com.buy01.order.dto.OrderUpdate;
+import com.buy01.order.event.OrderLifecycleEvent;
+import com.buy01.order.model.Order;
+import com.buy01.order.model.OrderStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+
+/**
+ * Queues every order change for order-updates (through the outbox, so the
+ * request never waits on Kafka). Each replica consumes that topic in full
+ * (see OrderUpdateListener) to feed its own SSE connections.
+ * Called by OrderService right after the write, with OrderEventPublisher.
+ * Updates are versioned by how far the order went through its transitions,
+ * which only move forward: writes from two replicas reach SSE clients in
+ * order, and a late one never replaces a newer status.
+ */
+@Service
+@RequiredArgsConstructor
+public class OrderUpdatePublisher {
+
+    public static final String TOPIC = "order-updates";
+
+    private final OutboxService outboxService;
+
+    public void publish(OrderLifecycleEvent event) {
+        Order order = event.getOrder();
+        OrderUpdate update = new OrderUpdate(
+                event.getType(),
+                order.getId(),
+                order.getUserId(),
+                new ArrayList<>(order.itemsBySeller().keySet()),
+                order.getStatus(),
+                event.getPreviousStatus(),
+                order.getTotalAmount(),
+                LocalDateTime.now());
+        outboxService.append(TOPIC, order.getId(), version(event), "ORDER_" + event.getType(), update);
+    }
+
+    // Number of statuses the order went through, past all of them once deleted
+    static long version(OrderLifecycleEvent event) {
+        if (event.getType() == OrderLifecycleEvent.Type.DELETED) {
+            return OrderStatus.values().length;
+        }
+        return OrderStatus.predecessorsOf(event.getOrder().getStatus()).size();
+    }
+}
@@ -0,0 +1,247 @@
+package com.buy01.order.service;
+
+import com.buy01.order.model.Order;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Group commit for order inserts: orders arriving within a short window (or
+ * until the batch is full) are written with a single unordered insertMany, so
+ * the per-write round trip and journal commit are paid once per batch instead
+ * of once per order. Each caller blocks on its own future, completed when the
+ * batch holding its order is acknowledged; a duplicate key only fails the
+ * order it belongs to, and a caller waits write-timeout at most.
+ * Disabled by default: inserts then go straight to Mongo.
+ */
+@Service
+@Slf4j
+public class OrderWriteBatcher implements SmartLifecycle {
+
+    private static final long IDLE_POLL_MS = 100;
+
+    private final MongoTemplate mongoTemplate;
+    private final boolean enabled;
+    private final int maxBatchSize;
+    private final long maxWaitNanos;
+    private final long writeTimeoutMs;
+    private final BlockingQueue<PendingWrite> queue;
+
+    private volatile boolean running;
+    private Thread flusher;
+
+    public OrderWriteBatcher(
+            MongoTemplate mongoTemplate,
+            @Value("${application.order-batching.enabled:false}") boolean enabled,
+            @Value("${application.order-batching.max-batch-size:256}") int maxBatchSize,
+            @Value("${application.order-batching.max-wait-micros:2000}") long maxWaitMicros,
+            @Value("${application.order-batching.queue-capacity:4096}") int queueCapacity,
+            @Value("${application.order-batching.write-timeout-ms:10000}") long writeTimeoutMs) {
+        this.mongoTemplate = mongoTemplate;
+        this.enabled = enabled;
+        this.maxBatchSize = maxBatchSize;
+        this.maxWaitNanos = TimeUnit.MICROSECONDS.toNanos(maxWaitMicros);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.writeTimeoutMs = writeTimeoutMs;
+    }
+
+    /**
+     * Inserts the order and returns it once it is durable. Same contract as
+     * MongoTemplate.insert: a DuplicateKeyException is thrown if the id exists.
+     * QueryTimeoutException if the batch is not acknowledged within
+     * write-timeout: the order may still be written afterwards.
+     */
+    public Order insert(Order order) {
+        if (!running) {
+            return mongoTemplate.insert(order);
+        }
+        try {
+            return submit(order).get(writeTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Order write failed", e.getCause());
+        } catch (TimeoutException e) {
+            throw new QueryTimeoutException("Order " + order.getId() + " not acknowledged within "
+                    + writeTimeoutMs + " ms");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the order write", e);
+        }
+    }
+
+    /**
+     * Queues the order for the next flush. Blocks while the queue is full, which
+     * pushes back on request threads instead of buffering without bound.
+     */
+    public CompletableFuture<Order> submit(Order order) {
+        if (order.getId() == null) {
+            // insertMany does not hand generated ids back per document
+            order.setId(new ObjectId().toHexString());
+        }
+        PendingWrite write = new PendingWrite(order, new CompletableFuture<>());
+        try {
+            queue.put(write);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            write.future().completeExceptionally(e);
+            return write.future();
+        }
+        if (!running && queue.remove(write)) {
+            // Stopped while queuing, after the last drain: nobody else would flush it
+            flush(List.of(write));
+        }
+        return write.future();
+    }
+
+    // ─────────────────────────────────────────────────────
+    // Flusher
+    // ─────────────────────────────────────────────────────
+
+    private void runFlusher() {
+        List<PendingWrite> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingWrite first = queue.poll(IDLE_POLL_MS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                collect(batch, System.nanoTime() + maxWaitNanos);
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                flush(batch);
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /** Fills the batch until it is full or the window opened by its first order closes. */
+    private void collect(List<PendingWrite> batch, long deadline) throws InterruptedException {
+        while (batch.size() < maxBatchSize) {
+            if (queue.drainTo(batch, maxBatchSize - batch.size()) > 0) {
+                continue;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return;
+            }
+            PendingWrite next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    void flush(List<PendingWrite> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Order.class);
+            bulk.insert(batch.stream().map(PendingWrite::order).toList());
+            bulk.execute();
+            batch.forEach(write -> write.future().complete(write.order()));
+        } catch (BulkOperationException e) {
+            completePartially(batch, e);
+        } catch (RuntimeException e) {
+            log.warn("Order batch of {} failed: {}", batch.size(), e.getMessage());
+            batch.forEach(write -> write.future().completeExceptionally(e));
+        }
+    }
+
+    /** Unordered insert: only the orders listed in the write errors were rejected. */
+    private static void completePartially(List<PendingWrite> batch, BulkOperationException e) {
+        if (e.getCause() instanceof MongoBulkWriteException bulkError && bulkError.getWriteConcernError() != null) {
+            batch.forEach(write -> write.future().completeExceptionally(e));
+            return;
+        }
+        Map<Integer, BulkWriteError> errors = new HashMap<>();
+        e.getErrors().forEach(error -> errors.put(error.getIndex(), error));
+        for (int i = 0; i < batch.size(); i++) {
+            PendingWrite write = batch.get(i);
+            BulkWriteError error = errors.get(i);
+            if (error == null) {
+                write.future().complete(write.order());
+            } else if (error.getCode() == 11000) {
+                write.future().completeExceptionally(new DuplicateKeyException(error.getMessage()));
+            } else {
+                write.future().completeExceptionally(new DataIntegrityViolationException(error.getMessage()));
+            }
+        }
+    }
+
+    // ─────────────────────────────────────────────────────
+    // Lifecycle
+    // ─────────────────────────────────────────────────────
+
+    @Override
+    public void start() {
+        if (!enabled || running) {
+            return;
+        }
+        running = true;
+        flusher = new Thread(this::runFlusher, "order-write-batcher");
+        flusher.setDaemon(true);
+        flusher.start();
+        log.info("Order write batching enabled (max {} orders / {} us)",
+                maxBatchSize, TimeUnit.NANOSECONDS.toMicros(maxWaitNanos));
+    }
+
+    /** Stops taking new batches; orders already queued are still flushed. */
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        try {
+            flusher.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<PendingWrite> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        flush(remaining);
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /** Started before and stopped after the web server, so in-flight requests drain first. */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    record PendingWrite(Order order, CompletableFuture<Order> future) {
+    }
+}
@@ -0,0 +1,66 @@
+package com.buy01.order.service;
+
+import com.buy01.order.model.OutboxEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class OutboxService {
+
+    private final MongoTemplate mongoTemplate;
+
+    // Events appended inside batch(), written together when it returns
+    private final ThreadLocal<List<OutboxEvent>> pending = new ThreadLocal<>();
+
+    /**
+     * Queues an event for Kafka. Call it in the same service operation as the
+     * domain write, right after it: the request never waits on Kafka, and the
+     * event survives a broker outage.
+     */
+    public void append(String topic, String aggregateId, String eventType, Object payload) {
+        append(topic, aggregateId, null, eventType, payload);
+    }
+
+    /**
+     * Same, for an event carrying the version of its aggregate: the relay sends
+     * the events of an aggregate in version order and drops any older than
+     * one already sent.
+     */
+    public void append(String topic, String aggregateId, Long version, String eventType, Object payload) {
+        OutboxEvent event = new OutboxEvent(null, topic, aggregateId, version, eventType, payload,
+                LocalDateTime.now());
+        List<OutboxEvent> batch = pending.get();
+        if (batch != null) {
+            batch.add(event);
+        } else {
+            mongoTemplate.insert(event);
+        }
+    }
+
+    /**
+     * Runs the action, collecting the events it appends on this thread into a
+     * single insertMany. Events keep their append order.
+     */
+    public void batch(Runnable action) {
+        if (pending.get() != null) {
+            action.run();
+            return;
+        }
+        List<OutboxEvent> batch = new ArrayList<>();
+        pending.set(batch);
+        try {
+            action.run();
+        } finally {
+            pending.remove();
+            if (!batch.isEmpty()) {
+                mongoTemplate.insertAll(batch);
+            }
+        }
+    }
+}
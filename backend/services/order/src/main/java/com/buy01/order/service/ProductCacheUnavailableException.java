@@ -0,0 +1,13 @@
+package com.buy01.order.service;
+
+/**
+ * The product replica has not caught up with product-state yet (startup,
+ * Kafka outage): prices, sellers and stock cannot be checked, so the basket
+ * is refused rather than taken as sent. Transient, the client retries.
+ */
+public class ProductCacheUnavailableException extends RuntimeException {
+
+    public ProductCacheUnavailableException() {
+        super("Product catalog is loading, retry shortly");
+    }
+}
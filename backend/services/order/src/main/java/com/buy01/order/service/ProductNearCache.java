@@ -0,0 +1,184 @@
+package com.buy01.order.service;
+
+import com.buy01.order.dto.ProductChange;
+import com.buy01.order.model.OrderItem;
+import com.buy01.order.util.CompactedTopicReader;
+import com.buy01.order.util.OffHeapProductTable;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Replica of every product's name, seller, price and stock on each order-service
+ * replica, held off-heap (OffHeapProductTable), so checkout validates and
+ * reprices a basket with a few hash lookups instead of one product-service
+ * call per item.
+ * Rebuilt from the compacted product-state topic once the application is
+ * ready, which every replica reads in full from the beginning
+ * (CompactedTopicReader), then kept current by the same reader. Until it
+ * has caught up with the topic baskets are refused
+ * (ProductCacheUnavailableException); when disabled they are taken as sent.
+ * A re-read after a failure fills a fresh table, swapped in once caught up:
+ * checkout keeps the previous one meanwhile.
+ */
+@Service
+@Slf4j
+public class ProductNearCache {
+
+    static final String TOPIC = "product-state";
+
+    private final boolean enabled;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final int expectedProducts;
+    private OffHeapProductTable table;
+    // the table being filled by a full read, until caught up (reader thread only)
+    private OffHeapProductTable building;
+    private final CompactedTopicReader<ProductChange> reader;
+    private volatile boolean loaded;
+
+    @SuppressWarnings("unchecked")
+    public ProductNearCache(ConsumerFactory<?, ?> consumerFactory,
+            @Value("${application.product-cache.enabled:false}") boolean enabled,
+            @Value("${application.product-cache.expected-products:100000}") int expectedProducts,
+            @Value("${application.product-cache.retry-ms:30000}") long retryMs) {
+        this.enabled = enabled;
+        this.expectedProducts = enabled ? expectedProducts : 0;
+        this.table = new OffHeapProductTable(0);
+        // assigned partitions, no group: nothing to commit
+        Properties overrides = new Properties();
+        overrides.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, "false");
+        this.reader = new CompactedTopicReader<>(TOPIC,
+                () -> (Consumer<String, ProductChange>) consumerFactory.createConsumer(null, null, "-product-cache",
+                        overrides),
+                new TableSink(), retryMs);
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    // ─────────────────────────────────────────────────────
+    // Checkout
+    // ─────────────────────────────────────────────────────
+
+    /**
+     * Sets each item's name, price and sellerId to the product's current ones
+     * (a record published before names were carried keeps the client's) and
+     * checks stock (units of one product summed over the basket). Throws
+     * BasketValidationException listing every unknown product and every
+     * product short of stock. Throws ProductCacheUnavailableException until
+     * the replica is loaded: the client's prices are never trusted. No-op when
+     * disabled.
+     */
+    public void reprice(List<OrderItem> items) {
+        if (!enabled) {
+            return;
+        }
+        if (!loaded) {
+            throw new ProductCacheUnavailableException();
+        }
+        Map<String, Integer> requested = new LinkedHashMap<>();
+        for (OrderItem item : items) {
+            requested.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+        }
+        List<Map<String, Object>> problems = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (OrderItem item : items) {
+                OffHeapProductTable.Product product = table.get(item.getProductId());
+                if (product == null) {
+                    continue;
+                }
+                if (product.name() != null) {
+                    item.setProductName(product.name());
+                }
+                item.setPrice(product.priceCents() / 100.0);
+                item.setSellerId(product.sellerId());
+            }
+            requested.forEach((productId, quantity) -> {
+                OffHeapProductTable.Product product = table.get(productId);
+                if (product == null) {
+                    problems.add(Map.of("productId", productId, "reason", "NOT_FOUND"));
+                } else if (product.stock() < quantity) {
+                    problems.add(Map.of("productId", productId, "reason", "INSUFFICIENT_STOCK",
+                            "available", product.stock()));
+                }
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (!problems.isEmpty()) {
+            throw new BasketValidationException(problems);
+        }
+    }
+
+    // ─────────────────────────────────────────────────────
+    // Maintenance
+    // ─────────────────────────────────────────────────────
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        if (enabled) {
+            reader.start();
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        reader.close();
+    }
+
+    /** Applies product-state records to the table; a tombstone (null) removes the product. */
+    class TableSink implements CompactedTopicReader.Sink<ProductChange> {
+
+        @Override
+        public void apply(String productId, ProductChange state) {
+            lock.writeLock().lock();
+            try {
+                OffHeapProductTable target = building != null ? building : table;
+                if (state == null) {
+                    target.remove(productId);
+                } else if (state.getPrice() != null) {
+                    target.put(productId, state.getName(), state.getSellerId(), Math.round(state.getPrice() * 100), state.getQuantity());
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        @Override
+        public void reset() {
+            building = new OffHeapProductTable(expectedProducts);
+        }
+
+        @Override
+        public void caughtUp(int records, long millis) {
+            lock.writeLock().lock();
+            try {
+                if (building != null) {
+                    table = building;
+                    building = null;
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            loaded = true;
+            log.info("Product cache loaded: {} products from {} records ({} MB off-heap) in {} ms", table.size(),
+                    records, table.offHeapBytes() >> 20, millis);
+        }
+    }
+}
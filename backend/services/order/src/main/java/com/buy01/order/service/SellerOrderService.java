@@ -0,0 +1,121 @@
+package com.buy01.order.service;
+
+import com.buy01.order.event.OrderLifecycleEvent;
+import com.buy01.order.model.Order;
+import com.buy01.order.model.OrderItem;
+import com.buy01.order.model.OrderStatus;
+import com.buy01.order.model.SellerOrder;
+import com.buy01.order.util.OrderSearchTokens;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+/**
+ * Maintains seller_orders: every order is split at creation into one document
+ * per seller, whose status follows the parent order (forward only).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SellerOrderService {
+
+    private static final int BACKFILL_BATCH = 500;
+
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * Called once the order and its outbox records are written, so a failure
+     * here is only logged; --backfill-seller-orders repairs the copies.
+     */
+    @EventListener
+    public void onOrderLifecycle(OrderLifecycleEvent event) {
+        Order order = event.getOrder();
+        try {
+            switch (event.getType()) {
+                case CREATED -> {
+                    List<SellerOrder> sellerOrders = split(order);
+                    if (!sellerOrders.isEmpty()) {
+                        mongoTemplate.insertAll(sellerOrders);
+                    }
+                }
+                // Only copies still behind the new status: a transition delivered late never rolls one back
+                case STATUS_CHANGED -> mongoTemplate.updateMulti(
+                        query(where("orderId").is(order.getId())
+                                .and("status").in(OrderStatus.predecessorsOf(order.getStatus()))),
+                        new Update().set("status", order.getStatus()).set("updatedAt", order.getUpdatedAt()),
+                        SellerOrder.class);
+                case DELETED -> mongoTemplate.remove(query(where("orderId").is(order.getId())), SellerOrder.class);
+            }
+        } catch (RuntimeException e) {
+            log.error("seller_orders not updated for {} of order {} - Error: {}",
+                    event.getType(), order.getId(), e.getMessage());
+        }
+    }
+
+    /** One SellerOrder per seller present in the order's items. */
+    public static List<SellerOrder> split(Order order) {
+        return order.itemsBySeller().entrySet().stream()
+                .map(entry -> {
+                    List<OrderItem> items = entry.getValue();
+                    return new SellerOrder(
+                            SellerOrder.idOf(order.getId(), entry.getKey()),
+                            order.getId(),
+                            entry.getKey(),
+                            order.getUserId(),
+                            items,
+                            items.stream().mapToDouble(OrderItem::subtotal).sum(),
+                            order.getStatus(),
+                            order.getPaymentMethod(),
+                            order.getCreatedAt(),
+                            order.getUpdatedAt(),
+                            OrderSearchTokens.of(items));
+                })
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Upserts the seller_orders of every existing order (orders created before
+     * the collection existed, or drift after a failed write). Returns the number
+     * of seller orders written.
+     */
+    public long backfill() {
+        long written = 0;
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, SellerOrder.class);
+        int pending = 0;
+        try (Stream<Order> orders = mongoTemplate.stream(new Query(), Order.class)) {
+            for (Order order : (Iterable<Order>) orders::iterator) {
+                for (SellerOrder sellerOrder : split(order)) {
+                    Document document = new Document();
+                    mongoTemplate.getConverter().write(sellerOrder, document);
+                    document.remove("_id");
+                    bulk.upsert(query(where("_id").is(sellerOrder.getId())), Update.fromDocument(document));
+                    if (++pending == BACKFILL_BATCH) {
+                        bulk.execute();
+                        written += pending;
+                        pending = 0;
+                        bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, SellerOrder.class);
+                    }
+                }
+            }
+        }
+        if (pending > 0) {
+            bulk.execute();
+            written += pending;
+        }
+        log.info("Seller orders backfilled: {}", written);
+        return written;
+    }
+}
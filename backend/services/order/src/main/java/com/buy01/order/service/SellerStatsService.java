@@ -0,0 +1,310 @@
+package com.buy01.order.service;
+
+import com.buy01.order.event.OrderLifecycleEvent;
+import com.buy01.order.model.Order;
+import com.buy01.order.model.OrderItem;
+import com.buy01.order.model.OrderStatus;
+import com.buy01.order.model.SellerOrder;
+import com.buy01.order.model.SellerProductStats;
+import com.buy01.order.model.SellerStats;
+import com.buy01.order.repository.OrderArchiveRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+/**
+ * Maintains the seller_stats read model so the seller dashboard is a single
+ * primary-key read instead of a scan over every order of the seller; its top
+ * products are an indexed, limited read of seller_product_stats.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SellerStatsService {
+
+    static final String REBUILD_JOB = "seller-stats-rebuild";
+
+    private static final long CLOCK_SKEW_SECONDS = 30;
+
+    private final MongoTemplate mongoTemplate;
+    private final OrderArchiveRepository archiveRepository;
+    private final JobLeases jobLeases;
+
+    @Value("${application.stats.top-products:5}")
+    private int topProductsSize;
+
+    // Longer than a rebuild, so the replicas triggered by the same cron do not run it again
+    @Value("${application.stats.rebuild-lease-minutes:60}")
+    private long rebuildLeaseMinutes;
+
+    // ─────────────────────────────────────────────────────
+    // Read
+    // ─────────────────────────────────────────────────────
+
+    public Map<String, Object> getStats(String sellerId) {
+        SellerStats stats = mongoTemplate.findById(sellerId, SellerStats.class);
+        if (stats == null) {
+            stats = new SellerStats();
+        }
+
+        // Read here rather than copied into seller_stats, where concurrent orders would overwrite each other's copy
+        Query top = query(where("sellerId").is(sellerId).and("quantity").gt(0))
+                .with(Sort.by(Sort.Direction.DESC, "quantity"))
+                .limit(topProductsSize);
+        List<Map<String, Object>> topProducts = mongoTemplate.find(top, SellerProductStats.class).stream()
+                .map(p -> Map.<String, Object>of(
+                        "name", p.getName(),
+                        "quantity", p.getQuantity(),
+                        "revenue", (long) p.getRevenue()))
+                .collect(Collectors.toList());
+
+        return Map.of(
+                "totalEarned", stats.getTotalEarned(),
+                "totalOrders", stats.getTotalOrders(),
+                "pendingOrders", stats.getPendingOrders(),
+                "confirmedOrders", stats.getConfirmedOrders(),
+                "deliveredOrders", stats.getDeliveredOrders(),
+                "cancelledOrders", stats.getCancelledOrders(),
+                "topProducts", topProducts);
+    }
+
+    // ─────────────────────────────────────────────────────
+    // Incremental maintenance
+    // ─────────────────────────────────────────────────────
+
+    @EventListener
+    public void onOrderLifecycle(OrderLifecycleEvent event) {
+        Order order = event.getOrder();
+        try {
+            switch (event.getType()) {
+                case CREATED -> applyOrder(order, 1);
+                case DELETED -> applyOrder(order, -1);
+                case STATUS_CHANGED -> applyStatusChange(order, event.getPreviousStatus());
+            }
+        } catch (RuntimeException e) {
+            // Drift until the nightly rebuildAll, rather than failing a committed order write
+            log.error("Seller stats not updated for {} of order {} - Error: {}",
+                    event.getType(), order.getId(), e.getMessage());
+        }
+    }
+
+    /** Adds (sign = 1) or removes (sign = -1) a whole order from its sellers' stats. */
+    private void applyOrder(Order order, int sign) {
+        LocalDateTime now = LocalDateTime.now();
+        order.itemsBySeller().forEach((sellerId, items) -> {
+            Update update = new Update()
+                    .inc("totalOrders", sign)
+                    .inc(OrderStatusCounters.field(order.getStatus()), sign)
+                    .set("updatedAt", now);
+            if (isEarning(order.getStatus())) {
+                update.inc("totalEarned", sign * subtotal(items));
+            }
+            mongoTemplate.upsert(query(where("_id").is(sellerId)), update, SellerStats.class);
+
+            BulkOperations products = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED,
+                    SellerProductStats.class);
+            for (OrderItem item : items) {
+                products.upsert(
+                        query(where("_id").is(SellerProductStats.idOf(sellerId, item.getProductId()))),
+                        new Update()
+                                .set("sellerId", sellerId)
+                                .set("productId", item.getProductId())
+                                .set("name", item.getProductName())
+                                .inc("quantity", sign * item.getQuantity())
+                                .inc("revenue", sign * item.subtotal())
+                                .set("updatedAt", now));
+            }
+            products.execute();
+        });
+    }
+
+    private void applyStatusChange(Order order, OrderStatus previousStatus) {
+        OrderStatus newStatus = order.getStatus();
+        if (previousStatus == null || previousStatus == newStatus) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        order.itemsBySeller().forEach((sellerId, items) -> {
+            Update update = new Update()
+                    .inc(OrderStatusCounters.field(previousStatus), -1)
+                    .inc(OrderStatusCounters.field(newStatus), 1)
+                    .set("updatedAt", now);
+            if (isEarning(previousStatus) != isEarning(newStatus)) {
+                double subtotal = subtotal(items);
+                update.inc("totalEarned", isEarning(newStatus) ? subtotal : -subtotal);
+            }
+            mongoTemplate.upsert(query(where("_id").is(sellerId)), update, SellerStats.class);
+        });
+    }
+
+    // ─────────────────────────────────────────────────────
+    // Reconciliation
+    // ─────────────────────────────────────────────────────
+
+    /**
+     * Rebuilds seller_stats and seller_product_stats from the seller_orders
+     * collection and its archive, correcting any drift left by failed
+     * incremental updates. Runs on the replica holding the rebuild lease only.
+     * Orders keep changing during the scan, so nothing written since the
+     * rebuild started is overwritten: a seller with an order changed since
+     * then is left to its live counters (until the next rebuild), and every
+     * rebuilt document is only written if its updatedAt is older than the
+     * start. A live $inc landing after that write applies on top of it.
+     */
+    @Scheduled(cron = "${application.stats.reconcile-cron:0 30 3 * * *}")
+    public void rebuildAll() {
+        if (!jobLeases.tryAcquire(REBUILD_JOB, Duration.ofMinutes(rebuildLeaseMinutes))) {
+            log.info("Seller stats rebuild running on another replica, skipped");
+            return;
+        }
+        log.info("Rebuilding seller stats from seller orders...");
+        // Earlier than now by the clock skew tolerated between replicas, which stamp updatedAt
+        LocalDateTime start = LocalDateTime.now().minusSeconds(CLOCK_SKEW_SECONDS);
+        Map<String, SellerStats> statsBySeller = new HashMap<>();
+        Map<String, SellerProductStats> productStats = new HashMap<>();
+        Set<String> changedSellers = new HashSet<>();
+
+        try (Stream<SellerOrder> sellerOrders = Stream.concat(
+                mongoTemplate.stream(new Query(), SellerOrder.class), archiveRepository.streamAllSellerOrders())) {
+            sellerOrders.forEach(sellerOrder -> {
+                String sellerId = sellerOrder.getSellerId();
+                if (sellerOrder.getUpdatedAt() != null && !sellerOrder.getUpdatedAt().isBefore(start)) {
+                    changedSellers.add(sellerId);
+                }
+                SellerStats stats = statsBySeller.computeIfAbsent(sellerId, id -> {
+                    SellerStats s = new SellerStats();
+                    s.setSellerId(id);
+                    return s;
+                });
+                stats.setTotalOrders(stats.getTotalOrders() + 1);
+                incrementCount(stats, sellerOrder.getStatus());
+                if (isEarning(sellerOrder.getStatus())) {
+                    stats.setTotalEarned(stats.getTotalEarned() + subtotal(sellerOrder.getItems()));
+                }
+                for (OrderItem item : sellerOrder.getItems()) {
+                    String id = SellerProductStats.idOf(sellerId, item.getProductId());
+                    SellerProductStats p = productStats.computeIfAbsent(id, k -> new SellerProductStats(
+                            k, sellerId, item.getProductId(), item.getProductName(), 0, 0, null));
+                    p.setName(item.getProductName());
+                    p.setQuantity(p.getQuantity() + item.getQuantity());
+                    p.setRevenue(p.getRevenue() + item.subtotal());
+                }
+            });
+        }
+
+        Map<String, List<SellerProductStats>> productsBySeller = productStats.values().stream()
+                .collect(Collectors.groupingBy(SellerProductStats::getSellerId));
+
+        LocalDateTime now = LocalDateTime.now();
+        int skipped = 0;
+        for (SellerStats stats : statsBySeller.values()) {
+            String sellerId = stats.getSellerId();
+            if (changedSellers.contains(sellerId)) {
+                continue;
+            }
+            List<SellerProductStats> products = productsBySeller.getOrDefault(sellerId, List.of());
+            skipped += writeProducts(products, start, now);
+            mongoTemplate.remove(query(where("sellerId").is(sellerId)
+                    .and("_id").nin(products.stream().map(SellerProductStats::getId).toList())
+                    .orOperator(writtenBefore(start))), SellerProductStats.class);
+            try {
+                mongoTemplate.upsert(query(where("_id").is(sellerId).orOperator(writtenBefore(start))),
+                        new Update()
+                                .set("totalOrders", stats.getTotalOrders())
+                                .set("pendingOrders", stats.getPendingOrders())
+                                .set("confirmedOrders", stats.getConfirmedOrders())
+                                .set("deliveredOrders", stats.getDeliveredOrders())
+                                .set("cancelledOrders", stats.getCancelledOrders())
+                                .set("totalEarned", stats.getTotalEarned())
+                                .set("updatedAt", now),
+                        SellerStats.class);
+            } catch (DuplicateKeyException e) {
+                // Updated live meanwhile
+                skipped++;
+            }
+        }
+
+        // Sellers whose orders have all been deleted
+        mongoTemplate.remove(query(where("_id").nin(statsBySeller.keySet()).orOperator(writtenBefore(start))),
+                SellerStats.class);
+        mongoTemplate.remove(query(where("sellerId").nin(statsBySeller.keySet()).orOperator(writtenBefore(start))),
+                SellerProductStats.class);
+        log.info("Seller stats rebuilt for {} sellers ({} changed during the rebuild left as they were, "
+                + "{} documents updated live meanwhile)",
+                statsBySeller.size() - changedSellers.size(), changedSellers.size(), skipped);
+    }
+
+    /** Writes the rebuilt product counters not written since start; returns how many were. */
+    private int writeProducts(List<SellerProductStats> products, LocalDateTime start, LocalDateTime now) {
+        if (products.isEmpty()) {
+            return 0;
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, SellerProductStats.class);
+        for (SellerProductStats p : products) {
+            bulk.upsert(query(where("_id").is(p.getId()).orOperator(writtenBefore(start))), new Update()
+                    .set("sellerId", p.getSellerId())
+                    .set("productId", p.getProductId())
+                    .set("name", p.getName())
+                    .set("quantity", p.getQuantity())
+                    .set("revenue", p.getRevenue())
+                    .set("updatedAt", now));
+        }
+        try {
+            bulk.execute();
+            return 0;
+        } catch (BulkOperationException e) {
+            // Duplicate keys: documents updated live since start, left as they are
+            return e.getErrors().size();
+        }
+    }
+
+    // Not written since start (documents from before updatedAt existed have none)
+    private static Criteria[] writtenBefore(LocalDateTime start) {
+        return new Criteria[] { where("updatedAt").lt(start), where("updatedAt").exists(false) };
+    }
+
+    // ─────────────────────────────────────────────────────
+    // Helpers
+    // ─────────────────────────────────────────────────────
+
+    private static boolean isEarning(OrderStatus status) {
+        return status == OrderStatus.CONFIRMED || status == OrderStatus.DELIVERED;
+    }
+
+    private static double subtotal(List<OrderItem> items) {
+        return items.stream().mapToDouble(OrderItem::subtotal).sum();
+    }
+
+    private static void incrementCount(SellerStats stats, OrderStatus status) {
+        switch (status) {
+            case PENDING -> stats.setPendingOrders(stats.getPendingOrders() + 1);
+            case CONFIRMED -> stats.setConfirmedOrders(stats.getConfirmedOrders() + 1);
+            case DELIVERED -> stats.setDeliveredOrders(stats.getDeliveredOrders() + 1);
+            case CANCELLED -> stats.setCancelledOrders(stats.getCancelledOrders() + 1);
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.buy01.order.service;
+
+import com.buy01.order.model.Order;
+import com.buy01.order.model.OrderItem;
+import com.buy01.order.util.DecayingTopK;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+/**
+ * Trending products, platform-wide and per seller: units ordered, decayed
+ * with a configurable half-life, in DecayingTopK sketches. Memory is fixed by
+ * configuration: capacity counters for the platform, seller-capacity for
+ * each of at most max-sellers sellers (least recently ordered from evicted).
+ * A score over-estimates by at most maxError, itself bounded by
+ * decayed total / capacity.
+ * Fed on every replica from order-updates (created orders, see
+ * OrderUpdateListener). Orders created before this replica started are
+ * counted by a one-off read of the last few half-lives instead.
+ */
+@Service
+@Slf4j
+public class TrendingService {
+
+    // orders older than this many half-lives weigh under 1/16: not worth seeding
+    private static final int SEED_HALF_LIVES = 4;
+
+    private final MongoTemplate mongoTemplate;
+    private final boolean enabled;
+    private final long halfLifeMillis;
+    private final int capacity;
+    private final int sellerCapacity;
+    private final LocalDateTime startedAt;
+
+    private final DecayingTopK global;
+    private final Map<String, DecayingTopK> bySeller;
+
+    @Autowired
+    public TrendingService(MongoTemplate mongoTemplate,
+            @Value("${application.trending.enabled:false}") boolean enabled,
+            @Value("${application.trending.half-life-hours:24}") long halfLifeHours,
+            @Value("${application.trending.capacity:1000}") int capacity,
+            @Value("${application.trending.seller-capacity:50}") int sellerCapacity,
+            @Value("${application.trending.max-sellers:10000}") int maxSellers) {
+        this(mongoTemplate, enabled, halfLifeHours * 3_600_000, capacity, sellerCapacity, maxSellers,
+                LocalDateTime.now());
+    }
+
+    TrendingService(MongoTemplate mongoTemplate, boolean enabled, long halfLifeMillis, int capacity,
+            int sellerCapacity, int maxSellers, LocalDateTime startedAt) {
+        this.mongoTemplate = mongoTemplate;
+        this.enabled = enabled;
+        this.halfLifeMillis = halfLifeMillis;
+        this.capacity = capacity;
+        this.sellerCapacity = sellerCapacity;
+        this.startedAt = startedAt;
+        this.global = new DecayingTopK(capacity, halfLifeMillis, millis(startedAt));
+        this.bySeller = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, DecayingTopK> eldest) {
+                return size() > maxSellers;
+            }
+        };
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // ─────────────────────────────────────────────────────
+    // Read
+    // ─────────────────────────────────────────────────────
+
+    public synchronized Map<String, Object> getTrending(int limit) {
+        return toResponse(global, limit);
+    }
+
+    public synchronized Map<String, Object> getSellerTrending(String sellerId, int limit) {
+        return toResponse(bySeller.get(sellerId), limit);
+    }
+
+    private Map<String, Object> toResponse(DecayingTopK sketch, int limit) {
+        long now = System.currentTimeMillis();
+        if (sketch == null) {
+            return Map.of("halfLifeHours", halfLifeMillis / 3_600_000.0, "errorBound", 0.0, "products", List.of());
+        }
+        List<Map<String, Object>> products = sketch.top(Math.min(limit, capacity), now).stream()
+                .map(entry -> Map.<String, Object>of(
+                        "productId", entry.key(),
+                        "name", entry.label() != null ? entry.label() : "",
+                        "score", entry.score(),
+                        "maxError", entry.maxError()))
+                .toList();
+        return Map.of(
+                "halfLifeHours", halfLifeMillis / 3_600_000.0,
+                "errorBound", sketch.errorBound(now),
+                "products", products);
+    }
+
+    // ─────────────────────────────────────────────────────
+    // Maintenance
+    // ─────────────────────────────────────────────────────
+
+    /** Counts a created order read back from an order-updates message. */
+    public void onOrderCreated(Order order) {
+        if (enabled && order != null && order.getCreatedAt() != null && !order.getCreatedAt().isBefore(startedAt)) {
+            record(order);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedOnStartup() {
+        if (enabled) {
+            Thread seeder = new Thread(this::seed, "trending-seeder");
+            seeder.setDaemon(true);
+            seeder.start();
+        }
+    }
+
+    void seed() {
+        Query recent = query(where("createdAt")
+                .gte(startedAt.minusNanos(SEED_HALF_LIVES * halfLifeMillis * 1_000_000))
+                .lt(startedAt));
+        recent.fields().include("items").include("createdAt");
+        long[] count = {0};
+        try (Stream<Order> orders = mongoTemplate.stream(recent, Order.class)) {
+            orders.forEach(order -> {
+                record(order);
+                count[0]++;
+            });
+        } catch (RuntimeException e) {
+            log.error("Trending seed failed", e);
+            return;
+        }
+        log.info("Trending products seeded from {} orders", count[0]);
+    }
+
+    private synchronized void record(Order order) {
+        if (order.getItems() == null) {
+            return;
+        }
+        long at = millis(order.getCreatedAt());
+        for (OrderItem item : order.getItems()) {
+            if (item.getSellerId() == null) {
+                continue;
+            }
+            global.add(item.getProductId(), item.getProductName(), item.getQuantity(), at);
+            bySeller.computeIfAbsent(item.getSellerId(),
+                            id -> new DecayingTopK(sellerCapacity, halfLifeMillis, at))
+                    .add(item.getProductId(), item.getProductName(), item.getQuantity(), at);
+        }
+    }
+
+    private static long millis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,119 @@
+package com.buy01.order.service;
+
+import com.buy01.order.event.OrderLifecycleEvent;
+import com.buy01.order.model.Order;
+import com.buy01.order.model.OrderStatus;
+import com.buy01.order.model.UserOrderSummary;
+import com.buy01.order.repository.OrderArchiveRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.ComparisonOperators;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.aggregation.MergeOperation;
+import org.springframework.data.mongodb.core.aggregation.UnionWithOperation;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+/**
+ * Maintains user_order_summaries: total spent, order counts by status and
+ * last order time for each buyer.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UserOrderSummaryService {
+
+    private final MongoTemplate mongoTemplate;
+
+    public double getTotalSpent(String userId) {
+        UserOrderSummary summary = mongoTemplate.findById(userId, UserOrderSummary.class);
+        return summary != null ? summary.getTotalSpent() : 0;
+    }
+
+    @EventListener
+    public void onOrderLifecycle(OrderLifecycleEvent event) {
+        Order order = event.getOrder();
+        Update update = switch (event.getType()) {
+            case CREATED -> new Update()
+                    .inc("totalOrders", 1)
+                    .inc(OrderStatusCounters.field(order.getStatus()), 1)
+                    .inc("totalSpent", spent(order))
+                    .max("lastOrderAt", order.getCreatedAt());
+            case DELETED -> new Update()
+                    .inc("totalOrders", -1)
+                    .inc(OrderStatusCounters.field(order.getStatus()), -1)
+                    .inc("totalSpent", -spent(order));
+            case STATUS_CHANGED -> statusChange(order, event.getPreviousStatus());
+        };
+        if (update == null) {
+            return;
+        }
+        try {
+            mongoTemplate.upsert(query(where("_id").is(order.getUserId())), update, UserOrderSummary.class);
+        } catch (RuntimeException e) {
+            // The order is written either way; --backfill-user-summaries recomputes the summary
+            log.error("User order summary of {} not updated for {} of order {} - Error: {}",
+                    order.getUserId(), event.getType(), order.getId(), e.getMessage());
+        }
+    }
+
+    private Update statusChange(Order order, OrderStatus previousStatus) {
+        if (previousStatus == null || previousStatus == order.getStatus()) {
+            return null;
+        }
+        Update update = new Update()
+                .inc(OrderStatusCounters.field(previousStatus), -1)
+                .inc(OrderStatusCounters.field(order.getStatus()), 1);
+        if (previousStatus == OrderStatus.CANCELLED || order.getStatus() == OrderStatus.CANCELLED) {
+            double amount = order.getTotalAmount();
+            update.inc("totalSpent", order.getStatus() == OrderStatus.CANCELLED ? -amount : amount);
+        }
+        return update;
+    }
+
+    private static double spent(Order order) {
+        return order.getStatus() == OrderStatus.CANCELLED ? 0 : order.getTotalAmount();
+    }
+
+    /**
+     * Recomputes every summary from the orders collection and its archive
+     * with a single server-side $unionWith + $group + $merge (no order leaves
+     * Mongo).
+     */
+    public void backfill() {
+        log.info("Backfilling user order summaries from orders...");
+        Aggregation aggregation = Aggregation.newAggregation(
+                UnionWithOperation.unionWith(OrderArchiveRepository.ORDERS),
+                Aggregation.group("userId")
+                        .count().as("totalOrders")
+                        .sum(countIf(OrderStatus.PENDING)).as("pendingOrders")
+                        .sum(countIf(OrderStatus.CONFIRMED)).as("confirmedOrders")
+                        .sum(countIf(OrderStatus.DELIVERED)).as("deliveredOrders")
+                        .sum(countIf(OrderStatus.CANCELLED)).as("cancelledOrders")
+                        .sum(ConditionalOperators
+                                .when(ComparisonOperators.valueOf("status").notEqualToValue(OrderStatus.CANCELLED.name()))
+                                .thenValueOf("totalAmount")
+                                .otherwise(0))
+                        .as("totalSpent")
+                        .max("createdAt").as("lastOrderAt"),
+                Aggregation.merge()
+                        .intoCollection("user_order_summaries")
+                        .whenMatched(MergeOperation.WhenDocumentsMatch.replaceDocument())
+                        .whenNotMatched(MergeOperation.WhenDocumentsDontMatch.insertNewDocument())
+                        .build());
+        mongoTemplate.aggregate(aggregation, Order.class, UserOrderSummary.class);
+        log.info("User order summaries backfilled");
+    }
+
+    private static ConditionalOperators.Cond countIf(OrderStatus status) {
+        return ConditionalOperators.when(ComparisonOperators.valueOf("status").equalToValue(status.name()))
+                .then(1)
+                .otherwise(0);
+    }
+}
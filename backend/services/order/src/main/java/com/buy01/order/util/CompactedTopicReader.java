@@ -0,0 +1,180 @@
+package com.buy01.order.util;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.RecordDeserializationException;
+import org.apache.kafka.common.errors.WakeupException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Rebuilds a local table from a log-compacted topic (latest value per key,
+ * null value = tombstone) and keeps it current: every partition is read
+ * from the beginning by one thread, without a consumer group, so each
+ * replica gets the whole topic. The sink hears of caught-up once every
+ * partition has been read up to the end offsets taken at start; records
+ * then keep flowing in. Partitions added to the topic afterwards are not
+ * picked up before a restart. After a failure the topic is read again from
+ * the beginning, and the sink is reset first: a key deleted in the meantime
+ * may have lost its tombstone to compaction, and would otherwise stay.
+ */
+@Slf4j
+public class CompactedTopicReader<V> implements AutoCloseable {
+
+    /** Where records land; called from the reader thread only. */
+    public interface Sink<V> {
+        /** value is null for a tombstone. */
+        void apply(String key, V value);
+
+        /** Called before each full read: the records that follow rebuild the whole table. */
+        default void reset() {
+        }
+
+        default void caughtUp(int records, long millis) {
+        }
+    }
+
+    /**
+     * A sink keeping the table in the given map, which must be safe for
+     * concurrent reads; emptied before each full read.
+     */
+    public static <V> Sink<V> into(Map<String, V> table) {
+        return new Sink<>() {
+            @Override
+            public void apply(String key, V value) {
+                if (value == null) {
+                    table.remove(key);
+                } else {
+                    table.put(key, value);
+                }
+            }
+
+            @Override
+            public void reset() {
+                table.clear();
+            }
+        };
+    }
+
+    private static final Duration POLL_TIMEOUT = Duration.ofMillis(500);
+
+    private final String topic;
+    private final Supplier<Consumer<String, V>> consumerFactory;
+    private final Sink<V> sink;
+    private final long retryMs;
+
+    private volatile Consumer<String, V> consumer;
+    private volatile boolean running = true;
+    private Map<TopicPartition, Long> endOffsets;
+    private volatile boolean caughtUp;
+    private int records;
+    private long startedAt;
+
+    public CompactedTopicReader(String topic, Supplier<Consumer<String, V>> consumerFactory, Sink<V> sink,
+            long retryMs) {
+        this.topic = topic;
+        this.consumerFactory = consumerFactory;
+        this.sink = sink;
+        this.retryMs = retryMs;
+    }
+
+    /** Reads on a daemon thread until closed. */
+    public void start() {
+        Thread reader = new Thread(this::run, topic + "-reader");
+        reader.setDaemon(true);
+        reader.start();
+    }
+
+    public boolean isCaughtUp() {
+        return caughtUp;
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        Consumer<String, V> current = consumer;
+        if (current != null) {
+            current.wakeup();
+        }
+    }
+
+    private void run() {
+        while (running) {
+            try (Consumer<String, V> opened = consumerFactory.get()) {
+                if (open(opened)) {
+                    while (running) {
+                        poll();
+                    }
+                    return;
+                }
+            } catch (WakeupException e) {
+                return;
+            } catch (RuntimeException e) {
+                log.warn("⚠️ Reading {} failed, retrying in {} ms: {}", topic, retryMs, e.getMessage());
+            }
+            // From scratch: a reader that failed half-way restarts at the beginning, as at startup
+            try {
+                Thread.sleep(retryMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /** Assigns every partition from the beginning; false while the topic does not exist. */
+    boolean open(Consumer<String, V> consumer) {
+        this.consumer = consumer;
+        List<PartitionInfo> partitions = consumer.partitionsFor(topic);
+        if (partitions == null || partitions.isEmpty()) {
+            log.warn("⚠️ Topic {} not found", topic);
+            return false;
+        }
+        List<TopicPartition> assigned = partitions.stream()
+                .map(partition -> new TopicPartition(topic, partition.partition()))
+                .toList();
+        sink.reset();
+        consumer.assign(assigned);
+        consumer.seekToBeginning(assigned);
+        endOffsets = consumer.endOffsets(assigned);
+        startedAt = System.currentTimeMillis();
+        records = 0;
+        caughtUp = false;
+        checkCaughtUp();
+        return true;
+    }
+
+    /** One poll: applies its records in offset order, per partition. */
+    void poll() {
+        try {
+            for (ConsumerRecord<String, V> record : consumer.poll(POLL_TIMEOUT)) {
+                sink.apply(record.key(), record.value());
+                records++;
+            }
+        } catch (RecordDeserializationException e) {
+            // Unreadable record: skipped rather than blocking the partition
+            log.error("Skipping unreadable record {}@{} - Error: {}", e.topicPartition(), e.offset(), e.getMessage());
+            consumer.seek(e.topicPartition(), e.offset() + 1);
+        }
+        checkCaughtUp();
+    }
+
+    private void checkCaughtUp() {
+        if (caughtUp) {
+            return;
+        }
+        for (Map.Entry<TopicPartition, Long> end : endOffsets.entrySet()) {
+            if (consumer.position(end.getKey()) < end.getValue()) {
+                return;
+            }
+        }
+        caughtUp = true;
+        sink.caughtUp(records, System.currentTimeMillis() - startedAt);
+    }
+}
@@ -0,0 +1,172 @@
+package com.buy01.order.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Space-Saving heavy-hitter sketch over time-decayed weights: at most
+ * capacity counters, whatever the number of distinct keys. A key not tracked
+ * when the sketch is full takes over the smallest counter, inheriting its
+ * count as error, so a score over-estimates the true decayed weight by at
+ * most errorBound() = total / capacity, and every key heavier than that is
+ * tracked.
+ * Weights decay exponentially with the given half-life, using forward decay:
+ * a weight added at t is stored scaled by 2^((t - landmark) / halfLife), so
+ * nothing has to be updated as time passes; the landmark moves (and every
+ * counter is rescaled) before the scale factors overflow.
+ * Not thread-safe.
+ */
+public class DecayingTopK {
+
+    /** A tracked key, score and error decayed to the query time. */
+    public record Entry(String key, String label, double score, double maxError) {
+    }
+
+    private static final class Counter {
+        final String key;
+        String label;
+        double count;
+        double error;
+        int heapIndex;
+
+        Counter(String key) {
+            this.key = key;
+        }
+    }
+
+    // rescale once stored weights reach 2^MAX_EXPONENT
+    private static final double MAX_EXPONENT = 64;
+
+    private final int capacity;
+    private final double halfLifeMillis;
+    private final Map<String, Counter> counters = new HashMap<>();
+    private final Counter[] heap; // min-heap on count
+    private int size;
+    private long landmark;
+    private double total;
+
+    public DecayingTopK(int capacity, long halfLifeMillis, long now) {
+        if (capacity < 1 || halfLifeMillis < 1) {
+            throw new IllegalArgumentException("capacity and half-life must be positive");
+        }
+        this.capacity = capacity;
+        this.halfLifeMillis = halfLifeMillis;
+        this.heap = new Counter[capacity];
+        this.landmark = now;
+    }
+
+    public void add(String key, String label, double weight, long at) {
+        double exponent = (at - landmark) / halfLifeMillis;
+        if (exponent > MAX_EXPONENT) {
+            rescale(at);
+            exponent = 0;
+        }
+        double scaled = weight * Math.pow(2, exponent);
+        total += scaled;
+
+        Counter counter = counters.get(key);
+        if (counter == null && size < capacity) {
+            counter = new Counter(key);
+            counter.label = label;
+            counter.count = scaled;
+            counters.put(key, counter);
+            heap[size] = counter;
+            siftUp(size++);
+            return;
+        }
+        if (counter == null) {
+            // full: evict the smallest counter, its count becomes the newcomer's error
+            Counter evicted = heap[0];
+            counters.remove(evicted.key);
+            counter = new Counter(key);
+            counter.count = evicted.count;
+            counter.error = evicted.count;
+            counter.heapIndex = 0;
+            heap[0] = counter;
+            counters.put(key, counter);
+        }
+        if (label != null) {
+            counter.label = label;
+        }
+        counter.count += scaled;
+        siftDown(counter.heapIndex);
+    }
+
+    /** The k highest scores at the given time, highest first. */
+    public List<Entry> top(int k, long now) {
+        double decay = decay(now);
+        Counter[] sorted = Arrays.copyOf(heap, size);
+        Arrays.sort(sorted, Comparator.comparingDouble((Counter c) -> c.count).reversed());
+        List<Entry> entries = new ArrayList<>(Math.min(k, size));
+        for (int i = 0; i < Math.min(k, size); i++) {
+            Counter c = sorted[i];
+            entries.add(new Entry(c.key, c.label, c.count * decay, c.error * decay));
+        }
+        return entries;
+    }
+
+    /** Maximum over-estimation of any score at the given time. */
+    public double errorBound(long now) {
+        return total * decay(now) / capacity;
+    }
+
+    /** Decayed sum of every weight added. */
+    public double total(long now) {
+        return total * decay(now);
+    }
+
+    private double decay(long now) {
+        return Math.pow(2, -(now - landmark) / halfLifeMillis);
+    }
+
+    private void rescale(long now) {
+        double factor = decay(now);
+        for (int i = 0; i < size; i++) {
+            heap[i].count *= factor;
+            heap[i].error *= factor;
+        }
+        total *= factor;
+        landmark = now;
+    }
+
+    private void siftUp(int index) {
+        Counter counter = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) / 2;
+            if (heap[parent].count <= counter.count) {
+                break;
+            }
+            heap[index] = heap[parent];
+            heap[index].heapIndex = index;
+            index = parent;
+        }
+        heap[index] = counter;
+        counter.heapIndex = index;
+    }
+
+    // Counts only grow: a tracked counter only ever moves down
+    private void siftDown(int index) {
+        Counter counter = heap[index];
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && heap[child + 1].count < heap[child].count) {
+                child++;
+            }
+            if (heap[child].count >= counter.count) {
+                break;
+            }
+            heap[index] = heap[child];
+            heap[index].heapIndex = index;
+            index = child;
+        }
+        heap[index] = counter;
+        counter.heapIndex = index;
+    }
+}
@@ -0,0 +1,131 @@
+package com.buy01.order.util;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing int → int map (linear probing, no boxing) for non-negative
+ * keys; an absent key reads as 0. Grows at half load, never shrinks.
+ * Not thread-safe.
+ */
+public class IntIntMap {
+
+    @FunctionalInterface
+    public interface EntryConsumer {
+        void accept(int key, int value);
+    }
+
+    private static final int EMPTY = -1;
+
+    private int[] keys;
+    private int[] values;
+    private int size;
+
+    public IntIntMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(expectedSize, 4) * 2 - 1) << 1;
+        keys = new int[capacity];
+        values = new int[capacity];
+        Arrays.fill(keys, EMPTY);
+    }
+
+    public int get(int key) {
+        int slot = find(key);
+        return keys[slot] == EMPTY ? 0 : values[slot];
+    }
+
+    /** Adds delta to the key's value (0 if absent) and returns the new value. */
+    public int addTo(int key, int delta) {
+        if (key < 0) {
+            throw new IllegalArgumentException("negative key: " + key);
+        }
+        int slot = find(key);
+        if (keys[slot] == EMPTY) {
+            if ((size + 1) * 2 > keys.length) {
+                grow();
+                slot = find(key);
+            }
+            keys[slot] = key;
+            size++;
+        }
+        values[slot] += delta;
+        return values[slot];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void forEach(EntryConsumer consumer) {
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] != EMPTY) {
+                consumer.accept(keys[slot], values[slot]);
+            }
+        }
+    }
+
+    /** Keeps the n highest values (ties broken arbitrarily), dropping every other entry. */
+    public void retainTop(int n) {
+        if (size <= n) {
+            return;
+        }
+        int[] sorted = new int[size];
+        int i = 0;
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] != EMPTY) {
+                sorted[i++] = values[slot];
+            }
+        }
+        Arrays.sort(sorted);
+        int threshold = n > 0 ? sorted[size - n] : Integer.MAX_VALUE;
+        // entries at the threshold fill whatever the higher ones leave of n
+        int ties = n;
+        for (int value : sorted) {
+            if (value > threshold) {
+                ties--;
+            }
+        }
+
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new int[oldKeys.length];
+        values = new int[oldKeys.length];
+        Arrays.fill(keys, EMPTY);
+        size = 0;
+        for (int slot = 0; slot < oldKeys.length; slot++) {
+            if (oldKeys[slot] == EMPTY) {
+                continue;
+            }
+            int value = oldValues[slot];
+            if (value > threshold || (value == threshold && ties-- > 0)) {
+                int target = find(oldKeys[slot]);
+                keys[target] = oldKeys[slot];
+                values[target] = value;
+                size++;
+            }
+        }
+    }
+
+    private int find(int key) {
+        int mask = keys.length - 1;
+        int hash = key * 0x9E3779B9;
+        int slot = (hash ^ hash >>> 16) & mask;
+        while (keys[slot] != EMPTY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void grow() {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new int[oldKeys.length * 2];
+        values = new int[oldKeys.length * 2];
+        Arrays.fill(keys, EMPTY);
+        for (int slot = 0; slot < oldKeys.length; slot++) {
+            if (oldKeys[slot] != EMPTY) {
+                int target = find(oldKeys[slot]);
+                keys[target] = oldKeys[slot];
+                values[target] = oldValues[slot];
+            }
+        }
+    }
+}
@@ -0,0 +1,321 @@
+package com.buy01.order.util;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Open-addressing hash table of products in a direct ByteBuffer, outside the
+ * Java heap: millions of entries cost the collector nothing, and no object
+ * headers. Keys are Mongo ObjectIds (24 hex characters) stored as their 12
+ * bytes; any other id is not cacheable (put returns false, get null).
+ * Fixed 40-byte slots, linear probing:
+ * key high 8 bytes | key low 4 bytes | state (empty / live / removed) |
+ * price in cents (8 bytes) | stock | seller code | name offset | unused.
+ * Seller ids, far fewer than products, are dictionary-encoded on the heap.
+ * Names (length + UTF-8 bytes) are appended to a second direct buffer; a
+ * renamed or removed product leaves its old name behind, reclaimed by
+ * compacting the buffer when it is full and at least half garbage.
+ * Doubles once live and removed slots pass 70 % of the capacity.
+ * Not thread-safe: ProductNearCache guards it with a read/write lock.
+ */
+public class OffHeapProductTable {
+
+    /** A product as read from the table. */
+    public record Product(String name, String sellerId, long priceCents, int stock) {
+    }
+
+    private static final int SLOT_BYTES = 40;
+    private static final int KEY_HIGH = 0;
+    private static final int KEY_LOW = 8;
+    private static final int STATE = 12;
+    private static final int PRICE = 16;
+    private static final int STOCK = 24;
+    private static final int SELLER = 28;
+    private static final int NAME = 32;
+
+    private static final int EMPTY = 0;
+    private static final int LIVE = 1;
+    private static final int REMOVED = 2;
+
+    // one buffer is indexed by int: 2^25 slots of 40 bytes
+    private static final int MAX_CAPACITY = 1 << 25;
+    private static final int NO_NAME = -1;
+
+    private ByteBuffer slots;
+    private int capacity;
+    private int live;
+    private int used; // live + removed
+
+    private ByteBuffer names;
+    private int namesEnd;
+    private long namesGarbage;
+
+    private final Map<String, Integer> sellerCodes = new HashMap<>();
+    private final List<String> sellers = new ArrayList<>();
+
+    public OffHeapProductTable(int expectedProducts) {
+        int capacity = 16;
+        while (capacity < MAX_CAPACITY && capacity * 0.7 < expectedProducts) {
+            capacity <<= 1;
+        }
+        allocate(capacity);
+        this.names = ByteBuffer.allocateDirect(Math.min(capacity, 1 << 20) * 32);
+    }
+
+    /** Inserts or replaces the product; false when productId is not an ObjectId. */
+    public boolean put(String productId, String name, String sellerId, long priceCents, int stock) {
+        if (!isObjectId(productId)) {
+            return false;
+        }
+        long high = parseHex(productId, 0, 16);
+        int low = (int) parseHex(productId, 16, 24);
+        int slot = find(high, low);
+        int nameOffset;
+        if (state(slot) == LIVE) {
+            int previous = slots.getInt(slot * SLOT_BYTES + NAME);
+            if (Objects.equals(name, readName(previous))) {
+                nameOffset = previous;
+            } else {
+                discardName(previous);
+                slots.putInt(slot * SLOT_BYTES + NAME, NO_NAME);
+                nameOffset = appendName(name);
+            }
+        } else {
+            if ((used + 1) > capacity * 0.7) {
+                grow();
+                slot = find(high, low);
+            }
+            if (state(slot) == EMPTY) {
+                used++;
+            }
+            live++;
+            int offset = slot * SLOT_BYTES;
+            slots.putLong(offset + KEY_HIGH, high);
+            slots.putInt(offset + KEY_LOW, low);
+            slots.putInt(offset + STATE, LIVE);
+            slots.putInt(offset + NAME, NO_NAME);
+            nameOffset = appendName(name);
+        }
+        write(slot, priceCents, stock, sellerCode(sellerId), nameOffset);
+        return true;
+    }
+
+    public boolean remove(String productId) {
+        if (!isObjectId(productId)) {
+            return false;
+        }
+        int slot = find(parseHex(productId, 0, 16), (int) parseHex(productId, 16, 24));
+        if (state(slot) != LIVE) {
+            return false;
+        }
+        slots.putInt(slot * SLOT_BYTES + STATE, REMOVED);
+        discardName(slots.getInt(slot * SLOT_BYTES + NAME));
+        live--;
+        return true;
+    }
+
+    /** The product, or null when absent. */
+    public Product get(String productId) {
+        if (!isObjectId(productId)) {
+            return null;
+        }
+        int slot = find(parseHex(productId, 0, 16), (int) parseHex(productId, 16, 24));
+        if (state(slot) != LIVE) {
+            return null;
+        }
+        int offset = slot * SLOT_BYTES;
+        int seller = slots.getInt(offset + SELLER);
+        return new Product(readName(slots.getInt(offset + NAME)), seller >= 0 ? sellers.get(seller) : null,
+                slots.getLong(offset + PRICE), slots.getInt(offset + STOCK));
+    }
+
+    public int size() {
+        return live;
+    }
+
+    public long offHeapBytes() {
+        return (long) capacity * SLOT_BYTES + names.capacity();
+    }
+
+    // ─────────────────────────────────────────────────────
+    // Slots
+    // ─────────────────────────────────────────────────────
+
+    /** The key's live slot, else the first removed slot on its probe path, else the empty slot ending it. */
+    private int find(long high, int low) {
+        int mask = capacity - 1;
+        long hash = (high ^ (long) low * 0x9E3779B97F4A7C15L) * 0xBF58476D1CE4E5B9L;
+        int slot = (int) (hash >>> 32) & mask;
+        int firstRemoved = -1;
+        while (true) {
+            int offset = slot * SLOT_BYTES;
+            int state = slots.getInt(offset + STATE);
+            if (state == EMPTY) {
+                return firstRemoved >= 0 ? firstRemoved : slot;
+            }
+            if (state == LIVE && slots.getLong(offset + KEY_HIGH) == high && slots.getInt(offset + KEY_LOW) == low) {
+                return slot;
+            }
+            if (state == REMOVED && firstRemoved < 0) {
+                firstRemoved = slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private int state(int slot) {
+        return slots.getInt(slot * SLOT_BYTES + STATE);
+    }
+
+    private void write(int slot, long priceCents, int stock, int seller, int name) {
+        int offset = slot * SLOT_BYTES;
+        slots.putLong(offset + PRICE, priceCents);
+        slots.putInt(offset + STOCK, stock);
+        slots.putInt(offset + SELLER, seller);
+        slots.putInt(offset + NAME, name);
+    }
+
+    private void allocate(int capacity) {
+        this.capacity = capacity;
+        this.slots = ByteBuffer.allocateDirect(capacity * SLOT_BYTES);
+        this.live = 0;
+        this.used = 0;
+    }
+
+    private void grow() {
+        if (capacity >= MAX_CAPACITY) {
+            throw new IllegalStateException("Product table full: " + live + " products");
+        }
+        ByteBuffer old = slots;
+        int oldCapacity = capacity;
+        // removed slots are dropped: the table only doubles when live entries need it
+        allocate(live * 2 > oldCapacity * 0.7 ? oldCapacity * 2 : oldCapacity);
+        for (int slot = 0; slot < oldCapacity; slot++) {
+            int offset = slot * SLOT_BYTES;
+            if (old.getInt(offset + STATE) != LIVE) {
+                continue;
+            }
+            long high = old.getLong(offset + KEY_HIGH);
+            int low = old.getInt(offset + KEY_LOW);
+            int target = find(high, low);
+            int targetOffset = target * SLOT_BYTES;
+            slots.putLong(targetOffset + KEY_HIGH, high);
+            slots.putInt(targetOffset + KEY_LOW, low);
+            slots.putInt(targetOffset + STATE, LIVE);
+            write(target, old.getLong(offset + PRICE), old.getInt(offset + STOCK), old.getInt(offset + SELLER),
+                    old.getInt(offset + NAME));
+            live++;
+            used++;
+        }
+    }
+
+    private int sellerCode(String sellerId) {
+        if (sellerId == null) {
+            return -1;
+        }
+        Integer code = sellerCodes.get(sellerId);
+        if (code == null) {
+            code = sellers.size();
+            sellerCodes.put(sellerId, code);
+            sellers.add(sellerId);
+        }
+        return code;
+    }
+
+    // ─────────────────────────────────────────────────────
+    // Names
+    // ─────────────────────────────────────────────────────
+
+    private String readName(int offset) {
+        if (offset == NO_NAME) {
+            return null;
+        }
+        byte[] bytes = new byte[names.getInt(offset)];
+        names.get(offset + 4, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private void discardName(int offset) {
+        if (offset != NO_NAME) {
+            namesGarbage += 4 + names.getInt(offset);
+        }
+    }
+
+    /** Appends the name and returns its offset; compacts or enlarges the buffer when full. */
+    private int appendName(String name) {
+        if (name == null) {
+            return NO_NAME;
+        }
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        int length = 4 + bytes.length;
+        if (namesEnd + (long) length > names.capacity()) {
+            ByteBuffer old = names;
+            boolean compact = namesGarbage * 2 > namesEnd;
+            long needed = (compact ? namesEnd - namesGarbage : namesEnd) + (long) length;
+            if (needed > Integer.MAX_VALUE) {
+                throw new IllegalStateException("Product names full: " + live + " products");
+            }
+            long size = old.capacity();
+            while (size < needed) {
+                size <<= 1;
+            }
+            names = ByteBuffer.allocateDirect((int) Math.min(size, Integer.MAX_VALUE));
+            if (compact) {
+                compactNames(old);
+            } else {
+                names.put(0, old, 0, namesEnd);
+            }
+        }
+        int offset = namesEnd;
+        names.putInt(offset, bytes.length);
+        names.put(offset + 4, bytes);
+        namesEnd += length;
+        return offset;
+    }
+
+    /** Copies the names of live slots from old into names, leaving the garbage behind. */
+    private void compactNames(ByteBuffer old) {
+        namesEnd = 0;
+        namesGarbage = 0;
+        for (int slot = 0; slot < capacity; slot++) {
+            int offset = slot * SLOT_BYTES;
+            int name = slots.getInt(offset + NAME);
+            if (slots.getInt(offset + STATE) != LIVE || name == NO_NAME) {
+                continue;
+            }
+            int length = 4 + old.getInt(name);
+            names.put(namesEnd, old, name, length);
+            slots.putInt(offset + NAME, namesEnd);
+            namesEnd += length;
+        }
+    }
+
+    // ─────────────────────────────────────────────────────
+    // ObjectId keys
+    // ─────────────────────────────────────────────────────
+
+    private static boolean isObjectId(String id) {
+        if (id == null || id.length() != 24) {
+            return false;
+        }
+        for (int i = 0; i < 24; i++) {
+            if (Character.digit(id.charAt(i), 16) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long parseHex(String id, int from, int to) {
+        long value = 0;
+        for (int i = from; i < to; i++) {
+            value = value << 4 | Character.digit(id.charAt(i), 16);
+        }
+        return value;
+    }
+}
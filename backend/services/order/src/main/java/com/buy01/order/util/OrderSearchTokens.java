@@ -0,0 +1,53 @@
+package com.buy01.order.util;
+
+import com.buy01.order.model.OrderItem;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Trigram tokens of product names, stored on the order (searchTokens) so a
+ * ?search= substring query can be answered by a multikey index.
+ * The token match is a superset of the substring match; the exact
+ * case-insensitive check is still done by Mongo on items.productName.
+ */
+public final class OrderSearchTokens {
+
+    public static final int GRAM = 3;
+
+    private OrderSearchTokens() {
+    }
+
+    public static String normalize(String text) {
+        return text.toLowerCase(Locale.ROOT);
+    }
+
+    /** Distinct trigrams of every item name of the order. */
+    public static List<String> of(Collection<OrderItem> items) {
+        Set<String> tokens = new LinkedHashSet<>();
+        if (items != null) {
+            for (OrderItem item : items) {
+                if (item.getProductName() != null) {
+                    addGrams(normalize(item.getProductName()), tokens);
+                }
+            }
+        }
+        return List.copyOf(tokens);
+    }
+
+    /** Trigrams a name must contain to match the query; empty when the query is too short. */
+    public static List<String> ofQuery(String query) {
+        Set<String> tokens = new LinkedHashSet<>();
+        addGrams(normalize(query), tokens);
+        return List.copyOf(tokens);
+    }
+
+    private static void addGrams(String text, Set<String> tokens) {
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            tokens.add(text.substring(i, i + GRAM));
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.buy01.order.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OrderStatusTest {
+
+    @Test
+    void testTransitionTable() {
+        assertTrue(OrderStatus.PENDING.canTransitionTo(OrderStatus.CONFIRMED));
+        assertTrue(OrderStatus.CONFIRMED.canTransitionTo(OrderStatus.DELIVERED));
+        assertFalse(OrderStatus.PENDING.canTransitionTo(OrderStatus.DELIVERED));
+        assertFalse(OrderStatus.DELIVERED.canTransitionTo(OrderStatus.CANCELLED));
+        assertFalse(OrderStatus.CANCELLED.canTransitionTo(OrderStatus.CANCELLED));
+    }
+
+    @Test
+    void testSourcesOf() {
+        assertEquals(EnumSet.of(OrderStatus.PENDING, OrderStatus.CONFIRMED), OrderStatus.sourcesOf(OrderStatus.CANCELLED));
+        assertEquals(EnumSet.of(OrderStatus.CONFIRMED), OrderStatus.sourcesOf(OrderStatus.DELIVERED));
+        assertTrue(OrderStatus.sourcesOf(OrderStatus.PENDING).isEmpty());
+    }
+
+    @Test
+    void testPredecessorsOf() {
+        assertEquals(EnumSet.of(OrderStatus.PENDING, OrderStatus.CONFIRMED),
+                OrderStatus.predecessorsOf(OrderStatus.DELIVERED));
+        assertEquals(EnumSet.of(OrderStatus.PENDING), OrderStatus.predecessorsOf(OrderStatus.CONFIRMED));
+        assertTrue(OrderStatus.predecessorsOf(OrderStatus.PENDING).isEmpty());
+    }
+}
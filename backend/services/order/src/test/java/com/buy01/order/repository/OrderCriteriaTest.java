@@ -0,0 +1,97 @@
+package com.buy01.order.repository;
+
+import com.buy01.order.model.OrderStatus;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OrderCriteriaTest {
+
+    @SuppressWarnings("unchecked")
+    private static List<Document> clauses(OrderFilter filter, OrderCursor after) {
+        return (List<Document>) OrderCriteria.of(filter, after, "totalAmount").getCriteriaObject().get("$and");
+    }
+
+    private static Document clause(List<Document> clauses, String field) {
+        return clauses.stream().filter(clause -> clause.containsKey(field)).findFirst().orElseThrow();
+    }
+
+    @Test
+    void testNoStatus_constrainedToEveryStatusForTheIndex() {
+        List<Document> clauses = clauses(OrderFilter.forUser("u1"), null);
+
+        assertEquals(new Document("userId", "u1"), clauses.get(0));
+        assertEquals(new Document("status", new Document("$in", Arrays.asList(OrderStatus.values()))),
+                clause(clauses, "status"));
+        assertFalse(clauses.stream().anyMatch(clause -> clause.containsKey("searchTokens")));
+    }
+
+    @Test
+    void testRanges_dateHalfOpenAmountInclusive() {
+        OrderFilter filter = OrderFilter.forSeller("s1");
+        filter.setStatus(OrderStatus.DELIVERED);
+        filter.setFrom(LocalDateTime.of(2026, 1, 1, 0, 0));
+        filter.setTo(LocalDateTime.of(2026, 2, 1, 0, 0));
+        filter.setMinAmount(10.0);
+        filter.setMaxAmount(20.0);
+
+        List<Document> clauses = clauses(filter, null);
+
+        assertTrue(clauses.contains(new Document("sellerId", "s1")));
+        assertTrue(clauses.contains(new Document("status", OrderStatus.DELIVERED)));
+        assertTrue(clauses.contains(new Document("createdAt", new Document("$gte", filter.getFrom()))));
+        assertTrue(clauses.contains(new Document("createdAt", new Document("$lt", filter.getTo()))));
+        assertTrue(clauses.contains(new Document("totalAmount", new Document("$gte", 10.0))));
+        assertTrue(clauses.contains(new Document("totalAmount", new Document("$lte", 20.0))));
+    }
+
+    @Test
+    void testSearch_trigramPrefilterAndEscapedSubstring() {
+        OrderFilter filter = OrderFilter.forUser("u1");
+        filter.setSearch("  Mug (XL).  ");
+
+        List<Document> clauses = clauses(filter, null);
+
+        assertEquals(new Document("$all", List.of("mug", "ug ", "g (", " (x", "(xl", "xl)", "l).")),
+                clause(clauses, "searchTokens").get("searchTokens"));
+        Document elemMatch = clause(clauses, "items").get("items", Document.class).get("$elemMatch", Document.class);
+        Pattern regex = (Pattern) elemMatch.get("productName");
+        assertTrue((regex.flags() & Pattern.CASE_INSENSITIVE) != 0);
+        // trimmed, and the parentheses and dot are literal
+        assertTrue(regex.matcher("Travel mug (xl). Blue").find());
+        assertFalse(regex.matcher("Mug XXL").find());
+    }
+
+    @Test
+    void testShortSearch_substringCheckOnly() {
+        OrderFilter filter = OrderFilter.forUser("u1");
+        filter.setSearch("tv");
+
+        List<Document> clauses = clauses(filter, null);
+
+        assertFalse(clauses.stream().anyMatch(clause -> clause.containsKey("searchTokens")));
+        assertTrue(clauses.stream().anyMatch(clause -> clause.containsKey("items")));
+    }
+
+    @Test
+    void testCursor_strictlyAfterInKeysetOrder() {
+        LocalDateTime at = LocalDateTime.of(2026, 3, 1, 10, 0);
+
+        Document keyset = clause(clauses(OrderFilter.forUser("u1"), new OrderCursor(at, "o9")), "$or");
+
+        assertEquals(List.of(
+                new Document("createdAt", new Document("$lt", at)),
+                new Document("$and", List.of(
+                        new Document("createdAt", at),
+                        new Document("id", new Document("$lt", "o9"))))),
+                keyset.get("$or"));
+    }
+}
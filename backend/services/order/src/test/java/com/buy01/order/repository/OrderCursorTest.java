@@ -0,0 +1,25 @@
+package com.buy01.order.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class OrderCursorTest {
+
+    @Test
+    void testEncodeDecode_roundTrip() {
+        OrderCursor cursor = new OrderCursor(LocalDateTime.of(2025, 3, 14, 9, 26, 53, 589_000_000),
+                "65f2c0a1b2c3d4e5f6a7b8c9");
+
+        assertEquals(cursor, OrderCursor.decode(cursor.encode()));
+    }
+
+    @Test
+    void testDecode_withGarbage() {
+        assertThrows(IllegalArgumentException.class, () -> OrderCursor.decode("not-a-cursor"));
+        assertThrows(IllegalArgumentException.class, () -> OrderCursor.decode("%%%"));
+    }
+}
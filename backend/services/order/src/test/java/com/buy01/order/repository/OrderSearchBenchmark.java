@@ -0,0 +1,156 @@
+package com.buy01.order.repository;
+
+import com.buy01.order.config.OrderSearchTokensCallback;
+import com.buy01.order.model.Order;
+import com.buy01.order.model.OrderItem;
+import com.buy01.order.model.OrderStatus;
+import com.buy01.order.model.SellerOrder;
+import com.buy01.order.service.SellerOrderService;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mapping.callback.EntityCallbacks;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Compares the former in-JVM ?search= filtering (load every order matching
+ * items.sellerId, then toLowerCase().contains()) with the searchTokens +
+ * $elemMatch push-down on seller_orders.
+ *
+ * Needs a real MongoDB and is skipped otherwise:
+ * mvn test -Dtest=OrderSearchBenchmark -Dbenchmark.mongo.uri=mongodb://localhost:27017
+ * [-Dbenchmark.sizes=1000,100000,1000000]
+ */
+@EnabledIfSystemProperty(named = "benchmark.mongo.uri", matches = ".+")
+class OrderSearchBenchmark {
+
+    private static final String DATABASE = "order_search_benchmark";
+    private static final int SELLERS = 200;
+    private static final int USERS = 20_000;
+    private static final int RUNS = 5;
+    private static final String[] ADJECTIVES = { "red", "wireless", "vintage", "organic", "smart", "leather",
+            "compact", "deluxe", "classic", "portable", "ceramic", "bamboo" };
+    private static final String[] NOUNS = { "headphones", "lamp", "backpack", "keyboard", "mug", "jacket",
+            "speaker", "watch", "notebook", "blender", "charger", "sneakers" };
+    private static final String[] QUERIES = { "lamp", "wireless head", "ceram", "xyz-not-found" };
+
+    @Test
+    void benchmarkSellerSearch() {
+        String uri = System.getProperty("benchmark.mongo.uri");
+        int[] sizes = Arrays.stream(System.getProperty("benchmark.sizes", "1000,100000,1000000").split(","))
+                .mapToInt(s -> Integer.parseInt(s.trim()))
+                .toArray();
+
+        try (MongoClient client = MongoClients.create(uri)) {
+            MongoTemplate template = new MongoTemplate(client, DATABASE);
+            template.setEntityCallbacks(EntityCallbacks.create(new OrderSearchTokensCallback()));
+            SellerOrderRepositoryImpl repository = new SellerOrderRepositoryImpl(template);
+
+            System.out.printf("%-10s %-16s %12s %12s %8s%n", "orders", "query", "jvm-ms", "mongo-ms", "hits");
+            for (int size : sizes) {
+                seed(template, size);
+                for (String query : QUERIES) {
+                    String sellerId = "seller-" + 7;
+                    long[] hits = new long[2];
+                    double legacy = timeMillis(() -> hits[0] = legacySearch(template, sellerId, query));
+                    double pushed = timeMillis(() -> hits[1] = pushedSearch(repository, sellerId, query));
+                    assertEquals(hits[0], hits[1], "both strategies must return the same orders");
+                    System.out.printf("%-10d %-16s %12.2f %12.2f %8d%n", size, query, legacy, pushed, hits[1]);
+                }
+            }
+            template.getDb().drop();
+        }
+    }
+
+    private static long legacySearch(MongoTemplate template, String sellerId, String search) {
+        String q = search.toLowerCase();
+        return template.find(new Query(where("items.sellerId").is(sellerId)), Order.class).stream()
+                .filter(o -> o.getItems().stream()
+                        .filter(item -> sellerId.equals(item.getSellerId()))
+                        .anyMatch(item -> item.getProductName().toLowerCase().contains(q)))
+                .count();
+    }
+
+    private static long pushedSearch(SellerOrderRepositoryImpl repository, String sellerId, String search) {
+        OrderFilter filter = OrderFilter.forSeller(sellerId);
+        filter.setSearch(search);
+        return repository.findSellerOrders(filter, null, 0).size();
+    }
+
+    private static double timeMillis(Runnable action) {
+        action.run(); // warm-up
+        long start = System.nanoTime();
+        for (int i = 0; i < RUNS; i++) {
+            action.run();
+        }
+        return (System.nanoTime() - start) / 1_000_000.0 / RUNS;
+    }
+
+    private static void seed(MongoTemplate template, int size) {
+        template.dropCollection(Order.class);
+        template.dropCollection(SellerOrder.class);
+        MongoPersistentEntityIndexResolver resolver =
+                new MongoPersistentEntityIndexResolver(template.getConverter().getMappingContext());
+        IndexOperations orderIndexes = template.indexOps(Order.class);
+        resolver.resolveIndexFor(Order.class).forEach(orderIndexes::ensureIndex);
+        // The legacy path relied on this multikey index, no longer declared on Order
+        orderIndexes.ensureIndex(new Index().on("items.sellerId", Sort.Direction.ASC));
+        IndexOperations sellerOrderIndexes = template.indexOps(SellerOrder.class);
+        resolver.resolveIndexFor(SellerOrder.class).forEach(sellerOrderIndexes::ensureIndex);
+
+        Random random = new Random(42);
+        LocalDateTime start = LocalDateTime.now().minusDays(365);
+        List<Order> batch = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            List<OrderItem> items = new ArrayList<>();
+            int itemCount = 1 + random.nextInt(4);
+            for (int j = 0; j < itemCount; j++) {
+                String name = ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " "
+                        + NOUNS[random.nextInt(NOUNS.length)] + " " + random.nextInt(1000);
+                items.add(new OrderItem("product-" + random.nextInt(50_000),
+                        name.substring(0, 1).toUpperCase(Locale.ROOT) + name.substring(1),
+                        "seller-" + random.nextInt(SELLERS),
+                        1 + random.nextInt(20_000) / 100.0,
+                        1 + random.nextInt(3)));
+            }
+            Order order = new Order();
+            order.setUserId("user-" + random.nextInt(USERS));
+            order.setItems(items);
+            order.setStatus(OrderStatus.values()[random.nextInt(OrderStatus.values().length)]);
+            order.setTotalAmount(items.stream().mapToDouble(OrderItem::subtotal).sum());
+            order.setPaymentMethod("pay_on_delivery");
+            order.setCreatedAt(start.plusSeconds(random.nextInt(365 * 24 * 3600)));
+            order.setUpdatedAt(order.getCreatedAt());
+            batch.add(order);
+
+            if (batch.size() == 5_000) {
+                insert(template, batch);
+            }
+        }
+        if (!batch.isEmpty()) {
+            insert(template, batch);
+        }
+    }
+
+    private static void insert(MongoTemplate template, List<Order> batch) {
+        template.insert(batch, Order.class);
+        template.insert(batch.stream().flatMap(o -> SellerOrderService.split(o).stream()).toList(), SellerOrder.class);
+        batch.clear();
+    }
+}
@@ -0,0 +1,127 @@
+package com.buy01.order.repository;
+
+import com.buy01.order.model.Order;
+import com.buy01.order.model.OrderStatus;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Same races as OrderStatusConcurrencyTest, against the real findAndModify.
+ * Needs a MongoDB and is skipped otherwise:
+ * mvn test -Dtest=OrderStatusTransitionMongoTest -Dtest.mongo.uri=mongodb://localhost:27017
+ */
+@EnabledIfSystemProperty(named = "test.mongo.uri", matches = ".+")
+class OrderStatusTransitionMongoTest {
+
+    private static final String DATABASE = "order_transition_test";
+    private static final int ORDERS = 200;
+    private static final int RACERS = 8;
+
+    private MongoClient client;
+    private MongoTemplate template;
+    private OrderRepositoryImpl repository;
+
+    @BeforeEach
+    void setUp() {
+        client = MongoClients.create(System.getProperty("test.mongo.uri"));
+        template = new MongoTemplate(client, DATABASE);
+        template.dropCollection(Order.class);
+        repository = new OrderRepositoryImpl(template);
+    }
+
+    @AfterEach
+    void tearDown() {
+        template.getDb().drop();
+        client.close();
+    }
+
+    @Test
+    void testConcurrentTransitions_exactlyOneWinnerPerOrder() throws Exception {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < ORDERS; i++) {
+            Order order = new Order();
+            order.setUserId("user-" + i);
+            order.setStatus(OrderStatus.CONFIRMED);
+            order.setCreatedAt(LocalDateTime.now());
+            ids.add(template.insert(order).getId());
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(RACERS);
+        try {
+            for (String id : ids) {
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<Order>> racers = new ArrayList<>();
+                for (int r = 0; r < RACERS; r++) {
+                    // Half try to deliver, half to cancel
+                    OrderStatus target = r % 2 == 0 ? OrderStatus.DELIVERED : OrderStatus.CANCELLED;
+                    racers.add(pool.submit(() -> {
+                        start.await();
+                        return repository.transitionStatus(id, null, OrderStatus.sourcesOf(target), target,
+                                LocalDateTime.now());
+                    }));
+                }
+                start.countDown();
+
+                int winners = 0;
+                for (Future<Order> racer : racers) {
+                    Order previous = racer.get(10, TimeUnit.SECONDS);
+                    if (previous != null) {
+                        winners++;
+                        assertEquals(OrderStatus.CONFIRMED, previous.getStatus());
+                    }
+                }
+                assertEquals(1, winners, "order " + id);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void testTransitionStatuses_reportsOnlyOrdersItMoved() {
+        Map<String, OrderStatus> expected = new LinkedHashMap<>();
+        for (int i = 0; i < 3; i++) {
+            Order order = new Order();
+            order.setUserId("user-" + i);
+            order.setStatus(OrderStatus.PENDING);
+            order.setCreatedAt(LocalDateTime.now());
+            expected.put(template.insert(order).getId(), OrderStatus.PENDING);
+        }
+        String raced = expected.keySet().iterator().next();
+        repository.transitionStatus(raced, null, Set.of(OrderStatus.PENDING), OrderStatus.CANCELLED,
+                LocalDateTime.now());
+
+        LocalDateTime at = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        // A concurrent call confirms one of them in the same millisecond
+        String concurrent = expected.keySet().stream().skip(1).findFirst().orElseThrow();
+        assertEquals(Set.of(concurrent), repository.transitionStatuses(
+                Map.of(concurrent, OrderStatus.PENDING), OrderStatus.CONFIRMED, at));
+        Set<String> moved = repository.transitionStatuses(expected, OrderStatus.CONFIRMED, at);
+
+        assertEquals(1, moved.size());
+        assertFalse(moved.contains(raced));
+        assertFalse(moved.contains(concurrent));
+        assertEquals(OrderStatus.CANCELLED, template.findById(raced, Order.class).getStatus());
+    }
+}
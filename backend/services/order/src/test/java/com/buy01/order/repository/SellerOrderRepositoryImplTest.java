@@ -0,0 +1,64 @@
+package com.buy01.order.repository;
+
+import com.buy01.order.model.OrderStatus;
+import com.buy01.order.model.SellerOrder;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class SellerOrderRepositoryImplTest {
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final SellerOrderRepositoryImpl repository = new SellerOrderRepositoryImpl(mongoTemplate);
+
+    @SuppressWarnings("unchecked")
+    private static List<Document> clauses(Query query) {
+        return (List<Document>) query.getQueryObject().get("$and");
+    }
+
+    @Test
+    void testStream_sellerScopedNewestFirstInBatches() {
+        OrderFilter filter = OrderFilter.forSeller("s1");
+        filter.setStatus(OrderStatus.PENDING);
+
+        repository.streamSellerOrders(filter, 200);
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).stream(query.capture(), eq(SellerOrder.class));
+        List<Document> criteria = clauses(query.getValue());
+        assertTrue(criteria.contains(new Document("sellerId", "s1")));
+        assertTrue(criteria.contains(new Document("status", OrderStatus.PENDING)));
+        assertEquals(new Document("createdAt", -1).append("id", -1), query.getValue().getSortObject());
+        assertEquals(200, query.getValue().getMeta().getCursorBatchSize());
+    }
+
+    @Test
+    void testFind_amountRangeOnSubtotalAndLimit() {
+        OrderFilter filter = OrderFilter.forSeller("s1");
+        filter.setMinAmount(10.0);
+        filter.setMaxAmount(50.0);
+
+        repository.findSellerOrders(filter, new OrderCursor(LocalDateTime.of(2026, 3, 1, 10, 0), "o9"), 20);
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(query.capture(), eq(SellerOrder.class));
+        List<Document> criteria = clauses(query.getValue());
+        assertTrue(criteria.contains(new Document("subtotal", new Document("$gte", 10.0))));
+        assertTrue(criteria.contains(new Document("subtotal", new Document("$lte", 50.0))));
+        // keyset: strictly after the cursor
+        assertTrue(criteria.stream().anyMatch(clause -> clause.containsKey("$or")));
+        assertEquals(20, query.getValue().getLimit());
+        assertEquals(List.of("createdAt", "id"), List.copyOf(query.getValue().getSortObject().keySet()));
+    }
+}
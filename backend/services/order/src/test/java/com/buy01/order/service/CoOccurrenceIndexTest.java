@@ -0,0 +1,71 @@
+package com.buy01.order.service;
+
+import com.buy01.order.model.CoPurchase;
+import com.buy01.order.model.ProductNeighbours;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static com.buy01.order.service.OrderColumnsTest.item;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CoOccurrenceIndexTest {
+
+    private static List<String> ids(List<CoPurchase> neighbours) {
+        return neighbours.stream().map(CoPurchase::getProductId).toList();
+    }
+
+    @Test
+    void testNeighbours_rankedByOrdersInCommon() {
+        CoOccurrenceIndex index = new CoOccurrenceIndex(10, 50);
+        index.add(List.of(item("p1", "s1", 1.0, 1), item("p2", "s1", 1.0, 1), item("p3", "s2", 1.0, 1)));
+        index.add(List.of(item("p1", "s1", 1.0, 1), item("p2", "s1", 1.0, 3)));
+        // a product twice in one order counts once
+        index.add(List.of(item("p1", "s1", 1.0, 1), item("p1", "s1", 1.0, 1)));
+
+        assertEquals(List.of("p2", "p3"), ids(index.neighbours("p1", 10)));
+        assertEquals(2, index.neighbours("p1", 10).get(0).getCount());
+        assertEquals(3, index.orders("p1"));
+        assertEquals(Set.of("p1", "p2"), Set.copyOf(ids(index.neighbours("p3", 10))));
+        assertEquals(1, index.neighbours("p3", 1).size());
+        assertTrue(index.neighbours("unknown", 10).isEmpty());
+    }
+
+    @Test
+    void testPruning_boundsNeighboursPerProduct() {
+        CoOccurrenceIndex index = new CoOccurrenceIndex(3, 50);
+        for (int round = 0; round < 5; round++) {
+            index.add(List.of(item("hub", "s1", 1.0, 1), item("frequent", "s1", 1.0, 1)));
+        }
+        for (int i = 0; i < 100; i++) {
+            index.add(List.of(item("hub", "s1", 1.0, 1), item("rare-" + i, "s1", 1.0, 1)));
+        }
+
+        List<CoPurchase> neighbours = index.neighbours("hub", 10);
+        assertTrue(neighbours.size() <= 3);
+        assertEquals("frequent", neighbours.get(0).getProductId());
+        assertEquals(5, neighbours.get(0).getCount());
+    }
+
+    @Test
+    void testDrainDirty_restoresIntoAnEquivalentIndex() {
+        CoOccurrenceIndex index = new CoOccurrenceIndex(10, 50);
+        index.add(List.of(item("p1", "s1", 1.0, 1), item("p2", "s1", 1.0, 1)));
+        index.add(List.of(item("p1", "s1", 1.0, 1), item("p3", "s1", 1.0, 1)));
+        index.add(List.of(item("p1", "s1", 1.0, 1), item("p2", "s1", 1.0, 1)));
+
+        List<ProductNeighbours> snapshots = index.drainDirty(LocalDateTime.now());
+        assertEquals(3, snapshots.size());
+        assertTrue(index.drainDirty(LocalDateTime.now()).isEmpty());
+
+        CoOccurrenceIndex restored = new CoOccurrenceIndex(10, 50);
+        snapshots.forEach(restored::restore);
+        assertEquals(ids(index.neighbours("p1", 10)), ids(restored.neighbours("p1", 10)));
+        assertEquals(3, restored.orders("p1"));
+        assertEquals("Product " + ids(restored.neighbours("p1", 10)).get(0),
+                restored.neighbours("p1", 10).get(0).getName());
+    }
+}
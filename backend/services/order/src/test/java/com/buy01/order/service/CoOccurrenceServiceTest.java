@@ -0,0 +1,143 @@
+package com.buy01.order.service;
+
+import com.buy01.order.model.CoOccurrenceCheckpoint;
+import com.buy01.order.model.CoPurchase;
+import com.buy01.order.model.Order;
+import com.buy01.order.model.OrderStatus;
+import com.buy01.order.model.ProductNeighbours;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static com.buy01.order.service.OrderColumnsTest.item;
+import static com.buy01.order.service.OrderColumnsTest.order;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CoOccurrenceServiceTest {
+
+    private static final LocalDateTime STARTED_AT = LocalDateTime.now().minusMinutes(1);
+    private static final Duration LAG = Duration.ofMinutes(10);
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final JobLeases jobLeases = mock(JobLeases.class);
+
+    private CoOccurrenceService service() {
+        return new CoOccurrenceService(mongoTemplate, jobLeases, true, 10, 50, LAG, Duration.ofMinutes(40), STARTED_AT);
+    }
+
+    private static ProductNeighbours snapshot(String productId, long generation, int orders, String neighbour) {
+        ProductNeighbours snapshot = new ProductNeighbours(productId, "Product " + productId, orders,
+                List.of(new CoPurchase(neighbour, "Product " + neighbour, orders)), STARTED_AT);
+        snapshot.stamp(generation);
+        return snapshot;
+    }
+
+    private static Order created(String id, LocalDateTime at, String... productIds) {
+        Order order = order(id, OrderStatus.PENDING, Stream.of(productIds)
+                .map(productId -> item(productId, "s1", 1.0, 1))
+                .toArray(com.buy01.order.model.OrderItem[]::new));
+        order.setCreatedAt(at);
+        return order;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> products(Map<String, Object> response) {
+        return (List<Map<String, Object>>) response.get("products");
+    }
+
+    @Test
+    void testLoad_restoresSnapshotAndReplaysOnlyLaterOrders() {
+        LocalDateTime watermark = STARTED_AT.minusHours(2);
+        when(mongoTemplate.findById(CoOccurrenceCheckpoint.ID, CoOccurrenceCheckpoint.class))
+                .thenReturn(new CoOccurrenceCheckpoint(CoOccurrenceCheckpoint.ID, 7, watermark,
+                        Map.of("o5", watermark.plusMinutes(1)), 3, watermark));
+        // by productId, latest generation first: p1 of generation 5 is superseded by generation 7
+        when(mongoTemplate.stream(any(Query.class), eq(ProductNeighbours.class))).thenReturn(Stream.of(
+                snapshot("p1", 7, 3, "p2"), snapshot("p1", 5, 2, "p2"), snapshot("p2", 7, 3, "p1")));
+        when(mongoTemplate.stream(any(Query.class), eq(Order.class))).thenReturn(Stream.of(
+                created("o4", STARTED_AT.minusHours(1), "p1", "p3"),
+                // already in the snapshot although created after its watermark
+                created("o5", watermark.plusMinutes(1), "p1", "p2")));
+        CoOccurrenceService service = service();
+
+        assertTrue(service.getBoughtTogether("p1", 10).isEmpty());
+        service.load();
+        // a late update for an order the replay already counted
+        service.onOrderCreated(created("o4", STARTED_AT.minusHours(1), "p1", "p3"));
+
+        Map<String, Object> response = service.getBoughtTogether("p1", 10).orElseThrow();
+        assertEquals(4, response.get("orders"));
+        assertEquals(List.of("p2", "p3"), products(response).stream().map(p -> p.get("productId")).toList());
+        assertEquals(0.75, (double) products(response).get(0).get("confidence"), 1e-9);
+
+        ArgumentCaptor<Query> restored = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).stream(restored.capture(), eq(ProductNeighbours.class));
+        // generations written after the checkpoint belong to an interrupted snapshot
+        assertEquals(7L, ((Document) restored.getValue().getQueryObject().get("generation")).get("$lte"));
+        ArgumentCaptor<Query> replay = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).stream(replay.capture(), eq(Order.class));
+        Document createdAt = (Document) replay.getValue().getQueryObject().get("createdAt");
+        assertEquals(watermark, createdAt.get("$gt"));
+    }
+
+    @Test
+    void testLoad_withoutSnapshot_scansThenWritesOne() {
+        BulkOperations ops = mock(BulkOperations.class);
+        when(mongoTemplate.bulkOps(any(BulkOperations.BulkMode.class), eq(ProductNeighbours.class))).thenReturn(ops);
+        when(jobLeases.tryAcquire(anyString(), any(Duration.class))).thenReturn(true);
+        when(mongoTemplate.stream(any(Query.class), eq(Order.class))).thenReturn(Stream.of(
+                created("o1", STARTED_AT.minusDays(3), "p1", "p2"),
+                created("o2", STARTED_AT.minusMinutes(2), "p1", "p2")));
+        CoOccurrenceService service = service();
+
+        LocalDateTime before = LocalDateTime.now();
+        service.load();
+        service.onOrderCreated(created("o3", STARTED_AT.plusSeconds(1), "p1", "p2"));
+
+        ArgumentCaptor<ProductNeighbours> written = ArgumentCaptor.forClass(ProductNeighbours.class);
+        verify(ops, times(2)).insert(written.capture());
+        verify(ops).execute();
+        ArgumentCaptor<CoOccurrenceCheckpoint> checkpoint = ArgumentCaptor.forClass(CoOccurrenceCheckpoint.class);
+        verify(mongoTemplate).save(checkpoint.capture());
+        assertEquals(checkpoint.getValue().getGeneration(), written.getValue().getGeneration());
+        // low watermark, and the order counted past it listed
+        assertFalse(checkpoint.getValue().getWatermark().isAfter(LocalDateTime.now().minus(LAG)));
+        assertFalse(checkpoint.getValue().getWatermark().isBefore(before.minus(LAG)));
+        assertEquals(Set.of("o2"), checkpoint.getValue().getRecentOrders().keySet());
+        assertEquals(2, checkpoint.getValue().getOrders());
+        assertEquals(3, service.getBoughtTogether("p2", 10).orElseThrow().get("orders"));
+    }
+
+    @Test
+    void testSnapshot_onlyOnTheLeaseHolder() {
+        when(mongoTemplate.stream(any(Query.class), eq(Order.class)))
+                .thenReturn(Stream.of(created("o1", STARTED_AT.minusDays(3), "p1", "p2")));
+        CoOccurrenceService service = service();
+
+        service.load();
+        service.snapshot();
+
+        verify(mongoTemplate, never()).bulkOps(any(BulkOperations.BulkMode.class), eq(ProductNeighbours.class));
+        verify(mongoTemplate, never()).save(any(CoOccurrenceCheckpoint.class));
+    }
+}
@@ -0,0 +1,183 @@
+package com.buy01.order.service;
+
+import com.buy01.order.dto.OrderResponse;
+import com.buy01.order.model.IdempotencyRecord;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class IdempotencyServiceTest {
+
+    private static final Map<String, Integer> PAYLOAD = Map.of("quantity", 1);
+
+    // Stand-in for idempotency_keys: insert fails on an existing _id, like the unique index
+    private final Map<String, IdempotencyRecord> records = new ConcurrentHashMap<>();
+    private final AtomicInteger calls = new AtomicInteger();
+    private final OrderService orderService = mock(OrderService.class);
+    private IdempotencyService service;
+
+    @BeforeEach
+    void setUp() {
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        when(mongoTemplate.insert(any(IdempotencyRecord.class))).thenAnswer(invocation -> {
+            IdempotencyRecord record = invocation.getArgument(0);
+            if (records.putIfAbsent(record.getId(), record) != null) {
+                throw new DuplicateKeyException("E11000 duplicate key");
+            }
+            return record;
+        });
+        when(mongoTemplate.findById(anyString(), eq(IdempotencyRecord.class)))
+                .thenAnswer(invocation -> records.get(invocation.<String>getArgument(0)));
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(IdempotencyRecord.class)))
+                .thenAnswer(invocation -> {
+                    String id = invocation.<Query>getArgument(0).getQueryObject().getString("id");
+                    Document set = invocation.<Update>getArgument(1).getUpdateObject().get("$set", Document.class);
+                    IdempotencyRecord record = records.get(id);
+                    if (set.containsKey("response")) {
+                        record.setState(IdempotencyRecord.State.COMPLETED);
+                        record.setResponse((OrderResponse) set.get("response"));
+                        return UpdateResult.acknowledged(1, 1L, null);
+                    }
+                    // Take-over of an abandoned request: never in these tests
+                    return UpdateResult.acknowledged(0, 0L, null);
+                });
+        service = new IdempotencyService(mongoTemplate, new ObjectMapper(), orderService);
+    }
+
+    private OrderResponse createOrder(String orderId) {
+        calls.incrementAndGet();
+        OrderResponse response = new OrderResponse();
+        response.setId(orderId);
+        return response;
+    }
+
+    @Test
+    void testReplay_returnsFirstResponseWithoutRunningTheAction() {
+        IdempotencyService.Result first = service.execute("u1", "k1", "POST /orders", PAYLOAD, 201,
+                this::createOrder);
+        IdempotencyService.Result replay = service.execute("u1", "k1", "POST /orders", PAYLOAD, 201,
+                this::createOrder);
+
+        assertFalse(first.replayed());
+        assertTrue(replay.replayed());
+        assertEquals(first.response().getId(), replay.response().getId());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void testSameKeyDifferentPayload_isRejected() {
+        service.execute("u1", "k1", "POST /orders", PAYLOAD, 201, this::createOrder);
+
+        IdempotencyKeyException e = assertThrows(IdempotencyKeyException.class,
+                () -> service.execute("u1", "k1", "POST /orders", Map.of("quantity", 2), 201, this::createOrder));
+
+        assertEquals(IdempotencyKeyException.Reason.PAYLOAD_MISMATCH, e.getReason());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void testDuplicateWhileFirstIsRunning_isAConflict() {
+        IdempotencyKeyException[] duplicate = new IdempotencyKeyException[1];
+
+        service.execute("u1", "k1", "POST /orders", PAYLOAD, 201, orderId -> {
+            // The retry arrives while the first request is still creating the order
+            duplicate[0] = assertThrows(IdempotencyKeyException.class,
+                    () -> service.execute("u1", "k1", "POST /orders", PAYLOAD, 201, this::createOrder));
+            return createOrder(orderId);
+        });
+
+        assertEquals(IdempotencyKeyException.Reason.IN_PROGRESS, duplicate[0].getReason());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void testFailedAction_releasesTheKey() {
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        when(orderService.getOrderById(anyString())).thenReturn(Optional.empty());
+        IdempotencyService failing = new IdempotencyService(mongoTemplate, new ObjectMapper(), orderService);
+
+        assertThrows(IllegalArgumentException.class, () -> failing.execute("u1", "k1", "POST /orders/redo",
+                "missing-order", 201, orderId -> {
+                    throw new IllegalArgumentException("Order not found");
+                }));
+
+        verify(mongoTemplate).remove(any(Query.class), eq(IdempotencyRecord.class));
+    }
+
+    @Test
+    void testFailureAfterTheInsert_retryReplaysTheOrder() {
+        String[] inserted = new String[1];
+        when(orderService.getOrderById(anyString())).thenAnswer(invocation -> {
+            String orderId = invocation.getArgument(0);
+            return orderId.equals(inserted[0]) ? Optional.of(createOrder(orderId)) : Optional.empty();
+        });
+
+        assertThrows(IllegalStateException.class, () -> service.execute("u1", "k1", "POST /orders", PAYLOAD, 201,
+                orderId -> {
+                    inserted[0] = orderId;
+                    throw new IllegalStateException("Outbox append failed");
+                }));
+        IdempotencyService.Result retry = service.execute("u1", "k1", "POST /orders", PAYLOAD, 201,
+                this::createOrder);
+
+        assertTrue(retry.replayed());
+        assertEquals(inserted[0], retry.response().getId());
+        assertEquals(IdempotencyRecord.State.COMPLETED, records.get("u1:k1").getState());
+    }
+
+    @Test
+    void testTakenOverWhileTheFirstRequestInsertsItsOrder_replaysIt() {
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        IdempotencyService slow = new IdempotencyService(mongoTemplate, new ObjectMapper(), orderService);
+        IdempotencyRecord stale = new IdempotencyRecord("u1:k1", slow.fingerprint("POST /orders", PAYLOAD),
+                IdempotencyRecord.State.IN_PROGRESS, 0, null, "o1", LocalDateTime.now().minusMinutes(5));
+        when(mongoTemplate.insert(any(IdempotencyRecord.class))).thenThrow(new DuplicateKeyException("E11000"));
+        when(mongoTemplate.findById("u1:k1", IdempotencyRecord.class)).thenReturn(stale);
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(IdempotencyRecord.class)))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+        OrderResponse firstOrder = new OrderResponse();
+        firstOrder.setId("o1");
+        // Not there yet when taken over, inserted by the first request right after
+        when(orderService.getOrderById("o1")).thenReturn(Optional.empty(), Optional.of(firstOrder));
+
+        IdempotencyService.Result result = slow.execute("u1", "k1", "POST /orders", PAYLOAD, 201, orderId -> {
+            throw new DuplicateKeyException("E11000 duplicate key on orders");
+        });
+
+        assertTrue(result.replayed());
+        assertEquals("o1", result.response().getId());
+    }
+
+    @Test
+    void testKeysAreScopedPerUser() {
+        service.execute("u1", "k1", "POST /orders", PAYLOAD, 201, this::createOrder);
+        IdempotencyService.Result other = service.execute("u2", "k1", "POST /orders", PAYLOAD, 201,
+                this::createOrder);
+
+        assertFalse(other.replayed());
+        assertEquals(2, calls.get());
+    }
+}
@@ -0,0 +1,79 @@
+package com.buy01.order.service;
+
+import com.buy01.order.dto.OrderUpdate;
+import com.buy01.order.event.OrderLifecycleEvent;
+import com.buy01.order.model.Order;
+import com.buy01.order.model.OrderStatus;
+import com.buy01.order.repository.OrderArchiveRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static com.buy01.order.service.OrderColumnsTest.item;
+import static com.buy01.order.service.OrderColumnsTest.order;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class OrderAnalyticsServiceTest {
+
+    private MongoTemplate mongoTemplate;
+    private OrderArchiveRepository archiveRepository;
+    private OrderAnalyticsService service;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = mock(MongoTemplate.class);
+        archiveRepository = mock(OrderArchiveRepository.class);
+        when(archiveRepository.streamAllOrders(any(Query.class))).thenReturn(Stream.empty());
+        service = new OrderAnalyticsService(mongoTemplate, archiveRepository, true, 5);
+    }
+
+    private static OrderUpdate update(OrderLifecycleEvent.Type type, String orderId, OrderStatus status) {
+        return new OrderUpdate(type, orderId, "user-1", List.of("s1"), status, null, 10.0, LocalDateTime.now());
+    }
+
+    @Test
+    void testNotLoaded_returnsEmptySoCallersFallBack() {
+        assertTrue(service.getSellerStats("s1").isEmpty());
+        assertTrue(service.getGlobalStats().isEmpty());
+    }
+
+    @Test
+    void testUpdatesReceivedDuringLoad_areReplayedOnTheNewCopy() {
+        when(mongoTemplate.stream(any(Query.class), eq(Order.class))).thenAnswer(invocation -> {
+            // while the snapshot is read: o1 is delivered, o2 created
+            service.apply(update(OrderLifecycleEvent.Type.STATUS_CHANGED, "o1", OrderStatus.DELIVERED), null);
+            service.apply(update(OrderLifecycleEvent.Type.CREATED, "o2", OrderStatus.PENDING),
+                    order("o2", OrderStatus.PENDING, item("p1", "s1", 4.0, 1)));
+            return Stream.of(order("o1", OrderStatus.CONFIRMED, item("p1", "s1", 10.0, 1)));
+        });
+
+        service.rebuild();
+
+        Map<String, Object> stats = service.getSellerStats("s1").orElseThrow();
+        assertEquals(2L, stats.get("totalOrders"));
+        assertEquals(1L, stats.get("deliveredOrders"));
+        assertEquals(1L, stats.get("pendingOrders"));
+    }
+
+    @Test
+    void testLiveUpdates_applyAfterLoad() {
+        when(mongoTemplate.stream(any(Query.class), eq(Order.class)))
+                .thenReturn(Stream.of(order("o1", OrderStatus.CONFIRMED, item("p1", "s1", 10.0, 1))));
+        service.rebuild();
+
+        service.apply(update(OrderLifecycleEvent.Type.DELETED, "o1", OrderStatus.CONFIRMED), null);
+
+        assertEquals(0L, service.getSellerStats("s1").orElseThrow().get("totalOrders"));
+    }
+}
@@ -0,0 +1,186 @@
+package com.buy01.order.service;
+
+import com.buy01.order.dto.OrderPageRequest;
+import com.buy01.order.dto.OrderPageResponse;
+import com.buy01.order.dto.OrderResponse;
+import com.buy01.order.model.Order;
+import com.buy01.order.model.OrderStatus;
+import com.buy01.order.model.SellerOrder;
+import com.buy01.order.repository.OrderArchiveRepository;
+import com.buy01.order.repository.OrderFilter;
+import com.buy01.order.repository.OrderRepository;
+import com.buy01.order.repository.SellerOrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OrderArchiveTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.now();
+
+    private OrderRepository orderRepository;
+    private OrderArchiveRepository archiveRepository;
+    private OrderService orderService;
+
+    @BeforeEach
+    void setUp() {
+        orderRepository = mock(OrderRepository.class);
+        archiveRepository = mock(OrderArchiveRepository.class);
+        orderService = new OrderService(orderRepository, mock(SellerOrderRepository.class), archiveRepository,
+                mock(SellerStatsService.class), mock(OrderAnalyticsService.class),
+                mock(UserOrderSummaryService.class),
+                mock(OrderWriteBatcher.class), mock(ProductNearCache.class), mock(OutboxService.class),
+                mock(OrderEventPublisher.class), mock(OrderUpdatePublisher.class), event -> { });
+        ReflectionTestUtils.setField(orderService, "archiveAfterDays", 30);
+    }
+
+    private static Order order(String id, LocalDateTime createdAt, OrderStatus status) {
+        Order order = new Order();
+        order.setId(id);
+        order.setUserId("user-1");
+        order.setItems(List.of());
+        order.setStatus(status);
+        order.setTotalAmount(10.0);
+        order.setCreatedAt(createdAt);
+        return order;
+    }
+
+    private static OrderPageRequest page(int size) {
+        OrderPageRequest request = new OrderPageRequest();
+        request.setSize(size);
+        return request;
+    }
+
+    @Test
+    void testPage_filledFromHotWindow_skipsArchive() {
+        when(orderRepository.findOrders(any(OrderFilter.class), any(), anyInt())).thenReturn(List.of(
+                order("c", NOW.minusDays(1), OrderStatus.PENDING),
+                order("b", NOW.minusDays(2), OrderStatus.PENDING),
+                order("a", NOW.minusDays(3), OrderStatus.PENDING)));
+
+        OrderPageResponse response = orderService.getOrdersPageByUser("user-1", page(2));
+
+        assertEquals(2, response.getItems().size());
+        assertNotNull(response.getNextCursor());
+        verify(archiveRepository, never()).findOrders(any(), any(), anyInt());
+    }
+
+    @Test
+    void testPage_rangeInsideHotWindow_skipsArchive() {
+        when(orderRepository.findOrders(any(OrderFilter.class), any(), anyInt())).thenReturn(List.of());
+        OrderPageRequest request = page(20);
+        request.setFrom(NOW.minusDays(7));
+
+        orderService.getOrdersPageByUser("user-1", request);
+
+        verify(archiveRepository, never()).findOrders(any(), any(), anyInt());
+    }
+
+    @Test
+    void testPage_reachingPastHotWindow_mergesArchiveInKeysetOrder() {
+        // An old order still PENDING stays hot and interleaves with archived ones
+        when(orderRepository.findOrders(any(OrderFilter.class), any(), anyInt())).thenReturn(List.of(
+                order("hot", NOW.minusDays(1), OrderStatus.PENDING),
+                order("old-pending", NOW.minusDays(50), OrderStatus.PENDING)));
+        when(archiveRepository.findOrders(any(OrderFilter.class), any(), anyInt())).thenReturn(List.of(
+                order("archived-1", NOW.minusDays(40), OrderStatus.DELIVERED),
+                order("archived-2", NOW.minusDays(60), OrderStatus.CANCELLED)));
+
+        OrderPageResponse response = orderService.getOrdersPageByUser("user-1", page(3));
+
+        assertEquals(List.of("hot", "archived-1", "old-pending"),
+                response.getItems().stream().map(OrderResponse::getId).toList());
+        assertNotNull(response.getNextCursor());
+    }
+
+    @Test
+    void testGetOrderById_fallsBackToArchive() {
+        when(archiveRepository.findById("old")).thenReturn(Optional.of(order("old", NOW.minusDays(400),
+                OrderStatus.DELIVERED)));
+
+        assertTrue(orderService.getOrderById("old").isPresent());
+    }
+
+    @Test
+    void testExportOrders_readsArchiveOnlyOnceHotTierIsDone() {
+        List<String> opened = new ArrayList<>();
+        when(orderRepository.findAllByStatus(eq(OrderStatus.DELIVERED), anyInt())).thenAnswer(invocation -> {
+            opened.add("hot");
+            return Stream.of(order("hot", NOW.minusDays(1), OrderStatus.DELIVERED));
+        });
+        when(archiveRepository.streamAllByStatus(eq(OrderStatus.DELIVERED), anyInt())).thenAnswer(invocation -> {
+            opened.add("archive");
+            return Stream.of(order("archived", NOW.minusDays(400), OrderStatus.DELIVERED));
+        });
+
+        try (Stream<OrderResponse> orders = orderService.exportOrders("delivered")) {
+            assertTrue(opened.isEmpty());
+            assertEquals(List.of("hot", "archived"), orders.map(OrderResponse::getId).toList());
+        }
+        assertEquals(List.of("hot", "archive"), opened);
+    }
+
+    @Test
+    void testExportOrders_skipsArchiveForOpenStatuses() {
+        when(orderRepository.findAllByStatus(eq(OrderStatus.PENDING), anyInt())).thenReturn(Stream.of());
+
+        orderService.exportOrders("PENDING").close();
+
+        verify(archiveRepository, never()).streamAllByStatus(any(), anyInt());
+        assertThrows(IllegalArgumentException.class, () -> orderService.exportOrders("shipped"));
+    }
+
+    @Test
+    void testArchiveBatch_copiesBeforeRemoving() {
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        OrderArchiver archiver = new OrderArchiver(mongoTemplate, archiveRepository, mock(JobLeases.class));
+        ReflectionTestUtils.setField(archiver, "batchSize", 500);
+        List<Order> aged = new ArrayList<>(List.of(order("a", NOW.minusDays(400), OrderStatus.DELIVERED)));
+        when(mongoTemplate.find(any(Query.class), eq(Order.class))).thenReturn(aged);
+        when(mongoTemplate.find(any(Query.class), eq(SellerOrder.class))).thenReturn(List.of());
+
+        assertEquals(1, archiver.archiveBatch(NOW.minusDays(365)));
+
+        InOrder inOrder = inOrder(archiveRepository, mongoTemplate);
+        inOrder.verify(archiveRepository).archive(aged, List.of());
+        inOrder.verify(mongoTemplate).remove(any(Query.class), eq(SellerOrder.class));
+        inOrder.verify(mongoTemplate).remove(any(Query.class), eq(Order.class));
+    }
+
+    @Test
+    void testArchiveAgedOrders_leaseHeldElsewhere_skipped() {
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        JobLeases jobLeases = mock(JobLeases.class);
+        when(jobLeases.tryAcquire(eq(OrderArchiver.ARCHIVE_JOB), any(Duration.class))).thenReturn(false);
+        OrderArchiver archiver = new OrderArchiver(mongoTemplate, archiveRepository, jobLeases);
+        ReflectionTestUtils.setField(archiver, "enabled", true);
+
+        archiver.archiveAgedOrders();
+
+        verify(archiveRepository, never()).ensureIndexes();
+        verify(mongoTemplate, never()).find(any(Query.class), eq(Order.class));
+    }
+}
@@ -0,0 +1,133 @@
+package com.buy01.order.service;
+
+import com.buy01.order.dto.BulkStatusResponse;
+import com.buy01.order.event.OrderLifecycleEvent;
+import com.buy01.order.model.Order;
+import com.buy01.order.model.OrderItem;
+import com.buy01.order.model.OrderStatus;
+import com.buy01.order.repository.OrderArchiveRepository;
+import com.buy01.order.repository.OrderRepository;
+import com.buy01.order.repository.SellerOrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OrderBulkStatusTest {
+
+    private static final String SELLER_ID = "seller-1";
+
+    private final List<OrderLifecycleEvent> events = new ArrayList<>();
+    private OrderRepository orderRepository;
+    private OutboxService outboxService;
+    private OrderEventPublisher orderEventPublisher;
+    private OrderUpdatePublisher orderUpdatePublisher;
+    private OrderService orderService;
+
+    @BeforeEach
+    void setUp() {
+        orderRepository = mock(OrderRepository.class);
+        outboxService = mock(OutboxService.class);
+        doAnswer(invocation -> {
+            ((Runnable) invocation.getArgument(0)).run();
+            return null;
+        }).when(outboxService).batch(any(Runnable.class));
+
+        orderEventPublisher = mock(OrderEventPublisher.class);
+        orderUpdatePublisher = mock(OrderUpdatePublisher.class);
+
+        ApplicationEventPublisher publisher = event -> events.add((OrderLifecycleEvent) event);
+        orderService = new OrderService(orderRepository, mock(SellerOrderRepository.class),
+                mock(OrderArchiveRepository.class),
+                mock(SellerStatsService.class), mock(OrderAnalyticsService.class),
+                mock(UserOrderSummaryService.class),
+                mock(OrderWriteBatcher.class), mock(ProductNearCache.class), outboxService,
+                orderEventPublisher, orderUpdatePublisher, publisher);
+    }
+
+    private static Order order(String id, String sellerId, OrderStatus status) {
+        Order order = new Order();
+        order.setId(id);
+        order.setUserId("user-1");
+        order.setStatus(status);
+        order.setItems(List.of(new OrderItem("product-" + id, "Product", sellerId, 10.0, 1)));
+        order.setCreatedAt(LocalDateTime.now());
+        return order;
+    }
+
+    @Test
+    void testBulkUpdate_reportsOneOutcomePerOrder() {
+        when(orderRepository.findAllById(any())).thenReturn(List.of(
+                order("ok", SELLER_ID, OrderStatus.PENDING),
+                order("other-seller", "seller-2", OrderStatus.PENDING),
+                order("delivered", SELLER_ID, OrderStatus.DELIVERED),
+                order("raced", SELLER_ID, OrderStatus.PENDING)));
+        when(orderRepository.transitionStatuses(anyMap(), eq(OrderStatus.CONFIRMED), any(LocalDateTime.class)))
+                .thenReturn(Set.of("ok"));
+        when(orderRepository.findById("raced")).thenReturn(Optional.of(order("raced", SELLER_ID, OrderStatus.CANCELLED)));
+
+        BulkStatusResponse response = orderService.bulkUpdateOrderStatus(
+                List.of("ok", "missing", "other-seller", "delivered", "raced", "ok"), OrderStatus.CONFIRMED, SELLER_ID);
+
+        Map<String, BulkStatusResponse.Outcome> outcomes = response.getResults().stream()
+                .collect(Collectors.toMap(BulkStatusResponse.Result::getOrderId, BulkStatusResponse.Result::getOutcome));
+        assertEquals(5, response.getResults().size());
+        assertEquals(1, response.getUpdated());
+        assertEquals(BulkStatusResponse.Outcome.UPDATED, outcomes.get("ok"));
+        assertEquals(BulkStatusResponse.Outcome.NOT_FOUND, outcomes.get("missing"));
+        assertEquals(BulkStatusResponse.Outcome.FORBIDDEN, outcomes.get("other-seller"));
+        assertEquals(BulkStatusResponse.Outcome.CONFLICT, outcomes.get("delivered"));
+        assertEquals(BulkStatusResponse.Outcome.CONFLICT, outcomes.get("raced"));
+        assertEquals("ok", response.getResults().get(0).getOrderId());
+
+        // Only the order actually moved produces an event, and only candidates reach the bulkWrite
+        assertEquals(1, events.size());
+        assertEquals(OrderStatus.PENDING, events.get(0).getPreviousStatus());
+        assertEquals(OrderStatus.CONFIRMED, events.get(0).getOrder().getStatus());
+        verify(orderRepository).transitionStatuses(
+                eq(Map.of("ok", OrderStatus.PENDING, "raced", OrderStatus.PENDING)),
+                eq(OrderStatus.CONFIRMED), any(LocalDateTime.class));
+        verify(outboxService, times(1)).batch(any(Runnable.class));
+        verify(orderEventPublisher).publish(events.get(0));
+        verify(orderUpdatePublisher).publish(events.get(0));
+    }
+
+    @Test
+    void testBulkUpdate_adminBypassesOwnership() {
+        when(orderRepository.findAllById(any())).thenReturn(List.of(order("a", "seller-2", OrderStatus.CONFIRMED)));
+        when(orderRepository.transitionStatuses(anyMap(), eq(OrderStatus.DELIVERED), any(LocalDateTime.class)))
+                .thenReturn(Set.of("a"));
+
+        BulkStatusResponse response = orderService.bulkUpdateOrderStatus(List.of("a"), OrderStatus.DELIVERED, null);
+
+        assertEquals(BulkStatusResponse.Outcome.UPDATED, response.getResults().get(0).getOutcome());
+    }
+
+    @Test
+    void testBulkUpdate_rejectsOversizedRequests() {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i <= 500; i++) {
+            ids.add("order-" + i);
+        }
+        assertThrows(IllegalArgumentException.class,
+                () -> orderService.bulkUpdateOrderStatus(ids, OrderStatus.CONFIRMED, SELLER_ID));
+    }
+}
@@ -0,0 +1,158 @@
+package com.buy01.order.service;
+
+import com.buy01.order.model.Order;
+import com.buy01.order.model.OrderItem;
+import com.buy01.order.model.OrderStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Seller and marketplace stats over in-memory orders: Java streams over the
+ * materialized Order objects (the aggregation SellerStatsService.rebuildAll
+ * runs) vs the OrderColumns scans. Reports time and bytes allocated per call,
+ * after a warm-up.
+ *
+ * mvn test -Dtest=OrderColumnsBenchmark -Dbenchmark.order-columns=true
+ * [-Dbenchmark.sizes=10000,100000,1000000] [-Dbenchmark.sellers=500] [-Dbenchmark.products=20000]
+ */
+@EnabledIfSystemProperty(named = "benchmark.order-columns", matches = "true")
+class OrderColumnsBenchmark {
+
+    private static final int TOP = 5;
+    private static final int SELLERS = Integer.getInteger("benchmark.sellers", 500);
+    private static final int PRODUCTS = Integer.getInteger("benchmark.products", 20_000);
+
+    @Test
+    void benchmarkStats() {
+        int[] sizes = Arrays.stream(System.getProperty("benchmark.sizes", "10000,100000,1000000").split(","))
+                .mapToInt(s -> Integer.parseInt(s.trim()))
+                .toArray();
+
+        System.out.printf("%-10s %-8s %14s %14s %14s %14s%n",
+                "orders", "query", "streams-us", "columns-us", "streams-bytes", "columns-bytes");
+        for (int size : sizes) {
+            List<Order> orders = generate(size);
+            OrderColumns columns = new OrderColumns();
+            orders.forEach(columns::append);
+
+            assertEquals(streamSellerStats(orders, "seller-7").get("totalOrders"),
+                    columns.sellerStats("seller-7", TOP).get("totalOrders"));
+            report(size, "seller", () -> streamSellerStats(orders, "seller-7"),
+                    () -> columns.sellerStats("seller-7", TOP));
+            report(size, "global", () -> streamGlobalStats(orders), () -> columns.globalStats(TOP));
+        }
+    }
+
+    private static void report(int size, String query, Supplier<Object> streams, Supplier<Object> columns) {
+        Measure s = measure(streams);
+        Measure c = measure(columns);
+        System.out.printf("%-10d %-8s %14.1f %14.1f %14d %14d%n", size, query, s.micros, c.micros, s.bytes, c.bytes);
+    }
+
+    private record Measure(double micros, long bytes) {
+    }
+
+    private static Measure measure(Supplier<Object> call) {
+        for (int i = 0; i < 20; i++) {
+            call.get();
+        }
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        int runs = 30;
+        long allocated = threads.getThreadAllocatedBytes(thread);
+        long start = System.nanoTime();
+        for (int i = 0; i < runs; i++) {
+            call.get();
+        }
+        long elapsed = System.nanoTime() - start;
+        allocated = threads.getThreadAllocatedBytes(thread) - allocated;
+        // the parallel global scan also allocates in fork-join workers, not counted here
+        return new Measure(elapsed / 1_000.0 / runs, allocated / runs);
+    }
+
+    private static List<Order> generate(int size) {
+        Random random = new Random(42);
+        OrderStatus[] statuses = OrderStatus.values();
+        List<Order> orders = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            List<OrderItem> items = new ArrayList<>();
+            int itemCount = 1 + random.nextInt(4);
+            for (int j = 0; j < itemCount; j++) {
+                int product = random.nextInt(PRODUCTS);
+                items.add(new OrderItem("product-" + product, "Product " + product, "seller-" + product % SELLERS,
+                        1 + random.nextInt(20_000) / 100.0, 1 + random.nextInt(3)));
+            }
+            Order order = new Order();
+            order.setId("order-" + i);
+            order.setStatus(statuses[random.nextInt(statuses.length)]);
+            order.setItems(items);
+            orders.add(order);
+        }
+        return orders;
+    }
+
+    // ─────────────────────────────────────────────────────
+    // Stream baseline
+    // ─────────────────────────────────────────────────────
+
+    private static boolean isEarning(OrderStatus status) {
+        return status == OrderStatus.CONFIRMED || status == OrderStatus.DELIVERED;
+    }
+
+    private static Map<String, Object> streamSellerStats(List<Order> orders, String sellerId) {
+        List<Order> mine = orders.stream()
+                .filter(order -> order.itemsBySeller().containsKey(sellerId))
+                .toList();
+        List<OrderItem> items = mine.stream()
+                .flatMap(order -> order.itemsBySeller().get(sellerId).stream())
+                .toList();
+        return stats(mine, items, mine.stream()
+                .filter(order -> isEarning(order.getStatus()))
+                .flatMap(order -> order.itemsBySeller().get(sellerId).stream())
+                .mapToDouble(OrderItem::subtotal)
+                .sum());
+    }
+
+    private static Map<String, Object> streamGlobalStats(List<Order> orders) {
+        List<OrderItem> items = orders.stream().flatMap(order -> order.getItems().stream()).toList();
+        return stats(orders, items, orders.stream()
+                .filter(order -> isEarning(order.getStatus()))
+                .flatMap(order -> order.getItems().stream())
+                .mapToDouble(OrderItem::subtotal)
+                .sum());
+    }
+
+    private static Map<String, Object> stats(List<Order> orders, List<OrderItem> items, double earned) {
+        Map<OrderStatus, Long> byStatus = orders.stream()
+                .collect(Collectors.groupingBy(Order::getStatus, Collectors.counting()));
+        List<Map<String, Object>> top = items.stream()
+                .collect(Collectors.groupingBy(OrderItem::getProductId))
+                .values().stream()
+                .map(sold -> Map.<String, Object>of(
+                        "name", sold.get(0).getProductName(),
+                        "quantity", sold.stream().mapToLong(OrderItem::getQuantity).sum(),
+                        "revenue", (long) sold.stream().mapToDouble(OrderItem::subtotal).sum()))
+                .sorted((a, b) -> Long.compare((long) b.get("quantity"), (long) a.get("quantity")))
+                .limit(TOP)
+                .collect(Collectors.toList());
+        return Map.of(
+                "totalEarned", earned,
+                "totalOrders", (long) orders.size(),
+                "pendingOrders", byStatus.getOrDefault(OrderStatus.PENDING, 0L),
+                "confirmedOrders", byStatus.getOrDefault(OrderStatus.CONFIRMED, 0L),
+                "deliveredOrders", byStatus.getOrDefault(OrderStatus.DELIVERED, 0L),
+                "cancelledOrders", byStatus.getOrDefault(OrderStatus.CANCELLED, 0L),
+                "topProducts", top);
+    }
+}
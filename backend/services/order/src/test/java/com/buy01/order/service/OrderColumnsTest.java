@@ -0,0 +1,96 @@
+package com.buy01.order.service;
+
+import com.buy01.order.model.Order;
+import com.buy01.order.model.OrderItem;
+import com.buy01.order.model.OrderStatus;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class OrderColumnsTest {
+
+    static Order order(String id, OrderStatus status, OrderItem... items) {
+        Order order = new Order();
+        order.setId(id);
+        order.setUserId("user-1");
+        order.setStatus(status);
+        order.setItems(List.of(items));
+        return order;
+    }
+
+    static OrderItem item(String productId, String sellerId, double price, int quantity) {
+        return new OrderItem(productId, "Product " + productId, sellerId, price, quantity);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> topProducts(Map<String, Object> stats) {
+        return (List<Map<String, Object>>) stats.get("topProducts");
+    }
+
+    @Test
+    void testSellerStats_countsEachOrderOncePerSeller() {
+        OrderColumns columns = new OrderColumns();
+        columns.append(order("o1", OrderStatus.CONFIRMED,
+                item("p1", "s1", 10.0, 2), item("p2", "s2", 99.0, 1), item("p3", "s1", 5.5, 1)));
+        columns.append(order("o2", OrderStatus.PENDING, item("p1", "s1", 10.0, 3)));
+        columns.append(order("o3", OrderStatus.DELIVERED, item("p3", "s1", 5.5, 2)));
+
+        Map<String, Object> stats = columns.sellerStats("s1", 2);
+
+        assertEquals(3L, stats.get("totalOrders"));
+        assertEquals(1L, stats.get("pendingOrders"));
+        assertEquals(1L, stats.get("confirmedOrders"));
+        assertEquals(1L, stats.get("deliveredOrders"));
+        // PENDING orders do not earn yet
+        assertEquals(36.5, (double) stats.get("totalEarned"), 1e-9);
+        assertEquals(List.of("Product p1", "Product p3"),
+                topProducts(stats).stream().map(p -> p.get("name")).toList());
+        assertEquals(5L, topProducts(stats).get(0).get("quantity"));
+        assertEquals(0L, columns.sellerStats("unknown", 5).get("totalOrders"));
+    }
+
+    @Test
+    void testStatusChangeAndDelete_onlyTouchTheStatusColumn() {
+        OrderColumns columns = new OrderColumns();
+        columns.append(order("o1", OrderStatus.PENDING, item("p1", "s1", 10.0, 1)));
+        columns.append(order("o2", OrderStatus.PENDING, item("p1", "s1", 10.0, 1)));
+
+        columns.setStatus("o1", OrderStatus.DELIVERED);
+        columns.delete("o2");
+        // appending a known order again is a status update, not a second copy
+        columns.append(order("o1", OrderStatus.DELIVERED, item("p1", "s1", 10.0, 1)));
+
+        Map<String, Object> stats = columns.sellerStats("s1", 5);
+        assertEquals(1L, stats.get("totalOrders"));
+        assertEquals(1L, stats.get("deliveredOrders"));
+        assertEquals(10.0, (double) stats.get("totalEarned"), 1e-9);
+        assertEquals(2, columns.lineCount());
+    }
+
+    @Test
+    void testGlobalStats_parallelScanMatchesSellerTotals() {
+        OrderColumns columns = new OrderColumns();
+        List<String> sellers = List.of("s1", "s2", "s3");
+        for (int i = 0; i < 40_000; i++) {
+            columns.append(order("o" + i, OrderStatus.values()[i % 4],
+                    item("p" + (i % 50), sellers.get(i % 3), 1.25, 1 + i % 3),
+                    item("p" + (i % 7), sellers.get((i + 1) % 3), 2.0, 1)));
+        }
+
+        // 80 000 items: above the threshold of the fork-join scan
+        Map<String, Object> global = columns.globalStats(5);
+
+        double earned = 0;
+        for (String seller : sellers) {
+            earned += (double) columns.sellerStats(seller, 5).get("totalEarned");
+        }
+        assertEquals(40_000L, global.get("totalOrders"));
+        assertEquals(10_000L, global.get("cancelledOrders"));
+        assertEquals(earned, (double) global.get("totalEarned"), 1e-6);
+        assertEquals(3, global.get("sellers"));
+        assertEquals(5, topProducts(global).size());
+    }
+}
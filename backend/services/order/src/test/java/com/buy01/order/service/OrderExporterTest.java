@@ -0,0 +1,123 @@
+package com.buy01.order.service;
+
+import com.buy01.order.dto.OrderResponse;
+import com.buy01.order.dto.SellerOrderView;
+import com.buy01.order.model.OrderItem;
+import com.buy01.order.model.OrderStatus;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OrderExporterTest {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2025, 3, 1, 10, 30);
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private final OrderExporter exporter = new OrderExporter(objectMapper);
+
+    private static OrderResponse order(String id, OrderItem... items) {
+        return new OrderResponse(id, "user-1", List.of(items), OrderStatus.DELIVERED, 0.0, "pay_on_delivery",
+                CREATED_AT, CREATED_AT);
+    }
+
+    @Test
+    void testNdjson_oneOrderPerLine_streamClosed() throws IOException {
+        AtomicBoolean closed = new AtomicBoolean();
+        Stream<OrderResponse> orders = Stream.of(
+                order("o1", new OrderItem("p1", "Mug", "s1", 5.0, 2)),
+                order("o2", new OrderItem("p2", "Plate", "s1", 3.0, 1)))
+                .onClose(() -> closed.set(true));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exporter.writeOrders(orders, OrderExporter.Format.NDJSON, false, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertEquals("o1", first.get("id").asText());
+        assertEquals("2025-03-01T10:30:00", first.get("createdAt").asText());
+        assertTrue(out.toString(StandardCharsets.UTF_8).endsWith("\n"));
+        assertTrue(closed.get());
+    }
+
+    @Test
+    void testCsv_oneRowPerItem_escaped() throws IOException {
+        SellerOrderView view = new SellerOrderView("o1", "user-1", List.of(
+                new OrderItem("p1", "Mug, \"large\"", "s1", 5.0, 2),
+                new OrderItem("p2", "=HYPERLINK(\"x\")", "s1", 1.5, 1)),
+                11.5, OrderStatus.CONFIRMED, "pay_on_delivery", CREATED_AT, CREATED_AT);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exporter.writeSellerOrders(Stream.of(view), OrderExporter.Format.CSV, false, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].startsWith("orderId,createdAt,status"));
+        assertEquals("o1,2025-03-01T10:30,CONFIRMED,pay_on_delivery,user-1,p1,\"Mug, \"\"large\"\"\",s1,5.0,2,10.0",
+                lines[1]);
+        assertTrue(lines[2].contains(",\"'=HYPERLINK(\"\"x\"\")\","), lines[2]);
+    }
+
+    @Test
+    void testCsv_leadingTabOrCarriageReturnNeutralized() throws IOException {
+        SellerOrderView view = new SellerOrderView("o1", "user-1", List.of(
+                new OrderItem("p1", "\t=1+1", "s1", 1.0, 1),
+                new OrderItem("p2", "\r=cmd", "s1", 1.0, 1)),
+                2.0, OrderStatus.PENDING, "pay_on_delivery", CREATED_AT, CREATED_AT);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exporter.writeSellerOrders(Stream.of(view), OrderExporter.Format.CSV, false, out);
+
+        String csv = out.toString(StandardCharsets.UTF_8);
+        assertTrue(csv.contains(",'\t=1+1,"), csv);
+        assertTrue(csv.contains(",\"'\r=cmd\","), csv);
+    }
+
+    @Test
+    void testCsv_everyFreeTextColumnNeutralized() throws IOException {
+        OrderResponse order = new OrderResponse("o1", "@user", List.of(new OrderItem("-p1", "Mug", "+s1", 5.0, 1)),
+                OrderStatus.PENDING, 5.0, "=cmd|' /C calc'!A0", CREATED_AT, CREATED_AT);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exporter.writeOrders(Stream.of(order), OrderExporter.Format.CSV, false, out);
+
+        String row = out.toString(StandardCharsets.UTF_8).split("\n")[1];
+        assertEquals("o1,2025-03-01T10:30,PENDING,'=cmd|' /C calc'!A0,'@user,'-p1,Mug,'+s1,5.0,1,5.0", row);
+    }
+
+    @Test
+    void testGzip_decompressesToThePlainExport() throws IOException {
+        ByteArrayOutputStream plain = new ByteArrayOutputStream();
+        exporter.writeOrders(Stream.of(order("o1", new OrderItem("p1", "Mug", "s1", 5.0, 2))),
+                OrderExporter.Format.CSV, false, plain);
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        exporter.writeOrders(Stream.of(order("o1", new OrderItem("p1", "Mug", "s1", 5.0, 2))),
+                OrderExporter.Format.CSV, true, compressed);
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed.toByteArray()))) {
+            assertEquals(plain.toString(StandardCharsets.UTF_8), new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void testFormat_parse() {
+        assertEquals(OrderExporter.Format.CSV, OrderExporter.Format.parse("csv"));
+        assertThrows(IllegalArgumentException.class, () -> OrderExporter.Format.parse("xml"));
+    }
+}
@@ -0,0 +1,192 @@
+package com.buy01.order.service;
+
+import com.buy01.order.dto.OrderIntakeResponse;
+import com.buy01.order.dto.OrderItemDto;
+import com.buy01.order.dto.OrderRequest;
+import com.buy01.order.model.OrderIntake;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OrderIntakeServiceTest {
+
+    private MongoTemplate mongoTemplate;
+    private OrderService orderService;
+    private OrderIntakeService intakeService;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = mock(MongoTemplate.class);
+        orderService = mock(OrderService.class);
+        intakeService = new OrderIntakeService(mongoTemplate, orderService,
+                new IdempotencyService(mongoTemplate, new ObjectMapper(), orderService));
+        ReflectionTestUtils.setField(intakeService, "mode", "optional");
+        ReflectionTestUtils.setField(intakeService, "batchSize", 10);
+        ReflectionTestUtils.setField(intakeService, "maxAttempts", 2);
+        ReflectionTestUtils.setField(intakeService, "retentionHours", 24L);
+    }
+
+    private void queue(OrderIntake intake) {
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(OrderIntake.class))).thenReturn(intake, (OrderIntake) null);
+    }
+
+    private static OrderIntake claimed(int attempts) {
+        return new OrderIntake("t1", "u1", new OrderRequest(), OrderIntake.Status.PROCESSING, null, null, attempts,
+                null,
+                LocalDateTime.now(), LocalDateTime.now(), LocalDateTime.now(), null);
+    }
+
+    private Document lastSet() {
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).updateFirst(any(Query.class), update.capture(), eq(OrderIntake.class));
+        return update.getValue().getUpdateObject().get("$set", Document.class);
+    }
+
+    @Test
+    void testOptionalMode_followsPreferHeader() {
+        assertTrue(intakeService.isAsync("respond-async, wait=5"));
+        assertFalse(intakeService.isAsync(null));
+    }
+
+    private static OrderRequest basket(int quantity) {
+        return new OrderRequest(List.of(new OrderItemDto("p1", "Desk lamp", "s1", 40.0, quantity)),
+                "pay_on_delivery");
+    }
+
+    @Test
+    void testEnqueue_invalidBasket_isRejectedBeforeQueuing() {
+        OrderRequest request = basket(9);
+        doThrow(new BasketValidationException(List.of(Map.of("productId", "p1", "reason", "INSUFFICIENT_STOCK"))))
+                .when(orderService).validateBasket(request);
+
+        assertThrows(BasketValidationException.class, () -> intakeService.enqueue("u1", request, null));
+        verify(mongoTemplate, never()).insert(any(OrderIntake.class));
+    }
+
+    @Test
+    void testEnqueue_productCacheLoading_leavesValidationToTheWorker() {
+        OrderRequest request = basket(1);
+        doThrow(new ProductCacheUnavailableException()).when(orderService).validateBasket(request);
+        when(mongoTemplate.insert(any(OrderIntake.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        assertEquals(OrderIntake.Status.QUEUED, intakeService.enqueue("u1", request, null).getStatus());
+    }
+
+    @Test
+    void testEnqueue_idempotencyKey_replaysSameRequestAndRejectsAnother() {
+        when(mongoTemplate.insert(any(OrderIntake.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        OrderIntakeResponse first = intakeService.enqueue("u1", basket(1), "k1");
+        ArgumentCaptor<OrderIntake> stored = ArgumentCaptor.forClass(OrderIntake.class);
+        verify(mongoTemplate).insert(stored.capture());
+        when(mongoTemplate.findOne(any(Query.class), eq(OrderIntake.class))).thenReturn(stored.getValue());
+
+        assertEquals(first.getTrackingId(), intakeService.enqueue("u1", basket(1), "k1").getTrackingId());
+        IdempotencyKeyException mismatch = assertThrows(IdempotencyKeyException.class,
+                () -> intakeService.enqueue("u1", basket(2), "k1"));
+        assertEquals(IdempotencyKeyException.Reason.PAYLOAD_MISMATCH, mismatch.getReason());
+        verify(mongoTemplate, times(1)).insert(any(OrderIntake.class));
+    }
+
+    @Test
+    void testDrain_invalidBasket_failsWithoutRetry() {
+        OrderIntake intake = claimed(1);
+        queue(intake);
+        when(orderService.materializeOrder("t1", "u1", intake.getRequest()))
+                .thenThrow(new BasketValidationException(List.of(Map.of("productId", "p1", "reason", "NOT_FOUND"))));
+
+        intakeService.drain();
+
+        assertEquals(OrderIntake.Status.FAILED, lastSet().get("status"));
+    }
+
+    @Test
+    void testDrain_materializesUnderTheTrackingId() {
+        OrderIntake intake = claimed(1);
+        queue(intake);
+
+        intakeService.drain();
+
+        verify(orderService).materializeOrder("t1", "u1", intake.getRequest());
+        assertEquals(OrderIntake.Status.DONE, lastSet().get("status"));
+    }
+
+    @Test
+    void testDrain_orderAlreadyMaterialized_isDone() {
+        OrderIntake intake = claimed(2);
+        queue(intake);
+        when(orderService.materializeOrder("t1", "u1", intake.getRequest()))
+                .thenThrow(new DuplicateKeyException("E11000"));
+
+        intakeService.drain();
+
+        assertEquals(OrderIntake.Status.DONE, lastSet().get("status"));
+    }
+
+    @Test
+    void testDrain_failureIsRequeuedThenFailed() {
+        OrderIntake intake = claimed(1);
+        queue(intake);
+        when(orderService.materializeOrder("t1", "u1", intake.getRequest()))
+                .thenThrow(new IllegalStateException("mongo down"));
+
+        intakeService.drain();
+
+        assertEquals(OrderIntake.Status.QUEUED, lastSet().get("status"));
+
+        setUp();
+        OrderIntake lastAttempt = claimed(2);
+        queue(lastAttempt);
+        when(orderService.materializeOrder("t1", "u1", lastAttempt.getRequest()))
+                .thenThrow(new IllegalStateException("mongo down"));
+
+        intakeService.drain();
+
+        assertEquals(OrderIntake.Status.FAILED, lastSet().get("status"));
+    }
+
+    @Test
+    void testDrain_productCacheLoading_requeuesWithoutSpendingAnAttempt() {
+        OrderIntake intake = claimed(2);
+        // a second intake is queued behind, but draining pauses until the next tick
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(OrderIntake.class))).thenReturn(intake, claimed(1));
+        when(orderService.materializeOrder("t1", "u1", intake.getRequest()))
+                .thenThrow(new ProductCacheUnavailableException());
+
+        intakeService.drain();
+
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).updateFirst(any(Query.class), update.capture(), eq(OrderIntake.class));
+        assertEquals(OrderIntake.Status.QUEUED, update.getValue().getUpdateObject().get("$set", Document.class)
+                .get("status"));
+        assertEquals(-1, update.getValue().getUpdateObject().get("$inc", Document.class).get("attempts"));
+        verify(mongoTemplate, times(1)).findAndModify(any(Query.class), any(Update.class),
+                any(FindAndModifyOptions.class), eq(OrderIntake.class));
+    }
+}
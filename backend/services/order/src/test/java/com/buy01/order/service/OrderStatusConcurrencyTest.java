@@ -0,0 +1,179 @@
+package com.buy01.order.service;
+
+import com.buy01.order.event.OrderLifecycleEvent;
+import com.buy01.order.model.Order;
+import com.buy01.order.model.OrderItem;
+import com.buy01.order.model.OrderStatus;
+import com.buy01.order.repository.OrderArchiveRepository;
+import com.buy01.order.repository.OrderRepository;
+import com.buy01.order.repository.SellerOrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Races status updates through OrderService against a repository stand-in
+ * whose transitionStatus has the same compare-and-set semantics as the Mongo
+ * findAndModify: exactly one racer may win, the others must get a conflict.
+ */
+class OrderStatusConcurrencyTest {
+
+    private static final String ORDER_ID = "order-1";
+    private static final String USER_ID = "user-1";
+    private static final int RACERS = 16;
+
+    private final List<OrderLifecycleEvent> events = Collections.synchronizedList(new ArrayList<>());
+    private Order stored;
+    private OrderService orderService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        stored = order(OrderStatus.CONFIRMED);
+        OrderRepository orderRepository = mock(OrderRepository.class);
+        when(orderRepository.transitionStatus(anyString(), any(), any(Set.class), any(OrderStatus.class),
+                any(LocalDateTime.class))).thenAnswer(invocation -> compareAndSet(
+                        invocation.getArgument(1), invocation.getArgument(2), invocation.getArgument(3)));
+        when(orderRepository.findById(ORDER_ID)).thenAnswer(invocation -> Optional.of(snapshot()));
+        when(orderRepository.existsById(ORDER_ID)).thenReturn(true);
+
+        SellerOrderRepository sellerOrderRepository = mock(SellerOrderRepository.class);
+        when(sellerOrderRepository.existsById(anyString())).thenReturn(true);
+
+        ApplicationEventPublisher publisher = event -> events.add((OrderLifecycleEvent) event);
+        orderService = new OrderService(orderRepository, sellerOrderRepository, mock(OrderArchiveRepository.class),
+                mock(SellerStatsService.class), mock(OrderAnalyticsService.class),
+                mock(UserOrderSummaryService.class),
+                mock(OrderWriteBatcher.class), mock(ProductNearCache.class), mock(OutboxService.class),
+                mock(OrderEventPublisher.class), mock(OrderUpdatePublisher.class), publisher);
+    }
+
+    private synchronized Order compareAndSet(String userId, Set<OrderStatus> from, OrderStatus to) {
+        if (!from.contains(stored.getStatus()) || (userId != null && !userId.equals(stored.getUserId()))) {
+            return null;
+        }
+        Order previous = snapshot();
+        stored.setStatus(to);
+        return previous;
+    }
+
+    private synchronized Order snapshot() {
+        Order copy = order(stored.getStatus());
+        copy.setUpdatedAt(stored.getUpdatedAt());
+        return copy;
+    }
+
+    private static Order order(OrderStatus status) {
+        Order order = new Order();
+        order.setId(ORDER_ID);
+        order.setUserId(USER_ID);
+        order.setItems(List.of(new OrderItem("p1", "Lamp", "seller-1", 10.0, 2)));
+        order.setStatus(status);
+        order.setTotalAmount(20.0);
+        return order;
+    }
+
+    /** Starts every task at the same time and counts successes / conflicts. */
+    private int[] race(List<Callable<?>> tasks) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(tasks.size());
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger won = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (Callable<?> task : tasks) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    try {
+                        task.call();
+                        won.incrementAndGet();
+                    } catch (OrderStatusConflictException e) {
+                        conflicts.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        return new int[] { won.get(), conflicts.get() };
+    }
+
+    @RepeatedTest(20)
+    void testConcurrentDeliveries_onlyOneWins() throws Exception {
+        List<Callable<?>> tasks = new ArrayList<>();
+        for (int i = 0; i < RACERS; i++) {
+            tasks.add(() -> orderService.updateOrderStatus(ORDER_ID, OrderStatus.DELIVERED, null));
+        }
+
+        int[] outcome = race(tasks);
+
+        assertEquals(1, outcome[0]);
+        assertEquals(RACERS - 1, outcome[1]);
+        // A single STATUS_CHANGED → a single ORDER_DELIVERED → stock decremented once
+        assertEquals(1, events.size());
+        assertEquals(OrderStatus.CONFIRMED, events.get(0).getPreviousStatus());
+        assertEquals(OrderStatus.DELIVERED, stored.getStatus());
+    }
+
+    @RepeatedTest(20)
+    void testCancelRacingDelivery_neverOverwritesTheWinner() throws Exception {
+        List<Callable<?>> tasks = new ArrayList<>();
+        for (int i = 0; i < RACERS / 2; i++) {
+            tasks.add(() -> orderService.updateOrderStatus(ORDER_ID, OrderStatus.DELIVERED, null));
+            tasks.add(() -> orderService.cancelOrder(ORDER_ID, USER_ID));
+        }
+
+        int[] outcome = race(tasks);
+
+        assertEquals(1, outcome[0]);
+        assertEquals(RACERS - 1, outcome[1]);
+        assertEquals(1, events.size());
+        assertEquals(events.get(0).getOrder().getStatus(), stored.getStatus());
+        assertTrue(stored.getStatus() == OrderStatus.DELIVERED || stored.getStatus() == OrderStatus.CANCELLED);
+    }
+
+    @Test
+    void testInvalidTransition_isAConflict() {
+        stored.setStatus(OrderStatus.PENDING);
+
+        OrderStatusConflictException e = assertThrows(OrderStatusConflictException.class,
+                () -> orderService.updateOrderStatus(ORDER_ID, OrderStatus.DELIVERED, null));
+
+        assertEquals(OrderStatus.PENDING, e.getCurrentStatus());
+        assertTrue(events.isEmpty());
+    }
+
+    @Test
+    void testCancelByAnotherUser_isForbidden() {
+        assertThrows(SecurityException.class, () -> orderService.cancelOrder(ORDER_ID, "someone-else"));
+        assertEquals(OrderStatus.CONFIRMED, stored.getStatus());
+    }
+}
@@ -0,0 +1,132 @@
+package com.buy01.order.service;
+
+import com.buy01.order.dto.OrderUpdate;
+import com.buy01.order.event.OrderLifecycleEvent;
+import com.buy01.order.model.OrderStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OrderStreamServiceTest {
+
+    /** Records the serialized events instead of writing to a response. */
+    private static class RecordingEmitter extends SseEmitter {
+        final List<String> sent = new ArrayList<>();
+        boolean broken;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (broken) {
+                throw new IOException("Broken pipe");
+            }
+            sent.add(builder.build().stream().map(data -> String.valueOf(data.getData())).collect(Collectors.joining()));
+        }
+
+        long count(String eventName) {
+            return sent.stream().filter(s -> s.contains("event:" + eventName + "\n")).count();
+        }
+    }
+
+    private static OrderUpdate update(String orderId, String userId, String... sellerIds) {
+        return new OrderUpdate(OrderLifecycleEvent.Type.STATUS_CHANGED, orderId, userId, List.of(sellerIds),
+                OrderStatus.CONFIRMED, OrderStatus.PENDING, 10.0, LocalDateTime.now());
+    }
+
+    @Test
+    void testDispatch_reachesBuyerAndSellersOnly() {
+        OrderStreamService service = new OrderStreamService(8, 5, 0, 10_000, Runnable::run);
+        RecordingEmitter buyer = new RecordingEmitter();
+        RecordingEmitter seller = new RecordingEmitter();
+        RecordingEmitter otherSeller = new RecordingEmitter();
+        service.register(OrderStreamService.userKey("u1"), buyer);
+        service.register(OrderStreamService.sellerKey("s1"), seller);
+        service.register(OrderStreamService.sellerKey("s2"), otherSeller);
+
+        service.dispatch(update("o1", "u1", "s1"));
+
+        assertEquals(1, buyer.count(OrderStreamService.UPDATE_EVENT));
+        assertEquals(1, seller.count(OrderStreamService.UPDATE_EVENT));
+        assertEquals(0, otherSeller.count(OrderStreamService.UPDATE_EVENT));
+    }
+
+    @Test
+    void testSlowClient_overflowCollapsesIntoResync() {
+        Queue<Runnable> pendingSends = new ArrayDeque<>();
+        OrderStreamService service = new OrderStreamService(3, 5, 0, 10_000, pendingSends::add);
+        RecordingEmitter slow = new RecordingEmitter();
+        service.register(OrderStreamService.userKey("u1"), slow);
+
+        // Nothing is sent until the sender runs: the buffer fills up and overflows
+        for (int i = 0; i < 10; i++) {
+            service.dispatch(update("o" + i, "u1"));
+        }
+        pendingSends.forEach(Runnable::run);
+
+        assertEquals(1, slow.count(OrderStreamService.RESYNC_EVENT));
+        assertTrue(slow.count(OrderStreamService.UPDATE_EVENT) < 3);
+    }
+
+    @Test
+    void testBrokenConnection_isDroppedAndHeartbeatsIdleOnes() {
+        OrderStreamService service = new OrderStreamService(8, 5, 0, 10_000, Runnable::run);
+        RecordingEmitter alive = new RecordingEmitter();
+        RecordingEmitter dead = new RecordingEmitter();
+        service.register(OrderStreamService.userKey("u1"), alive);
+        service.register(OrderStreamService.userKey("u1"), dead);
+        dead.broken = true;
+
+        service.heartbeat();
+
+        assertEquals(1, service.connectionCount());
+        assertTrue(alive.sent.stream().anyMatch(s -> s.contains(":heartbeat")));
+    }
+
+    @Test
+    void testWriteStuckPastSendTimeout_isClosedAtHeartbeat() {
+        OrderStreamService service = new OrderStreamService(8, 5, 0, 1, Runnable::run);
+        boolean[] completed = new boolean[1];
+        SseEmitter stuck = new SseEmitter() {
+            @Override
+            public void send(SseEventBuilder builder) {
+                try {
+                    Thread.sleep(5);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                // The heartbeat runs while this write is still blocked
+                service.heartbeat();
+            }
+
+            @Override
+            public void complete() {
+                completed[0] = true;
+            }
+        };
+
+        service.register(OrderStreamService.userKey("u1"), stuck);
+
+        assertTrue(completed[0]);
+        assertEquals(0, service.connectionCount());
+    }
+
+    @Test
+    void testRegister_limitsConnectionsPerKey() {
+        OrderStreamService service = new OrderStreamService(8, 2, 0, 10_000, Runnable::run);
+        service.register(OrderStreamService.sellerKey("s1"), new RecordingEmitter());
+        service.register(OrderStreamService.sellerKey("s1"), new RecordingEmitter());
+
+        assertThrows(IllegalStateException.class,
+                () -> service.register(OrderStreamService.sellerKey("s1"), new RecordingEmitter()));
+    }
+}
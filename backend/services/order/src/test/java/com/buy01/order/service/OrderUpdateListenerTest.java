@@ -0,0 +1,52 @@
+package com.buy01.order.service;
+
+import com.buy01.order.repository.OrderRepository;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.longThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class OrderUpdateListenerTest {
+
+    private final OrderUpdateListener listener = new OrderUpdateListener(mock(OrderStreamService.class),
+            mock(OrderAnalyticsService.class), mock(TrendingService.class), mock(CoOccurrenceService.class),
+            mock(OrderRepository.class));
+
+    @Test
+    void testFirstAssignment_seeksToBeforeTheLoads() {
+        TopicPartition p0 = new TopicPartition(OrderUpdatePublisher.TOPIC, 0);
+        TopicPartition p1 = new TopicPartition(OrderUpdatePublisher.TOPIC, 1);
+        ConsumerSeekAware.ConsumerSeekCallback first = mock(ConsumerSeekAware.ConsumerSeekCallback.class);
+        ConsumerSeekAware.ConsumerSeekCallback rebalance = mock(ConsumerSeekAware.ConsumerSeekCallback.class);
+        long jvmStart = ManagementFactory.getRuntimeMXBean().getStartTime();
+
+        listener.onPartitionsAssigned(Map.of(p0, 0L), first);
+        listener.onPartitionsAssigned(Map.of(p0, 5L, p1, 0L), rebalance);
+
+        verify(first).seekToTimestamp(eq(List.of(p0)), longThat(timestamp -> timestamp < jvmStart));
+        // p0 resumes from its committed offset, only the new partition is positioned
+        verify(rebalance).seekToTimestamp(eq(List.of(p1)), anyLong());
+    }
+
+    @Test
+    void testKnownPartitionsOnly_noSeek() {
+        TopicPartition p0 = new TopicPartition(OrderUpdatePublisher.TOPIC, 0);
+        listener.onPartitionsAssigned(Map.of(p0, 0L), mock(ConsumerSeekAware.ConsumerSeekCallback.class));
+        ConsumerSeekAware.ConsumerSeekCallback rebalance = mock(ConsumerSeekAware.ConsumerSeekCallback.class);
+
+        listener.onPartitionsAssigned(Map.of(p0, 5L), rebalance);
+
+        verify(rebalance, never()).seekToTimestamp(anyCollection(), anyLong());
+    }
+}
@@ -0,0 +1,150 @@
+package com.buy01.order.service;
+
+import com.buy01.order.model.Order;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Order insert throughput, one insert per order vs OrderWriteBatcher, against
+ * an in-memory Mongo stand-in: every write pays a network round trip (in
+ * parallel across connections) plus a journal commit serialized on the
+ * server, and each document adds a small apply cost under that same lock.
+ *
+ * mvn test -Dtest=OrderWriteBatcherBenchmark -Dbenchmark.order-batching=true
+ * [-Dbenchmark.clients=1,16,64] [-Dbenchmark.orders=20000]
+ * [-Dbenchmark.rtt-micros=300] [-Dbenchmark.commit-micros=500] [-Dbenchmark.doc-micros=5]
+ */
+@EnabledIfSystemProperty(named = "benchmark.order-batching", matches = "true")
+class OrderWriteBatcherBenchmark {
+
+    private static final long RTT_NANOS = micros("benchmark.rtt-micros", 300);
+    private static final long COMMIT_NANOS = micros("benchmark.commit-micros", 500);
+    private static final long DOC_NANOS = micros("benchmark.doc-micros", 5);
+
+    @Test
+    void benchmarkOrderInserts() throws Exception {
+        int[] clients = Arrays.stream(System.getProperty("benchmark.clients", "1,16,64").split(","))
+                .mapToInt(s -> Integer.parseInt(s.trim()))
+                .toArray();
+        int orders = Integer.getInteger("benchmark.orders", 20_000);
+
+        System.out.printf("%-8s %14s %14s %10s%n", "clients", "direct-ops/s", "batched-ops/s", "speed-up");
+        for (int clientCount : clients) {
+            double direct = run(clientCount, orders, false);
+            double batched = run(clientCount, orders, true);
+            System.out.printf("%-8d %14.0f %14.0f %9.1fx%n", clientCount, direct, batched, batched / direct);
+        }
+    }
+
+    private static double run(int clientCount, int orders, boolean batching) throws Exception {
+        MongoStandIn mongo = new MongoStandIn();
+        OrderWriteBatcher batcher = new OrderWriteBatcher(mongo.template(), batching, 256, 2_000, 4_096, 10_000);
+        batcher.start();
+        ExecutorService executor = Executors.newFixedThreadPool(clientCount);
+        try {
+            int perClient = orders / clientCount;
+            long start = System.nanoTime();
+            List<Future<?>> running = IntStream.range(0, clientCount)
+                    .<Future<?>>mapToObj(c -> executor.submit(() -> {
+                        for (int i = 0; i < perClient; i++) {
+                            Order order = new Order();
+                            order.setUserId("user-" + c);
+                            batcher.insert(order);
+                        }
+                    }))
+                    .toList();
+            for (Future<?> future : running) {
+                future.get();
+            }
+            double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+            assertEquals(perClient * clientCount, mongo.size(), "every order must be stored exactly once");
+            return perClient * clientCount / seconds;
+        } finally {
+            executor.shutdownNow();
+            batcher.stop();
+        }
+    }
+
+    private static long micros(String property, long defaultValue) {
+        return TimeUnit.MICROSECONDS.toNanos(Long.getLong(property, defaultValue));
+    }
+
+    /** Stores orders in a map, charging the latency model described on the class. */
+    private static final class MongoStandIn {
+
+        private final Map<String, Order> orders = new ConcurrentHashMap<>();
+        private final ReentrantLock journal = new ReentrantLock(true);
+
+        MongoTemplate template() {
+            MongoTemplate template = mock(MongoTemplate.class, withSettings().stubOnly());
+            when(template.insert(any(Order.class))).thenAnswer(invocation -> {
+                Order order = invocation.getArgument(0);
+                if (order.getId() == null) {
+                    order.setId(new ObjectId().toHexString());
+                }
+                write(List.of(order));
+                return order;
+            });
+            when(template.bulkOps(BulkOperations.BulkMode.UNORDERED, Order.class)).thenAnswer(invocation -> {
+                BulkOperations bulk = mock(BulkOperations.class, withSettings().stubOnly());
+                List<Order> pending = new ArrayList<>();
+                when(bulk.insert(anyList())).thenAnswer(insert -> {
+                    List<Order> documents = insert.getArgument(0);
+                    pending.addAll(documents);
+                    return bulk;
+                });
+                when(bulk.execute()).thenAnswer(execute -> {
+                    write(pending);
+                    return null;
+                });
+                return bulk;
+            });
+            return template;
+        }
+
+        private void write(List<Order> documents) {
+            LockSupport.parkNanos(RTT_NANOS);
+            journal.lock();
+            try {
+                spin(COMMIT_NANOS + DOC_NANOS * documents.size());
+                documents.forEach(order -> orders.put(order.getId(), order));
+            } finally {
+                journal.unlock();
+            }
+        }
+
+        int size() {
+            return orders.size();
+        }
+
+        private static void spin(long nanos) {
+            long end = System.nanoTime() + nanos;
+            while (System.nanoTime() < end) {
+                Thread.onSpinWait();
+            }
+        }
+    }
+}
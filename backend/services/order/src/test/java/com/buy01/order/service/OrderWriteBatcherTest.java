@@ -0,0 +1,135 @@
+package com.buy01.order.service;
+
+import com.buy01.order.model.Order;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OrderWriteBatcherTest {
+
+    private MongoTemplate mongoTemplate;
+    private BulkOperations bulk;
+    private final List<List<?>> batches = Collections.synchronizedList(new ArrayList<>());
+    private OrderWriteBatcher batcher;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = mock(MongoTemplate.class);
+        bulk = mock(BulkOperations.class);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Order.class)).thenReturn(bulk);
+        when(bulk.insert(anyList())).thenAnswer(invocation -> {
+            batches.add(invocation.getArgument(0));
+            return bulk;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (batcher != null) {
+            batcher.stop();
+        }
+    }
+
+    @Test
+    void testSubmit_groupsOrdersIntoBoundedBatches() {
+        batcher = new OrderWriteBatcher(mongoTemplate, true, 8, 50_000, 100, 10_000);
+        batcher.start();
+
+        List<CompletableFuture<Order>> futures = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            futures.add(batcher.submit(new Order()));
+        }
+        futures.forEach(future -> assertNotNull(future.join().getId()));
+
+        assertEquals(20, batches.stream().mapToInt(List::size).sum());
+        assertTrue(batches.stream().allMatch(batch -> batch.size() <= 8));
+        assertTrue(batches.size() < 20, "orders must share inserts, got " + batches.size() + " batches");
+    }
+
+    @Test
+    void testFlush_duplicateKeyOnlyFailsItsOrder() {
+        batcher = new OrderWriteBatcher(mongoTemplate, true, 8, 2_000, 100, 10_000);
+        MongoBulkWriteException error = new MongoBulkWriteException(BulkWriteResult.unacknowledged(),
+                List.of(new BulkWriteError(11000, "E11000 duplicate key", new BsonDocument(), 1)),
+                null, new ServerAddress(), Set.of());
+        when(bulk.execute()).thenThrow(new BulkOperationException("bulk failed", error));
+
+        List<OrderWriteBatcher.PendingWrite> batch = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            batch.add(new OrderWriteBatcher.PendingWrite(new Order(), new CompletableFuture<>()));
+        }
+        batcher.flush(batch);
+
+        assertSame(batch.get(0).order(), batch.get(0).future().join());
+        CompletionException failure = assertThrows(CompletionException.class, () -> batch.get(1).future().join());
+        assertInstanceOf(DuplicateKeyException.class, failure.getCause());
+        assertSame(batch.get(2).order(), batch.get(2).future().join());
+    }
+
+    @Test
+    void testInsert_whenDisabled_writesDirectly() {
+        batcher = new OrderWriteBatcher(mongoTemplate, false, 8, 2_000, 100, 10_000);
+        batcher.start();
+        Order order = new Order();
+        when(mongoTemplate.insert(order)).thenReturn(order);
+
+        assertSame(order, batcher.insert(order));
+        verify(mongoTemplate, never()).bulkOps(any(BulkOperations.BulkMode.class), eq(Order.class));
+    }
+
+    @Test
+    void testSubmit_stoppedMeanwhile_isStillWritten() {
+        batcher = new OrderWriteBatcher(mongoTemplate, true, 8, 2_000, 100, 10_000);
+        batcher.start();
+        batcher.stop();
+
+        // Queued after stop() drained the queue: flushed by the caller itself
+        Order order = batcher.submit(new Order()).join();
+
+        assertNotNull(order.getId());
+        assertEquals(1, batches.size());
+    }
+
+    @Test
+    void testInsert_batchNotAcknowledged_timesOut() {
+        batcher = new OrderWriteBatcher(mongoTemplate, true, 8, 2_000, 100, 50);
+        when(bulk.execute()).thenAnswer(invocation -> {
+            Thread.sleep(500);
+            return null;
+        });
+        batcher.start();
+
+        assertThrows(QueryTimeoutException.class, () -> batcher.insert(new Order()));
+    }
+}
@@ -0,0 +1,167 @@
+package com.buy01.order.service;
+
+import com.buy01.order.model.OutboxEvent;
+import com.buy01.order.model.OutboxRelayLease;
+import com.buy01.order.model.OutboxRelayed;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OutboxRelayTest {
+
+    private MongoTemplate mongoTemplate;
+    private KafkaTemplate<String, Object> kafkaTemplate;
+    private ProducerFactory<String, Object> producerFactory;
+    private OutboxRelay relay;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        mongoTemplate = mock(MongoTemplate.class);
+        kafkaTemplate = mock(KafkaTemplate.class);
+        producerFactory = mock(ProducerFactory.class);
+        when(kafkaTemplate.getProducerFactory()).thenReturn(producerFactory);
+        relay = new OutboxRelay(mongoTemplate, kafkaTemplate);
+        ReflectionTestUtils.setField(relay, "batchSize", 10);
+        ReflectionTestUtils.setField(relay, "sendTimeoutMs", 1000L);
+    }
+
+    private static OutboxEvent event(String id, String aggregateId) {
+        return new OutboxEvent(id, "order-events", aggregateId, null, "ORDER_DELIVERED", id, LocalDateTime.now());
+    }
+
+    private static OutboxEvent update(String id, String aggregateId, long version) {
+        return new OutboxEvent(id, "order-updates", aggregateId, version, "ORDER_STATUS_CHANGED", id,
+                LocalDateTime.now());
+    }
+
+    private static CompletableFuture<SendResult<String, Object>> acknowledged() {
+        return CompletableFuture.completedFuture(new SendResult<>(null, null));
+    }
+
+    private String removedIds() {
+        ArgumentCaptor<Query> removed = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).remove(removed.capture(), eq(OutboxEvent.class));
+        return removed.getValue().getQueryObject().toJson();
+    }
+
+    @Test
+    void testFailedEvent_holdsBackTheRestOfItsAggregateOnly() {
+        when(mongoTemplate.find(any(Query.class), eq(OutboxEvent.class))).thenReturn(List.of(
+                event("1", "A"), event("2", "B"), event("3", "A")));
+        when(kafkaTemplate.send("order-events", "A", "1"))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")));
+        when(kafkaTemplate.send("order-events", "B", "2")).thenReturn(acknowledged());
+
+        int sent = relay.relayBatch();
+
+        assertEquals(1, sent);
+        // A/3 must not overtake A/1
+        verify(kafkaTemplate, never()).send("order-events", "A", "3");
+        assertTrue(removedIds().contains("\"2\""));
+    }
+
+    @Test
+    void testTimeout_awaitsInFlightSendsAndStartsNoMore() {
+        ReflectionTestUtils.setField(relay, "sendTimeoutMs", 50L);
+        when(mongoTemplate.find(any(Query.class), eq(OutboxEvent.class))).thenReturn(List.of(
+                event("1", "A"), event("2", "B"), event("3", "A")));
+        CompletableFuture<SendResult<String, Object>> slow = new CompletableFuture<>();
+        when(kafkaTemplate.send("order-events", "A", "1")).thenReturn(slow);
+        when(kafkaTemplate.send("order-events", "B", "2")).thenReturn(acknowledged());
+        // acknowledged well after the send timeout
+        CompletableFuture.delayedExecutor(300, TimeUnit.MILLISECONDS)
+                .execute(() -> slow.complete(new SendResult<>(null, null)));
+
+        int sent = relay.relayBatch();
+
+        // A/1 landed late but is still deleted, A/3 waits for the next batch
+        assertEquals(2, sent);
+        verify(kafkaTemplate, never()).send("order-events", "A", "3");
+        String removed = removedIds();
+        assertTrue(removed.contains("\"1\"") && removed.contains("\"2\"") && !removed.contains("\"3\""));
+    }
+
+    @Test
+    void testVersionedEvents_sentInVersionOrderAndStaleOnesDropped() {
+        // B/1 was written by another replica: its _id sorts before B/2 though its version is higher
+        when(mongoTemplate.find(any(Query.class), eq(OutboxEvent.class))).thenReturn(List.of(
+                update("1", "B", 2), update("2", "B", 1), update("3", "A", 1), update("4", "A", 2)));
+        // A went up to version 1 in an earlier batch
+        when(mongoTemplate.find(any(Query.class), eq(OutboxRelayed.class)))
+                .thenReturn(List.of(new OutboxRelayed("order-updates|A", 1, Instant.now())));
+        BulkOperations bulk = mock(BulkOperations.class);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, OutboxRelayed.class)).thenReturn(bulk);
+        when(kafkaTemplate.send(eq("order-updates"), anyString(), any())).thenReturn(acknowledged());
+
+        int sent = relay.relayBatch();
+
+        assertEquals(4, sent);
+        InOrder inOrder = inOrder(kafkaTemplate);
+        inOrder.verify(kafkaTemplate).send("order-updates", "B", "2");
+        inOrder.verify(kafkaTemplate).send("order-updates", "B", "1");
+        verify(kafkaTemplate, never()).send("order-updates", "A", "3");
+        verify(kafkaTemplate).send("order-updates", "A", "4");
+        ArgumentCaptor<Update> marks = ArgumentCaptor.forClass(Update.class);
+        verify(bulk, times(2)).upsert(any(Query.class), marks.capture());
+        assertTrue(marks.getAllValues().stream()
+                .allMatch(mark -> ((Document) mark.getUpdateObject().get("$max")).get("version").equals(2L)));
+        String removed = removedIds();
+        assertTrue(List.of("1", "2", "3", "4").stream().allMatch(id -> removed.contains("\"" + id + "\"")));
+    }
+
+    @Test
+    void testLease_coversTheSendTimeoutAndTheProducerTimeouts() {
+        when(producerFactory.getConfigurationProperties()).thenReturn(Map.of(
+                ProducerConfig.MAX_BLOCK_MS_CONFIG, "5000", ProducerConfig.DELIVERY_TIMEOUT_MS_CONFIG, "30000"));
+        OutboxRelay configured = new OutboxRelay(mongoTemplate, kafkaTemplate);
+        ReflectionTestUtils.setField(configured, "sendTimeoutMs", 10000L);
+        ReflectionTestUtils.setField(configured, "leaseMarginMs", 20000L);
+
+        assertEquals(65000L, configured.leaseMs());
+    }
+
+    @Test
+    void testLeaseLostDuringBatch_leavesRowsToTheNewHolder() {
+        when(mongoTemplate.find(any(Query.class), eq(OutboxEvent.class))).thenReturn(List.of(event("1", "A")));
+        when(kafkaTemplate.send("order-events", "A", "1")).thenReturn(acknowledged());
+        when(mongoTemplate.upsert(any(Query.class), any(Update.class), eq(OutboxRelayLease.class)))
+                .thenThrow(new DuplicateKeyException("held by another replica"));
+
+        int sent = relay.relayBatch();
+
+        assertEquals(0, sent);
+        verify(mongoTemplate, never()).remove(any(Query.class), eq(OutboxEvent.class));
+    }
+}
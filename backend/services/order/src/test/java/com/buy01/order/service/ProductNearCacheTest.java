@@ -0,0 +1,118 @@
+package com.buy01.order.service;
+
+import com.buy01.order.dto.ProductChange;
+import com.buy01.order.model.OrderItem;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.ConsumerFactory;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+class ProductNearCacheTest {
+
+    private static final String MUG = "65a1b2c3d4e5f60718293a4b";
+    private static final String LAMP = "65a1b2c3d4e5f60718293a4c";
+
+    private final ProductNearCache cache = new ProductNearCache(mock(ConsumerFactory.class), true, 16, 1000);
+    private final ProductNearCache.TableSink sink = cache.new TableSink();
+
+    private static ProductChange state(String productId, String sellerId, double price, int quantity) {
+        return new ProductChange(productId, "PRODUCT_CHANGED", sellerId, "Name of " + productId, price, quantity);
+    }
+
+    private void load() {
+        sink.reset();
+        sink.apply(MUG, state(MUG, "seller-1", 12.5, 4));
+        sink.apply(LAMP, state(LAMP, "seller-2", 40.0, 1));
+        sink.caughtUp(2, 1);
+    }
+
+    private static OrderItem item(String productId, double price, int quantity) {
+        return new OrderItem(productId, "Product", "client-seller", price, quantity);
+    }
+
+    @Test
+    void testReprice_beforeCaughtUp_refusesTheBasket() {
+        sink.apply(MUG, state(MUG, "seller-1", 12.5, 4));
+        OrderItem item = item(MUG, 1.0, 100);
+
+        // the client's prices are never taken as sent
+        assertThrows(ProductCacheUnavailableException.class, () -> cache.reprice(List.of(item)));
+        assertFalse(cache.isLoaded());
+        assertEquals(1.0, item.getPrice());
+    }
+
+    @Test
+    void testReprice_disabled_takesBasketAsSent() {
+        ProductNearCache disabled = new ProductNearCache(mock(ConsumerFactory.class), false, 16, 1000);
+        OrderItem item = item(MUG, 1.0, 100);
+
+        disabled.reprice(List.of(item));
+
+        assertEquals(1.0, item.getPrice());
+        assertEquals("client-seller", item.getSellerId());
+    }
+
+    @Test
+    void testReprice_usesReplicaNamePriceAndSeller() {
+        load();
+        OrderItem item = item(MUG, 0.01, 2);
+
+        cache.reprice(List.of(item));
+
+        assertTrue(cache.isLoaded());
+        assertEquals("Name of " + MUG, item.getProductName());
+        assertEquals(12.5, item.getPrice());
+        assertEquals("seller-1", item.getSellerId());
+    }
+
+    @Test
+    void testReprice_reportsEveryProblem() {
+        load();
+
+        // stock is checked on the units summed over the basket
+        BasketValidationException e = assertThrows(BasketValidationException.class, () -> cache.reprice(List.of(
+                item(MUG, 12.5, 3), item(MUG, 12.5, 2), item(LAMP, 40.0, 1), item("65a1b2c3d4e5f60718293a4d", 1, 1))));
+
+        assertEquals(List.of(
+                Map.of("productId", MUG, "reason", "INSUFFICIENT_STOCK", "available", 4),
+                Map.of("productId", "65a1b2c3d4e5f60718293a4d", "reason", "NOT_FOUND")), e.getProblems());
+    }
+
+    @Test
+    void testRecordsAfterCatchUp_updateAndTombstone() {
+        load();
+        sink.apply(MUG, state(MUG, "seller-1", 15.0, 10));
+        sink.apply(LAMP, null);
+
+        OrderItem mug = item(MUG, 12.5, 8);
+        cache.reprice(List.of(mug));
+        assertEquals(15.0, mug.getPrice());
+        assertThrows(BasketValidationException.class, () -> cache.reprice(List.of(item(LAMP, 40.0, 1))));
+    }
+
+    @Test
+    void testReread_swapsInAFreshTableOnceCaughtUp() {
+        load();
+
+        // the lamp was deleted while the reader was down, and compaction dropped its tombstone
+        sink.reset();
+        sink.apply(MUG, state(MUG, "seller-1", 15.0, 10));
+
+        OrderItem lamp = item(LAMP, 1.0, 1);
+        cache.reprice(List.of(lamp));
+        assertEquals(40.0, lamp.getPrice());
+
+        sink.caughtUp(1, 1);
+        assertThrows(BasketValidationException.class, () -> cache.reprice(List.of(item(LAMP, 40.0, 1))));
+        OrderItem mug = item(MUG, 12.5, 1);
+        cache.reprice(List.of(mug));
+        assertEquals(15.0, mug.getPrice());
+    }
+}
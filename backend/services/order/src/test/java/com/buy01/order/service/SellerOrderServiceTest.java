@@ -0,0 +1,151 @@
+package com.buy01.order.service;
+
+import com.buy01.order.event.OrderLifecycleEvent;
+import com.buy01.order.model.Order;
+import com.buy01.order.model.OrderItem;
+import com.buy01.order.model.OrderStatus;
+import com.buy01.order.model.SellerOrder;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SellerOrderServiceTest {
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final SellerOrderService service = new SellerOrderService(mongoTemplate);
+
+    private static Order order(OrderStatus status, OrderItem... items) {
+        Order order = new Order();
+        order.setId("o1");
+        order.setUserId("u1");
+        order.setStatus(status);
+        order.setPaymentMethod("pay_on_delivery");
+        order.setItems(List.of(items));
+        order.setCreatedAt(LocalDateTime.of(2026, 3, 1, 10, 0));
+        order.setUpdatedAt(LocalDateTime.of(2026, 3, 2, 9, 30));
+        return order;
+    }
+
+    private static OrderItem item(String productName, String sellerId, double price, int quantity) {
+        return new OrderItem("p-" + productName, productName, sellerId, price, quantity);
+    }
+
+    @Test
+    void testSplit_oneDocumentPerSellerWithItsItemsOnly() {
+        Order order = order(OrderStatus.PENDING,
+                item("Mug", "s1", 12.5, 2), item("Lamp", "s2", 40.0, 1), item("Bowl", "s1", 5.0, 1),
+                item("Orphan", null, 99.0, 1));
+
+        List<SellerOrder> sellerOrders = SellerOrderService.split(order);
+
+        assertEquals(2, sellerOrders.size());
+        SellerOrder first = sellerOrders.get(0);
+        assertEquals(SellerOrder.idOf("o1", "s1"), first.getId());
+        assertEquals("s1", first.getSellerId());
+        assertEquals("u1", first.getUserId());
+        assertEquals(List.of("Mug", "Bowl"), first.getItems().stream().map(OrderItem::getProductName).toList());
+        assertEquals(30.0, first.getSubtotal());
+        assertEquals(OrderStatus.PENDING, first.getStatus());
+        assertEquals(order.getCreatedAt(), first.getCreatedAt());
+        // searchable on its own items, not on the other sellers'
+        assertTrue(first.getSearchTokens().contains("mug"));
+        assertTrue(first.getSearchTokens().stream().noneMatch(token -> token.equals("lam")));
+        assertEquals(40.0, sellerOrders.get(1).getSubtotal());
+    }
+
+    @Test
+    void testCreated_insertsTheSplit() {
+        service.onOrderLifecycle(OrderLifecycleEvent.created(order(OrderStatus.PENDING,
+                item("Mug", "s1", 12.5, 2), item("Lamp", "s2", 40.0, 1))));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<SellerOrder>> inserted = ArgumentCaptor.forClass(Collection.class);
+        verify(mongoTemplate).insertAll(inserted.capture());
+        assertEquals(List.of("s1", "s2"), inserted.getValue().stream().map(SellerOrder::getSellerId).toList());
+    }
+
+    @Test
+    void testCreatedWithoutSellers_insertsNothing() {
+        service.onOrderLifecycle(OrderLifecycleEvent.created(order(OrderStatus.PENDING,
+                item("Orphan", null, 99.0, 1))));
+
+        verify(mongoTemplate, never()).insertAll(anyCollection());
+    }
+
+    @Test
+    void testStatusChanged_followedByEverySellerCopy() {
+        Order order = order(OrderStatus.CONFIRMED, item("Mug", "s1", 12.5, 2), item("Lamp", "s2", 40.0, 1));
+
+        service.onOrderLifecycle(OrderLifecycleEvent.statusChanged(order, OrderStatus.PENDING));
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).updateMulti(query.capture(), update.capture(), eq(SellerOrder.class));
+        assertEquals(new Document("orderId", "o1").append("status", new Document("$in", Set.of(OrderStatus.PENDING))),
+                query.getValue().getQueryObject());
+        Document set = update.getValue().getUpdateObject().get("$set", Document.class);
+        assertEquals(OrderStatus.CONFIRMED, set.get("status"));
+        assertEquals(order.getUpdatedAt(), set.get("updatedAt"));
+    }
+
+    @Test
+    void testStatusChangesOutOfOrder_neverRollBack() {
+        // Stand-in for seller_orders: the copy of o1, updated only when the filter matches
+        OrderStatus[] copy = {OrderStatus.PENDING};
+        when(mongoTemplate.updateMulti(any(Query.class), any(Update.class), eq(SellerOrder.class)))
+                .thenAnswer(invocation -> {
+                    Document filter = invocation.<Query>getArgument(0).getQueryObject();
+                    Collection<?> behind = filter.get("status", Document.class).get("$in", Collection.class);
+                    if (behind.contains(copy[0])) {
+                        copy[0] = (OrderStatus) invocation.<Update>getArgument(1).getUpdateObject()
+                                .get("$set", Document.class).get("status");
+                    }
+                    return null;
+                });
+        Order confirmed = order(OrderStatus.CONFIRMED, item("Mug", "s1", 12.5, 2));
+        Order delivered = order(OrderStatus.DELIVERED, item("Mug", "s1", 12.5, 2));
+
+        service.onOrderLifecycle(OrderLifecycleEvent.statusChanged(delivered, OrderStatus.CONFIRMED));
+        service.onOrderLifecycle(OrderLifecycleEvent.statusChanged(confirmed, OrderStatus.PENDING));
+
+        assertEquals(OrderStatus.DELIVERED, copy[0]);
+    }
+
+    @Test
+    void testDeleted_removesEverySellerCopy() {
+        service.onOrderLifecycle(OrderLifecycleEvent.deleted(order(OrderStatus.CANCELLED,
+                item("Mug", "s1", 12.5, 2))));
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).remove(query.capture(), eq(SellerOrder.class));
+        assertEquals(new Document("orderId", "o1"), query.getValue().getQueryObject());
+    }
+
+    @Test
+    void testWriteFailure_doesNotFailTheOrderWrite() {
+        doThrow(new IllegalStateException("Mongo down")).when(mongoTemplate)
+                .updateMulti(any(Query.class), any(Update.class), eq(SellerOrder.class));
+
+        service.onOrderLifecycle(OrderLifecycleEvent.statusChanged(
+                order(OrderStatus.CONFIRMED, item("Mug", "s1", 12.5, 2)), OrderStatus.PENDING));
+    }
+}
@@ -0,0 +1,111 @@
+package com.buy01.order.service;
+
+import com.buy01.order.dto.SellerOrderView;
+import com.buy01.order.model.OrderItem;
+import com.buy01.order.model.OrderStatus;
+import com.buy01.order.model.SellerOrder;
+import com.buy01.order.repository.OrderArchiveRepository;
+import com.buy01.order.repository.OrderFilter;
+import com.buy01.order.repository.OrderRepository;
+import com.buy01.order.repository.SellerOrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SellerOrderViewTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.now();
+
+    private SellerOrderRepository sellerOrderRepository;
+    private OrderArchiveRepository archiveRepository;
+    private OrderService orderService;
+
+    @BeforeEach
+    void setUp() {
+        sellerOrderRepository = mock(SellerOrderRepository.class);
+        archiveRepository = mock(OrderArchiveRepository.class);
+        orderService = new OrderService(mock(OrderRepository.class), sellerOrderRepository, archiveRepository,
+                mock(SellerStatsService.class), mock(OrderAnalyticsService.class),
+                mock(UserOrderSummaryService.class),
+                mock(OrderWriteBatcher.class), mock(ProductNearCache.class), mock(OutboxService.class),
+                mock(OrderEventPublisher.class), mock(OrderUpdatePublisher.class), event -> { });
+        ReflectionTestUtils.setField(orderService, "archiveAfterDays", 30);
+    }
+
+    private static SellerOrder sellerOrder(String orderId, LocalDateTime createdAt, OrderStatus status) {
+        List<OrderItem> items = List.of(new OrderItem("p1", "Mug", "s1", 12.5, 2));
+        return new SellerOrder(SellerOrder.idOf(orderId, "s1"), orderId, "s1", "u1", items, 25.0, status,
+                "pay_on_delivery", createdAt, createdAt, List.of());
+    }
+
+    @Test
+    void testStream_sellerItemsAndSubtotal_hotThenArchive() {
+        List<String> opened = new ArrayList<>();
+        when(sellerOrderRepository.streamSellerOrders(any(OrderFilter.class), anyInt())).thenAnswer(invocation -> {
+            opened.add("hot");
+            return Stream.of(sellerOrder("o2", NOW.minusDays(1), OrderStatus.PENDING));
+        });
+        when(archiveRepository.streamSellerOrders(any(OrderFilter.class), anyInt())).thenAnswer(invocation -> {
+            opened.add("archive");
+            return Stream.of(sellerOrder("o1", NOW.minusDays(400), OrderStatus.DELIVERED));
+        });
+
+        List<SellerOrderView> views;
+        try (Stream<SellerOrderView> stream = orderService.streamSellerOrderViews("s1", "bogus", "mug")) {
+            assertTrue(opened.isEmpty());
+            views = stream.toList();
+        }
+
+        assertEquals(List.of("hot", "archive"), opened);
+        assertEquals(List.of("o2", "o1"), views.stream().map(SellerOrderView::getId).toList());
+        SellerOrderView view = views.get(0);
+        assertEquals(25.0, view.getSellerSubtotal());
+        assertEquals("u1", view.getUserId());
+        assertEquals(List.of("Mug"), view.getItems().stream().map(OrderItem::getProductName).toList());
+
+        ArgumentCaptor<OrderFilter> filter = ArgumentCaptor.forClass(OrderFilter.class);
+        verify(sellerOrderRepository).streamSellerOrders(filter.capture(), anyInt());
+        assertEquals("s1", filter.getValue().getSellerId());
+        assertEquals("mug", filter.getValue().getSearch());
+        // an unknown status is no filter on the seller's own listing
+        assertEquals(null, filter.getValue().getStatus());
+    }
+
+    @Test
+    void testExport_rangeInsideHotWindow_skipsArchive() {
+        when(sellerOrderRepository.streamSellerOrders(any(OrderFilter.class), anyInt()))
+                .thenReturn(Stream.of(sellerOrder("o2", NOW.minusDays(1), OrderStatus.CONFIRMED)));
+
+        try (Stream<SellerOrderView> stream = orderService.exportSellerOrders("s1", "confirmed",
+                NOW.minusDays(7), null)) {
+            assertEquals(1, stream.count());
+        }
+
+        verify(archiveRepository, never()).streamSellerOrders(any(), anyInt());
+    }
+
+    @Test
+    void testExport_unknownStatus_rejected() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> orderService.exportSellerOrders("s1", "shipped", null, null));
+
+        assertEquals("Unknown status: shipped", e.getMessage());
+        verify(sellerOrderRepository, never()).streamSellerOrders(any(), anyInt());
+    }
+}
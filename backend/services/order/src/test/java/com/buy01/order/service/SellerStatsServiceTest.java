@@ -0,0 +1,192 @@
+package com.buy01.order.service;
+
+import com.buy01.order.event.OrderLifecycleEvent;
+import com.buy01.order.model.Order;
+import com.buy01.order.model.OrderItem;
+import com.buy01.order.model.OrderStatus;
+import com.buy01.order.model.SellerOrder;
+import com.buy01.order.model.SellerProductStats;
+import com.buy01.order.model.SellerStats;
+import com.buy01.order.repository.OrderArchiveRepository;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SellerStatsServiceTest {
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final OrderArchiveRepository archiveRepository = mock(OrderArchiveRepository.class);
+    private final JobLeases jobLeases = mock(JobLeases.class);
+    private final SellerStatsService service = new SellerStatsService(mongoTemplate, archiveRepository, jobLeases);
+
+    SellerStatsServiceTest() {
+        ReflectionTestUtils.setField(service, "topProductsSize", 2);
+        ReflectionTestUtils.setField(service, "rebuildLeaseMinutes", 60L);
+    }
+
+    private static OrderItem item(String productId, double price, int quantity) {
+        return new OrderItem(productId, "Product " + productId, "s1", price, quantity);
+    }
+
+    private static SellerOrder sellerOrder(OrderStatus status, OrderItem... items) {
+        SellerOrder sellerOrder = new SellerOrder();
+        sellerOrder.setSellerId("s1");
+        sellerOrder.setStatus(status);
+        sellerOrder.setItems(List.of(items));
+        return sellerOrder;
+    }
+
+    @Test
+    void testGetStats_topProductsReadFromProductStats() {
+        SellerStats stats = new SellerStats();
+        stats.setSellerId("s1");
+        stats.setTotalOrders(3);
+        when(mongoTemplate.findById("s1", SellerStats.class)).thenReturn(stats);
+        when(mongoTemplate.find(any(Query.class), eq(SellerProductStats.class))).thenReturn(List.of(
+                new SellerProductStats("s1:p1", "s1", "p1", "Mug", 7, 87.5, null),
+                new SellerProductStats("s1:p2", "s1", "p2", "Lamp", 2, 80.0, null)));
+
+        Map<String, Object> result = service.getStats("s1");
+
+        assertEquals(3L, result.get("totalOrders"));
+        assertEquals(List.of(
+                Map.of("name", "Mug", "quantity", 7L, "revenue", 87L),
+                Map.of("name", "Lamp", "quantity", 2L, "revenue", 80L)), result.get("topProducts"));
+        ArgumentCaptor<Query> top = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(top.capture(), eq(SellerProductStats.class));
+        assertEquals("s1", top.getValue().getQueryObject().get("sellerId"));
+        assertEquals(new Document("quantity", -1), top.getValue().getSortObject());
+        assertEquals(2, top.getValue().getLimit());
+    }
+
+    @Test
+    void testOrderCreated_incrementsCountersWithoutCopyingTopProducts() {
+        BulkOperations products = mock(BulkOperations.class);
+        when(mongoTemplate.bulkOps(any(BulkOperations.BulkMode.class), eq(SellerProductStats.class)))
+                .thenReturn(products);
+        Order order = new Order();
+        order.setId("o1");
+        order.setStatus(OrderStatus.CONFIRMED);
+        order.setItems(List.of(item("p1", 10.0, 2), item("p2", 5.0, 1)));
+
+        service.onOrderLifecycle(OrderLifecycleEvent.created(order));
+
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).upsert(any(Query.class), update.capture(), eq(SellerStats.class));
+        Document inc = update.getValue().getUpdateObject().get("$inc", Document.class);
+        assertEquals(1, inc.get("totalOrders"));
+        assertEquals(1, inc.get("confirmedOrders"));
+        assertEquals(25.0, inc.get("totalEarned"));
+        verify(products).execute();
+        verify(mongoTemplate, never()).updateFirst(any(Query.class), any(Update.class), eq(SellerStats.class));
+    }
+
+    @Test
+    void testRebuildAll_recomputesFromSellerOrders() {
+        when(jobLeases.tryAcquire(eq(SellerStatsService.REBUILD_JOB), any(Duration.class))).thenReturn(true);
+        BulkOperations products = mock(BulkOperations.class);
+        when(mongoTemplate.bulkOps(any(BulkOperations.BulkMode.class), eq(SellerProductStats.class)))
+                .thenReturn(products);
+        when(mongoTemplate.stream(any(Query.class), eq(SellerOrder.class))).thenReturn(Stream.of(
+                sellerOrder(OrderStatus.DELIVERED, item("p1", 10.0, 2)),
+                sellerOrder(OrderStatus.CANCELLED, item("p1", 10.0, 1), item("p2", 4.0, 3))));
+        when(archiveRepository.streamAllSellerOrders())
+                .thenReturn(Stream.of(sellerOrder(OrderStatus.PENDING, item("p2", 4.0, 1))));
+
+        service.rebuildAll();
+
+        ArgumentCaptor<Query> statsQuery = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> statsUpdate = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).upsert(statsQuery.capture(), statsUpdate.capture(), eq(SellerStats.class));
+        // Only over a document not written since the rebuild started
+        assertTrue(statsQuery.getValue().getQueryObject().containsKey("$or"));
+        Document stats = statsUpdate.getValue().getUpdateObject().get("$set", Document.class);
+        assertEquals(3L, stats.get("totalOrders"));
+        assertEquals(1L, stats.get("deliveredOrders"));
+        assertEquals(1L, stats.get("cancelledOrders"));
+        assertEquals(1L, stats.get("pendingOrders"));
+        assertEquals(20.0, stats.get("totalEarned"));
+        ArgumentCaptor<Update> productUpdates = ArgumentCaptor.forClass(Update.class);
+        verify(products, times(2)).upsert(any(Query.class), productUpdates.capture());
+        assertEquals(Map.of("p1", 3L, "p2", 4L), productUpdates.getAllValues().stream()
+                .map(update -> update.getUpdateObject().get("$set", Document.class))
+                .collect(Collectors.toMap(set -> set.get("productId"), set -> set.get("quantity"))));
+        verify(mongoTemplate, never()).save(any(SellerStats.class));
+    }
+
+    @Test
+    void testRebuildAll_sellerWithAnOrderChangedDuringTheRebuild_leftToItsLiveCounters() {
+        when(jobLeases.tryAcquire(eq(SellerStatsService.REBUILD_JOB), any(Duration.class))).thenReturn(true);
+        SellerOrder changed = sellerOrder(OrderStatus.CONFIRMED, item("p1", 10.0, 1));
+        changed.setUpdatedAt(LocalDateTime.now());
+        when(mongoTemplate.stream(any(Query.class), eq(SellerOrder.class))).thenReturn(Stream.of(changed));
+        when(archiveRepository.streamAllSellerOrders()).thenReturn(Stream.empty());
+
+        service.rebuildAll();
+
+        verify(mongoTemplate, never()).upsert(any(Query.class), any(Update.class), eq(SellerStats.class));
+        verify(mongoTemplate, never()).bulkOps(any(BulkOperations.BulkMode.class), eq(SellerProductStats.class));
+        // s1 is still among the sellers with orders: its documents are not removed either
+        ArgumentCaptor<Query> removed = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).remove(removed.capture(), eq(SellerStats.class));
+        assertEquals(List.of("s1"), List.copyOf(removed.getValue().getQueryObject().get("_id", Document.class)
+                .get("$nin", Collection.class)));
+    }
+
+    @Test
+    void testRebuildAll_statsUpdatedLiveMeanwhile_notOverwritten() {
+        when(jobLeases.tryAcquire(eq(SellerStatsService.REBUILD_JOB), any(Duration.class))).thenReturn(true);
+        BulkOperations products = mock(BulkOperations.class);
+        when(mongoTemplate.bulkOps(any(BulkOperations.BulkMode.class), eq(SellerProductStats.class)))
+                .thenReturn(products);
+        when(mongoTemplate.stream(any(Query.class), eq(SellerOrder.class)))
+                .thenReturn(Stream.of(sellerOrder(OrderStatus.PENDING, item("p1", 10.0, 1))));
+        when(archiveRepository.streamAllSellerOrders()).thenReturn(Stream.empty());
+        when(mongoTemplate.upsert(any(Query.class), any(Update.class), eq(SellerStats.class)))
+                .thenThrow(new DuplicateKeyException("updated since the rebuild started"));
+
+        service.rebuildAll();
+
+        // The live document is kept and the rebuild carries on
+        verify(products).execute();
+        verify(mongoTemplate).remove(any(Query.class), eq(SellerStats.class));
+    }
+
+    @Test
+    void testRebuildAll_leaseHeldElsewhere_writesNothing() {
+        when(jobLeases.tryAcquire(eq(SellerStatsService.REBUILD_JOB), any(Duration.class))).thenReturn(false);
+
+        service.rebuildAll();
+
+        verify(mongoTemplate, never()).stream(any(Query.class), eq(SellerOrder.class));
+        verify(mongoTemplate, never()).insertAll(anyCollection());
+        verify(mongoTemplate, never()).save(any(SellerStats.class));
+        verify(mongoTemplate, never()).remove(any(Query.class), eq(SellerStats.class));
+        verify(mongoTemplate, never()).remove(any(Query.class), eq(SellerProductStats.class));
+    }
+}
@@ -0,0 +1,85 @@
+package com.buy01.order.service;
+
+import com.buy01.order.model.Order;
+import com.buy01.order.model.OrderStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static com.buy01.order.service.OrderColumnsTest.item;
+import static com.buy01.order.service.OrderColumnsTest.order;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TrendingServiceTest {
+
+    private static final LocalDateTime STARTED_AT = LocalDateTime.now().minusMinutes(1);
+    private static final long HOUR = 3_600_000;
+
+    private static Order created(String id, LocalDateTime at, com.buy01.order.model.OrderItem... items) {
+        Order order = order(id, OrderStatus.PENDING, items);
+        order.setCreatedAt(at);
+        return order;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<String> productIds(Map<String, Object> trending) {
+        return ((List<Map<String, Object>>) trending.get("products")).stream()
+                .map(p -> (String) p.get("productId"))
+                .toList();
+    }
+
+    @Test
+    void testTrending_globalAndPerSeller() {
+        TrendingService service = new TrendingService(mock(MongoTemplate.class), true, 24 * HOUR, 100, 10, 100,
+                STARTED_AT);
+        service.onOrderCreated(created("o1", STARTED_AT, item("p1", "s1", 5.0, 3), item("p2", "s2", 5.0, 1)));
+        service.onOrderCreated(created("o2", STARTED_AT, item("p2", "s2", 5.0, 5)));
+        service.onOrderCreated(created("o3", STARTED_AT, item("p3", "s1", 5.0, 1)));
+
+        assertEquals(List.of("p2", "p1", "p3"), productIds(service.getTrending(10)));
+        assertEquals(List.of("p1", "p3"), productIds(service.getSellerTrending("s1", 10)));
+        assertEquals(List.of("p1"), productIds(service.getSellerTrending("s1", 1)));
+        assertTrue(productIds(service.getSellerTrending("unknown", 10)).isEmpty());
+    }
+
+    @Test
+    void testSeed_countsOrdersBeforeStartupOnceOnly() {
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        Order before = created("o1", STARTED_AT.minusHours(1), item("p1", "s1", 5.0, 2));
+        when(mongoTemplate.stream(any(Query.class), eq(Order.class))).thenReturn(Stream.of(before));
+        TrendingService service = new TrendingService(mongoTemplate, true, 24 * HOUR, 100, 10, 100, STARTED_AT);
+
+        service.seed();
+        // a late update for an order created before startup is already in the seed
+        service.onOrderCreated(before);
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> p1 = ((List<Map<String, Object>>) service.getTrending(1).get("products")).get(0);
+        // 2 units decayed over a bit more than an hour, not counted twice
+        assertEquals(2.0, (double) p1.get("score"), 0.1);
+    }
+
+    @Test
+    void testSellers_leastRecentlyOrderedFromAreEvicted() {
+        TrendingService service = new TrendingService(mock(MongoTemplate.class), true, 24 * HOUR, 100, 10, 2,
+                STARTED_AT);
+        service.onOrderCreated(created("o1", STARTED_AT, item("p1", "s1", 5.0, 1)));
+        service.onOrderCreated(created("o2", STARTED_AT, item("p2", "s2", 5.0, 1)));
+        service.onOrderCreated(created("o3", STARTED_AT, item("p3", "s3", 5.0, 1)));
+
+        assertTrue(productIds(service.getSellerTrending("s1", 10)).isEmpty());
+        assertEquals(List.of("p3"), productIds(service.getSellerTrending("s3", 10)));
+        // the platform-wide list is not affected
+        assertEquals(3, productIds(service.getTrending(10)).size());
+    }
+}
@@ -0,0 +1,121 @@
+package com.buy01.order.service;
+
+import com.buy01.order.event.OrderLifecycleEvent;
+import com.buy01.order.model.Order;
+import com.buy01.order.model.OrderStatus;
+import com.buy01.order.model.UserOrderSummary;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class UserOrderSummaryServiceTest {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2026, 3, 1, 10, 0);
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final UserOrderSummaryService service = new UserOrderSummaryService(mongoTemplate);
+
+    private static Order order(OrderStatus status) {
+        Order order = new Order();
+        order.setId("o1");
+        order.setUserId("u1");
+        order.setStatus(status);
+        order.setTotalAmount(40.0);
+        order.setCreatedAt(CREATED_AT);
+        return order;
+    }
+
+    /** The upsert sent for user u1, as its update document. */
+    private Document upserted() {
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).upsert(query.capture(), update.capture(), eq(UserOrderSummary.class));
+        assertEquals("u1", query.getValue().getQueryObject().get("_id"));
+        return update.getValue().getUpdateObject();
+    }
+
+    private Document increments() {
+        return upserted().get("$inc", Document.class);
+    }
+
+    @Test
+    void testCreated_countsAndSpends() {
+        service.onOrderLifecycle(OrderLifecycleEvent.created(order(OrderStatus.PENDING)));
+
+        Document update = upserted();
+        Document inc = update.get("$inc", Document.class);
+        assertEquals(1, inc.get("totalOrders"));
+        assertEquals(1, inc.get("pendingOrders"));
+        assertEquals(40.0, inc.get("totalSpent"));
+        assertEquals(CREATED_AT, update.get("$max", Document.class).get("lastOrderAt"));
+    }
+
+    @Test
+    void testCreatedCancelled_spendsNothing() {
+        service.onOrderLifecycle(OrderLifecycleEvent.created(order(OrderStatus.CANCELLED)));
+
+        Document inc = increments();
+        assertEquals(1, inc.get("cancelledOrders"));
+        assertEquals(0.0, inc.get("totalSpent"));
+    }
+
+    @Test
+    void testStatusChange_movesOneCounterWithoutSpending() {
+        service.onOrderLifecycle(OrderLifecycleEvent.statusChanged(order(OrderStatus.CONFIRMED), OrderStatus.PENDING));
+
+        Document inc = increments();
+        assertEquals(-1, inc.get("pendingOrders"));
+        assertEquals(1, inc.get("confirmedOrders"));
+        assertFalse(inc.containsKey("totalSpent"));
+        assertFalse(inc.containsKey("totalOrders"));
+    }
+
+    @Test
+    void testCancellation_refundsTheAmount() {
+        service.onOrderLifecycle(OrderLifecycleEvent.statusChanged(order(OrderStatus.CANCELLED), OrderStatus.CONFIRMED));
+
+        Document inc = increments();
+        assertEquals(-1, inc.get("confirmedOrders"));
+        assertEquals(1, inc.get("cancelledOrders"));
+        assertEquals(-40.0, inc.get("totalSpent"));
+    }
+
+    @Test
+    void testUnchangedStatus_noWrite() {
+        service.onOrderLifecycle(OrderLifecycleEvent.statusChanged(order(OrderStatus.PENDING), OrderStatus.PENDING));
+
+        verify(mongoTemplate, never()).upsert(any(Query.class), any(Update.class), eq(UserOrderSummary.class));
+    }
+
+    @Test
+    void testDeleted_removesTheOrderAndItsSpending() {
+        service.onOrderLifecycle(OrderLifecycleEvent.deleted(order(OrderStatus.DELIVERED)));
+
+        Document inc = increments();
+        assertEquals(-1, inc.get("totalOrders"));
+        assertEquals(-1, inc.get("deliveredOrders"));
+        assertEquals(-40.0, inc.get("totalSpent"));
+    }
+
+    @Test
+    void testWriteFailure_doesNotFailTheOrderWrite() {
+        doThrow(new IllegalStateException("Mongo down")).when(mongoTemplate)
+                .upsert(any(Query.class), any(Update.class), eq(UserOrderSummary.class));
+
+        service.onOrderLifecycle(OrderLifecycleEvent.created(order(OrderStatus.PENDING)));
+    }
+}
@@ -0,0 +1,95 @@
+package com.buy01.order.util;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.common.Node;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompactedTopicReaderTest {
+
+    private static final String TOPIC = "product-state";
+    private static final TopicPartition P0 = new TopicPartition(TOPIC, 0);
+    private static final TopicPartition P1 = new TopicPartition(TOPIC, 1);
+
+    private final Map<String, String> table = new ConcurrentHashMap<>();
+    private final CompactedTopicReader<String> reader = new CompactedTopicReader<>(TOPIC, () -> {
+        throw new UnsupportedOperationException();
+    }, CompactedTopicReader.into(table), 1000);
+    private MockConsumer<String, String> consumer;
+
+    @BeforeEach
+    void setUp() {
+        consumer = new MockConsumer<>(OffsetResetStrategy.EARLIEST);
+        Node node = new Node(0, "localhost", 9092);
+        consumer.updatePartitions(TOPIC, List.of(
+                new PartitionInfo(TOPIC, 0, node, null, null),
+                new PartitionInfo(TOPIC, 1, node, null, null)));
+        consumer.updateBeginningOffsets(Map.of(P0, 0L, P1, 0L));
+    }
+
+    @Test
+    void testOpen_missingTopic_retriesLater() {
+        MockConsumer<String, String> empty = new MockConsumer<>(OffsetResetStrategy.EARLIEST);
+
+        assertFalse(reader.open(empty));
+    }
+
+    @Test
+    void testOpen_emptyTopic_isCaughtUpAtOnce() {
+        consumer.updateEndOffsets(Map.of(P0, 0L, P1, 0L));
+
+        assertTrue(reader.open(consumer));
+        assertTrue(reader.isCaughtUp());
+    }
+
+    @Test
+    void testPoll_rebuildsLatestValuesAndDropsTombstones() {
+        consumer.updateEndOffsets(Map.of(P0, 3L, P1, 1L));
+        assertTrue(reader.open(consumer));
+        consumer.addRecord(new ConsumerRecord<>(TOPIC, 0, 0, "a", "a1"));
+        consumer.addRecord(new ConsumerRecord<>(TOPIC, 0, 1, "b", "b1"));
+        consumer.addRecord(new ConsumerRecord<>(TOPIC, 0, 2, "a", "a2"));
+
+        reader.poll();
+
+        // partition 1 not read up to its end offset yet
+        assertFalse(reader.isCaughtUp());
+        consumer.addRecord(new ConsumerRecord<>(TOPIC, 1, 0, "b", null));
+        reader.poll();
+
+        assertTrue(reader.isCaughtUp());
+        assertEquals(Map.of("a", "a2"), table);
+
+        // later records keep the table current
+        consumer.addRecord(new ConsumerRecord<>(TOPIC, 1, 1, "c", "c1"));
+        reader.poll();
+        assertEquals(Map.of("a", "a2", "c", "c1"), table);
+    }
+
+    @Test
+    void testOpen_againAfterFailure_startsFromAnEmptyTable() {
+        // "b" was deleted while the reader was down, its tombstone compacted away
+        table.put("a", "a1");
+        table.put("b", "b1");
+        consumer.updateEndOffsets(Map.of(P0, 1L, P1, 0L));
+
+        assertTrue(reader.open(consumer));
+        consumer.addRecord(new ConsumerRecord<>(TOPIC, 0, 0, "a", "a2"));
+        reader.poll();
+
+        assertTrue(reader.isCaughtUp());
+        assertEquals(Map.of("a", "a2"), table);
+    }
+}
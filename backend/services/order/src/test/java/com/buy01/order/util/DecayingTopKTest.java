@@ -0,0 +1,66 @@
+package com.buy01.order.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DecayingTopKTest {
+
+    private static final long HOUR = 3_600_000;
+
+    @Test
+    void testHeavyHitters_trackedWithinTheErrorBound() {
+        DecayingTopK sketch = new DecayingTopK(50, 1000 * HOUR, 0);
+        Map<String, Double> truth = new HashMap<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 100_000; i++) {
+            // skewed: key-0 .. key-4 take about half of the weight, 5 000 keys share the rest
+            String key = random.nextBoolean() ? "key-" + random.nextInt(5) : "key-" + (5 + random.nextInt(5_000));
+            sketch.add(key, null, 1, i);
+            truth.merge(key, 1.0, Double::sum);
+        }
+
+        long now = 100_000;
+        List<DecayingTopK.Entry> top = sketch.top(5, now);
+        double bound = sketch.errorBound(now);
+        assertEquals(5, top.size());
+        for (DecayingTopK.Entry entry : top) {
+            assertTrue(entry.key().compareTo("key-5") < 0 && entry.key().length() == 5, entry.key());
+            // the sketch never under-estimates a tracked key, and over-estimates by at most its bound
+            double exact = truth.get(entry.key()) * Math.pow(2, -(now - 50_000.0) / (1000 * HOUR));
+            assertTrue(entry.score() + 1e-6 >= exact * 0.99, entry.toString());
+            assertTrue(entry.maxError() <= bound + 1e-9);
+        }
+    }
+
+    @Test
+    void testScores_halveEveryHalfLife() {
+        DecayingTopK sketch = new DecayingTopK(10, HOUR, 0);
+        sketch.add("a", "A", 8, 0);
+
+        assertEquals(8.0, sketch.top(1, 0).get(0).score(), 1e-9);
+        assertEquals(4.0, sketch.top(1, HOUR).get(0).score(), 1e-9);
+        assertEquals(1.0, sketch.total(3 * HOUR), 1e-9);
+        assertEquals("A", sketch.top(1, HOUR).get(0).label());
+    }
+
+    @Test
+    void testRecentActivity_outranksOldVolumeAcrossRescales() {
+        DecayingTopK sketch = new DecayingTopK(10, HOUR, 0);
+        sketch.add("old", null, 1_000_000, 0);
+        // far beyond the rescale point: scale factors stay finite
+        long later = 500 * HOUR;
+        sketch.add("new", null, 1, later);
+
+        List<DecayingTopK.Entry> top = sketch.top(2, later);
+        assertEquals("new", top.get(0).key());
+        assertEquals(1.0, top.get(0).score(), 1e-9);
+        assertTrue(Double.isFinite(top.get(1).score()));
+    }
+}
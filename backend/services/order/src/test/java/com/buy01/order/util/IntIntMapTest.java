@@ -0,0 +1,47 @@
+package com.buy01.order.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class IntIntMapTest {
+
+    @Test
+    void testAddTo_matchesHashMapAcrossGrowth() {
+        IntIntMap map = new IntIntMap(4);
+        Map<Integer, Integer> expected = new HashMap<>();
+        Random random = new Random(3);
+        for (int i = 0; i < 50_000; i++) {
+            int key = random.nextInt(10_000);
+            map.addTo(key, 1);
+            expected.merge(key, 1, Integer::sum);
+        }
+
+        assertEquals(expected.size(), map.size());
+        expected.forEach((key, value) -> assertEquals(value, map.get(key)));
+        assertEquals(0, map.get(10_001));
+        assertThrows(IllegalArgumentException.class, () -> map.addTo(-1, 1));
+    }
+
+    @Test
+    void testRetainTop_keepsTheHighestValues() {
+        IntIntMap map = new IntIntMap(16);
+        for (int key = 0; key < 10; key++) {
+            map.addTo(key, key);
+        }
+        map.addTo(10, 7); // tie with key 7 at the threshold
+
+        map.retainTop(3);
+
+        assertEquals(3, map.size());
+        assertEquals(9, map.get(9));
+        assertEquals(8, map.get(8));
+        assertEquals(7, map.get(7) + map.get(10));
+        assertEquals(0, map.get(6));
+    }
+}
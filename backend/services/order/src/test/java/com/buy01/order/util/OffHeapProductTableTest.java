@@ -0,0 +1,71 @@
+package com.buy01.order.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OffHeapProductTableTest {
+
+    private static String objectId(Random random) {
+        return String.format("%08x%016x", random.nextInt(), random.nextLong());
+    }
+
+    @Test
+    void testPutRemove_matchesHashMapAcrossGrowth() {
+        OffHeapProductTable table = new OffHeapProductTable(8);
+        Map<String, OffHeapProductTable.Product> expected = new HashMap<>();
+        Random random = new Random(7);
+        String[] ids = new String[5_000];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = objectId(random);
+        }
+        for (int i = 0; i < 50_000; i++) {
+            String id = ids[random.nextInt(ids.length)];
+            if (random.nextInt(4) == 0) {
+                assertEquals(expected.remove(id) != null, table.remove(id));
+            } else {
+                // names change often enough to fill the name buffer with garbage and compact it
+                OffHeapProductTable.Product product = new OffHeapProductTable.Product(
+                        random.nextInt(10) == 0 ? null : "Product é" + random.nextInt(1_000),
+                        "seller-" + random.nextInt(50), random.nextInt(1_000_000), random.nextInt(100));
+                assertTrue(table.put(id, product.name(), product.sellerId(), product.priceCents(), product.stock()));
+                expected.put(id, product);
+            }
+        }
+
+        assertEquals(expected.size(), table.size());
+        for (String id : ids) {
+            assertEquals(expected.get(id), table.get(id));
+        }
+    }
+
+    @Test
+    void testPut_upperAndLowerCaseIdsAreTheSameKey() {
+        OffHeapProductTable table = new OffHeapProductTable(0);
+
+        table.put("65a1b2c3d4e5f60718293a4b", "Mug", "seller-1", 1999, 3);
+        table.put("65A1B2C3D4E5F60718293A4B", "Mug", null, 2499, 0);
+
+        assertEquals(1, table.size());
+        assertEquals(new OffHeapProductTable.Product("Mug", null, 2499, 0), table.get("65a1b2c3d4e5f60718293a4b"));
+    }
+
+    @Test
+    void testPut_rejectsIdsThatAreNotObjectIds() {
+        OffHeapProductTable table = new OffHeapProductTable(16);
+
+        assertFalse(table.put("product-1", "Mug", "seller-1", 100, 1));
+        assertFalse(table.put("65a1b2c3d4e5f60718293a4z", "Mug", "seller-1", 100, 1));
+        assertNull(table.get("product-1"));
+        assertNull(table.get(null));
+        assertFalse(table.remove("product-1"));
+        assertEquals(0, table.size());
+    }
+}
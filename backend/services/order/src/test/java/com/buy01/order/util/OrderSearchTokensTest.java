@@ -0,0 +1,53 @@
+package com.buy01.order.util;
+
+import com.buy01.order.model.OrderItem;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OrderSearchTokensTest {
+
+    private static OrderItem item(String productName) {
+        return new OrderItem("p1", productName, "s1", 1.0, 1);
+    }
+
+    @Test
+    void testOf_distinctLowerCaseTrigramsOfEveryItem() {
+        assertEquals(List.of("mug", "lam", "amp"), OrderSearchTokens.of(List.of(item("Mug"), item("LAMP"),
+                item("mug"))));
+    }
+
+    @Test
+    void testOf_shortOrMissingNames() {
+        assertEquals(List.of(), OrderSearchTokens.of(Arrays.asList(item("TV"), item(null))));
+        assertEquals(List.of(), OrderSearchTokens.of(null));
+    }
+
+    @Test
+    void testOfQuery_tooShortGivesNoToken() {
+        assertEquals(List.of(), OrderSearchTokens.ofQuery("tv"));
+        assertEquals(List.of(), OrderSearchTokens.ofQuery(""));
+        assertEquals(List.of("tvs"), OrderSearchTokens.ofQuery("TVs"));
+    }
+
+    @Test
+    void testOfQuery_caseAndAccentsMatchTheStoredTokens() {
+        List<String> stored = OrderSearchTokens.of(List.of(item("Crème brûlée")));
+
+        // lower-cased like the stored names; accents are kept on both sides
+        assertEquals(List.of("crè", "rèm", "ème"), OrderSearchTokens.ofQuery("CRÈME"));
+        assertTrue(stored.containsAll(OrderSearchTokens.ofQuery("CRÈME")));
+        assertTrue(stored.containsAll(OrderSearchTokens.ofQuery("Brûlée")));
+        assertFalse(stored.containsAll(OrderSearchTokens.ofQuery("creme")));
+    }
+
+    @Test
+    void testOfQuery_regexCharactersAreOrdinary() {
+        assertEquals(List.of("a.b", ".b*", "b*("), OrderSearchTokens.ofQuery("a.b*("));
+    }
+}
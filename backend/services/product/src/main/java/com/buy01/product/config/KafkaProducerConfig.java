@@ -1,6 +1,8 @@
 package com.buy01.product.config;
 
 import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.common.config.TopicConfig;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.config.TopicBuilder;
@@ -8,8 +10,39 @@ import org.springframework.kafka.config.TopicBuilder;
 @Configuration
 public class KafkaProducerConfig {
 
+    /**
+     * Keyed by productId (OutboxRelay), so the events of one product stay in
+     * one partition, in order, while consumers spread products over
+     * partitions. Adding partitions later moves keys: drain the outbox first.
+     */
     @Bean
-    public NewTopic orderTopic() {
-        return TopicBuilder.name("product-events").build();
+    public NewTopic productEventsTopic(
+            @Value("${application.product-events.partitions:6}") int partitions,
+            @Value("${application.product-events.replicas:1}") int replicas) {
+        return TopicBuilder.name("product-events")
+                .partitions(partitions)
+                .replicas(replicas)
+                .build();
+    }
+
+    /**
+     * Latest state of every product, keyed by productId; a deletion is a
+     * tombstone. Compaction keeps one record per live product, so reading the
+     * topic from the beginning rebuilds the full catalogue. Partitions are
+     * left to the broker default and must not be added afterwards: records of
+     * a product would span two partitions and a reader could end on the
+     * older one.
+     */
+    @Bean
+    public NewTopic productStateTopic(
+            @Value("${application.product-state.replicas:1}") int replicas,
+            @Value("${application.product-state.delete-retention-ms:86400000}") long deleteRetentionMs,
+            @Value("${application.product-state.segment-ms:3600000}") long segmentMs) {
+        return TopicBuilder.name("product-state")
+                .replicas(replicas)
+                .compact()
+                .config(TopicConfig.DELETE_RETENTION_MS_CONFIG, String.valueOf(deleteRetentionMs))
+                .config(TopicConfig.SEGMENT_MS_CONFIG, String.valueOf(segmentMs))
+                .build();
     }
 }
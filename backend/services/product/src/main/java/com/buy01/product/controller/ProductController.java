@@ -18,10 +18,8 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
-import com.buy01.product.service.ProductEventPublisher;
 import com.buy01.product.dto.MediaInfo;
 import com.buy01.product.dto.MyProductInfo;
-import com.buy01.product.dto.ProductDeleteEvent;
 import com.buy01.product.dto.ProductInfo;
 import com.buy01.product.dto.ProductRequest;
 import com.buy01.product.dto.SellerInfo;
@@ -42,7 +40,6 @@ public class ProductController {
     private final ProductService productService;
     private final UserClient userClient;
     private final MediaClient mediaClient;
-    private final ProductEventPublisher productEventPublisher;
 
     @GetMapping
     public ResponseEntity<?> getAllProducts() {
@@ -157,20 +154,12 @@ public class ProductController {
     @PutMapping("/{productId}")
     @PreAuthorize("isAuthenticated() and @productSecurity.isOwnerProduct(#productId) and hasAnyRole('ADMIN','SELLER')")
     public ResponseEntity<?> updateProduct(@PathVariable String productId, @Valid @RequestBody ProductRequest product) {
-        if (!productService.existsByProductId(productId)) {
+        Optional<Product> updatedProduct = productService.updateProduct(productId, product);
+        if (updatedProduct.isEmpty()) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Product Not Found");
         }
 
-        Product productToUpdate = productService.findProductById(productId).get();
-
-        productToUpdate.setName(product.getName());
-        productToUpdate.setDescription(product.getDescription());
-        productToUpdate.setPrice(product.getPrice());
-        productToUpdate.setQuantity(product.getQuantity());
-
-        Product updatedProduct = productService.createProduct(productToUpdate);
-
-        return ResponseEntity.ok().body(updatedProduct);
+        return ResponseEntity.ok().body(updatedProduct.get());
     }
 
     @DeleteMapping("/{productId}")
@@ -180,9 +169,6 @@ public class ProductController {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Product Not Found");
         }
         productService.deleteProduct(productId);
-
-        ProductDeleteEvent productDeleteEvent = new ProductDeleteEvent(productId, "PRODUCT_DELETED");
-        productEventPublisher.publishProductDeleted(productDeleteEvent);
         return ResponseEntity.noContent().build();
     }
 
@@ -190,7 +176,8 @@ public class ProductController {
      * PATCH /api/v1/products/{productId}/quantity?delta=N
      * Internal endpoint — decrements (delta < 0) or increments (delta > 0) product
      * stock.
-     * Called by order-service via Feign when order status = DELIVERED.
+     * Order deliveries no longer call it: order-service publishes ORDER_DELIVERED
+     * on order-events, applied by OrderEventListener.
      * Secured: authenticated + service-to-service (no ownership check needed here).
      */
     @PutMapping("/{productId}/quantity")
@@ -0,0 +1,14 @@
+package com.buy01.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderEventItem {
+    private String productId;
+    private String sellerId;
+    private int quantity;
+}
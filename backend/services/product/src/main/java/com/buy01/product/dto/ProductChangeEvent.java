@@ -0,0 +1,31 @@
+package com.buy01.product.dto;
+
+import com.buy01.product.model.Product;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * PRODUCT_CHANGED: the state of a product right after a write (creation,
+ * update, stock change), enough for the replicas kept by other services.
+ * Each record of product-state carries the full state, so compaction (and
+ * a consumer) only keeps the last one per product; version is the
+ * product's own, so the relay keeps them in order.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductChangeEvent {
+    private String productId;
+    private String eventType;
+    private String sellerId;
+    private String name;
+    private Double price;
+    private int quantity;
+    private long version;
+
+    public static ProductChangeEvent of(Product product) {
+        return new ProductChangeEvent(product.getId(), "PRODUCT_CHANGED", product.getUserId(), product.getName(),
+                product.getPrice(), product.getQuantity(), product.getVersion());
+    }
+}
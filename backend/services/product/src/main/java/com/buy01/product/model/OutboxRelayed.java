@@ -0,0 +1,29 @@
+package com.buy01.product.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Highest version relayed for one aggregate of a topic (id = topic|aggregateId):
+ * an event at or below it reaching the outbox later is stale and dropped.
+ */
+@Document("outbox_relayed")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxRelayed {
+    @Id
+    private String id;
+
+    private long version;
+
+    // A stale event waits in the outbox for minutes at most, never for days
+    @Indexed(name = "relayed_ttl_idx", expireAfter = "7d")
+    private Instant relayedAt;
+}
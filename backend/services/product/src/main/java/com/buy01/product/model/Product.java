@@ -1,11 +1,14 @@
 package com.buy01.product.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.Document;
 
+import java.util.List;
+
 @Document("products") // Nom de la collection dans MongoDB
 @Data // Annotation Lombok pour générer les getters, setters, toString, equals et
       // hashCode
@@ -25,4 +28,13 @@ public class Product {
 
     private String userId;
 
+    // Incremented by every write, carried by the product-state snapshots so the
+    // outbox relay never lets an older one follow a newer
+    @JsonIgnore
+    private long version;
+
+    // Clés "orderId:eventType" déjà appliquées au stock (fenêtre bornée), pour
+    // rendre le traitement des order-events idempotent
+    @JsonIgnore
+    private List<String> appliedOrderEvents;
 }
@@ -0,0 +1,25 @@
+package com.buy01.product.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/** Written once product-state has been seeded with every existing product. */
+@Document("product_state_seed")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductStateSeed {
+    public static final String ID = "product-state";
+
+    @Id
+    private String id;
+
+    private long products;
+
+    private LocalDateTime completedAt;
+}
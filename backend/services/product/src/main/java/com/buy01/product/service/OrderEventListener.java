@@ -0,0 +1,54 @@
+package com.buy01.product.service;
+
+import com.buy01.product.dto.OrderEvent;
+import com.buy01.product.dto.OrderEventItem;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OrderEventListener {
+
+    private final ProductService productService;
+
+    /**
+     * ORDER_DELIVERED decrements the stock of every item. ORDER_CANCELLED
+     * leaves it alone: DELIVERED is final, so a cancelled order (from PENDING
+     * or CONFIRMED) never took any stock.
+     * Exceptions are left to the container so the record is retried.
+     */
+    @KafkaListener(topics = "order-events")
+    public void handleOrderEvent(OrderEvent event) {
+        Map<String, Integer> deltas = stockDeltas(event);
+        if (deltas.isEmpty()) {
+            return;
+        }
+        String eventKey = event.getOrderId() + ":" + event.getEventType();
+        int updated = productService.applyOrderStock(eventKey, deltas);
+        log.info("{} for order {}: stock updated on {}/{} products",
+                event.getEventType(), event.getOrderId(), updated, deltas.size());
+    }
+
+    /** productId → stock delta for the event (several lines of one product are summed). */
+    static Map<String, Integer> stockDeltas(OrderEvent event) {
+        if (!"ORDER_DELIVERED".equals(event.getEventType())) {
+            return Map.of();
+        }
+
+        Map<String, Integer> deltas = new LinkedHashMap<>();
+        if (event.getItems() != null) {
+            for (OrderEventItem item : event.getItems()) {
+                if (item.getProductId() != null && item.getQuantity() > 0) {
+                    deltas.merge(item.getProductId(), -item.getQuantity(), Integer::sum);
+                }
+            }
+        }
+        return deltas;
+    }
+}
@@ -0,0 +1,51 @@
+package com.buy01.product.service;
+
+import com.buy01.product.model.OutboxEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@RequiredArgsConstructor
+public class OutboxService {
+
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * Queues an event for Kafka. Call it in the same service operation as the
+     * domain write, right after it: the request never waits on Kafka, and the
+     * event survives a broker outage.
+     */
+    public void append(String topic, String aggregateId, String eventType, Object payload) {
+        append(topic, aggregateId, null, eventType, payload);
+    }
+
+    /**
+     * Same, for an event carrying the version of its aggregate: the relay sends
+     * the events of an aggregate in version order and drops any older than
+     * one already sent.
+     */
+    public void append(String topic, String aggregateId, Long version, String eventType, Object payload) {
+        mongoTemplate.insert(new OutboxEvent(null, topic, aggregateId, version, eventType, payload,
+                LocalDateTime.now()));
+    }
+
+    /**
+     * One event per aggregate (aggregateId → payload), in a single insert.
+     * versionsByAggregate gives their versions; aggregates missing from it are
+     * sent unversioned.
+     */
+    public void appendAll(String topic, String eventType, Map<String, Object> payloadsByAggregate,
+            Map<String, Long> versionsByAggregate) {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvent> events = new ArrayList<>(payloadsByAggregate.size());
+        payloadsByAggregate.forEach((aggregateId, payload) -> events.add(new OutboxEvent(null, topic, aggregateId,
+                versionsByAggregate.get(aggregateId), eventType, payload, now)));
+        mongoTemplate.insert(events, OutboxEvent.class);
+    }
+}
@@ -1,49 +1,68 @@
 package com.buy01.product.service;
 
+import com.buy01.product.dto.ProductChangeEvent;
 import com.buy01.product.dto.ProductDeleteEvent;
+import com.buy01.product.model.Product;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
-import org.springframework.kafka.core.KafkaTemplate;
-import org.springframework.messaging.Message;
-import org.springframework.messaging.support.MessageBuilder;
 import org.springframework.stereotype.Service;
-import static org.springframework.kafka.support.KafkaHeaders.TOPIC;
-
 
+/**
+ * Queues product events in the outbox; OutboxRelay sends them keyed by
+ * productId: PRODUCT_DELETED to product-events (media cleanup), product
+ * snapshots and deletion tombstones to the compacted product-state topic,
+ * versioned by the product's version.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class ProductEventPublisher {
 
-    private final KafkaTemplate<String, ProductDeleteEvent> kafkaTemplate;
-
-    public void publishProductDeleted(ProductDeleteEvent event) {
-
-        log.info("Publishing product deleted event for product: {}", event.getProductId());
-        Message<ProductDeleteEvent> message = MessageBuilder
-        .withPayload(event)
-        .setHeader(TOPIC, "product-events")
-        .build();
-        // Send asynchronously and get a CompletableFuture
-        var future = kafkaTemplate.send(message);
-
-        // Handle the result asynchronously
-        future.whenComplete((result, exception) -> {
-            if (exception == null) {
-                // Success
-                log.info("Successfully published event for product: {} to topic: {}, partition: {}, offset: {}",
-                        event.getProductId(),
-                        result.getRecordMetadata().topic(),
-                        result.getRecordMetadata().partition(),
-                        result.getRecordMetadata().offset());
-            } else {
-                // Failure
-                log.error("Failed to publish event for product: {} - Error: {}",
-                        event.getProductId(), exception.getMessage(), exception);
-
-            }
+    public static final String TOPIC = "product-events";
+    public static final String STATE_TOPIC = "product-state";
+
+    private final OutboxService outboxService;
+
+    /** version: the tombstone's, past the last snapshot (null if unknown). */
+    public void publishProductDeleted(ProductDeleteEvent event, Long version) {
+        log.info("Queuing product deleted event for product: {}", event.getProductId());
+        outboxService.append(TOPIC, event.getProductId(), event.getEventType(), event);
+        // null payload: tombstone, compaction then drops the product from product-state
+        outboxService.append(STATE_TOPIC, event.getProductId(), version, event.getEventType(), null);
+    }
+
+    /** Full product state after a write. */
+    public void publishProductChanged(Product product) {
+        ProductChangeEvent event = ProductChangeEvent.of(product);
+        outboxService.append(STATE_TOPIC, event.getProductId(), event.getVersion(), event.getEventType(), event);
+    }
+
+    /** Snapshots of many products in one outbox insert (product-state seeding). */
+    public void publishProductStates(List<ProductChangeEvent> events) {
+        Map<String, Object> byProduct = new LinkedHashMap<>();
+        Map<String, Long> versions = new HashMap<>();
+        events.forEach(event -> {
+            byProduct.put(event.getProductId(), event);
+            versions.put(event.getProductId(), event.getVersion());
         });
+        outboxService.appendAll(STATE_TOPIC, "PRODUCT_CHANGED", byProduct, versions);
+    }
+
+    /**
+     * product-state tombstones only, for products already deleted (product-state
+     * seeding): unversioned, the product is gone and nothing can follow them.
+     */
+    public void publishStateTombstones(Collection<String> productIds) {
+        Map<String, Object> byProduct = new LinkedHashMap<>();
+        productIds.forEach(productId -> byProduct.put(productId, null));
+        outboxService.appendAll(STATE_TOPIC, "PRODUCT_DELETED", byProduct, Map.of());
     }
 }
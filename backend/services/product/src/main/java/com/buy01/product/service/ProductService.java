@@ -1,22 +1,54 @@
 package com.buy01.product.service;
 
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
 import org.springframework.stereotype.Service;
 
 import lombok.RequiredArgsConstructor;
+import com.buy01.product.dto.ProductChangeEvent;
+import com.buy01.product.dto.ProductDeleteEvent;
+import com.buy01.product.dto.ProductRequest;
 import com.buy01.product.repository.ProductRepository;
 import com.buy01.product.model.Product;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
 
 // test
 @Service
 @RequiredArgsConstructor
 public class ProductService {
+    // version + 1, for the aggregation pipeline updates (products written before it existed have none)
+    private static final Document NEXT_VERSION = new Document("$add",
+            List.of(new Document("$ifNull", List.of("$version", 0)), 1));
+
     private final ProductRepository productRepository;
+    private final MongoTemplate mongoTemplate;
+    private final ProductEventPublisher productEventPublisher;
+
+    @Value("${application.stock.applied-events-window:200}")
+    private int appliedEventsWindow;
 
+    /** Creates the product and queues PRODUCT_CHANGED in the outbox. */
     public Product createProduct(Product product) {
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        productEventPublisher.publishProductChanged(saved);
+        return saved;
     }
 
     public List<Product> findAllProducts() {
@@ -35,8 +67,14 @@ public class ProductService {
         return productRepository.findByUserId(userId).orElse(null);
     }
 
+    /**
+     * Deletes the product and queues PRODUCT_DELETED (media cleanup) in the
+     * outbox, the product-state tombstone one version past the product.
+     */
     public void deleteProduct(String id) {
-        productRepository.deleteById(id);
+        Product removed = mongoTemplate.findAndRemove(query(where("id").is(id)), Product.class);
+        productEventPublisher.publishProductDeleted(new ProductDeleteEvent(id, "PRODUCT_DELETED"),
+                removed == null ? null : removed.getVersion() + 1);
     }
 
     public Boolean existsByProductId(String productId) {
@@ -44,30 +82,114 @@ public class ProductService {
     }
 
     /**
-     * Decrement product stock by a given quantity (called when order is DELIVERED).
-     * Throws IllegalStateException if stock is insufficient.
+     * Seller edit of name, description, price and stock: a single $set, so an
+     * order stock update landing meanwhile (and its appliedOrderEvents key) is
+     * never overwritten by a stale copy of the document.
+     */
+    public Optional<Product> updateProduct(String productId, ProductRequest request) {
+        Product updated = mongoTemplate.findAndModify(query(where("id").is(productId)),
+                new Update()
+                        .set("name", request.getName())
+                        .set("description", request.getDescription())
+                        .set("price", request.getPrice())
+                        .set("quantity", request.getQuantity())
+                        .inc("version", 1),
+                FindAndModifyOptions.options().returnNew(true), Product.class);
+        if (updated != null) {
+            productEventPublisher.publishProductChanged(updated);
+        }
+        return Optional.ofNullable(updated);
+    }
+
+    /**
+     * Decrement product stock by a given quantity, floored at 0, in one atomic
+     * update (called when order is DELIVERED).
+     * Throws IllegalArgumentException if the product does not exist.
      */
     public Product decrementStock(String productId, int quantity) {
-        Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new IllegalArgumentException("Product not found: " + productId));
-
-        int newQty = product.getQuantity() - quantity;
-        if (newQty < 0)
-            newQty = 0; // floor at 0 to avoid negative stock
-        product.setQuantity(newQty);
-        return productRepository.save(product);
+        // { $set: { quantity: max(0, quantity - n), version: version + 1 } }
+        AggregationOperation set = context -> new Document("$set", new Document("quantity",
+                new Document("$max", List.of(0, new Document("$subtract", List.of("$quantity", quantity)))))
+                .append("version", NEXT_VERSION));
+        return modifyStock(productId, AggregationUpdate.from(List.of(set)));
     }
 
     /**
      * Update stock to an absolute value (seller replenishment).
      */
     public Product updateStock(String productId, int newQuantity) {
-        Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new IllegalArgumentException("Product not found: " + productId));
-
         if (newQuantity < 0)
             throw new IllegalArgumentException("Quantity cannot be negative");
-        product.setQuantity(newQuantity);
-        return productRepository.save(product);
+        return modifyStock(productId, new Update().set("quantity", newQuantity).inc("version", 1));
+    }
+
+    // findAndModify touching quantity and version only, never appliedOrderEvents
+    private Product modifyStock(String productId, UpdateDefinition update) {
+        Product saved = mongoTemplate.findAndModify(query(where("id").is(productId)), update,
+                FindAndModifyOptions.options().returnNew(true), Product.class);
+        if (saved == null) {
+            throw new IllegalArgumentException("Product not found: " + productId);
+        }
+        productEventPublisher.publishProductChanged(saved);
+        return saved;
+    }
+
+    /**
+     * Applies the stock deltas of one order event (productId → delta, delta < 0
+     * = decrement) in a single unordered bulk write. Each product update only
+     * matches if eventKey is not yet in its appliedOrderEvents, so a redelivered
+     * event never applies twice. Stock is floored at 0. The products are read
+     * back afterwards to queue their new state (PRODUCT_CHANGED).
+     * Returns the number of products actually updated.
+     */
+    public int applyOrderStock(String eventKey, Map<String, Integer> deltas) {
+        if (deltas.isEmpty()) {
+            return 0;
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Product.class);
+        deltas.forEach((productId, delta) -> bulk.updateOne(
+                query(where("id").is(productId).and("appliedOrderEvents").ne(eventKey)),
+                stockUpdate(eventKey, delta)));
+        int updated = bulk.execute().getModifiedCount();
+        if (updated > 0) {
+            Query changed = query(where("id").in(deltas.keySet()));
+            changed.fields().include("name").include("price").include("quantity").include("userId").include("version");
+            mongoTemplate.find(changed, Product.class).forEach(productEventPublisher::publishProductChanged);
+        }
+        return updated;
+    }
+
+    /**
+     * Current state of every product, read from a cursor (the caller must
+     * close the stream): what product-state is seeded with.
+     */
+    public Stream<ProductChangeEvent> streamProductStates() {
+        Query all = new Query();
+        all.fields().include("name").include("price").include("quantity").include("userId").include("version");
+        all.cursorBatchSize(1000);
+        return mongoTemplate.stream(all, Product.class).map(ProductChangeEvent::of);
+    }
+
+    /** Current state of the given products, by id; deleted ones are absent. */
+    public Map<String, ProductChangeEvent> findProductStates(Collection<String> productIds) {
+        Query products = query(where("id").in(productIds));
+        products.fields().include("name").include("price").include("quantity").include("userId").include("version");
+        return mongoTemplate.find(products, Product.class).stream()
+                .collect(Collectors.toMap(Product::getId, ProductChangeEvent::of));
+    }
+
+    // { $set: { quantity: max(0, quantity + delta), appliedOrderEvents: last N of (appliedOrderEvents + [eventKey]),
+    //           version: version + 1 } }
+    private AggregationUpdate stockUpdate(String eventKey, int delta) {
+        AggregationOperation set = context -> new Document("$set", new Document()
+                .append("quantity", new Document("$max",
+                        List.of(0, new Document("$add", List.of("$quantity", delta)))))
+                .append("appliedOrderEvents", new Document("$slice", List.of(
+                        new Document("$concatArrays", List.of(
+                                new Document("$ifNull", List.of("$appliedOrderEvents", List.of())),
+                                List.of(eventKey))),
+                        -appliedEventsWindow)))
+                .append("version", NEXT_VERSION));
+        return AggregationUpdate.from(List.of(set));
     }
 }
@@ -0,0 +1,130 @@
+package com.buy01.product.service;
+
+import com.buy01.product.dto.ProductChangeEvent;
+import com.buy01.product.model.ProductStateSeed;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Products created before product-state existed never had a snapshot
+ * published: the first start queues one per product in the outbox, then
+ * records it in product_state_seed so later starts skip it. Two replicas
+ * starting together may both seed, which only duplicates records that
+ * compaction collapses.
+ * A product written or deleted while a batch is queued would get its
+ * seeded (older) snapshot after the newer record: each batch is read back
+ * once queued, and the products that moved meanwhile are queued again
+ * (their current state, or a tombstone) until a read matches what was
+ * queued last.
+ */
+@Service
+@Slf4j
+public class ProductStateSeeder {
+
+    private static final int MAX_SETTLE_ROUNDS = 10;
+
+    private final MongoTemplate mongoTemplate;
+    private final ProductService productService;
+    private final ProductEventPublisher productEventPublisher;
+
+    @Value("${application.product-state.seed-batch-size:1000}")
+    private int batchSize;
+
+    public ProductStateSeeder(MongoTemplate mongoTemplate, ProductService productService,
+            ProductEventPublisher productEventPublisher) {
+        this.mongoTemplate = mongoTemplate;
+        this.productService = productService;
+        this.productEventPublisher = productEventPublisher;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedOnStartup() {
+        if (mongoTemplate.findById(ProductStateSeed.ID, ProductStateSeed.class) != null) {
+            return;
+        }
+        Thread seeder = new Thread(() -> {
+            try {
+                seed();
+            } catch (RuntimeException e) {
+                log.error("Product state seeding failed, retried on next start - Error: {}", e.getMessage());
+            }
+        }, "product-state-seeder");
+        seeder.setDaemon(true);
+        seeder.start();
+    }
+
+    /** Returns the number of products queued. */
+    long seed() {
+        long start = System.currentTimeMillis();
+        long count = 0;
+        try (Stream<ProductChangeEvent> states = productService.streamProductStates()) {
+            List<ProductChangeEvent> batch = new ArrayList<>(batchSize);
+            for (Iterator<ProductChangeEvent> it = states.iterator(); it.hasNext(); ) {
+                batch.add(it.next());
+                if (batch.size() == batchSize || !it.hasNext()) {
+                    publishSettled(batch);
+                    count += batch.size();
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+        }
+        try {
+            mongoTemplate.insert(new ProductStateSeed(ProductStateSeed.ID, count, LocalDateTime.now()));
+        } catch (DuplicateKeyException e) {
+            // Seeded concurrently by another replica
+        }
+        log.info("Product state seeded: {} products in {} ms", count, System.currentTimeMillis() - start);
+        return count;
+    }
+
+    /**
+     * Queues the snapshots, then compares them with the products as they are
+     * now. A write landing after the read-back queues its own record after
+     * ours, so once they match the last record of each product is current.
+     */
+    private void publishSettled(List<ProductChangeEvent> batch) {
+        productEventPublisher.publishProductStates(batch);
+        Map<String, ProductChangeEvent> queued = new LinkedHashMap<>();
+        batch.forEach(state -> queued.put(state.getProductId(), state));
+        for (int round = 0; round < MAX_SETTLE_ROUNDS && !queued.isEmpty(); round++) {
+            Map<String, ProductChangeEvent> current = productService.findProductStates(queued.keySet());
+            List<ProductChangeEvent> changed = new ArrayList<>();
+            List<String> deleted = new ArrayList<>();
+            queued.forEach((productId, state) -> {
+                ProductChangeEvent now = current.get(productId);
+                if (now == null) {
+                    if (state != null) {
+                        deleted.add(productId);
+                    }
+                } else if (!now.equals(state)) {
+                    changed.add(now);
+                }
+            });
+            queued.clear();
+            if (!changed.isEmpty()) {
+                productEventPublisher.publishProductStates(changed);
+                changed.forEach(state -> queued.put(state.getProductId(), state));
+            }
+            if (!deleted.isEmpty()) {
+                productEventPublisher.publishStateTombstones(deleted);
+                deleted.forEach(productId -> queued.put(productId, null));
+            }
+        }
+        if (!queued.isEmpty()) {
+            log.warn("⚠️ {} products still changing while seeded, left to their next write", queued.size());
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.buy01.product.service;
+
+import com.buy01.product.dto.OrderEvent;
+import com.buy01.product.dto.OrderEventItem;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OrderEventListenerTest {
+
+    private static OrderEvent event(String type, String previousStatus) {
+        return new OrderEvent("order-1", type, previousStatus, List.of(
+                new OrderEventItem("p1", "s1", 2),
+                new OrderEventItem("p2", "s1", 1),
+                new OrderEventItem("p1", "s2", 3)), null);
+    }
+
+    @Test
+    void testDelivered_decrementsAndSumsPerProduct() {
+        Map<String, Integer> deltas = OrderEventListener.stockDeltas(event("ORDER_DELIVERED", "CONFIRMED"));
+
+        assertEquals(Map.of("p1", -5, "p2", -1), deltas);
+    }
+
+    @Test
+    void testCancelled_leavesStockUntouched() {
+        assertTrue(OrderEventListener.stockDeltas(event("ORDER_CANCELLED", "PENDING")).isEmpty());
+        assertTrue(OrderEventListener.stockDeltas(event("ORDER_CANCELLED", "CONFIRMED")).isEmpty());
+    }
+}
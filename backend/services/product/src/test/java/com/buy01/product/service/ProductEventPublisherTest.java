@@ -0,0 +1,61 @@
+package com.buy01.product.service;
+
+import com.buy01.product.dto.ProductChangeEvent;
+import com.buy01.product.dto.ProductDeleteEvent;
+import com.buy01.product.model.Product;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class ProductEventPublisherTest {
+
+    private final OutboxService outboxService = mock(OutboxService.class);
+    private final ProductEventPublisher publisher = new ProductEventPublisher(outboxService);
+
+    @Test
+    void testDeleted_notifiesMediaAndTombstonesState() {
+        ProductDeleteEvent event = new ProductDeleteEvent("p1", "PRODUCT_DELETED");
+
+        publisher.publishProductDeleted(event, 4L);
+
+        verify(outboxService).append("product-events", "p1", "PRODUCT_DELETED", event);
+        verify(outboxService).append(eq("product-state"), eq("p1"), eq(4L), eq("PRODUCT_DELETED"), isNull());
+    }
+
+    @Test
+    void testChanged_goesToStateTopicOnly() {
+        Product product = new Product();
+        product.setId("p1");
+        product.setUserId("seller-1");
+        product.setName("Desk lamp");
+        product.setPrice(12.5);
+        product.setQuantity(4);
+        product.setVersion(3);
+
+        publisher.publishProductChanged(product);
+
+        verify(outboxService).append("product-state", "p1", 3L, "PRODUCT_CHANGED",
+                new ProductChangeEvent("p1", "PRODUCT_CHANGED", "seller-1", "Desk lamp", 12.5, 4, 3));
+        verify(outboxService, never()).append(eq("product-events"), anyString(), anyString(), any());
+    }
+
+    @Test
+    void testStates_oneOutboxInsert() {
+        ProductChangeEvent a = new ProductChangeEvent("a", "PRODUCT_CHANGED", "seller-1", "A", 1.0, 1, 5);
+        ProductChangeEvent b = new ProductChangeEvent("b", "PRODUCT_CHANGED", "seller-2", "B", 2.0, 2, 7);
+
+        publisher.publishProductStates(List.of(a, b));
+
+        verify(outboxService).appendAll("product-state", "PRODUCT_CHANGED", Map.of("a", a, "b", b),
+                Map.of("a", 5L, "b", 7L));
+    }
+}
@@ -0,0 +1,96 @@
+package com.buy01.product.service;
+
+import com.buy01.product.dto.ProductDeleteEvent;
+import com.buy01.product.dto.ProductRequest;
+import com.buy01.product.model.Product;
+import com.buy01.product.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ProductServiceTest {
+
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final ProductEventPublisher productEventPublisher = mock(ProductEventPublisher.class);
+    private final ProductService productService = new ProductService(productRepository, mongoTemplate,
+            productEventPublisher);
+
+    private static Product product(int quantity) {
+        return new Product("p1", "Desk lamp", "A lamp for the desk", 40.0, quantity, "seller-1", 0, null);
+    }
+
+    /** The update sent to findAndModify, as JSON. */
+    private String modification() {
+        ArgumentCaptor<UpdateDefinition> update = ArgumentCaptor.forClass(UpdateDefinition.class);
+        verify(mongoTemplate).findAndModify(any(Query.class), update.capture(), any(FindAndModifyOptions.class),
+                eq(Product.class));
+        return update.getValue().getUpdateObject().toJson();
+    }
+
+    @Test
+    void testUpdateProduct_setsEditedFieldsOnly() {
+        Product updated = product(7);
+        when(mongoTemplate.findAndModify(any(Query.class), any(UpdateDefinition.class),
+                any(FindAndModifyOptions.class), eq(Product.class))).thenReturn(updated);
+
+        Optional<Product> result = productService.updateProduct("p1",
+                new ProductRequest("Desk lamp", "A lamp for the desk", 40.0, 7));
+
+        assertEquals(Optional.of(updated), result);
+        String update = modification();
+        assertTrue(update.contains("\"$set\"") && update.contains("\"quantity\": 7"));
+        assertTrue(update.contains("\"$inc\": {\"version\": 1}"));
+        // The stock dedup window is left to the order-events updates
+        assertFalse(update.contains("appliedOrderEvents"));
+        verify(productRepository, never()).save(any());
+        verify(productEventPublisher).publishProductChanged(updated);
+    }
+
+    @Test
+    void testDeleteProduct_tombstoneFollowsTheLastVersion() {
+        Product removed = product(2);
+        removed.setVersion(6);
+        when(mongoTemplate.findAndRemove(any(Query.class), eq(Product.class))).thenReturn(removed);
+
+        productService.deleteProduct("p1");
+
+        verify(productEventPublisher).publishProductDeleted(new ProductDeleteEvent("p1", "PRODUCT_DELETED"), 7L);
+    }
+
+    @Test
+    void testDecrementStock_atomicAndFlooredAtZero() {
+        when(mongoTemplate.findAndModify(any(Query.class), any(UpdateDefinition.class),
+                any(FindAndModifyOptions.class), eq(Product.class))).thenReturn(product(0));
+
+        productService.decrementStock("p1", 3);
+
+        String update = modification();
+        assertTrue(update.contains("\"$max\"") && update.contains("\"$subtract\""));
+        assertFalse(update.contains("appliedOrderEvents"));
+        verify(productRepository, never()).save(any());
+    }
+
+    @Test
+    void testUpdateStock_unknownProduct() {
+        assertThrows(IllegalArgumentException.class, () -> productService.updateStock("missing", 5));
+        assertThrows(IllegalArgumentException.class, () -> productService.updateStock("p1", -1));
+        verify(productEventPublisher, never()).publishProductChanged(any());
+    }
+}
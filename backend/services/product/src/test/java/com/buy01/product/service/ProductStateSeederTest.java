@@ -0,0 +1,60 @@
+package com.buy01.product.service;
+
+import com.buy01.product.dto.ProductChangeEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ProductStateSeederTest {
+
+    private final ProductService productService = mock(ProductService.class);
+    private final ProductEventPublisher productEventPublisher = mock(ProductEventPublisher.class);
+    private final ProductStateSeeder seeder = new ProductStateSeeder(mock(MongoTemplate.class), productService,
+            productEventPublisher);
+
+    private static ProductChangeEvent state(String productId, int quantity) {
+        return new ProductChangeEvent(productId, "PRODUCT_CHANGED", "seller-1", "Product", 10.0, quantity, 0);
+    }
+
+    @Test
+    void testSeed_requeuesProductsWrittenOrDeletedMeanwhile() {
+        ReflectionTestUtils.setField(seeder, "batchSize", 10);
+        when(productService.streamProductStates()).thenReturn(Stream.of(state("a", 5), state("b", 3), state("c", 1)));
+        // read back after queuing: a decremented, b deleted, c untouched; then stable
+        when(productService.findProductStates(anyCollection())).thenReturn(
+                Map.of("a", state("a", 4), "c", state("c", 1)),
+                Map.of("a", state("a", 4)));
+
+        long seeded = seeder.seed();
+
+        assertEquals(3, seeded);
+        verify(productEventPublisher).publishProductStates(List.of(state("a", 5), state("b", 3), state("c", 1)));
+        verify(productEventPublisher).publishProductStates(List.of(state("a", 4)));
+        // without it the seeded snapshot of b would outlive its deletion tombstone
+        verify(productEventPublisher).publishStateTombstones(List.of("b"));
+    }
+
+    @Test
+    void testSeed_nothingMoved_queuedOnce() {
+        ReflectionTestUtils.setField(seeder, "batchSize", 10);
+        when(productService.streamProductStates()).thenReturn(Stream.of(state("a", 5)));
+        when(productService.findProductStates(anyCollection())).thenReturn(Map.of("a", state("a", 5)));
+
+        seeder.seed();
+
+        verify(productEventPublisher).publishProductStates(List.of(state("a", 5)));
+        verify(productEventPublisher, never()).publishStateTombstones(any());
+    }
+}
@@ -0,0 +1,15 @@
+package com.buy01.user.config;
+
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+
+@Configuration
+public class KafkaProducerConfig {
+
+    @Bean
+    public NewTopic userEventsTopic() {
+        return TopicBuilder.name("user-events").build();
+    }
+}
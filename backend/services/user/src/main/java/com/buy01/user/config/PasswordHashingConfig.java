@@ -0,0 +1,60 @@
+package com.buy01.user.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Configuration
+public class PasswordHashingConfig {
+
+    private static final String POOL_NAME = "password-hashing";
+
+    private final AtomicLong rejectedTasks = new AtomicLong();
+
+    /**
+     * Pool dédié au hachage BCrypt : un nombre fixe de threads et une file bornée.
+     * Quand la file est pleine, la tâche est rejetée immédiatement (→ 429) au lieu
+     * de bloquer les threads Tomcat.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolExecutor passwordHashingExecutor(
+            @Value("${security.password-hashing.threads:4}") int threads,
+            @Value("${security.password-hashing.queue-capacity:64}") int queueCapacity) {
+        return new ThreadPoolExecutor(
+                threads,
+                threads,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory(POOL_NAME + "-"),
+                (task, executor) -> {
+                    rejectedTasks.incrementAndGet();
+                    throw new RejectedExecutionException("Password hashing queue is full");
+                });
+    }
+
+    /**
+     * Exposes pool saturation (active, queued, remaining capacity, rejections)
+     * under /actuator/metrics/executor.* with tag name=password-hashing.
+     */
+    @Bean
+    public MeterBinder passwordHashingMetrics(ThreadPoolExecutor passwordHashingExecutor) {
+        return registry -> {
+            new ExecutorServiceMetrics(passwordHashingExecutor, POOL_NAME, Tags.empty()).bindTo(registry);
+            FunctionCounter.builder("executor.rejected", rejectedTasks, AtomicLong::get)
+                    .tag("name", POOL_NAME)
+                    .description("Password hashing tasks rejected because the queue was full")
+                    .register(registry);
+        };
+    }
+}
@@ -0,0 +1,23 @@
+package com.buy01.user.controller;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import com.buy01.user.dto.ErrorResponse;
+import com.buy01.user.security.PasswordHashingBusyException;
+
+@RestControllerAdvice
+public class ApiExceptionHandler {
+
+    // Pool de hachage saturé (login, register, update) → 429 au lieu de 500
+    @ExceptionHandler(PasswordHashingBusyException.class)
+    public ResponseEntity<ErrorResponse> handlePasswordHashingBusy(PasswordHashingBusyException e) {
+        ErrorResponse error = new ErrorResponse(429, "Too Many Requests", e.getMessage());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(error);
+    }
+}
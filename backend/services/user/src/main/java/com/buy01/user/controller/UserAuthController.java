@@ -1,6 +1,7 @@
 package com.buy01.user.controller;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -15,9 +16,12 @@ import org.springframework.security.core.userdetails.UserDetails;
 
 import com.buy01.user.model.*;
 import com.buy01.user.security.CustomUserDetails;
+import com.buy01.user.security.LoginRateLimiter;
+import com.buy01.user.security.PasswordHashingBusyException;
 import com.buy01.user.dto.*;
 import com.buy01.user.service.UserService;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 
@@ -29,12 +33,24 @@ public class UserAuthController {
     private final AuthenticationManager authenticationManager;
     private final UserDetailsService userDetailsService;
     private final JwtUtil jwtUtil;
+    private final LoginRateLimiter loginRateLimiter;
 
     @Value("${jwt.expiration}")
     private Long jwtExpiration;
 
     @PostMapping("/login")
-    public ResponseEntity<?> loginUser(@Valid @RequestBody LoginRequest loginRequest) {
+    public ResponseEntity<?> loginUser(@Valid @RequestBody LoginRequest loginRequest, HttpServletRequest request) {
+        // Limiter par email et par IP avant tout calcul BCrypt
+        if (!loginRateLimiter.tryAcquire(loginRequest.getEmail(), clientIp(request))) {
+            ErrorResponse error = new ErrorResponse(
+                    429,
+                    "Too Many Requests",
+                    "Too many login attempts, please retry later");
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(loginRateLimiter.retryAfterSeconds()))
+                    .body(error);
+        }
+
         try {
             // Authentifier l'utilisateur
             authenticationManager.authenticate(
@@ -64,6 +80,9 @@ public class UserAuthController {
 
             return ResponseEntity.ok(response);
 
+        } catch (PasswordHashingBusyException e) {
+            // Géré par ApiExceptionHandler → 429
+            throw e;
         } catch (Exception e) {
             ErrorResponse error = new ErrorResponse(
                     401,
@@ -99,4 +118,14 @@ public class UserAuthController {
         userDTO.setRole(createdUser.getRole());
         return ResponseEntity.ok(userDTO);
     }
+
+    // Le gateway ajoute à X-Forwarded-For l'adresse qu'il voit : seule la dernière entrée est fiable,
+    // les précédentes viennent du client (sinon on prend l'adresse de la connexion)
+    static String clientIp(HttpServletRequest request) {
+        String forwarded = request.getHeader("X-Forwarded-For");
+        if (forwarded != null && !forwarded.isBlank()) {
+            return forwarded.substring(forwarded.lastIndexOf(',') + 1).trim();
+        }
+        return request.getRemoteAddr();
+    }
 }
@@ -0,0 +1,18 @@
+package com.buy01.user.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Published on the user-events topic, keyed by userId.
+ * eventType: USER_DELETED
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserEvent {
+    private String userId;
+    private String eventType;
+    private String role;
+}
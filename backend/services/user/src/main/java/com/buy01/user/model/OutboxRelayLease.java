@@ -0,0 +1,23 @@
+package com.buy01.user.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/** Single document naming the replica allowed to drain the outbox until lockedUntil. */
+@Document("outbox_relay_lease")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxRelayLease {
+    @Id
+    private String id;
+
+    private String owner;
+
+    private Instant lockedUntil;
+}
@@ -0,0 +1,115 @@
+package com.buy01.user.security;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token buckets par email et par IP devant /auth/login.
+ * Les buckets sont répartis sur des "stripes" (un verrou par stripe) et chaque
+ * stripe est un LRU borné, donc la mémoire reste constante même sous un
+ * credential-stuffing avec des milliers d'emails différents.
+ */
+@Component
+public class LoginRateLimiter implements MeterBinder {
+
+    private final Stripe[] stripes;
+    private final BucketSpec emailSpec;
+    private final BucketSpec ipSpec;
+    private final AtomicLong rejected = new AtomicLong();
+
+    public LoginRateLimiter(
+            @Value("${security.login-rate-limit.stripes:64}") int stripeCount,
+            @Value("${security.login-rate-limit.max-keys-per-stripe:1024}") int maxKeysPerStripe,
+            @Value("${security.login-rate-limit.email.capacity:5}") int emailCapacity,
+            @Value("${security.login-rate-limit.email.refill-per-minute:5}") int emailRefillPerMinute,
+            @Value("${security.login-rate-limit.ip.capacity:20}") int ipCapacity,
+            @Value("${security.login-rate-limit.ip.refill-per-minute:20}") int ipRefillPerMinute) {
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe(maxKeysPerStripe);
+        }
+        this.emailSpec = new BucketSpec(emailCapacity, emailRefillPerMinute);
+        this.ipSpec = new BucketSpec(ipCapacity, ipRefillPerMinute);
+    }
+
+    /** Returns false if either the IP or the email bucket is empty. */
+    public boolean tryAcquire(String email, String clientIp) {
+        boolean allowed = (clientIp == null || tryAcquire("ip:" + clientIp, ipSpec))
+                && (email == null || tryAcquire("email:" + email.toLowerCase(Locale.ROOT), emailSpec));
+        if (!allowed) {
+            rejected.incrementAndGet();
+        }
+        return allowed;
+    }
+
+    /** Seconds a rejected client should wait before the email bucket refills one token. */
+    public long retryAfterSeconds() {
+        return Math.max(1, (long) Math.ceil(1.0 / emailSpec.tokensPerSecond));
+    }
+
+    private boolean tryAcquire(String key, BucketSpec spec) {
+        Stripe stripe = stripes[(key.hashCode() & 0x7fffffff) % stripes.length];
+        long now = System.nanoTime();
+        synchronized (stripe) {
+            TokenBucket bucket = stripe.computeIfAbsent(key, k -> new TokenBucket(spec.capacity, now));
+            return bucket.tryConsume(spec, now);
+        }
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        FunctionCounter.builder("auth.login.rate_limited", rejected, AtomicLong::get)
+                .description("Login attempts rejected by the per-email/per-IP rate limiter")
+                .register(registry);
+    }
+
+    private record BucketSpec(int capacity, double tokensPerSecond) {
+        BucketSpec(int capacity, int refillPerMinute) {
+            this(capacity, refillPerMinute / 60.0);
+        }
+    }
+
+    private static final class TokenBucket {
+        private double tokens;
+        private long lastRefillNanos;
+
+        TokenBucket(int capacity, long now) {
+            this.tokens = capacity;
+            this.lastRefillNanos = now;
+        }
+
+        boolean tryConsume(BucketSpec spec, long now) {
+            double elapsedSeconds = (now - lastRefillNanos) / 1_000_000_000.0;
+            tokens = Math.min(spec.capacity, tokens + elapsedSeconds * spec.tokensPerSecond);
+            lastRefillNanos = now;
+            if (tokens < 1) {
+                return false;
+            }
+            tokens -= 1;
+            return true;
+        }
+    }
+
+    private static final class Stripe extends LinkedHashMap<String, TokenBucket> {
+        private final int maxKeys;
+
+        Stripe(int maxKeys) {
+            super(16, 0.75f, true);
+            this.maxKeys = maxKeys;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, TokenBucket> eldest) {
+            return size() > maxKeys;
+        }
+    }
+}
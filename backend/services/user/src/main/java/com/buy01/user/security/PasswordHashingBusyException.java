@@ -0,0 +1,12 @@
+package com.buy01.user.security;
+
+/**
+ * Thrown when the password hashing pool cannot accept or finish a task in time.
+ * Mapped to 429 Too Many Requests.
+ */
+public class PasswordHashingBusyException extends RuntimeException {
+
+    public PasswordHashingBusyException(String message) {
+        super(message);
+    }
+}
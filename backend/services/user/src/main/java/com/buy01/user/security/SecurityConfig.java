@@ -4,7 +4,9 @@
 
     import java.util.HashMap;
     import java.util.Map;
+    import java.util.concurrent.ThreadPoolExecutor;
 
+    import org.springframework.beans.factory.annotation.Value;
     import org.springframework.context.annotation.Bean;
     import org.springframework.context.annotation.Configuration;
     import org.springframework.security.authentication.AuthenticationManager;
@@ -28,8 +30,10 @@
     public class SecurityConfig {
 
         @Bean
-        public PasswordEncoder passwordEncoder() {
-            return new BCryptPasswordEncoder();
+        public PasswordEncoder passwordEncoder(ThreadPoolExecutor passwordHashingExecutor,
+                @Value("${security.password-hashing.timeout-ms:5000}") long timeoutMillis) {
+            // BCrypt tourne sur le pool borné, jamais directement sur les threads Tomcat
+            return new BoundedPasswordEncoder(new BCryptPasswordEncoder(), passwordHashingExecutor, timeoutMillis);
         }
 
         @Bean
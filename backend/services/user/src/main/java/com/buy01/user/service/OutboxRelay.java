@@ -0,0 +1,271 @@
+package com.buy01.user.service;
+
+import com.buy01.user.model.OutboxEvent;
+import com.buy01.user.model.OutboxRelayLease;
+import com.buy01.user.model.OutboxRelayed;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+/**
+ * Drains the outbox to Kafka in batches. Aggregates are sent in parallel, but
+ * the events of one aggregate are chained in version order: the next one is
+ * only sent once the previous is acknowledged, and a failure leaves the rest
+ * of that aggregate in the outbox for the next run. Only acknowledged events
+ * are deleted, so delivery is at-least-once and consumers must be idempotent.
+ * The highest version relayed per aggregate is kept in outbox_relayed: an
+ * event written by another replica that reaches the outbox (or a batch)
+ * after a newer one was sent is deleted without being sent, so a stale
+ * snapshot never becomes the last record of its key.
+ * A lease document lets a single replica relay at a time. It is renewed
+ * before each batch and outlasts one by construction: send timeout, then the
+ * wait for the sends still in flight (bounded by the producer's max.block.ms
+ * and delivery.timeout.ms, read from its configuration), then the Mongo
+ * writes. A relay that lost it meanwhile leaves its rows to the new holder.
+ * The same class is built into order, product and user (services are built
+ * separately); its tests live in order-service.
+ */
+@Service
+@Slf4j
+public class OutboxRelay {
+
+    private static final String LEASE_ID = "relay";
+
+    // Kafka producer defaults, when the service does not set them
+    private static final long DEFAULT_MAX_BLOCK_MS = 60000;
+    private static final long DEFAULT_DELIVERY_TIMEOUT_MS = 120000;
+
+    private final MongoTemplate mongoTemplate;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final String instanceId = UUID.randomUUID().toString();
+    private final long producerTimeoutMs;
+
+    @Value("${application.outbox.batch-size:200}")
+    private int batchSize;
+
+    @Value("${application.outbox.send-timeout-ms:10000}")
+    private long sendTimeoutMs;
+
+    // Mongo reads and writes of one batch
+    @Value("${application.outbox.lease-margin-ms:20000}")
+    private long leaseMarginMs;
+
+    public OutboxRelay(MongoTemplate mongoTemplate, KafkaTemplate<String, Object> kafkaTemplate) {
+        this.mongoTemplate = mongoTemplate;
+        this.kafkaTemplate = kafkaTemplate;
+        Map<String, Object> producer = kafkaTemplate.getProducerFactory().getConfigurationProperties();
+        this.producerTimeoutMs = configuredMs(producer, ProducerConfig.MAX_BLOCK_MS_CONFIG, DEFAULT_MAX_BLOCK_MS)
+                + configuredMs(producer, ProducerConfig.DELIVERY_TIMEOUT_MS_CONFIG, DEFAULT_DELIVERY_TIMEOUT_MS);
+    }
+
+    @Scheduled(fixedDelayString = "${application.outbox.poll-interval-ms:500}")
+    public void relay() {
+        if (!acquireLease()) {
+            return;
+        }
+        // Keep draining while batches come back full and complete
+        while (relayBatch() == batchSize && acquireLease()) {
+            log.debug("Outbox batch relayed, draining further");
+        }
+    }
+
+    /** Sends one batch; returns the number of events deleted (sent, or stale). */
+    int relayBatch() {
+        List<OutboxEvent> batch = mongoTemplate.find(
+                new Query().with(Sort.by(Sort.Direction.ASC, "id")).limit(batchSize), OutboxEvent.class);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        Map<String, List<OutboxEvent>> byAggregate = new LinkedHashMap<>();
+        for (OutboxEvent event : batch) {
+            byAggregate.computeIfAbsent(aggregateKey(event), k -> new ArrayList<>()).add(event);
+        }
+
+        List<String> staleIds = new ArrayList<>();
+        Map<String, Long> relayed = relayedVersions(byAggregate);
+        byAggregate.replaceAll((key, events) -> inVersionOrder(events, relayed.get(key), staleIds));
+
+        List<String> sentIds = Collections.synchronizedList(new ArrayList<>());
+        AtomicBoolean stopped = new AtomicBoolean();
+        List<CompletableFuture<Void>> chains = new ArrayList<>();
+        for (List<OutboxEvent> events : byAggregate.values()) {
+            if (!events.isEmpty()) {
+                chains.add(sendInOrder(events, sentIds, stopped));
+            }
+        }
+
+        CompletableFuture<Void> all = CompletableFuture.allOf(chains.toArray(new CompletableFuture[0]));
+        try {
+            all.get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // No new sends, and the ones in flight are awaited: none may land after
+            // its row was left for the next batch, which would resend it out of order
+            stopped.set(true);
+            all.join();
+            log.warn("Outbox relay: {} of {} events acknowledged before timeout", sentIds.size(), batch.size());
+        } catch (InterruptedException e) {
+            stopped.set(true);
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            // Not expected: every chain handles its own failure
+            log.error("Outbox relay: unexpected failure - Error: {}", e.getMessage());
+        }
+
+        List<String> acknowledged;
+        synchronized (sentIds) {
+            acknowledged = new ArrayList<>(sentIds);
+        }
+        if (acknowledged.isEmpty() && staleIds.isEmpty()) {
+            return 0;
+        }
+        if (!acquireLease()) {
+            // Another replica took over (and may be resending these rows): leave them to it
+            log.warn("Outbox relay: lease lost during the batch, {} acknowledged events left in the outbox",
+                    acknowledged.size());
+            return 0;
+        }
+        recordRelayed(batch, acknowledged);
+        List<String> done = new ArrayList<>(acknowledged);
+        done.addAll(staleIds);
+        mongoTemplate.remove(query(where("id").in(done)), OutboxEvent.class);
+        return done.size();
+    }
+
+    /** Highest version already relayed, for the aggregates of the batch that carry one. */
+    private Map<String, Long> relayedVersions(Map<String, List<OutboxEvent>> byAggregate) {
+        List<String> versioned = byAggregate.entrySet().stream()
+                .filter(aggregate -> aggregate.getValue().stream().anyMatch(event -> event.getVersion() != null))
+                .map(Map.Entry::getKey)
+                .toList();
+        if (versioned.isEmpty()) {
+            return Map.of();
+        }
+        return mongoTemplate.find(query(where("id").in(versioned)), OutboxRelayed.class).stream()
+                .collect(Collectors.toMap(OutboxRelayed::getId, OutboxRelayed::getVersion));
+    }
+
+    /**
+     * The events of one aggregate sorted by version (unversioned ones keep
+     * their place at the end, in write order); those at or below the last
+     * version relayed, or repeating one, go to staleIds instead.
+     */
+    private static List<OutboxEvent> inVersionOrder(List<OutboxEvent> events, Long relayed, List<String> staleIds) {
+        List<OutboxEvent> sorted = new ArrayList<>(events);
+        sorted.sort(Comparator.comparing(OutboxEvent::getVersion, Comparator.nullsLast(Comparator.naturalOrder())));
+        List<OutboxEvent> kept = new ArrayList<>(sorted.size());
+        Long last = relayed;
+        for (OutboxEvent event : sorted) {
+            if (event.getVersion() != null && last != null && event.getVersion() <= last) {
+                staleIds.add(event.getId());
+                continue;
+            }
+            if (event.getVersion() != null) {
+                last = event.getVersion();
+            }
+            kept.add(event);
+        }
+        return kept;
+    }
+
+    private void recordRelayed(List<OutboxEvent> batch, List<String> acknowledged) {
+        Set<String> acknowledgedIds = new HashSet<>(acknowledged);
+        Map<String, Long> highest = new HashMap<>();
+        for (OutboxEvent event : batch) {
+            if (event.getVersion() != null && acknowledgedIds.contains(event.getId())) {
+                highest.merge(aggregateKey(event), event.getVersion(), Math::max);
+            }
+        }
+        if (highest.isEmpty()) {
+            return;
+        }
+        Instant now = Instant.now();
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, OutboxRelayed.class);
+        highest.forEach((key, version) -> bulk.upsert(query(where("id").is(key)),
+                new Update().max("version", version).set("relayedAt", now)));
+        bulk.execute();
+    }
+
+    private static String aggregateKey(OutboxEvent event) {
+        return event.getTopic() + "|" + event.getAggregateId();
+    }
+
+    private CompletableFuture<Void> sendInOrder(List<OutboxEvent> events, List<String> sentIds,
+            AtomicBoolean stopped) {
+        CompletableFuture<Void> chain = CompletableFuture.completedFuture(null);
+        for (OutboxEvent event : events) {
+            chain = chain.thenCompose(previous -> {
+                if (stopped.get()) {
+                    throw new CancellationException("Outbox batch timed out");
+                }
+                return kafkaTemplate.send(event.getTopic(), event.getAggregateId(), event.getPayload())
+                        .thenAccept(result -> sentIds.add(event.getId()));
+            });
+        }
+        return chain.exceptionally(exception -> {
+            if (stopped.get()) {
+                // Timed out: the rest of the aggregate waits for the next batch
+                return null;
+            }
+            log.error("Outbox relay: failed to publish for aggregate {} - Error: {}",
+                    events.get(0).getAggregateId(), exception.getMessage());
+            return null;
+        });
+    }
+
+    private boolean acquireLease() {
+        Instant now = Instant.now();
+        try {
+            mongoTemplate.upsert(
+                    query(where("id").is(LEASE_ID).orOperator(
+                            where("lockedUntil").lt(now),
+                            where("owner").is(instanceId))),
+                    new Update().set("owner", instanceId).set("lockedUntil", now.plusMillis(leaseMs())),
+                    OutboxRelayLease.class);
+            return true;
+        } catch (DuplicateKeyException e) {
+            // Held by another replica
+            return false;
+        }
+    }
+
+    long leaseMs() {
+        return sendTimeoutMs + producerTimeoutMs + leaseMarginMs;
+    }
+
+    private static long configuredMs(Map<String, Object> config, String key, long defaultMs) {
+        Object value = config.get(key);
+        return value == null ? defaultMs : Long.parseLong(value.toString());
+    }
+}
@@ -0,0 +1,25 @@
+package com.buy01.user.service;
+
+import com.buy01.user.model.OutboxEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+
+@Service
+@RequiredArgsConstructor
+public class OutboxService {
+
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * Queues an event for Kafka. Call it in the same service operation as the
+     * domain write, right after it: the request never waits on Kafka, and the
+     * event survives a broker outage.
+     */
+    public void append(String topic, String aggregateId, String eventType, Object payload) {
+        mongoTemplate.insert(new OutboxEvent(null, topic, aggregateId, null, eventType, payload,
+                LocalDateTime.now()));
+    }
+}
@@ -0,0 +1,25 @@
+package com.buy01.user.service;
+
+import com.buy01.user.dto.UserEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+/**
+ * Queues user events in the outbox; OutboxRelay sends them to the
+ * user-events topic, keyed by userId.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UserEventPublisher {
+
+    public static final String TOPIC = "user-events";
+
+    private final OutboxService outboxService;
+
+    public void publishUserDeleted(UserEvent event) {
+        log.info("Queuing user deleted event for user: {}", event.getUserId());
+        outboxService.append(TOPIC, event.getUserId(), event.getEventType(), event);
+    }
+}
@@ -4,6 +4,7 @@ import org.springframework.stereotype.Service;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import com.buy01.user.dto.UserEvent;
 import com.buy01.user.repository.UserRepository;
 import com.buy01.user.model.User;
 
@@ -17,6 +18,7 @@ import java.util.List;
 public class UserService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final UserEventPublisher userEventPublisher;
 
     
     public User createUser(User user) {
@@ -36,8 +38,12 @@ public class UserService {
         return userRepository.findByEmail(email).orElse(null);
     }
 
+    /** Deletes the user and queues USER_DELETED in the outbox. */
     public void deleteUser(String id) {
+        Optional<User> user = userRepository.findById(id);
         userRepository.deleteById(id);
+        user.ifPresent(u -> userEventPublisher.publishUserDeleted(
+                new UserEvent(u.getId(), "USER_DELETED", u.getRole() != null ? u.getRole().name() : null)));
     }
 
     public Boolean existsByEmail(String email) {
@@ -0,0 +1,21 @@
+package com.buy01.user.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class UserAuthControllerTest {
+
+    @Test
+    void testClientIp_trustsOnlyTheEntryAddedByTheGateway() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr("172.18.0.5");
+
+        assertEquals("172.18.0.5", UserAuthController.clientIp(request));
+
+        // Les entrées de gauche sont fournies par le client et changent à chaque tentative
+        request.addHeader("X-Forwarded-For", "1.2.3.4, 5.6.7.8,  203.0.113.9 ");
+        assertEquals("203.0.113.9", UserAuthController.clientIp(request));
+    }
+}
@@ -0,0 +1,32 @@
+package com.buy01.user.security;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LoginRateLimiterTest {
+
+    @Test
+    void testEmailBucket_isExhaustedAfterCapacity() {
+        LoginRateLimiter limiter = new LoginRateLimiter(4, 16, 3, 1, 100, 100);
+
+        assertTrue(limiter.tryAcquire("a@test.com", "10.0.0.1"));
+        assertTrue(limiter.tryAcquire("A@test.com", "10.0.0.2"));
+        assertTrue(limiter.tryAcquire("a@test.com", "10.0.0.3"));
+        assertFalse(limiter.tryAcquire("a@test.com", "10.0.0.4"));
+
+        // Un autre email n'est pas impacté
+        assertTrue(limiter.tryAcquire("b@test.com", "10.0.0.1"));
+    }
+
+    @Test
+    void testIpBucket_limitsAcrossEmails() {
+        LoginRateLimiter limiter = new LoginRateLimiter(4, 16, 100, 100, 2, 1);
+
+        assertTrue(limiter.tryAcquire("a@test.com", "10.0.0.1"));
+        assertTrue(limiter.tryAcquire("b@test.com", "10.0.0.1"));
+        assertFalse(limiter.tryAcquire("c@test.com", "10.0.0.1"));
+        assertTrue(limiter.tryAcquire("c@test.com", "10.0.0.2"));
+    }
+}